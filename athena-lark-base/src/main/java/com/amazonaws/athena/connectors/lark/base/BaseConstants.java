@@ -56,6 +56,45 @@ public final class BaseConstants
      */
     public static final String DOES_ACTIVATE_PARALLEL_SPLIT_ENV_VAR = "default_does_activate_parallel_split";
 
+    /**
+     * The environment variable which tells the split planner how many splits of one query Athena can usefully run
+     * at the same time (bounded by the record Lambda's reserved concurrency and Lark's rate limit). Parallel plans
+     * needing more splits than this run in waves, which the planner prices in when choosing between range splits,
+     * fewer wider sub-filtered splits, and a single split. Defaults to {@code DEFAULT_SPLIT_MAX_CONCURRENCY} if
+     * unset or not a positive integer.
+     */
+    public static final String SPLIT_MAX_CONCURRENCY_ENV_VAR = "default_split_max_concurrency";
+
+    /**
+     * Default value for {@link #SPLIT_MAX_CONCURRENCY_ENV_VAR} when the environment variable is not set.
+     */
+    public static final int DEFAULT_SPLIT_MAX_CONCURRENCY = 32;
+
+    /**
+     * The environment variable which caps how many Lark API calls table discovery keeps in flight at once while
+     * listing tables and fields across every configured base. Defaults to {@code DEFAULT_DISCOVERY_MAX_CONCURRENCY}
+     * if unset or not a positive integer.
+     */
+    public static final String DISCOVERY_MAX_CONCURRENCY_ENV_VAR = "default_discovery_max_concurrency";
+
+    /**
+     * Default value for {@link #DISCOVERY_MAX_CONCURRENCY_ENV_VAR} when the environment variable is not set.
+     */
+    public static final int DEFAULT_DISCOVERY_MAX_CONCURRENCY = 8;
+
+    /**
+     * Upper bound on the request rate table discovery issues against the Lark Open API, shared by all of its worker
+     * threads. Lark rate-limits the bitable list endpoints per app, so the discovery fan-out must stay below it
+     * regardless of how many threads are running; the ThrottlingInvoker still backs off if Lark throttles anyway.
+     */
+    public static final double LARK_DISCOVERY_MAX_REQUESTS_PER_SECOND = 20.0;
+
+    /**
+     * Default number of Lark Drive folders listed at the same time while walking a Drive source's folder tree, for
+     * callers that do not pass their own discovery concurrency.
+     */
+    public static final int DEFAULT_LARK_DRIVE_WALK_CONCURRENCY = 4;
+
     /**
      * The environment variable which is used to enable debug logging (verbose INFO logs).
      * When set to "true", all INFO logs will be shown. When "false" (default), only WARN and ERROR logs are shown.
@@ -89,6 +128,24 @@ public final class BaseConstants
      */
     public static final String LARK_DRIVE_SOURCES_ENV_VAR = "default_lark_drive_sources";
 
+    /**
+     * The environment variable which sets where the resolved Lark catalog snapshot is persisted, so new metadata
+     * Lambda containers can start from it instead of rediscovering every table. Accepts an {@code s3://bucket/prefix}
+     * URI, a local directory path (optionally as {@code file://...}), or {@code disabled}. When unset, the snapshot
+     * is kept under the spill bucket/prefix, and disabled if no spill bucket is configured either.
+     */
+    public static final String CATALOG_SNAPSHOT_LOCATION_ENV_VAR = "default_catalog_snapshot_location";
+
+    /**
+     * The Lambda configuration key holding the spill bucket, as set by the Athena federation deployment templates.
+     */
+    public static final String SPILL_BUCKET_ENV_VAR = "spill_bucket";
+
+    /**
+     * The Lambda configuration key holding the spill prefix, as set by the Athena federation deployment templates.
+     */
+    public static final String SPILL_PREFIX_ENV_VAR = "spill_prefix";
+
     /**
      * The environment variable which restricts, per schema, which tables the connector will expose.
      * When a schema has at least one entry here, only those tables are visible/queryable for that schema;
@@ -138,6 +195,12 @@ public final class BaseConstants
      */
     public static final String IS_PARALLEL_SPLIT_PROPERTY = "is_parallel_split";
 
+    /**
+     * The is filter batch split property that helps metadata handler and record handler communicate that a split reads
+     * one of several IN-list filter batches, whose filter must not be relaxed if Lark rejects it.
+     */
+    public static final String IS_FILTER_BATCH_SPLIT_PROPERTY = "is_filter_batch_split";
+
     /**
      * The split start index property that helps metadata handler and record handler communicate the split start index.
      */
@@ -209,4 +272,10 @@ public final class BaseConstants
      * This is constant for the default page size.
      */
     public static final int PAGE_SIZE = 500;
+
+    /**
+     * Maximum number of conditions pushed down in a single OR-group of a Search API filter. Larger IN-lists
+     * are split across several partitions, each carrying at most this many values.
+     */
+    public static final int MAX_FILTER_CONDITIONS_PER_GROUP = 50;
 }
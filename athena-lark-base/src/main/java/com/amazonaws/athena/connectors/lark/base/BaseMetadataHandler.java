@@ -50,19 +50,26 @@ import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connectors.lark.base.metadataProvider.ExperimentalMetadataProvider;
 import com.amazonaws.athena.connectors.lark.base.metadataProvider.LarkSourceMetadataProvider;
 import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
-import com.amazonaws.athena.connectors.lark.base.model.AthenaLarkBaseMapping;
 import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
 import com.amazonaws.athena.connectors.lark.base.model.PartitionInfoResult;
+import com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName;
 import com.amazonaws.athena.connectors.lark.base.model.TableDirectInitialized;
 import com.amazonaws.athena.connectors.lark.base.model.TableSchemaResult;
 import com.amazonaws.athena.connectors.lark.base.resolver.LarkBaseTableResolver;
+import com.amazonaws.athena.connectors.lark.base.resolver.LarkTableCatalog;
 import com.amazonaws.athena.connectors.lark.base.service.AthenaService;
+import com.amazonaws.athena.connectors.lark.base.service.CatalogSnapshotService;
 import com.amazonaws.athena.connectors.lark.base.service.EnvVarService;
+import com.amazonaws.athena.connectors.lark.base.service.FilterValidationService;
 import com.amazonaws.athena.connectors.lark.base.service.GlueCatalogService;
 import com.amazonaws.athena.connectors.lark.base.service.LarkBaseService;
 import com.amazonaws.athena.connectors.lark.base.service.LarkDriveService;
+import com.amazonaws.athena.connectors.lark.base.service.SplitPlanningService;
+import com.amazonaws.athena.connectors.lark.base.service.SplitPlanningService.SplitPlan;
 import com.amazonaws.athena.connectors.lark.base.translator.SearchApiFilterTranslator;
 import com.amazonaws.athena.connectors.lark.base.util.CommonUtil;
+import com.amazonaws.athena.connectors.lark.base.util.TableAccessFilter;
+import com.amazonaws.athena.connectors.lark.base.util.TableListingPaginator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.arrow.util.VisibleForTesting;
@@ -86,18 +93,21 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
-import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.BASE_ID_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.EXPECTED_ROW_COUNT_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.FILTER_EXPRESSION_PROPERTY;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.IS_FILTER_BATCH_SPLIT_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.IS_PARALLEL_SPLIT_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_BASE_FLAG;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_FIELD_NAME_MAPPING_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_FIELD_TYPE_MAPPING_PROPERTY;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.MAX_FILTER_CONDITIONS_PER_GROUP;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.PAGE_SIZE;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.PAGE_SIZE_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.RESERVED_SPLIT_KEY;
@@ -130,10 +140,13 @@ public class BaseMetadataHandler
     private LarkBaseService larkBaseService;
     private GlueCatalogService glueCatalogService;
     private ThrottlingInvoker invoker;
+    private FilterValidationService filterValidationService;
+    private SplitPlanningService splitPlanningService;
+    private volatile TableAccessFilter tableAccessFilter;
 
-    // Map to store discovered databases and their table
-    // Map<databaseName, Map<tableName, Set<columnNames>>>
-    private List<TableDirectInitialized> mappingTableDirectInitialized;
+    // Tables exposed from the Lark Base/Drive sources: names are resolved on first use, fields per table on
+    // first lookup (see LarkTableCatalog).
+    private LarkTableCatalog larkTableCatalog;
     private LarkSourceMetadataProvider larkSourceMetadataProvider;
     private ExperimentalMetadataProvider experimentalMetadataProvider;
 
@@ -146,7 +159,8 @@ public class BaseMetadataHandler
         this.invoker = ThrottlingInvoker.newDefaultBuilder(EXCEPTION_FILTER, configOptions).build();
         this.envVarService = new EnvVarService(configOptions, invoker);
         AthenaService athenaService = new AthenaService();
-        this.larkBaseService = new LarkBaseService(envVarService.getLarkAppId(), envVarService.getLarkAppSecret(), envVarService.getLookupMaxDepth());
+        this.larkBaseService = new LarkBaseService(envVarService.getLarkAppId(), envVarService.getLarkAppSecret(), envVarService.getLookupMaxDepth(),
+                envVarService.getDiscoveryMaxConcurrency());
         LarkDriveService larkDriveService = new LarkDriveService(envVarService.getLarkAppId(), envVarService.getLarkAppSecret());
         this.glueCatalogService = new GlueCatalogService(getAwsGlue());
         LarkBaseTableResolver larkBaseTableResolver = new LarkBaseTableResolver(
@@ -155,11 +169,18 @@ public class BaseMetadataHandler
                 larkDriveService,
                 this.invoker
         );
-        this.mappingTableDirectInitialized = larkBaseTableResolver.resolveTables();
+        // Nothing is read from Lark here: a cold start only pays for the names on the first list call or lookup,
+        // and for the fields of the tables a query actually touches - or, with a snapshot from an earlier
+        // container, for nothing at all until the snapshot is revalidated in the background.
+        this.larkTableCatalog = CatalogSnapshotService.fromConfig(envVarService)
+                .map(snapshotService -> LarkTableCatalog.warmStart(larkBaseTableResolver, snapshotService))
+                .orElseGet(() -> LarkTableCatalog.lazy(larkBaseTableResolver));
         this.experimentalMetadataProvider = new ExperimentalMetadataProvider(athenaService, larkBaseService, invoker);
-        this.larkSourceMetadataProvider = new LarkSourceMetadataProvider(mappingTableDirectInitialized);
+        this.larkSourceMetadataProvider = new LarkSourceMetadataProvider(larkTableCatalog);
+        this.filterValidationService = new FilterValidationService(larkBaseService, invoker);
+        this.splitPlanningService = new SplitPlanningService(larkBaseService, invoker);
         if (envVarService.isEnableDebugLogging()) {
-            logger.info("Initialization complete. Discovered {} target databases from metadata tables.", mappingTableDirectInitialized.size());
+            logger.info("Initialization complete. Lark tables will be resolved on first use.");
         }
     }
 
@@ -235,10 +256,12 @@ public class BaseMetadataHandler
         this.envVarService = envVarService;
         this.larkBaseService = larkBaseService;
         this.glueCatalogService = glueCatalogService;
-        this.mappingTableDirectInitialized = mappingTableDirectInitialized;
+        this.larkTableCatalog = LarkTableCatalog.preResolved(mappingTableDirectInitialized);
         this.larkSourceMetadataProvider = larkSourceMetadataProvider;
         this.experimentalMetadataProvider = experimentalMetadataProvider;
         this.invoker = invoker;
+        this.filterValidationService = new FilterValidationService(larkBaseService, invoker);
+        this.splitPlanningService = new SplitPlanningService(larkBaseService, invoker);
     }
 
     /**
@@ -267,21 +290,20 @@ public class BaseMetadataHandler
             logger.warn("doListSchemaNames: Unable to retrieve schemas from AWSGlue: {}", e.getMessage(), e);
         }
 
-        if ((envVarService.isActivateLarkBaseSource() || envVarService.isActivateLarkDriveSource()) && !mappingTableDirectInitialized.isEmpty()) {
+        if ((envVarService.isActivateLarkBaseSource() || envVarService.isActivateLarkDriveSource()) && !larkTableCatalog.getSchemaNames().isEmpty()) {
             if (envVarService.isEnableDebugLogging()) {
                 logger.info("doListSchemaNames: Attempting to retrieve schemas from Lark Base.");
             }
-            for (TableDirectInitialized entry : mappingTableDirectInitialized) {
-                AthenaLarkBaseMapping dbMapping = entry.database();
-
-                if (schemas.stream().anyMatch(database -> database.equalsIgnoreCase(dbMapping.athenaName()))) {
+            Set<String> glueSchemasLower = schemas.stream().map(schema -> schema.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            for (String larkSchema : larkTableCatalog.getSchemaNames()) {
+                if (glueSchemasLower.contains(larkSchema.toLowerCase(Locale.ROOT))) {
                     if (envVarService.isEnableDebugLogging()) {
-                        logger.info("Database name {} is exist in glue, skipping", dbMapping.athenaName());
+                        logger.info("Database name {} is exist in glue, skipping", larkSchema);
                     }
                     continue;
                 }
 
-                schemas.add(dbMapping.athenaName());
+                schemas.add(larkSchema);
             }
         }
 
@@ -290,7 +312,8 @@ public class BaseMetadataHandler
 
     /**
      * Used to get a paginated list of tables that this source contains within a specific schema (database).
-     * It retrieves tables primarily from AWS Glue.
+     * The Lark tables of the schema and its Glue tables are paged through as one merged listing; see
+     * {@link TableListingPaginator} for the order and the format of the continuation token.
      *
      * @param allocator Tool for creating and managing Apache Arrow Blocks.
      * @param request Provides details on who made the request and which Athena catalog and database they are querying.
@@ -308,52 +331,14 @@ public class BaseMetadataHandler
             logger.info("doListTables: enter - schema: {}}", requestedSchema);
         }
 
-        Set<TableName> combinedTables = new LinkedHashSet<>();
-
-        // 1. Take ALL tables from Glue ONLY on the first call
-        try {
-            // does not validate that the tables are actually DDB tables
-            combinedTables.addAll(super.doListTables(allocator, new ListTablesRequest(request.getIdentity(), request.getQueryId(), request.getCatalogName(),
-                    request.getSchemaName(), null, UNLIMITED_PAGE_SIZE_VALUE), TABLE_FILTER).getTables());
-        }
-        catch (RuntimeException e) {
-            logger.warn("doListTables: Unable to retrieve tables from AWSGlue in database/schema {}", request.getSchemaName(), e);
-        }
-
-        // 2. Always add tables from Lark mapping if the feature is active
-        // (This will add the same tables again if they are in Glue, but Set will handle duplicates)
+        // Lark tables come from the in-memory catalog; Glue is only read as far as the requested page needs.
+        List<TableName> larkTables = new ArrayList<>();
         if (envVarService.isActivateLarkBaseSource() || envVarService.isActivateLarkDriveSource()) {
-            if (envVarService.isEnableDebugLogging()) {
-                logger.info("doListTables: Checking Lark Base source mapping. envVarService.isActivateLarkBaseSource()={}, mappingTableDirectInitialized empty={}",
-                        true, mappingTableDirectInitialized.isEmpty());
-            }
-            if (!mappingTableDirectInitialized.isEmpty()) {
-                int larkTablesAddedCount = 0;
-                for (TableDirectInitialized entry : mappingTableDirectInitialized) {
-                    AthenaLarkBaseMapping dbMapping = entry.database();
-                    if (dbMapping.athenaName().equalsIgnoreCase(requestedSchema)) {
-                        if (envVarService.isEnableDebugLogging()) {
-                            logger.info("doListTables: Found matching schema in mapping: {}", dbMapping.athenaName());
-                        }
-                        AthenaLarkBaseMapping tableMapping = entry.table();
-                        TableName tableName = new TableName(dbMapping.athenaName(), tableMapping.athenaName());
-                        boolean added = combinedTables.add(tableName);
-                        if (added) {
-                            larkTablesAddedCount++;
-                            if (envVarService.isEnableDebugLogging()) {
-                                logger.info("doListTables: Added table from mapping: {}", tableName);
-                            }
-                        }
-                    }
-                }
-                if (envVarService.isEnableDebugLogging()) {
-                    logger.info("doListTables: Finished checking Lark mapping. Added {} unique tables from mapping for schema {}.", larkTablesAddedCount, requestedSchema);
-                }
+            for (ResolvedTableName entry : larkTableCatalog.getTableNames(requestedSchema)) {
+                larkTables.add(new TableName(entry.database().athenaName(), entry.table().athenaName()));
             }
-            else {
-                if (envVarService.isEnableDebugLogging()) {
-                    logger.info("doListTables: Lark mapping is empty. No tables added from mapping.");
-                }
+            if (envVarService.isEnableDebugLogging()) {
+                logger.info("doListTables: Lark mapping has {} tables for schema {}.", larkTables.size(), requestedSchema);
             }
         }
         else {
@@ -362,14 +347,29 @@ public class BaseMetadataHandler
             }
         }
 
-        combinedTables.removeIf(tableName -> !isTableAccessAllowed(tableName.getSchemaName(), tableName.getTableName()));
+        TableListingPaginator.GlueTableLister glueLister = (glueToken, maxResults) -> {
+            // does not validate that the tables are actually DDB tables
+            ListTablesResponse glueResponse = super.doListTables(allocator, new ListTablesRequest(request.getIdentity(), request.getQueryId(),
+                    request.getCatalogName(), requestedSchema, glueToken, maxResults), TABLE_FILTER);
+            return new TableListingPaginator.GluePage(glueResponse.getTables(), glueResponse.getNextToken());
+        };
+
+        TableListingPaginator.Page page;
+        try {
+            page = TableListingPaginator.page(requestedSchema, larkTables, glueLister, this::isTableAccessAllowed,
+                    request.getNextToken(), request.getPageSize());
+        }
+        catch (IllegalArgumentException e) {
+            throw new AthenaConnectorException(e.getMessage(),
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
+        }
 
         if (envVarService.isEnableDebugLogging()) {
-            logger.info("doListTables: exit - returning {} tables for schema {}",
-                    combinedTables.size(), requestedSchema);
+            logger.info("doListTables: exit - returning {} tables for schema {}, next token: {}",
+                    page.tables().size(), requestedSchema, page.nextToken());
         }
 
-        return new ListTablesResponse(request.getCatalogName(), new ArrayList<>(combinedTables), null);
+        return new ListTablesResponse(request.getCatalogName(), page.tables(), page.nextToken());
     }
 
     /**
@@ -382,9 +382,24 @@ public class BaseMetadataHandler
      */
     private boolean isTableAccessAllowed(String schemaName, String tableName)
     {
-        Map<String, Set<String>> whitelistTables = CommonUtil.parseSchemaTableGrouping(envVarService.getWhitelistTables());
-        Map<String, Set<String>> blacklistTables = CommonUtil.parseSchemaTableGrouping(envVarService.getBlacklistTables());
-        return CommonUtil.isTableAccessAllowed(schemaName, tableName, whitelistTables, blacklistTables);
+        return tableAccessFilter().isAllowed(schemaName, tableName);
+    }
+
+    /**
+     * @return the compiled whitelist/blacklist matcher, shared by table listing and lookups. It is only
+     * recompiled if the raw settings it was compiled from change, which in practice means never.
+     */
+    @VisibleForTesting
+    TableAccessFilter tableAccessFilter()
+    {
+        String whitelistTables = envVarService.getWhitelistTables();
+        String blacklistTables = envVarService.getBlacklistTables();
+        TableAccessFilter filter = tableAccessFilter;
+        if (filter == null || !filter.isCompiledFrom(whitelistTables, blacklistTables)) {
+            filter = TableAccessFilter.compile(whitelistTables, blacklistTables);
+            tableAccessFilter = filter;
+        }
+        return filter;
     }
 
     /**
@@ -490,6 +505,7 @@ public class BaseMetadataHandler
 
                 // Split Property
                 .addBitField(IS_PARALLEL_SPLIT_PROPERTY)
+                .addBitField(IS_FILTER_BATCH_SPLIT_PROPERTY)
                 .addBigIntField(SPLIT_START_INDEX_PROPERTY)
                 .addBigIntField(SPLIT_END_INDEX_PROPERTY)
                 .addStringField(LARK_FIELD_TYPE_MAPPING_PROPERTY)
@@ -591,28 +607,53 @@ public class BaseMetadataHandler
         }
     }
 
-    private String translateFilterExpression(GetTableLayoutRequest request, List<AthenaFieldLarkBaseMapping> fieldNameMappings, TableName tableName)
+    /**
+     * Translates the request's constraints into Search API filters. Usually this yields at most one filter; an
+     * IN-clause too large for a single request (see {@link SearchApiFilterTranslator#toFilterJsonBatches}) yields
+     * one filter per bounded chunk of values, each of which gets its own partition.
+     */
+    private List<String> translateFilterExpressions(GetTableLayoutRequest request, List<AthenaFieldLarkBaseMapping> fieldNameMappings, TableName tableName)
     {
         if (request.getConstraints() == null || request.getConstraints().getSummary() == null || request.getConstraints().getSummary().isEmpty()) {
             logger.info("getPartitions: No constraints to translate for {}", tableName);
-            return "";
+            return Collections.emptyList();
         }
 
         if (fieldNameMappings == null || fieldNameMappings.isEmpty()) {
-            return "";
+            return Collections.emptyList();
         }
 
         try {
-            String filterExpression = SearchApiFilterTranslator.toFilterJson(request.getConstraints().getSummary(), fieldNameMappings);
-            logger.info("getPartitions: Translated filter constraints for {}: {}", tableName, filterExpression);
-            return filterExpression;
+            List<String> filterExpressions = SearchApiFilterTranslator.toFilterJsonBatches(
+                    request.getConstraints().getSummary(), fieldNameMappings, MAX_FILTER_CONDITIONS_PER_GROUP);
+            logger.info("getPartitions: Translated filter constraints for {} into {} filter(s): {}", tableName, filterExpressions.size(), filterExpressions);
+            return filterExpressions;
         }
         catch (Exception e) {
             logger.warn("getPartitions: Failed to translate filter constraints for {}: {}. Proceeding with empty filter.", tableName, e.getMessage(), e);
-            return "";
+            return Collections.emptyList();
         }
     }
 
+    /**
+     * Narrows each translated filter down to what Lark accepts for this table (see {@link FilterValidationService}).
+     * Narrowing can make IN-list batches identical (e.g. when the IN-clause itself is what Lark rejects), so the
+     * result is de-duplicated: reading the same filter in two partitions would return every matching row twice.
+     */
+    private List<String> validateFilterExpressions(String baseId, String tableId, List<String> filterExpressions,
+                                                   List<AthenaFieldLarkBaseMapping> fieldNameMappings)
+    {
+        Set<String> pushableFilters = new LinkedHashSet<>();
+        for (String filterExpression : filterExpressions) {
+            pushableFilters.add(filterValidationService.toPushableFilter(baseId, tableId, filterExpression, fieldNameMappings));
+        }
+
+        if (pushableFilters.size() == 1 && pushableFilters.contains("")) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(pushableFilters);
+    }
+
     private boolean hasParallelSplitKey(List<AthenaFieldLarkBaseMapping> fieldNameMappings)
     {
         if (fieldNameMappings == null) {
@@ -661,24 +702,37 @@ public class BaseMetadataHandler
         return totalRowCount;
     }
 
-    private void writeParallelPartitions(BlockWriter blockWriter, String baseId, String tableId,
+    /**
+     * Writes one partition per {@code rangeWidth}-wide range of {@code $reserved_split_key}. With page-sized ranges
+     * each split reads a single page; wider ranges (the sub-filtered plan) paginate through the filtered rows
+     * inside their range. A LIMIT only bounds the key range when there is no filter: with a filter the matching
+     * rows can sit anywhere in the table.
+     */
+    private void writeParallelPartitions(BlockWriter blockWriter, String queryId, String baseId, String tableId,
                                          String filterExpression, String fieldTypeMappingJson,
-                                         String fieldNameMappingJson, long queryLimit, boolean hasOrderBy)
+                                         String fieldNameMappingJson, long queryLimit, boolean hasOrderBy, long rangeWidth)
     {
-        int totalRowCount = getTotalRowCount(baseId, tableId, null);
-        long effectiveRowCount = calculateEffectiveRowCount(totalRowCount, queryLimit, hasOrderBy);
+        int totalRowCount = getTotalRowCount(queryId, baseId, tableId, null);
+        if (totalRowCount == SplitPlanningService.UNKNOWN_ROW_COUNT) {
+            logger.info("getPartitions: Table row count unknown, falling back to a single partition.");
+            writeSinglePartition(blockWriter, queryId, baseId, tableId, filterExpression, "", fieldTypeMappingJson,
+                    fieldNameMappingJson, queryLimit, true, hasOrderBy);
+            return;
+        }
+        boolean hasFilter = filterExpression != null && !filterExpression.isEmpty();
+        long effectiveRowCount = hasFilter ? totalRowCount : calculateEffectiveRowCount(totalRowCount, queryLimit, hasOrderBy);
 
         if (effectiveRowCount == 0 && totalRowCount > 0) {
             logger.info("getPartitions: Effective row count is 0 due to LIMIT, writing no partitions.");
             return;
         }
 
-        int numSplits = (int) Math.ceil((double) effectiveRowCount / PAGE_SIZE);
-        logger.info("getPartitions: Writing {} parallel partition rows for {} effective rows.", numSplits, effectiveRowCount);
+        int numSplits = (int) Math.ceil((double) effectiveRowCount / rangeWidth);
+        logger.info("getPartitions: Writing {} parallel partition rows of width {} for {} effective rows.", numSplits, rangeWidth, effectiveRowCount);
 
         for (int i = 0; i < numSplits; i++) {
-            final long startIndex = (long) i * PAGE_SIZE + 1;
-            final long endIndex = Math.min((long) (i + 1) * PAGE_SIZE, effectiveRowCount);
+            final long startIndex = (long) i * rangeWidth + 1;
+            final long endIndex = Math.min((long) (i + 1) * rangeWidth, effectiveRowCount);
             final long currentSplitRowCount = endIndex - startIndex + 1;
 
             blockWriter.writeRows((block, rowNum) -> {
@@ -699,12 +753,15 @@ public class BaseMetadataHandler
         logger.info("getPartitions: Successfully wrote {} parallel partition rows.", numSplits);
     }
 
-    private void writeSinglePartition(BlockWriter blockWriter, String baseId, String tableId,
+    private void writeSinglePartition(BlockWriter blockWriter, String queryId, String baseId, String tableId,
                                       String filterExpression, String sortExpression, String fieldTypeMappingJson,
                                       String fieldNameMappingJson, long queryLimit, boolean useParallelSplits, boolean hasOrderBy)
     {
-        int totalRowCount = getTotalRowCount(baseId, tableId, filterExpression);
-        long effectiveRowCount = calculateEffectiveRowCount(totalRowCount, queryLimit, useParallelSplits && hasOrderBy);
+        int totalRowCount = getTotalRowCount(queryId, baseId, tableId, filterExpression);
+        // An expected row count of 0 leaves the split uncapped, which is the only safe choice when the count is unknown.
+        long effectiveRowCount = totalRowCount == SplitPlanningService.UNKNOWN_ROW_COUNT
+                ? 0
+                : calculateEffectiveRowCount(totalRowCount, queryLimit, useParallelSplits && hasOrderBy);
 
         if (effectiveRowCount == 0 && totalRowCount > 0) {
             logger.info("getPartitions: Effective row count is 0 due to LIMIT, writing no partitions.");
@@ -712,48 +769,67 @@ public class BaseMetadataHandler
         }
 
         logger.info("getPartitions: Writing 1 single partition row.");
-        final int finalExpectedRowCount = (int) effectiveRowCount;
+        writeFilteredPartitionRow(blockWriter, baseId, tableId, filterExpression, sortExpression, (int) effectiveRowCount,
+                false, fieldTypeMappingJson, fieldNameMappingJson);
+        logger.info("getPartitions: Successfully wrote 1 single partition row.");
+    }
 
+    private void writeFilteredPartitionRow(BlockWriter blockWriter, String baseId, String tableId, String filterExpression,
+                                           String sortExpression, int expectedRowCount, boolean isFilterBatchSplit,
+                                           String fieldTypeMappingJson, String fieldNameMappingJson)
+    {
         blockWriter.writeRows((block, rowNum) -> {
             BlockUtils.setValue(block.getFieldVector(BASE_ID_PROPERTY), rowNum, baseId);
             BlockUtils.setValue(block.getFieldVector(TABLE_ID_PROPERTY), rowNum, tableId);
             BlockUtils.setValue(block.getFieldVector(FILTER_EXPRESSION_PROPERTY), rowNum, filterExpression);
             BlockUtils.setValue(block.getFieldVector(SORT_EXPRESSION_PROPERTY), rowNum, sortExpression);
             BlockUtils.setValue(block.getFieldVector(PAGE_SIZE_PROPERTY), rowNum, PAGE_SIZE);
-            BlockUtils.setValue(block.getFieldVector(EXPECTED_ROW_COUNT_PROPERTY), rowNum, finalExpectedRowCount);
+            BlockUtils.setValue(block.getFieldVector(EXPECTED_ROW_COUNT_PROPERTY), rowNum, expectedRowCount);
             BlockUtils.setValue(block.getFieldVector(IS_PARALLEL_SPLIT_PROPERTY), rowNum, false);
+            BlockUtils.setValue(block.getFieldVector(IS_FILTER_BATCH_SPLIT_PROPERTY), rowNum, isFilterBatchSplit);
             BlockUtils.setValue(block.getFieldVector(SPLIT_START_INDEX_PROPERTY), rowNum, 0L);
             BlockUtils.setValue(block.getFieldVector(SPLIT_END_INDEX_PROPERTY), rowNum, 0L);
             BlockUtils.setValue(block.getFieldVector(LARK_FIELD_TYPE_MAPPING_PROPERTY), rowNum, fieldTypeMappingJson);
             BlockUtils.setValue(block.getFieldVector(LARK_FIELD_NAME_MAPPING_PROPERTY), rowNum, fieldNameMappingJson);
             return 1;
         });
-        logger.info("getPartitions: Successfully wrote 1 single partition row.");
     }
 
-    private int getTotalRowCount(String baseId, String tableId, String filterExpression)
+    /**
+     * Writes one single-range partition per filter batch of an oversize IN-clause. Each batch already narrows the
+     * table down to a bounded set of keys, so positional parallel splitting on top of it would only multiply the
+     * number of mostly-empty splits; the batches themselves are what Athena reads in parallel. The translator
+     * only chunks IN-lists whose batches match disjoint sets of records, so no record is returned by more than
+     * one partition. The partitions are flagged as filter batches so that a batch whose filter Lark rejects fails,
+     * rather than falling back to the unfiltered read every other batch would then repeat.
+     * <p>
+     * The batches are not row-counted: one count per batch would be a serial Search API round trip each before
+     * the query could start, only to cap splits that the IN-list already bounds. A LIMIT still caps every batch,
+     * as it does a single unsplit partition, since any one batch may hold all the rows Athena needs.
+     */
+    private void writeFilterBatchPartitions(BlockWriter blockWriter, String baseId, String tableId,
+                                            List<String> filterExpressions, String sortExpression, String fieldTypeMappingJson,
+                                            String fieldNameMappingJson, long queryLimit)
     {
-        try {
-            com.amazonaws.athena.connectors.lark.base.model.request.TableRecordsRequest request =
-                    com.amazonaws.athena.connectors.lark.base.model.request.TableRecordsRequest.builder()
-                            .baseId(baseId)
-                            .tableId(tableId)
-                            .pageSize(1)
-                            .filterJson(filterExpression)
-                            .sortJson("")
-                            .build();
-
-            int total = invoker.invoke(() -> larkBaseService.getTableRecords(request)).getTotal();
-            logger.info("getPartitions: Estimated total row count matching filter: {}", total);
-            return total;
+        if (queryLimit == 0) {
+            logger.info("getPartitions: Effective row count is 0 due to LIMIT, writing no partitions.");
+            return;
         }
-        catch (Exception e) {
-            logger.warn("getPartitions: Failed to estimate row count for partition planning with filter '{}'. Assuming no matching rows: {}",
-                    filterExpression, e.getMessage());
-            return 0; // Return 0 instead of throwing exception when filter doesn't match any records
+        // An expected row count of 0 leaves the split uncapped.
+        int expectedRowCount = queryLimit > 0 ? (int) Math.min(queryLimit, Integer.MAX_VALUE) : 0;
+
+        logger.info("getPartitions: Writing {} IN-list batch partitions for {}.{}", filterExpressions.size(), baseId, tableId);
+        for (String filterExpression : filterExpressions) {
+            writeFilteredPartitionRow(blockWriter, baseId, tableId, filterExpression, sortExpression, expectedRowCount,
+                    true, fieldTypeMappingJson, fieldNameMappingJson);
         }
     }
 
+    private int getTotalRowCount(String queryId, String baseId, String tableId, String filterExpression)
+    {
+        return splitPlanningService.getRowCount(queryId, baseId, tableId, filterExpression);
+    }
+
     /**
      * Determines the partition details for the request. For Lark Base, this involves
      * finding the correct Base ID and Table ID, translating constraints and ordering,
@@ -794,65 +870,66 @@ public class BaseMetadataHandler
         long queryLimit = extractQueryLimit(request);
         String fieldTypeMappingJson = buildFieldTypeMappingJson(fieldNameMappings, tableName);
         String fieldNameMappingJson = buildFieldNameMappingJson(fieldNameMappings, tableName);
-        String filterExpression = translateFilterExpression(request, fieldNameMappings, tableName);
+        List<String> filterExpressions = validateFilterExpressions(baseId, tableId,
+                translateFilterExpressions(request, fieldNameMappings, tableName), fieldNameMappings);
 
         boolean useParallelSplits = hasParallelSplitKey(fieldNameMappings);
         boolean hasOrderBy = hasOrderByClause(request);
         String sortExpression = translateSortExpression(request, fieldNameMappings, useParallelSplits, hasOrderBy, tableName);
 
-        boolean shouldUseParallelSplits = shouldUseParallelSplits(useParallelSplits, baseId, tableId, filterExpression, tableName);
+        if (filterExpressions.size() > 1) {
+            writeFilterBatchPartitions(blockWriter, baseId, tableId, filterExpressions, sortExpression,
+                    fieldTypeMappingJson, fieldNameMappingJson, queryLimit);
+            return;
+        }
 
-        if (shouldUseParallelSplits) {
-            writeParallelPartitions(blockWriter, baseId, tableId, filterExpression, fieldTypeMappingJson,
-                    fieldNameMappingJson, queryLimit, hasOrderBy);
+        String filterExpression = filterExpressions.isEmpty() ? "" : filterExpressions.get(0);
+
+        SplitPlan splitPlan = planSplits(useParallelSplits, request.getQueryId(), baseId, tableId, filterExpression, tableName);
+
+        if (splitPlan.isParallel()) {
+            writeParallelPartitions(blockWriter, request.getQueryId(), baseId, tableId, filterExpression, fieldTypeMappingJson,
+                    fieldNameMappingJson, queryLimit, hasOrderBy, splitPlan.rangeWidth());
         }
         else {
-            writeSinglePartition(blockWriter, baseId, tableId, filterExpression, sortExpression,
+            writeSinglePartition(blockWriter, request.getQueryId(), baseId, tableId, filterExpression, sortExpression,
                     fieldTypeMappingJson, fieldNameMappingJson, queryLimit, useParallelSplits, hasOrderBy);
         }
     }
 
     /**
-     * Decides whether to actually use parallel splitting for this query, on top of whether the table
-     * structurally supports it ({@code tableHasParallelSplitKey}) and the feature is enabled.
+     * Decides how to split this query, on top of whether the table structurally supports parallel splitting
+     * ({@code tableHasParallelSplitKey}) and the feature is enabled.
      * <p>
-     * Parallel splitting is planned using the table's FULL row count (see {@link #writeParallelPartitions}),
-     * because {@code $reserved_split_key} is a positional index over the whole table, not over filtered
-     * results - a selective filter can match rows anywhere in that key range, so splits must still cover it
-     * entirely to stay correct. That means a highly selective filter (e.g. {@code WHERE id = 'x'}) would
-     * otherwise spawn just as many splits as an unfiltered scan, with nearly all of them returning zero rows.
-     * When a filter is present, this checks its actual selectivity first: if the matching row count already
-     * fits in a single page, parallelizing has no benefit, so this returns false and the caller falls back to
-     * the single-partition path, which applies the filter correctly across the whole table via normal
-     * pagination without needing any positional range math.
+     * {@code $reserved_split_key} is a positional index over the whole table, not over filtered results, so
+     * parallel ranges must cover the full key space to stay correct even when a filter matches only a few rows.
+     * Whether that pays off depends on the filter's selectivity, the table's Search API latency and how many
+     * splits can run at once; {@link SplitPlanningService} prices the alternatives and picks the cheapest. The
+     * decision and its estimates are logged as one line so they can be charted with a log metric filter.
      *
      * @param tableHasParallelSplitKey whether the table's schema has a {@code $reserved_split_key} column
+     * @param queryId the Athena query ID, scoping the cached row counts
      * @param baseId the Lark Base ID
      * @param tableId the Lark table ID
      * @param filterExpression the translated filter for this query, or an empty string if there is none
      * @param tableName used for logging only
-     * @return true if parallel splitting should be used for this query
+     * @return the split plan for this query
      */
     @VisibleForTesting
-    protected boolean shouldUseParallelSplits(boolean tableHasParallelSplitKey, String baseId, String tableId,
-                                              String filterExpression, TableName tableName)
+    protected SplitPlan planSplits(boolean tableHasParallelSplitKey, String queryId, String baseId, String tableId,
+                                   String filterExpression, TableName tableName)
     {
         if (!tableHasParallelSplitKey || !envVarService.isActivateParallelSplit()) {
-            return false;
-        }
-
-        if (filterExpression == null || filterExpression.isEmpty()) {
-            return true;
-        }
-
-        int filteredRowCount = getTotalRowCount(baseId, tableId, filterExpression);
-        if (filteredRowCount <= PAGE_SIZE) {
-            logger.info("getPartitions: Filter for table {} matches only {} row(s), which fits in a single "
-                    + "page. Skipping parallel split planning in favor of a single partition.", tableName, filteredRowCount);
-            return false;
+            return SplitPlan.single(SplitPlanningService.UNKNOWN_ROW_COUNT);
         }
 
-        return true;
+        SplitPlan plan = splitPlanningService.plan(queryId, baseId, tableId, filterExpression, envVarService.getSplitMaxConcurrency());
+        logger.info("getPartitions: split plan for table {}: strategy={} splits={} rangeWidth={} filteredRows={} totalRows={} "
+                        + "pageLatencyMs={} singleCostMs={} rangeCostMs={} subFilteredCostMs={}",
+                tableName, plan.strategy(), plan.splitCount(), plan.rangeWidth(), plan.filteredRowCount(), plan.totalRowCount(),
+                Math.round(plan.pageLatencyMs()), Math.round(plan.singleCostMs()), Math.round(plan.rangeCostMs()),
+                Math.round(plan.subFilteredCostMs()));
+        return plan;
     }
 
     /**
@@ -895,6 +972,7 @@ public class BaseMetadataHandler
         FieldReader pageSizeReader = partitions.getFieldReader(PAGE_SIZE_PROPERTY);
         FieldReader expectedCountReader = partitions.getFieldReader(EXPECTED_ROW_COUNT_PROPERTY);
         FieldReader isParallelReader = partitions.getFieldReader(IS_PARALLEL_SPLIT_PROPERTY);
+        FieldReader isFilterBatchReader = partitions.getFieldReader(IS_FILTER_BATCH_SPLIT_PROPERTY);
         FieldReader startIndexReader = partitions.getFieldReader(SPLIT_START_INDEX_PROPERTY);
         FieldReader endIndexReader = partitions.getFieldReader(SPLIT_END_INDEX_PROPERTY);
         FieldReader larkFieldTypeMappingReader = partitions.getFieldReader(LARK_FIELD_TYPE_MAPPING_PROPERTY);
@@ -910,6 +988,7 @@ public class BaseMetadataHandler
             int pageSizeFromPartition = FieldReaderUtil.readInt(pageSizeReader, rowNum);
             long expectedRowCountFromPartition = FieldReaderUtil.readInt(expectedCountReader, rowNum);
             boolean isParallelSplit = FieldReaderUtil.readBoolean(isParallelReader, rowNum);
+            boolean isFilterBatchSplit = FieldReaderUtil.readBoolean(isFilterBatchReader, rowNum);
             long splitStartIndex = FieldReaderUtil.readLong(startIndexReader, rowNum);
             long splitEndIndex = FieldReaderUtil.readLong(endIndexReader, rowNum);
             String larkFieldTypeMappingJson = FieldReaderUtil.readText(larkFieldTypeMappingReader, rowNum);
@@ -939,6 +1018,7 @@ public class BaseMetadataHandler
                     .add(PAGE_SIZE_PROPERTY, String.valueOf(pageSizeForSplit))
                     .add(EXPECTED_ROW_COUNT_PROPERTY, String.valueOf(finalExpectedRowCount))
                     .add(IS_PARALLEL_SPLIT_PROPERTY, String.valueOf(isParallelSplit))
+                    .add(IS_FILTER_BATCH_SPLIT_PROPERTY, String.valueOf(isFilterBatchSplit))
                     .add(SPLIT_START_INDEX_PROPERTY, String.valueOf(splitStartIndex))
                     .add(SPLIT_END_INDEX_PROPERTY, String.valueOf(splitEndIndex))
                     .add(LARK_FIELD_TYPE_MAPPING_PROPERTY, larkFieldTypeMappingJson)
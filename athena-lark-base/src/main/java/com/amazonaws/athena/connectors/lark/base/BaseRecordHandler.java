@@ -67,6 +67,7 @@ import java.util.NoSuchElementException;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.BASE_ID_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.EXPECTED_ROW_COUNT_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.FILTER_EXPRESSION_PROPERTY;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.IS_FILTER_BATCH_SPLIT_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.IS_PARALLEL_SPLIT_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_FIELD_NAME_MAPPING_PROPERTY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_FIELD_TYPE_MAPPING_PROPERTY;
@@ -197,6 +198,7 @@ public class BaseRecordHandler extends RecordHandler
             int pageSizeForApi = Integer.parseInt(split.getProperty(PAGE_SIZE_PROPERTY));
             int expectedRowCountForSplit = Integer.parseInt(split.getProperty(EXPECTED_ROW_COUNT_PROPERTY));
             boolean isParallelSplit = Boolean.parseBoolean(split.getProperties().getOrDefault(IS_PARALLEL_SPLIT_PROPERTY, "false"));
+            boolean isFilterBatchSplit = Boolean.parseBoolean(split.getProperties().getOrDefault(IS_FILTER_BATCH_SPLIT_PROPERTY, "false"));
             long splitStartIndex = Long.parseLong(split.getProperties().getOrDefault(SPLIT_START_INDEX_PROPERTY, "0"));
             long splitEndIndex = Long.parseLong(split.getProperties().getOrDefault(SPLIT_END_INDEX_PROPERTY, "0"));
 
@@ -208,6 +210,7 @@ public class BaseRecordHandler extends RecordHandler
                     pageSizeForApi,
                     expectedRowCountForSplit,
                     isParallelSplit,
+                    isFilterBatchSplit,
                     splitStartIndex,
                     splitEndIndex,
                     originalFilterExpression,
@@ -495,6 +498,30 @@ public class BaseRecordHandler extends RecordHandler
             String originalFilterExpression,
             String originalSortExpression,
             Map<String, String> fieldNameToAthenaNameMap)
+    {
+        return getIterator(baseId, tableId, pageSizeForApi, expectedRowCountForSplit, isParallelSplit, false,
+                splitStartIndex, splitEndIndex, originalFilterExpression, originalSortExpression, fieldNameToAthenaNameMap);
+    }
+
+    /**
+     * Same as {@link #getIterator(String, String, int, int, boolean, long, long, String, String, Map)}, for a split
+     * that may be one of several IN-list filter batches.
+     *
+     * @param isFilterBatchSplit Indicates if the split reads one batch of an oversize IN-list, in which case a
+     *                           rejected filter fails the split instead of being relaxed.
+     */
+    protected Iterator<Map<String, Object>> getIterator(
+            String baseId,
+            String tableId,
+            int pageSizeForApi,
+            int expectedRowCountForSplit,
+            boolean isParallelSplit,
+            boolean isFilterBatchSplit,
+            long splitStartIndex,
+            long splitEndIndex,
+            String originalFilterExpression,
+            String originalSortExpression,
+            Map<String, String> fieldNameToAthenaNameMap)
     {
         return new Iterator<>()
         {
@@ -503,23 +530,56 @@ public class BaseRecordHandler extends RecordHandler
             private boolean hasMorePages = true;
             private int currentFetchDataCount = 0;
             private int emittedCount = 0;
-            private final String finalFilterExpression = buildFinalFilter();
+            // Both may be relaxed once by the rejected-filter fallback in fetchNextPage().
+            private int rowCountCap = expectedRowCountForSplit;
+            private String finalFilterExpression = buildFinalFilter(originalFilterExpression);
             private final String finalSortExpression = isParallelSplit && envVarService.isActivateParallelSplit() ? "" : originalSortExpression;
 
-            private String buildFinalFilter()
+            private String buildFinalFilter(String filterExpression)
             {
                 if (isParallelSplit && envVarService.isActivateParallelSplit()) {
                     return SearchApiFilterTranslator.toSplitFilterJson(
-                            originalFilterExpression,
+                            filterExpression,
                             splitStartIndex,
                             splitEndIndex
                     );
                 }
                 else {
-                    return originalFilterExpression != null ? originalFilterExpression : "";
+                    return filterExpression != null ? filterExpression : "";
                 }
             }
 
+            /**
+             * The planner validates filters before they reach a split, but Lark can still reject one here (e.g. the
+             * validation probe was inconclusive). Treating that as "no matching records" returns a wrong, empty
+             * result, so instead re-read this split without the pushed-down predicates: Athena re-applies the
+             * full WHERE clause to every row, so the answer stays correct, just without the pushdown speedup. The
+             * row-count cap was sized for the filtered result and would cut an unfiltered read short, so it is
+             * lifted too. Only applies before the first page: a later failure is not a filter rejection.
+             * <p>
+             * An IN-list batch split fails instead: every batch of the query would fall back to the same unfiltered
+             * read, returning each row of the table once per batch.
+             *
+             * @param rejection the failure of the first fetch
+             * @return true if the filter was relaxed and the fetch should be retried
+             */
+            private boolean relaxRejectedFilter(Exception rejection)
+            {
+                String unfilteredExpression = buildFinalFilter("");
+                if (currentPageToken != null || finalFilterExpression.equals(unfilteredExpression)) {
+                    return false;
+                }
+                if (isFilterBatchSplit) {
+                    throw new IllegalStateException(String.format("Lark rejected the filter of an IN-list batch split for table %s.%s",
+                            baseId, tableId), rejection);
+                }
+                logger.warn("Lark rejected filter '{}' for table {}.{}. Re-reading the split without it; Athena will apply the filter.",
+                        finalFilterExpression, baseId, tableId);
+                finalFilterExpression = unfilteredExpression;
+                rowCountCap = 0;
+                return true;
+            }
+
             /**
              * Fetches the next page of records from the Lark service if the current page is exhausted
              * and more pages are expected. Updates the iterator state.
@@ -528,10 +588,10 @@ public class BaseRecordHandler extends RecordHandler
              */
             private boolean fetchNextPage()
             {
-                if (!hasMorePages || (expectedRowCountForSplit > 0 && currentFetchDataCount >= expectedRowCountForSplit)) {
+                if (!hasMorePages || (rowCountCap > 0 && currentFetchDataCount >= rowCountCap)) {
                     if (envVarService.isEnableDebugLogging()) {
                         logger.info("fetchNextPage: Stopping fetch. HasMorePages={}, FetchedCount={}, ExpectedForSplit={}",
-                                hasMorePages, currentFetchDataCount, expectedRowCountForSplit);
+                                hasMorePages, currentFetchDataCount, rowCountCap);
                     }
                     return false;
                 }
@@ -573,9 +633,9 @@ public class BaseRecordHandler extends RecordHandler
                     currentPageToken = nextPageToken;
                     currentFetchDataCount += records.size();
 
-                    if (expectedRowCountForSplit > 0 && currentFetchDataCount >= expectedRowCountForSplit) {
+                    if (rowCountCap > 0 && currentFetchDataCount >= rowCountCap) {
                         if (envVarService.isEnableDebugLogging()) {
-                            logger.info("Reached expected row count ({}) for this split {}. Stopping further fetches.", expectedRowCountForSplit, baseId + "." + tableId);
+                            logger.info("Reached expected row count ({}) for this split {}. Stopping further fetches.", rowCountCap, baseId + "." + tableId);
                         }
                         hasMorePages = false;
                     }
@@ -583,6 +643,9 @@ public class BaseRecordHandler extends RecordHandler
                     return currentPageIterator.hasNext();
                 }
                 catch (Exception e) {
+                    if (relaxRejectedFilter(e)) {
+                        return fetchNextPage();
+                    }
                     logger.warn("Error fetching next page from Lark API for table {}.{}: {}. Assuming no matching records for filter.", baseId, tableId, e.getMessage());
                     if (envVarService.isEnableDebugLogging()) {
                         logger.debug("Full error details:", e);
@@ -596,12 +659,12 @@ public class BaseRecordHandler extends RecordHandler
             @Override
             public boolean hasNext()
             {
-                // expectedRowCountForSplit only gates whether fetchNextPage() asks Lark for another
+                // rowCountCap only gates whether fetchNextPage() asks Lark for another
                 // page (checked before/after each fetch) - it never trims the page that pushes the
                 // running total over the limit. A single over-fetched page can carry up to
                 // pageSizeForApi extra records past the target, so the emitted-count cap here is what
                 // actually enforces the boundary regardless of how much this split over-fetched.
-                if (expectedRowCountForSplit > 0 && emittedCount >= expectedRowCountForSplit) {
+                if (rowCountCap > 0 && emittedCount >= rowCountCap) {
                     return false;
                 }
                 if (currentPageIterator != null && currentPageIterator.hasNext()) {
@@ -32,6 +32,8 @@ import com.amazonaws.athena.connectors.lark.base.model.response.ListFieldRespons
 import com.amazonaws.athena.connectors.lark.base.service.AthenaService;
 import com.amazonaws.athena.connectors.lark.base.service.LarkBaseService;
 import com.amazonaws.athena.connectors.lark.base.util.CommonUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,8 +44,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static java.util.Objects.requireNonNull;
@@ -56,10 +61,22 @@ public class ExperimentalMetadataProvider
 {
     private static final Logger logger = LoggerFactory.getLogger(ExperimentalMetadataProvider.class);
 
+    private static final int QUERY_CACHE_MAX_SIZE = 200;
+    private static final int QUERY_CACHE_TTL_MINUTES = 10;
+
     private final AthenaService athenaService;
     private final LarkBaseService larkBaseService;
     private final ThrottlingInvoker invoker;
 
+    // Athena asks for the same query's table twice - GetTable (getTableSchema) and then GetTableLayout
+    // (getPartitionInfo) - usually on the same warm container. Everything this provider derives from the query id
+    // (the query text from GetQueryExecution, the original IDs scanned out of it and the resulting field
+    // mappings) is kept here so the second phase costs no AWS or Lark calls at all.
+    private final Cache<String, QueryContext> queryContexts = CacheBuilder.newBuilder()
+            .maximumSize(QUERY_CACHE_MAX_SIZE)
+            .expireAfterWrite(QUERY_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+
     public ExperimentalMetadataProvider(AthenaService athenaService,
                                         LarkBaseService larkBaseService,
                                         ThrottlingInvoker invoker)
@@ -72,60 +89,14 @@ public class ExperimentalMetadataProvider
     public Optional<TableSchemaResult> getTableSchema(GetTableRequest request)
     {
         logger.info("Experimental Path: Attempting to get schema for {}", request.getTableName());
-        Optional<Pair<String, String>> idsOpt = extractOriginalIdsFromQuery(request.getQueryId(), request.getTableName());
+        Optional<QueryContext> context = queryContext(request.getQueryId());
+        Optional<Pair<String, String>> idsOpt = context.flatMap(ctx -> extractOriginalIds(ctx, request.getTableName()));
 
         if (idsOpt.isPresent()) {
             String baseId = idsOpt.get().left();
             String tableId = idsOpt.get().right();
             try {
-                logger.info("Experimental Path: Getting table fields for baseId: {}, tableId: {}", baseId, tableId);
-                List<ListFieldResponse.FieldItem> larkFields = invoker.invoke(() -> larkBaseService.getTableFields(baseId, tableId));
-                logger.info("Experimental Path: Got {} fields from Lark", larkFields.size());
-
-                List<AthenaFieldLarkBaseMapping> fieldMappings = new ArrayList<>();
-                Set<String> seenFieldNames = new HashSet<>();
-
-                for (ListFieldResponse.FieldItem field : larkFields) {
-                    String larkFieldName = field.getFieldName();
-                    if (larkFieldName != null && !larkFieldName.trim().isEmpty()) {
-                        logger.info("Experimental Path: Processing field: {}", larkFieldName);
-                        // NOTE: getFormulaGlueCatalogUITypeEnum() only returns a meaningful (non-UNKNOWN) value
-                        // when the field's own UI type is FORMULA, while getTargetFieldAndTableForLookup() only
-                        // returns a usable target when the field's own UI type is LOOKUP. A field cannot be both
-                        // at once, so checking the former for LOOKUP and then calling the latter was dead code -
-                        // a genuine LOOKUP field's child type could never actually be resolved this way. Branch
-                        // on the field's own UI type instead, matching the (correct) logic in
-                        // glue-lark-base-crawler's BaseLarkBaseCrawlerHandler.
-                        UITypeEnum childUIType;
-                        if (field.getUIType().equals(UITypeEnum.LOOKUP)) {
-                            try {
-                                Pair<String, String> lookupId = field.getTargetFieldAndTableForLookup();
-                                String newTableId = lookupId.right();
-                                String newFieldId = lookupId.left();
-                                // getTableFields (called internally by getLookupType on a cache miss) hits the
-                                // Lark API directly; go through the invoker like every other Lark call here so
-                                // it gets the same rate-limit backoff instead of failing raw on a 429.
-                                childUIType = invoker.invoke(() -> larkBaseService.getLookupType(baseId, newTableId, newFieldId));
-                            }
-                            catch (Exception e) {
-                                logger.warn("Experimental Path: Skipping field {} due to error getting lookup type: {}", field.getFieldName(), e.getMessage());
-                                continue;
-                            }
-                        }
-                        else {
-                            childUIType = field.getFormulaGlueCatalogUITypeEnum();
-                        }
-
-                        NestedUIType nestedUIType = new NestedUIType(field.getUIType(), childUIType);
-                        // The athenaName was previously (incorrectly) set to the table name itself for
-                        // every field, collapsing all fields into one in the built schema. It went
-                        // unnoticed because buildSchemaFromLarkFields used to ignore athenaName and
-                        // re-sanitize the raw field name instead - it now trusts athenaName as-is, so this
-                        // must be the real sanitized (and deduplicated) field name.
-                        String prestoFieldName = CommonUtil.sanitizeGlueRelatedNameWithDedup(larkFieldName, field.getFieldId(), seenFieldNames);
-                        fieldMappings.add(new AthenaFieldLarkBaseMapping(prestoFieldName, larkFieldName, nestedUIType));
-                    }
-                }
+                List<AthenaFieldLarkBaseMapping> fieldMappings = fieldMappings(context.get(), baseId, tableId);
 
                 if (fieldMappings.isEmpty()) {
                     logger.warn("Experimental Path: No fields found for {}.{}. Cannot build schema.", baseId, tableId);
@@ -150,12 +121,13 @@ public class ExperimentalMetadataProvider
     public Optional<PartitionInfoResult> getPartitionInfo(TableName tableName, GetTableLayoutRequest request)
     {
         logger.info("Experimental Path: Attempting to get partition info for {}", tableName);
-        Optional<Pair<String, String>> idsOpt = extractOriginalIdsFromQuery(request.getQueryId(), tableName);
+        Optional<QueryContext> context = queryContext(request.getQueryId());
+        Optional<Pair<String, String>> idsOpt = context.flatMap(ctx -> extractOriginalIds(ctx, tableName));
 
         if (idsOpt.isPresent()) {
             String baseId = idsOpt.get().left();
             String tableId = idsOpt.get().right();
-            List<AthenaFieldLarkBaseMapping> fieldMappings = discoverTableFields(baseId, tableId);
+            List<AthenaFieldLarkBaseMapping> fieldMappings = fieldMappings(context.get(), baseId, tableId);
 
             if (fieldMappings.isEmpty()) {
                 logger.warn("Experimental Path: discoverTableFields returned empty mapping for Base='{}', Table='{}'. Likely invalid IDs extracted or API call failed. Returning empty Optional.", baseId, tableId);
@@ -171,33 +143,34 @@ public class ExperimentalMetadataProvider
     }
 
     /**
-     * Extracts the original case-sensitive Base ID and Table ID from the raw SQL query.
-     * (Moved from BaseMetadataHandler)
+     * Returns the cached state of a query, fetching its original SQL from Athena on first use. A query whose text
+     * Athena cannot return (a utility query, or no text at all) is cached too, so the second phase doesn't ask
+     * again; a timeout or unexpected failure is not, since it may well succeed on the next call.
      */
-    private Optional<Pair<String, String>> extractOriginalIdsFromQuery(String queryId, TableName tableName)
+    private Optional<QueryContext> queryContext(String queryId)
     {
         if (queryId == null || queryId.isEmpty()) {
             logger.warn("Experimental Path: Query ID is missing. Cannot extract original IDs.");
             return Optional.empty();
         }
+
+        QueryContext cached = queryContexts.getIfPresent(queryId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        String originalQuery;
         try {
-            String originalQuery = invoker.invoke(() -> athenaService.getAthenaQueryString(queryId));
-            if (originalQuery != null) {
-                Pair<String, String> originalIds = CommonUtil.extractOriginalIdentifiers(originalQuery, tableName.getSchemaName(), tableName.getTableName());
-                if (originalIds.left() != null && originalIds.right() != null) {
-                    return Optional.of(originalIds);
-                }
-                else {
-                    logger.info("Experimental Path: Could not extract valid original Base/Table IDs from query for table {}.", tableName);
-                    return Optional.empty();
-                }
-            }
-            else {
+            originalQuery = invoker.invoke(() -> athenaService.getAthenaQueryString(queryId));
+            if (originalQuery == null) {
                 logger.warn("Experimental Path: Could not retrieve original query string for query ID {}. Cannot extract IDs.", queryId);
-                return Optional.empty();
             }
         }
-        catch (InvalidRequestException | TimeoutException e) {
+        catch (InvalidRequestException e) {
+            logger.info("Experimental Path: Could not get original query string for query ID {} (Possibly a utility query?): {}", queryId, e.getMessage());
+            originalQuery = null;
+        }
+        catch (TimeoutException e) {
             logger.info("Experimental Path: Could not get original query string for query ID {} (Possibly a utility query?): {}", queryId, e.getMessage());
             return Optional.empty();
         }
@@ -205,6 +178,54 @@ public class ExperimentalMetadataProvider
             logger.error("Experimental Path: Unexpected error retrieving original query string for query ID {}: {}", queryId, e.getMessage(), e);
             return Optional.empty();
         }
+
+        QueryContext context = new QueryContext(originalQuery);
+        QueryContext raced = queryContexts.asMap().putIfAbsent(queryId, context);
+        return Optional.of(raced != null ? raced : context);
+    }
+
+    /**
+     * Extracts the original case-sensitive Base ID and Table ID from the query's raw SQL, once per table.
+     * (Moved from BaseMetadataHandler)
+     */
+    private Optional<Pair<String, String>> extractOriginalIds(QueryContext context, TableName tableName)
+    {
+        if (context.originalQuery() == null) {
+            return Optional.empty();
+        }
+        return context.originalIds().computeIfAbsent(tableName.getSchemaName() + "." + tableName.getTableName(), key -> {
+            try {
+                Pair<String, String> originalIds = CommonUtil.extractOriginalIdentifiers(context.originalQuery(), tableName.getSchemaName(), tableName.getTableName());
+                if (originalIds.left() != null && originalIds.right() != null) {
+                    return Optional.of(originalIds);
+                }
+            }
+            catch (RuntimeException e) {
+                // Pair.of rejects the nulls extractOriginalIdentifiers returns for an identifier it didn't find.
+                logger.debug("Experimental Path: Identifier extraction failed for table {}: {}", tableName, e.getMessage());
+            }
+            logger.info("Experimental Path: Could not extract valid original Base/Table IDs from query for table {}.", tableName);
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * Returns the field mappings of a table for this query, discovering them on first use. Only a non-empty
+     * result is kept: an empty one means discovery failed, and the next phase should try again.
+     */
+    private List<AthenaFieldLarkBaseMapping> fieldMappings(QueryContext context, String larkBaseId, String larkTableId)
+    {
+        String tableKey = larkBaseId + "|" + larkTableId;
+        List<AthenaFieldLarkBaseMapping> cached = context.fieldMappings().get(tableKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<AthenaFieldLarkBaseMapping> discovered = discoverTableFields(larkBaseId, larkTableId);
+        if (!discovered.isEmpty()) {
+            context.fieldMappings().putIfAbsent(tableKey, List.copyOf(discovered));
+        }
+        return discovered;
     }
 
     /**
@@ -221,18 +242,26 @@ public class ExperimentalMetadataProvider
             for (ListFieldResponse.FieldItem field : fields) {
                 String larkFieldName = field.getFieldName();
                 if (larkFieldName != null && !larkFieldName.trim().isEmpty()) {
+                    // This must be the real sanitized (and deduplicated) field name: buildSchemaFromLarkFields
+                    // trusts athenaName as-is, so reusing one name (e.g. the table name, as this path once did)
+                    // would collapse all fields into one in the built schema.
                     String prestoFieldName = CommonUtil.sanitizeGlueRelatedNameWithDedup(larkFieldName, field.getFieldId(), seenFieldNames);
-                    // See the comment in getTableSchema(): branch on the field's own UI type, not
-                    // getFormulaGlueCatalogUITypeEnum(), which can never actually equal LOOKUP for a genuine
-                    // LOOKUP field and would otherwise leave the child type unresolved (dead code).
+                    // NOTE: getFormulaGlueCatalogUITypeEnum() only returns a meaningful (non-UNKNOWN) value
+                    // when the field's own UI type is FORMULA, while getTargetFieldAndTableForLookup() only
+                    // returns a usable target when the field's own UI type is LOOKUP. A field cannot be both
+                    // at once, so checking the former for LOOKUP and then calling the latter was dead code -
+                    // a genuine LOOKUP field's child type could never actually be resolved this way. Branch
+                    // on the field's own UI type instead, matching the (correct) logic in
+                    // glue-lark-base-crawler's BaseLarkBaseCrawlerHandler.
                     UITypeEnum childUIType;
                     if (field.getUIType().equals(UITypeEnum.LOOKUP)) {
                         try {
                             Pair<String, String> lookupId = field.getTargetFieldAndTableForLookup();
                             String newTableId = lookupId.right();
                             String newFieldId = lookupId.left();
-                            // See the comment on the equivalent call in getTableSchema(): route through the
-                            // invoker so a cache-miss fetch inside getLookupType gets rate-limit backoff too.
+                            // getTableFields (called internally by getLookupType on a cache miss) hits the
+                            // Lark API directly; go through the invoker like every other Lark call here so
+                            // it gets the same rate-limit backoff instead of failing raw on a 429.
                             childUIType = invoker.invoke(() -> larkBaseService.getLookupType(larkBaseId, newTableId, newFieldId));
                         }
                         catch (Exception e) {
@@ -255,4 +284,21 @@ public class ExperimentalMetadataProvider
         logger.info("Experimental Path: Discovered {} fields for {}-{}", fieldMappings.size(), larkBaseId, larkTableId);
         return fieldMappings;
     }
+
+    /**
+     * What this provider knows about one query.
+     *
+     * @param originalQuery The query's SQL, or null if Athena could not return it.
+     * @param originalIds   Original (Base ID, Table ID) by "schema.table" as Athena named it.
+     * @param fieldMappings Discovered field mappings by "baseId|tableId".
+     */
+    private record QueryContext(String originalQuery,
+                                Map<String, Optional<Pair<String, String>>> originalIds,
+                                Map<String, List<AthenaFieldLarkBaseMapping>> fieldMappings)
+    {
+        private QueryContext(String originalQuery)
+        {
+            this(originalQuery, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
 }
@@ -25,7 +25,7 @@ import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMappin
 import com.amazonaws.athena.connectors.lark.base.model.PartitionInfoResult;
 import com.amazonaws.athena.connectors.lark.base.model.TableDirectInitialized;
 import com.amazonaws.athena.connectors.lark.base.model.TableSchemaResult;
-import com.amazonaws.athena.connectors.lark.base.util.CommonUtil;
+import com.amazonaws.athena.connectors.lark.base.resolver.LarkTableCatalog;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,28 +37,33 @@ import java.util.Optional;
 import static java.util.Objects.requireNonNull;
 
 /**
- * MetadataProvider implementation that retrieves metadata based on pre-resolved mappings
- * loaded from Lark Base/Drive sources during initialization.
+ * MetadataProvider implementation that retrieves metadata from the {@link LarkTableCatalog} of tables
+ * exposed by Lark Base/Drive sources. A table's fields are resolved by the catalog on its first lookup.
  */
 public class LarkSourceMetadataProvider
 {
     private static final Logger logger = LoggerFactory.getLogger(LarkSourceMetadataProvider.class);
 
-    private final List<TableDirectInitialized> resolvedMappings;
+    private final LarkTableCatalog catalog;
 
     public LarkSourceMetadataProvider(List<TableDirectInitialized> resolvedMappings)
     {
-        this.resolvedMappings = requireNonNull(resolvedMappings, "resolvedMappings cannot be null");
+        this(LarkTableCatalog.preResolved(requireNonNull(resolvedMappings, "resolvedMappings cannot be null")));
+    }
+
+    public LarkSourceMetadataProvider(LarkTableCatalog catalog)
+    {
+        this.catalog = requireNonNull(catalog, "catalog cannot be null");
     }
 
     public Optional<TableSchemaResult> getTableSchema(GetTableRequest request)
     {
         logger.info("Lark Source Path: Attempting to get schema for {}", request.getTableName());
-        Optional<TableDirectInitialized> mappingOpt = findMapping(request.getTableName());
+        TableName tableName = request.getTableName();
+        Optional<Schema> schemaOpt = catalog.getTableSchema(tableName.getSchemaName(), tableName.getTableName());
 
-        if (mappingOpt.isPresent()) {
-            TableDirectInitialized mapping = mappingOpt.get();
-            Schema schema = CommonUtil.buildSchemaFromLarkFields(mapping.columns());
+        if (schemaOpt.isPresent()) {
+            Schema schema = schemaOpt.get();
             logger.info("Lark Source Path: Found mapping for {} with schema: {}", request.getTableName(), schema);
             return Optional.of(new TableSchemaResult(schema, Collections.emptySet()));
         }
@@ -94,16 +99,11 @@ public class LarkSourceMetadataProvider
     }
 
     /**
-     * Finds the pre-resolved mapping for the given table name.
+     * Finds the mapping for the given table name, resolving its fields on first use.
      * (Moved from BaseMetadataHandler)
      */
     private Optional<TableDirectInitialized> findMapping(TableName tableName)
     {
-        String requestedSchemaLower = tableName.getSchemaName().toLowerCase();
-        String requestedTableLower = tableName.getTableName().toLowerCase();
-        return this.resolvedMappings.stream()
-                .filter(m -> m.database().athenaName().equalsIgnoreCase(requestedSchemaLower) &&
-                        m.table().athenaName().equalsIgnoreCase(requestedTableLower))
-                .findFirst();
+        return catalog.getTable(tableName.getSchemaName(), tableName.getTableName());
     }
 }
@@ -0,0 +1,49 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.model;
+
+import java.util.List;
+
+/**
+ * Record for a persisted snapshot of the Lark table catalog
+ *
+ * @param formatVersion        The snapshot format version; snapshots of any other version are ignored
+ * @param sourceFingerprint    Fingerprint of the source configuration the snapshot was resolved from
+ * @param createdAtEpochMillis When the snapshot was written
+ * @param tables               Every known table, with its fields if they had been resolved
+ */
+public record CatalogSnapshot(
+        int formatVersion,
+        String sourceFingerprint,
+        long createdAtEpochMillis,
+        List<Table> tables)
+{
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Record for one table of a catalog snapshot
+     *
+     * @param name    The resolved table name, including the Lark revision it was resolved at
+     * @param columns The resolved fields, or null if they had not been resolved when the snapshot was written
+     */
+    public record Table(ResolvedTableName name, List<AthenaFieldLarkBaseMapping> columns)
+    {
+    }
+}
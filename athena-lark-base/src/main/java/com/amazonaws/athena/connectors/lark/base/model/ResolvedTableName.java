@@ -0,0 +1,40 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.model;
+
+/**
+ * Record for a resolved table name, i.e. a table whose Athena schema/table names are known but whose fields have
+ * not necessarily been discovered yet.
+ *
+ * @param database The database
+ * @param table    The table
+ * @param revision The table revision reported by Lark when the name was resolved (may be null). It changes whenever
+ *                 the table is edited, so a name with an unchanged revision still has the same fields.
+ */
+public record ResolvedTableName(
+        AthenaLarkBaseMapping database,
+        AthenaLarkBaseMapping table,
+        String revision)
+{
+    public ResolvedTableName(AthenaLarkBaseMapping database, AthenaLarkBaseMapping table)
+    {
+        this(database, table, null);
+    }
+}
@@ -24,6 +24,7 @@ import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMappin
 import com.amazonaws.athena.connectors.lark.base.model.AthenaLarkBaseMapping;
 import com.amazonaws.athena.connectors.lark.base.model.LarkDatabaseRecord;
 import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
+import com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName;
 import com.amazonaws.athena.connectors.lark.base.model.TableDirectInitialized;
 import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
 import com.amazonaws.athena.connectors.lark.base.model.response.ListAllTableResponse;
@@ -32,6 +33,7 @@ import com.amazonaws.athena.connectors.lark.base.service.EnvVarService;
 import com.amazonaws.athena.connectors.lark.base.service.LarkBaseService;
 import com.amazonaws.athena.connectors.lark.base.service.LarkDriveService;
 import com.amazonaws.athena.connectors.lark.base.util.CommonUtil;
+import com.google.common.util.concurrent.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.utils.Pair;
@@ -39,11 +41,25 @@ import software.amazon.awssdk.utils.Pair;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DEFAULT_DISCOVERY_MAX_CONCURRENCY;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_DISCOVERY_MAX_REQUESTS_PER_SECOND;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -51,6 +67,13 @@ import static java.util.Objects.requireNonNull;
  * (LARK_BASE_SOURCES_ENV_VAR, LARK_DRIVE_SOURCES_ENV_VAR).
  * It interacts with LarkBaseService and LarkDriveService to discover the actual
  * databases, tables, and fields.
+ *
+ * <p>Discovery fans out across metadata locations, bases and tables on a bounded executor: every metadata
+ * location is read at once, every base's table list is requested as soon as its record is known, and every
+ * table's fields are requested as soon as its name is known. Only the Lark calls run concurrently - name
+ * disambiguation ({@link CommonUtil#sanitizeGlueRelatedNameWithDedup}) is always applied on the calling thread,
+ * in the same source/location/record/table order as a sequential walk, so the same Lark state always yields
+ * the same Athena names no matter which call happens to finish first.</p>
  */
 public class LarkBaseTableResolver
 {
@@ -60,16 +83,31 @@ public class LarkBaseTableResolver
     private final LarkBaseService larkBaseService;
     private final LarkDriveService larkDriveService;
     private final ThrottlingInvoker invoker;
+    private final RateLimiter rateLimiter;
+    // The valid table IDs of every base from the latest table listing, and the bases whose fields were bulk-loaded
+    // since; a base whose listing changes is bulk-loaded again on its next field discovery.
+    private final Map<String, List<String>> tableIdsByBase = new ConcurrentHashMap<>();
+    private final Set<String> prefetchedBases = ConcurrentHashMap.newKeySet();
 
     public LarkBaseTableResolver(EnvVarService envVarService,
                                  LarkBaseService larkBaseService,
                                  LarkDriveService larkDriveService,
                                  ThrottlingInvoker invoker)
+    {
+        this(envVarService, larkBaseService, larkDriveService, invoker, RateLimiter.create(LARK_DISCOVERY_MAX_REQUESTS_PER_SECOND));
+    }
+
+    LarkBaseTableResolver(EnvVarService envVarService,
+                          LarkBaseService larkBaseService,
+                          LarkDriveService larkDriveService,
+                          ThrottlingInvoker invoker,
+                          RateLimiter rateLimiter)
     {
         this.envVarService = requireNonNull(envVarService, "envVarService cannot be null");
         this.larkBaseService = requireNonNull(larkBaseService, "larkBaseService cannot be null");
         this.larkDriveService = requireNonNull(larkDriveService, "larkDriveService cannot be null");
         this.invoker = requireNonNull(invoker, "invoker cannot be null");
+        this.rateLimiter = requireNonNull(rateLimiter, "rateLimiter cannot be null");
     }
 
     /**
@@ -79,94 +117,189 @@ public class LarkBaseTableResolver
      */
     public List<TableDirectInitialized> resolveTables()
     {
-        List<TableDirectInitialized> resolvedMappings = new ArrayList<>();
-        // Shared across every source/location processed below: two Lark Bases discovered from
-        // different sources (or different locations of the same source) can still collide on the
-        // same Athena schema name after sanitization, so this must be tracked globally, not reset
-        // per-source - LarkSourceMetadataProvider.findMapping() matches by this name across the
-        // whole combined resolvedMappings list.
-        Set<String> seenDatabaseNames = new HashSet<>();
-
-        if (envVarService.isActivateLarkBaseSource()) {
-            List<TableDirectInitialized> larkBaseTables = resolveFromLarkBaseSource(seenDatabaseNames);
-            logger.info("Lark Base source path: Resolved {} table mappings.", larkBaseTables.size());
-            resolvedMappings.addAll(larkBaseTables);
-        }
-        else {
-            logger.info("Lark Base source path: Deactivated.");
+        return resolve(true, (tableName, sourceDescription, executor) -> executor.submit(() -> {
+            TableDirectInitialized resolved = resolveTableFields(tableName);
+            logger.info("Discovered table from {}: PrestoName='{}', LarkBaseID='{}'. Found {} fields.",
+                    sourceDescription, tableName.table().athenaName(), tableName.table().larkBaseId(), resolved.columns().size());
+            return resolved;
+        }));
+    }
+
+    /**
+     * Resolves only the Athena schema and table names of every configured source: the metadata tables and one
+     * table listing per base, but no field listing or LOOKUP resolution. Names are disambiguated exactly as in
+     * {@link #resolveTables()}, so a table's fields can later be filled in with {@link #resolveTableFields}.
+     *
+     * @return The resolved table names, in the same order {@link #resolveTables()} would return the tables.
+     */
+    public List<ResolvedTableName> resolveTableNames()
+    {
+        return resolve(false, (tableName, sourceDescription, executor) -> CompletableFuture.completedFuture(tableName));
+    }
+
+    /**
+     * Discovers the fields (including LOOKUP target types) of one table whose name was resolved by
+     * {@link #resolveTableNames()}. The first discovery in a base bulk-loads the fields of every table of that base
+     * first (see {@link #listTables}), so that its LOOKUP chains and the base's later lookups hit a warm cache.
+     *
+     * @param tableName The resolved table name.
+     * @return The fully initialized table.
+     * @throws TimeoutException if Lark kept throttling the field discovery.
+     */
+    public TableDirectInitialized resolveTableFields(ResolvedTableName tableName) throws TimeoutException
+    {
+        requireNonNull(tableName, "tableName cannot be null");
+        String larkBaseId = tableName.database().larkBaseId();
+        List<String> baseTableIds = tableIdsByBase.get(larkBaseId);
+        if (baseTableIds != null && prefetchedBases.add(larkBaseId)) {
+            prefetchTableFields(larkBaseId, baseTableIds);
         }
+        List<AthenaFieldLarkBaseMapping> fieldMappings = discoverTableFields(larkBaseId, tableName.table().larkBaseId());
+        return new TableDirectInitialized(tableName.database(), tableName.table(), fieldMappings);
+    }
+
+    /**
+     * @param prefetchFields Whether to bulk-load the fields of every table of a base as soon as its tables are listed,
+     *                       for resolutions whose table tasks discover fields (see {@link #listTables}).
+     */
+    private <T> List<T> resolve(boolean prefetchFields, TableTaskFactory<T> tableTasks)
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(discoveryConcurrency(), discoveryThreadFactory());
+        try {
+            // Submit every metadata location read up front; they are consumed below in configuration order.
+            List<PendingLocation> locations = new ArrayList<>();
+            if (envVarService.isActivateLarkBaseSource()) {
+                locations.addAll(startLarkBaseSource(executor));
+            }
+            else {
+                logger.info("Lark Base source path: Deactivated.");
+            }
+
+            if (envVarService.isActivateLarkDriveSource()) {
+                locations.addAll(startLarkDriveSource(executor, prefetchFields));
+            }
+            else {
+                logger.info("Lark Drive source path: Deactivated.");
+            }
 
-        if (envVarService.isActivateLarkDriveSource()) {
-            List<TableDirectInitialized> larkDriveTables = resolveFromLarkDriveSource(seenDatabaseNames);
-            logger.info("Lark Drive source path: Resolved {} table mappings.", larkDriveTables.size());
-            resolvedMappings.addAll(larkDriveTables);
+            // Shared across every source/location processed below: two Lark Bases discovered from
+            // different sources (or different locations of the same source) can still collide on the
+            // same Athena schema name after sanitization, so this must be tracked globally, not reset
+            // per-source - LarkSourceMetadataProvider.findMapping() matches by this name across the
+            // whole combined resolvedMappings list.
+            Set<String> seenDatabaseNames = new HashSet<>();
+            List<List<PendingBase<T>>> basesByLocation = new ArrayList<>();
+            for (PendingLocation location : locations) {
+                basesByLocation.add(processLocation(location, seenDatabaseNames, executor, prefetchFields, tableTasks));
+            }
+
+            List<T> resolvedMappings = new ArrayList<>();
+            int larkBaseCount = 0;
+            int larkDriveCount = 0;
+            for (int i = 0; i < locations.size(); i++) {
+                List<T> locationTables = awaitLocation(locations.get(i), basesByLocation.get(i));
+                if (locations.get(i).fromDrive()) {
+                    larkDriveCount += locationTables.size();
+                }
+                else {
+                    larkBaseCount += locationTables.size();
+                }
+                resolvedMappings.addAll(locationTables);
+            }
+
+            if (envVarService.isActivateLarkBaseSource()) {
+                logger.info("Lark Base source path: Resolved {} table mappings.", larkBaseCount);
+            }
+            if (envVarService.isActivateLarkDriveSource()) {
+                logger.info("Lark Drive source path: Resolved {} table mappings.", larkDriveCount);
+            }
+            logger.info("Table resolution complete. Total resolved mappings: {}", resolvedMappings.size());
+            return resolvedMappings;
         }
-        else {
-            logger.info("Lark Drive source path: Deactivated.");
+        finally {
+            executor.shutdownNow();
         }
-
-        logger.info("Table resolution complete. Total resolved mappings: {}", resolvedMappings.size());
-        return resolvedMappings;
     }
 
-    private List<TableDirectInitialized> resolveFromLarkBaseSource(Set<String> seenDatabaseNames)
+    private List<PendingLocation> startLarkBaseSource(ExecutorService executor)
     {
         Map<String, Set<String>> metadataTableLocations = CommonUtil.constructLarkBaseMappingFromLarkBaseSource(
                 envVarService.getLarkBaseSources()
         );
         logger.info("Found {} metadata table location(s) configured for Lark Base Source.", metadataTableLocations.size());
 
-        List<TableDirectInitialized> resolvedTables = new ArrayList<>();
+        List<PendingLocation> locations = new ArrayList<>();
         for (Map.Entry<String, Set<String>> locationEntry : metadataTableLocations.entrySet()) {
             String metadataBaseId = locationEntry.getKey();
             for (String metadataTableId : locationEntry.getValue()) {
-                try {
-                    List<LarkDatabaseRecord> targetDatabaseRecords = invoker.invoke(() -> larkBaseService.getDatabaseRecords(metadataBaseId, metadataTableId));
-                    resolvedTables.addAll(processTargetDatabaseRecords(targetDatabaseRecords, "Base:" + metadataBaseId + "/" + metadataTableId, seenDatabaseNames));
-                }
-                catch (TimeoutException e) {
-                    logger.error("Timeout while reading records from metadata table {}-{}: {}", metadataBaseId, metadataTableId, e.getMessage(), e);
-                }
-                catch (Exception e) {
-                    logger.error("Failed to read or process records from Lark Base metadata table {}-{}: {}", metadataBaseId, metadataTableId, e.getMessage(), e);
-                }
+                locations.add(new PendingLocation(
+                        "Base:" + metadataBaseId + "/" + metadataTableId,
+                        false,
+                        executor.submit(() -> callLark(() -> larkBaseService.getDatabaseRecords(metadataBaseId, metadataTableId))),
+                        Map.of()));
             }
         }
-        return resolvedTables;
+        return locations;
     }
 
-    private List<TableDirectInitialized> resolveFromLarkDriveSource(Set<String> seenDatabaseNames)
+    /**
+     * Starts walking every configured Drive folder tree. Each base is handed to the executor to have its tables
+     * listed as soon as the walk finds it, so table discovery overlaps the rest of the walk instead of waiting for
+     * the whole tree; {@link #processLocation} then picks up those listings instead of starting its own.
+     */
+    private List<PendingLocation> startLarkDriveSource(ExecutorService executor, boolean prefetchFields)
     {
-        Set<String> metadataTableLocations = new HashSet<>();
+        Set<String> metadataTableLocations = new LinkedHashSet<>();
         String driveSources = envVarService.getLarkDriveSources();
         if (driveSources != null && !driveSources.trim().isEmpty()) {
             metadataTableLocations.addAll(Arrays.asList(driveSources.split(",")));
         }
         logger.info("Found {} metadata table location(s) configured for Lark Drive Source.", metadataTableLocations.size());
 
-        List<TableDirectInitialized> resolvedTables = new ArrayList<>();
+        List<PendingLocation> locations = new ArrayList<>();
         for (String metadataTableId : metadataTableLocations) {
             if (metadataTableId == null || metadataTableId.trim().isEmpty()) {
                 continue;
             }
-            try {
-                List<LarkDatabaseRecord> targetDatabaseRecords = invoker.invoke(() -> larkDriveService.getLarkBases(metadataTableId));
-                resolvedTables.addAll(processTargetDatabaseRecords(targetDatabaseRecords, "Drive:" + metadataTableId, seenDatabaseNames));
-            }
-            catch (TimeoutException e) {
-                logger.error("Timeout while reading records from Drive metadata table {}: {}", metadataTableId, e.getMessage(), e);
-            }
-            catch (Exception e) {
-                logger.error("Failed to read or process records from Lark Drive metadata table {}: {}", metadataTableId, e.getMessage(), e);
-            }
+            Map<String, Future<List<ListAllTableResponse.BaseItem>>> tableListings = new ConcurrentHashMap<>();
+            Consumer<LarkDatabaseRecord> startTableListing = record -> {
+                if (isValidIdentifier(record.id())) {
+                    tableListings.computeIfAbsent(record.id(), larkBaseId -> executor.submit(() -> listTables(larkBaseId, prefetchFields)));
+                }
+            };
+            locations.add(new PendingLocation(
+                    "Drive:" + metadataTableId,
+                    true,
+                    executor.submit(() -> callLark(() -> larkDriveService.getLarkBases(metadataTableId, discoveryConcurrency(), startTableListing))),
+                    tableListings));
         }
-        return resolvedTables;
+        return locations;
     }
 
-    private List<TableDirectInitialized> processTargetDatabaseRecords(List<LarkDatabaseRecord> targetDatabaseRecords, String sourceDescription, Set<String> seenDatabaseNames) throws TimeoutException
+    /**
+     * Waits for a metadata location's database records, disambiguates their names in record order and starts
+     * listing every valid base's tables. A location that cannot be read contributes nothing, as before.
+     */
+    private <T> List<PendingBase<T>> processLocation(PendingLocation location,
+                                                     Set<String> seenDatabaseNames,
+                                                     ExecutorService executor,
+                                                     boolean prefetchFields,
+                                                     TableTaskFactory<T> tableTasks)
     {
-        List<TableDirectInitialized> discoveredTables = new ArrayList<>();
+        List<LarkDatabaseRecord> targetDatabaseRecords;
+        try {
+            targetDatabaseRecords = await(location.records());
+        }
+        catch (TimeoutException e) {
+            logger.error("Timeout while reading records from metadata table {}: {}", location.description(), e.getMessage(), e);
+            return List.of();
+        }
+        catch (Exception e) {
+            logger.error("Failed to read or process records from metadata table {}: {}", location.description(), e.getMessage(), e);
+            return List.of();
+        }
 
+        List<PendingBase<T>> bases = new ArrayList<>();
         for (LarkDatabaseRecord record : targetDatabaseRecords) {
             String larkBaseId = record.id();
             // Two distinct Lark Bases can sanitize (or, for the unsanitized metadata-table source,
@@ -175,57 +308,104 @@ public class LarkBaseTableResolver
             // findFirst() - it would never be reachable via Athena, with no error at all.
             String prestoDbName = CommonUtil.sanitizeGlueRelatedNameWithDedup(record.name(), larkBaseId, seenDatabaseNames);
 
-            logger.info("Processing database record from {}: PrestoName='{}', LarkBaseID='{}'", sourceDescription, prestoDbName, larkBaseId);
+            logger.info("Processing database record from {}: PrestoName='{}', LarkBaseID='{}'", location.description(), prestoDbName, larkBaseId);
 
             if (isValidIdentifier(prestoDbName) && isValidIdentifier(larkBaseId)) {
-                AthenaLarkBaseMapping dbMapping = new AthenaLarkBaseMapping(prestoDbName, larkBaseId);
-                Set<String> seenTableNames = new HashSet<>();
-                try {
-                    List<ListAllTableResponse.BaseItem> tablesFromLark = invoker.invoke(() -> larkBaseService.listTables(larkBaseId));
-                    for (ListAllTableResponse.BaseItem table : tablesFromLark) {
-                        String larkTableId = table.getTableId();
-                        // Same collision risk as database names, but scoped to tables within this one
-                        // base (two tables in different bases sharing a name is fine - different schema).
-                        String prestoTableName = CommonUtil.sanitizeGlueRelatedNameWithDedup(table.getName(), larkTableId, seenTableNames);
-
-                        if (isValidIdentifier(prestoTableName) && isValidIdentifier(larkTableId)) {
-                            AthenaLarkBaseMapping tableMapping = new AthenaLarkBaseMapping(prestoTableName, larkTableId);
-                            List<AthenaFieldLarkBaseMapping> fieldMappings = discoverTableFields(larkBaseId, larkTableId);
-                            logger.info("Discovered table from {}: PrestoName='{}', LarkBaseID='{}'. Found {} fields.",
-                                    sourceDescription, prestoTableName, larkTableId, fieldMappings.size());
-                            discoveredTables.add(new TableDirectInitialized(dbMapping, tableMapping, fieldMappings));
-                        }
-                        else {
-                            logger.warn("Skipping invalid table definition from source '{}' in base '{}': PrestoName='{}', LarkTableID='{}'",
-                                    sourceDescription, larkBaseId, prestoTableName, larkTableId);
-                        }
-                    }
-                    logger.info("Successfully processed database record from {}: PrestoName='{}', LarkBaseID='{}'. Found {} tables.",
-                            sourceDescription, prestoDbName, larkBaseId, tablesFromLark.size());
-                }
-                catch (TimeoutException e) {
-                    logger.error("Timeout while listing tables or fields for base '{}' (Presto name '{}') discovered from {}: {}",
-                            larkBaseId, prestoDbName, sourceDescription, e.getMessage());
-                    throw e;
-                }
-                catch (Exception e) {
-                    logger.error("Failed to list tables or fields for base '{}' (Presto name '{}') discovered from {}: {}",
-                            larkBaseId, prestoDbName, sourceDescription, e.getMessage(), e);
-                }
+                Future<List<ListAllTableResponse.BaseItem>> tables = location.tableListings().get(larkBaseId);
+                bases.add(new PendingBase<>(
+                        new AthenaLarkBaseMapping(prestoDbName, larkBaseId),
+                        tables != null ? tables : executor.submit(() -> listTables(larkBaseId, prefetchFields))));
             }
             else {
-                logger.warn("Skipping invalid database record from source {}: PrestoName='{}', LarkBaseID='{}'", sourceDescription, prestoDbName, larkBaseId);
+                logger.warn("Skipping invalid database record from source {}: PrestoName='{}', LarkBaseID='{}'", location.description(), prestoDbName, larkBaseId);
+            }
+        }
+
+        for (PendingBase<T> base : bases) {
+            base.startTableTasks(location.description(), executor, tableTasks);
+        }
+        return bases;
+    }
+
+    /**
+     * Collects a location's tables in base and table order. A timeout anywhere in a base drops that base's
+     * tables (its schema would be incomplete) without affecting the other bases of the location; any other
+     * failure was already absorbed where it happened.
+     */
+    private <T> List<T> awaitLocation(PendingLocation location, List<PendingBase<T>> bases)
+    {
+        List<T> discoveredTables = new ArrayList<>();
+        for (PendingBase<T> base : bases) {
+            if (base.tables() == null) {
+                continue;
+            }
+            List<T> baseTables = new ArrayList<>();
+            try {
+                for (Future<T> table : base.tables()) {
+                    baseTables.add(await(table));
+                }
+                logger.info("Successfully processed database record from {}: PrestoName='{}', LarkBaseID='{}'. Found {} tables.",
+                        location.description(), base.database().athenaName(), base.database().larkBaseId(), baseTables.size());
+                discoveredTables.addAll(baseTables);
+            }
+            catch (TimeoutException e) {
+                logger.error("Timeout while listing tables or fields for base '{}' (Presto name '{}') discovered from {}: {}",
+                        base.database().larkBaseId(), base.database().athenaName(), location.description(), e.getMessage());
+            }
+            catch (Exception e) {
+                logger.error("Failed to list tables or fields for base '{}' (Presto name '{}') discovered from {}: {}",
+                        base.database().larkBaseId(), base.database().athenaName(), location.description(), e.getMessage(), e);
             }
         }
         return discoveredTables;
     }
 
+    /**
+     * Lists a base's tables and, when {@code prefetchFields} is set, warms the field cache for all of them in one
+     * concurrent bulk load. Without it every table task would start from a cold cache, and LOOKUP resolution
+     * would fetch the other tables of the base one cache miss at a time, in whatever order the chains are walked.
+     * The prefetch is charged one rate-limiter permit per table it may fetch, and anything it fails to load is
+     * fetched again (through the invoker) by the table task that needs it. A names-only resolution leaves the
+     * bulk load to the first {@link #resolveTableFields} call of the base.
+     */
+    private List<ListAllTableResponse.BaseItem> listTables(String larkBaseId, boolean prefetchFields) throws Exception
+    {
+        List<ListAllTableResponse.BaseItem> tables = callLark(() -> larkBaseService.listTables(larkBaseId));
+        if (prefetchFields && prefetchedBases.add(larkBaseId)) {
+            prefetchTableFields(larkBaseId, validTableIds(tables));
+        }
+        return tables;
+    }
+
+    private void prefetchTableFields(String larkBaseId, List<String> tableIds)
+    {
+        if (tableIds.isEmpty()) {
+            return;
+        }
+        try {
+            rateLimiter.acquire(tableIds.size());
+            Map<String, List<ListFieldResponse.FieldItem>> prefetched = larkBaseService.getAllTableFields(larkBaseId, tableIds);
+            logger.info("Prefetched fields for {} of {} tables in base '{}'", prefetched.size(), tableIds.size(), larkBaseId);
+        }
+        catch (RuntimeException e) {
+            logger.warn("Failed to prefetch fields for base '{}', tables will be loaded one by one: {}", larkBaseId, e.getMessage());
+        }
+    }
+
+    private List<String> validTableIds(List<ListAllTableResponse.BaseItem> tables)
+    {
+        return tables.stream()
+                .map(ListAllTableResponse.BaseItem::getTableId)
+                .filter(this::isValidIdentifier)
+                .collect(Collectors.toList());
+    }
+
     private List<AthenaFieldLarkBaseMapping> discoverTableFields(String larkBaseId, String larkTableId) throws TimeoutException
     {
         List<AthenaFieldLarkBaseMapping> fieldMappings = new ArrayList<>();
         Set<String> seenFieldNames = new HashSet<>();
         try {
-            List<ListFieldResponse.FieldItem> fields = invoker.invoke(() -> larkBaseService.getTableFields(larkBaseId, larkTableId));
+            List<ListFieldResponse.FieldItem> fields = callLark(() -> larkBaseService.getTableFields(larkBaseId, larkTableId));
             for (ListFieldResponse.FieldItem field : fields) {
                 String larkFieldName = field.getFieldName();
                 if (isValidIdentifier(larkFieldName)) {
@@ -243,7 +423,7 @@ public class LarkBaseTableResolver
                         String newFieldId = lookupId.left();
                         // Route through the invoker so a cache-miss fetch inside getLookupType gets the same
                         // rate-limit backoff as every other Lark API call here.
-                        childUIType = invoker.invoke(() -> larkBaseService.getLookupType(larkBaseId, newTableId, newFieldId));
+                        childUIType = callLark(() -> larkBaseService.getLookupType(larkBaseId, newTableId, newFieldId));
                     }
                     else {
                         childUIType = field.getFormulaGlueCatalogUITypeEnum();
@@ -267,8 +447,150 @@ public class LarkBaseTableResolver
         return fieldMappings;
     }
 
+    /**
+     * Every Lark call made during discovery goes through here: the rate limiter keeps the whole fan-out under
+     * Lark's per-app request budget however many workers are running, and the shared invoker still applies its
+     * congestion backoff when Lark throttles us anyway.
+     */
+    private <T> T callLark(Callable<T> call) throws Exception
+    {
+        rateLimiter.acquire();
+        return invoker.invoke(call);
+    }
+
+    private int discoveryConcurrency()
+    {
+        int configured = envVarService.getDiscoveryMaxConcurrency();
+        return configured > 0 ? configured : DEFAULT_DISCOVERY_MAX_CONCURRENCY;
+    }
+
+    private static ThreadFactory discoveryThreadFactory()
+    {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "lark-table-discovery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Unwraps a discovery future so callers see the same TimeoutException / Exception split as the
+     * sequential code did.
+     */
+    private static <T> T await(Future<T> future) throws Exception
+    {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
     private boolean isValidIdentifier(String identifier)
     {
         return identifier != null && !identifier.trim().isEmpty();
     }
+
+    /**
+     * @param tableListings Table listings already started for bases of this location, by Lark Base ID
+     */
+    private record PendingLocation(String description, boolean fromDrive, Future<List<LarkDatabaseRecord>> records,
+                                   Map<String, Future<List<ListAllTableResponse.BaseItem>>> tableListings)
+    {
+    }
+
+    /**
+     * Starts the per-table work of a resolution once the table's name is known: field discovery for a full
+     * resolution, nothing at all for a names-only one.
+     */
+    @FunctionalInterface
+    private interface TableTaskFactory<T>
+    {
+        Future<T> start(ResolvedTableName tableName, String sourceDescription, ExecutorService executor);
+    }
+
+    /**
+     * A base whose table list has been requested. Once the list arrives, table names are disambiguated in Lark's
+     * listing order and one table task is started per table.
+     */
+    private final class PendingBase<T>
+    {
+        private final AthenaLarkBaseMapping database;
+        private final Future<List<ListAllTableResponse.BaseItem>> tableList;
+        private List<Future<T>> tables;
+
+        private PendingBase(AthenaLarkBaseMapping database, Future<List<ListAllTableResponse.BaseItem>> tableList)
+        {
+            this.database = database;
+            this.tableList = tableList;
+        }
+
+        private AthenaLarkBaseMapping database()
+        {
+            return database;
+        }
+
+        /**
+         * @return the per-table task futures, or null if the base's tables could not be listed.
+         */
+        private List<Future<T>> tables()
+        {
+            return tables;
+        }
+
+        private void startTableTasks(String sourceDescription, ExecutorService executor, TableTaskFactory<T> tableTasks)
+        {
+            String larkBaseId = database.larkBaseId();
+            List<ListAllTableResponse.BaseItem> tablesFromLark;
+            try {
+                tablesFromLark = await(tableList);
+            }
+            catch (TimeoutException e) {
+                logger.error("Timeout while listing tables or fields for base '{}' (Presto name '{}') discovered from {}: {}",
+                        larkBaseId, database.athenaName(), sourceDescription, e.getMessage());
+                return;
+            }
+            catch (Exception e) {
+                logger.error("Failed to list tables or fields for base '{}' (Presto name '{}') discovered from {}: {}",
+                        larkBaseId, database.athenaName(), sourceDescription, e.getMessage(), e);
+                return;
+            }
+
+            List<String> tableIds = validTableIds(tablesFromLark);
+            List<String> previousTableIds = tableIdsByBase.put(larkBaseId, tableIds);
+            if (previousTableIds != null && !previousTableIds.equals(tableIds)) {
+                prefetchedBases.remove(larkBaseId);
+            }
+
+            Set<String> seenTableNames = new HashSet<>();
+            List<Future<T>> pendingTables = new ArrayList<>();
+            for (ListAllTableResponse.BaseItem table : tablesFromLark) {
+                String larkTableId = table.getTableId();
+                // Same collision risk as database names, but scoped to tables within this one
+                // base (two tables in different bases sharing a name is fine - different schema).
+                String prestoTableName = CommonUtil.sanitizeGlueRelatedNameWithDedup(table.getName(), larkTableId, seenTableNames);
+
+                if (isValidIdentifier(prestoTableName) && isValidIdentifier(larkTableId)) {
+                    ResolvedTableName tableName = new ResolvedTableName(
+                            database, new AthenaLarkBaseMapping(prestoTableName, larkTableId), table.getRevision());
+                    pendingTables.add(tableTasks.start(tableName, sourceDescription, executor));
+                }
+                else {
+                    logger.warn("Skipping invalid table definition from source '{}' in base '{}': PrestoName='{}', LarkTableID='{}'",
+                            sourceDescription, larkBaseId, prestoTableName, larkTableId);
+                }
+            }
+            this.tables = pendingTables;
+        }
+    }
 }
@@ -0,0 +1,368 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.resolver;
+
+import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.CatalogSnapshot;
+import com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName;
+import com.amazonaws.athena.connectors.lark.base.model.TableDirectInitialized;
+import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
+import com.amazonaws.athena.connectors.lark.base.service.CatalogSnapshotService;
+import com.amazonaws.athena.connectors.lark.base.util.CommonUtil;
+import com.google.common.base.Suppliers;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Two-tier catalog of the tables exposed from Lark Base/Drive sources.
+ *
+ * <p>Tier one is the list of schema/table names. It only needs the metadata tables and one table listing per base,
+ * and is resolved once, on first use (typically the first list call or table lookup), instead of in the handler's
+ * constructor. Tier two is each table's field mappings, including the LOOKUP chains that make up most of the Lark
+ * traffic of a full discovery; those are resolved per table the first time the table is actually looked up by
+ * doGetTable/getPartitions, and cached for the life of the container. A cold start therefore only pays for the
+ * tables a query touches, and doListSchemaNames/doListTables never touch field metadata at all.</p>
+ *
+ * <p>Field discovery that times out is not cached, so the next lookup retries it. A table whose fields came back
+ * empty (e.g. Lark returned an error that the resolver absorbed) is not cached either, for the same reason.</p>
+ *
+ * <p>With a {@link CatalogSnapshotService}, both tiers are also persisted, and a new container starts from the last
+ * snapshot instead of from nothing. The snapshot is then revalidated in the background: names are re-resolved, and
+ * cached fields are kept only for tables whose Lark revision is known and unchanged (the revision moves on every edit
+ * of the table, field changes included). A table with LOOKUP columns takes their types from other tables of its base,
+ * so its fields are only kept if no table of the base moved. Until revalidation finishes, the snapshot is served as
+ * is.</p>
+ *
+ * <p>Names are served from an immutable {@link LarkTableIndex} that is rebuilt whenever the name list changes, and
+ * every cached table keeps its built Arrow schema, so lookups and list calls never scan or rebuild anything.</p>
+ */
+public class LarkTableCatalog
+{
+    private static final Logger logger = LoggerFactory.getLogger(LarkTableCatalog.class);
+
+    private final Supplier<List<ResolvedTableName>> nameResolver;
+    private final TableFieldsLoader fieldsLoader;
+    private final CatalogSnapshotService snapshotService;
+    private final Executor backgroundExecutor;
+    private final Map<ResolvedTableName, ResolvedTable> resolvedTables = new ConcurrentHashMap<>();
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private volatile LarkTableIndex index;
+
+    private LarkTableCatalog(Supplier<List<ResolvedTableName>> nameResolver,
+                             TableFieldsLoader fieldsLoader,
+                             CatalogSnapshotService snapshotService,
+                             Executor backgroundExecutor)
+    {
+        this.nameResolver = nameResolver;
+        this.fieldsLoader = fieldsLoader;
+        this.snapshotService = snapshotService;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Creates a catalog that resolves names on first use and fields per table on first lookup.
+     */
+    public static LarkTableCatalog lazy(LarkBaseTableResolver resolver)
+    {
+        requireNonNull(resolver, "resolver cannot be null");
+        return new LarkTableCatalog(resolver::resolveTableNames, resolver::resolveTableFields, null, null);
+    }
+
+    /**
+     * Creates a lazy catalog that starts from the last persisted snapshot, if there is one, revalidates it in the
+     * background, and persists every newly resolved name list or table.
+     */
+    public static LarkTableCatalog warmStart(LarkBaseTableResolver resolver, CatalogSnapshotService snapshotService)
+    {
+        return warmStart(resolver, snapshotService, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lark-catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * @param backgroundExecutor Runs revalidation and snapshot writes. Must run tasks one at a time.
+     */
+    static LarkTableCatalog warmStart(LarkBaseTableResolver resolver, CatalogSnapshotService snapshotService, Executor backgroundExecutor)
+    {
+        requireNonNull(resolver, "resolver cannot be null");
+        requireNonNull(snapshotService, "snapshotService cannot be null");
+        requireNonNull(backgroundExecutor, "backgroundExecutor cannot be null");
+        LarkTableCatalog catalog = new LarkTableCatalog(resolver::resolveTableNames, resolver::resolveTableFields, snapshotService, backgroundExecutor);
+
+        Optional<CatalogSnapshot> snapshot = snapshotService.load();
+        if (snapshot.isPresent()) {
+            catalog.index = LarkTableIndex.of(snapshot.get().tables().stream().map(CatalogSnapshot.Table::name).toList());
+            for (CatalogSnapshot.Table table : snapshot.get().tables()) {
+                if (table.columns() != null && !table.columns().isEmpty()) {
+                    catalog.resolvedTables.put(table.name(), ResolvedTable.of(new TableDirectInitialized(table.name().database(), table.name().table(), table.columns())));
+                }
+            }
+            backgroundExecutor.execute(catalog::revalidate);
+        }
+        return catalog;
+    }
+
+    /**
+     * Creates a catalog over tables that were already fully resolved.
+     */
+    public static LarkTableCatalog preResolved(List<TableDirectInitialized> tables)
+    {
+        requireNonNull(tables, "tables cannot be null");
+        List<ResolvedTableName> names = tables.stream().map(t -> new ResolvedTableName(t.database(), t.table())).toList();
+        LarkTableCatalog catalog = new LarkTableCatalog(
+                () -> names,
+                name -> {
+                    throw new IllegalStateException("Table " + name + " was not pre-resolved");
+                },
+                null,
+                null);
+        catalog.index = LarkTableIndex.of(names);
+        for (TableDirectInitialized table : tables) {
+            catalog.resolvedTables.putIfAbsent(new ResolvedTableName(table.database(), table.table()), ResolvedTable.of(table));
+        }
+        return catalog;
+    }
+
+    /**
+     * @return every known table name, resolving them first if this is the first call.
+     */
+    public List<ResolvedTableName> getTableNames()
+    {
+        return index().tables();
+    }
+
+    /**
+     * @return the distinct schema names of every known table.
+     */
+    public List<String> getSchemaNames()
+    {
+        return index().schemaNames();
+    }
+
+    /**
+     * @return the names of the tables in the given schema (matched case-insensitively).
+     */
+    public List<ResolvedTableName> getTableNames(String schemaName)
+    {
+        return index().tablesInSchema(schemaName);
+    }
+
+    private LarkTableIndex index()
+    {
+        LarkTableIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    List<ResolvedTableName> names = nameResolver.get();
+                    logger.info("Resolved {} Lark table names; fields will be resolved per table on first use.", names.size());
+                    current = LarkTableIndex.of(names);
+                    index = current;
+                    scheduleSave();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Looks a table up by its Athena schema and table name (case-insensitively) and returns it with its fields,
+     * discovering them first if this is the first lookup of the table.
+     *
+     * @return the table, or empty if no configured source exposes it or its fields could not be discovered.
+     */
+    public Optional<TableDirectInitialized> getTable(String schemaName, String tableName)
+    {
+        return lookup(schemaName, tableName).map(ResolvedTable::table);
+    }
+
+    /**
+     * Same as {@link #getTable}, but returns the table's Arrow schema, which is built once per cached table.
+     */
+    public Optional<Schema> getTableSchema(String schemaName, String tableName)
+    {
+        return lookup(schemaName, tableName).map(ResolvedTable::schema);
+    }
+
+    private Optional<ResolvedTable> lookup(String schemaName, String tableName)
+    {
+        Optional<ResolvedTableName> name = index().find(schemaName, tableName);
+        if (name.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ResolvedTable cached = resolvedTables.get(name.get());
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        try {
+            ResolvedTable resolved = ResolvedTable.of(fieldsLoader.load(name.get()));
+            if (!resolved.table().columns().isEmpty() && resolvedTables.putIfAbsent(name.get(), resolved) == null) {
+                scheduleSave();
+            }
+            logger.info("Resolved {} fields for {}.{} on first use.", resolved.table().columns().size(), schemaName, tableName);
+            return Optional.of(resolved);
+        }
+        catch (TimeoutException e) {
+            logger.error("Timeout resolving fields for {}.{}: {}", schemaName, tableName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Re-resolves the names behind a snapshot-seeded catalog and drops cached fields of every table that changed, or
+     * that cannot be shown to be unchanged. Dropped tables have their fields rediscovered on their next lookup.
+     */
+    private void revalidate()
+    {
+        List<ResolvedTableName> freshNames;
+        try {
+            freshNames = nameResolver.get();
+        }
+        catch (RuntimeException e) {
+            logger.warn("Failed to revalidate the Lark catalog snapshot, keeping it: {}", e.getMessage(), e);
+            return;
+        }
+        if (freshNames.isEmpty() && !index.tables().isEmpty()) {
+            // Resolution absorbs Lark errors; an empty result is far more likely an outage than a wiped catalog.
+            logger.warn("Revalidation of the Lark catalog snapshot resolved no tables, keeping the snapshot's {} tables.", index.tables().size());
+            return;
+        }
+
+        int cachedBefore = resolvedTables.size();
+        Set<ResolvedTableName> freshNameSet = new HashSet<>(freshNames);
+        Map<String, String> previousBaseKeys = baseKeys(index.tables());
+        Map<String, String> freshBaseKeys = baseKeys(freshNames);
+        index = LarkTableIndex.of(freshNames);
+        resolvedTables.entrySet().removeIf(entry -> !isStillCurrent(entry.getKey(), entry.getValue().table(),
+                freshNameSet, previousBaseKeys, freshBaseKeys));
+        logger.info("Revalidated the Lark catalog snapshot: {} tables, {} of {} cached field mappings still current.",
+                freshNames.size(), resolvedTables.size(), cachedBefore);
+        scheduleSave();
+    }
+
+    /**
+     * Cache entries are keyed by name including revision, so an edited (or removed) table no longer matches a fresh
+     * name. A table without a revision can never be shown to be unchanged, and a table with LOOKUP columns is only as
+     * current as every table of its base.
+     */
+    private static boolean isStillCurrent(ResolvedTableName name, TableDirectInitialized table, Set<ResolvedTableName> freshNames,
+                                          Map<String, String> previousBaseKeys, Map<String, String> freshBaseKeys)
+    {
+        if (name.revision() == null || !freshNames.contains(name)) {
+            return false;
+        }
+        if (!hasLookupColumns(table)) {
+            return true;
+        }
+        String previousBaseKey = previousBaseKeys.get(name.database().larkBaseId());
+        return previousBaseKey != null && previousBaseKey.equals(freshBaseKeys.get(name.database().larkBaseId()));
+    }
+
+    private static boolean hasLookupColumns(TableDirectInitialized table)
+    {
+        for (AthenaFieldLarkBaseMapping column : table.columns()) {
+            if (column.nestedUIType() != null && column.nestedUIType().uiType() == UITypeEnum.LOOKUP) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return per Lark base ID, a key made of the revisions of all of the base's tables, or null if any is missing.
+     */
+    private static Map<String, String> baseKeys(List<ResolvedTableName> names)
+    {
+        Map<String, List<ResolvedTableName>> namesByBase = names.stream()
+                .collect(Collectors.groupingBy(name -> name.database().larkBaseId()));
+        Map<String, String> baseKeys = new HashMap<>();
+        namesByBase.forEach((baseId, baseNames) -> {
+            boolean complete = baseNames.stream().allMatch(name -> name.revision() != null);
+            baseKeys.put(baseId, complete ? baseNames.stream()
+                    .map(name -> name.table().larkBaseId() + '=' + name.revision())
+                    .sorted()
+                    .distinct()
+                    .collect(Collectors.joining("\n")) : null);
+        });
+        return baseKeys;
+    }
+
+    /**
+     * Persists the current state in the background, coalescing bursts of changes into one write.
+     */
+    private void scheduleSave()
+    {
+        if (snapshotService == null || !savePending.compareAndSet(false, true)) {
+            return;
+        }
+        backgroundExecutor.execute(() -> {
+            savePending.set(false);
+            LarkTableIndex current = index;
+            if (current != null) {
+                Map<ResolvedTableName, TableDirectInitialized> tables = new HashMap<>();
+                resolvedTables.forEach((name, resolved) -> tables.put(name, resolved.table()));
+                snapshotService.save(current.tables(), tables);
+            }
+        });
+    }
+
+    /**
+     * A table with its fields and its Arrow schema, built on first use and then kept with the table.
+     */
+    private record ResolvedTable(TableDirectInitialized table, Supplier<Schema> schemaSupplier)
+    {
+        private static ResolvedTable of(TableDirectInitialized table)
+        {
+            return new ResolvedTable(table, Suppliers.memoize(() -> CommonUtil.buildSchemaFromLarkFields(table.columns())));
+        }
+
+        private Schema schema()
+        {
+            return schemaSupplier.get();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TableFieldsLoader
+    {
+        TableDirectInitialized load(ResolvedTableName tableName) throws TimeoutException;
+    }
+}
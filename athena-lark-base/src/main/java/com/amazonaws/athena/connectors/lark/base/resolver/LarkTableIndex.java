@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.resolver;
+
+import com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable, case-normalized index over a resolved list of Lark table names: schema to table to name, plus the
+ * per-schema table lists and the distinct schema names, all built once when the names are resolved. Lookups
+ * match Athena names case-insensitively and, like the linear scans this replaces, the first table in resolution
+ * order wins if two ever normalize to the same key.
+ */
+public final class LarkTableIndex
+{
+    private final List<ResolvedTableName> tables;
+    private final List<String> schemaNames;
+    private final Map<String, List<ResolvedTableName>> tablesBySchema;
+    private final Map<String, Map<String, ResolvedTableName>> tablesBySchemaAndName;
+
+    private LarkTableIndex(List<ResolvedTableName> tables)
+    {
+        Map<String, String> schemaNamesByKey = new LinkedHashMap<>();
+        Map<String, List<ResolvedTableName>> bySchema = new HashMap<>();
+        Map<String, Map<String, ResolvedTableName>> bySchemaAndName = new HashMap<>();
+        for (ResolvedTableName table : tables) {
+            String schemaKey = normalize(table.database().athenaName());
+            schemaNamesByKey.putIfAbsent(schemaKey, table.database().athenaName());
+            bySchema.computeIfAbsent(schemaKey, key -> new ArrayList<>()).add(table);
+            bySchemaAndName.computeIfAbsent(schemaKey, key -> new HashMap<>()).putIfAbsent(normalize(table.table().athenaName()), table);
+        }
+
+        this.tables = List.copyOf(tables);
+        this.schemaNames = List.copyOf(schemaNamesByKey.values());
+        Map<String, List<ResolvedTableName>> immutableBySchema = new HashMap<>();
+        bySchema.forEach((key, value) -> immutableBySchema.put(key, List.copyOf(value)));
+        this.tablesBySchema = Map.copyOf(immutableBySchema);
+        Map<String, Map<String, ResolvedTableName>> immutableBySchemaAndName = new HashMap<>();
+        bySchemaAndName.forEach((key, value) -> immutableBySchemaAndName.put(key, Map.copyOf(value)));
+        this.tablesBySchemaAndName = Map.copyOf(immutableBySchemaAndName);
+    }
+
+    public static LarkTableIndex of(List<ResolvedTableName> tables)
+    {
+        return new LarkTableIndex(requireNonNull(tables, "tables cannot be null"));
+    }
+
+    /**
+     * @return every table, in resolution order.
+     */
+    public List<ResolvedTableName> tables()
+    {
+        return tables;
+    }
+
+    /**
+     * @return the distinct schema names, in resolution order.
+     */
+    public List<String> schemaNames()
+    {
+        return schemaNames;
+    }
+
+    /**
+     * @return the tables of the given schema (matched case-insensitively), in resolution order.
+     */
+    public List<ResolvedTableName> tablesInSchema(String schemaName)
+    {
+        return tablesBySchema.getOrDefault(normalize(schemaName), List.of());
+    }
+
+    public Optional<ResolvedTableName> find(String schemaName, String tableName)
+    {
+        Map<String, ResolvedTableName> schemaTables = tablesBySchemaAndName.get(normalize(schemaName));
+        return schemaTables == null ? Optional.empty() : Optional.ofNullable(schemaTables.get(normalize(tableName)));
+    }
+
+    private static String normalize(String name)
+    {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
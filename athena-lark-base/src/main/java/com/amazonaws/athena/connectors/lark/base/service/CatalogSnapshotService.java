@@ -0,0 +1,223 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import com.amazonaws.athena.connectors.lark.base.model.CatalogSnapshot;
+import com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName;
+import com.amazonaws.athena.connectors.lark.base.model.TableDirectInitialized;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Persists the resolved Lark table catalog (names, revisions and whatever field mappings have been resolved) as a
+ * versioned, gzip-compressed JSON snapshot, so a fresh metadata Lambda container can serve it immediately instead
+ * of rediscovering every table from the Lark API. Snapshots are keyed by a fingerprint of the source configuration,
+ * so connectors sharing a spill bucket, or a connector whose sources were reconfigured, never load each other's.
+ *
+ * <p>Snapshots are a cache: any read, parse or write failure is logged and treated as "no snapshot".</p>
+ */
+public class CatalogSnapshotService
+{
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String DISABLED_LOCATION = "disabled";
+    private static final String S3_SCHEME = "s3://";
+    private static final String FILE_SCHEME = "file://";
+    private static final String SNAPSHOT_DIRECTORY = "lark-catalog-snapshot";
+    private static final String SNAPSHOT_SUFFIX = ".json.gz";
+
+    private final CatalogSnapshotStore store;
+    private final String sourceFingerprint;
+
+    public CatalogSnapshotService(CatalogSnapshotStore store, String sourceFingerprint)
+    {
+        this.store = requireNonNull(store, "store is null");
+        this.sourceFingerprint = requireNonNull(sourceFingerprint, "sourceFingerprint is null");
+    }
+
+    /**
+     * Creates the snapshot service configured by {@code CATALOG_SNAPSHOT_LOCATION_ENV_VAR}, falling back to the
+     * spill bucket when the location is unset.
+     *
+     * @return the service, or empty if snapshots are disabled or there is nowhere to keep them.
+     */
+    public static Optional<CatalogSnapshotService> fromConfig(EnvVarService envVarService)
+    {
+        String fingerprint = fingerprint(envVarService);
+        String fileName = fingerprint + SNAPSHOT_SUFFIX;
+        String location = envVarService.getCatalogSnapshotLocation() == null ? "" : envVarService.getCatalogSnapshotLocation().trim();
+
+        CatalogSnapshotStore store;
+        if (DISABLED_LOCATION.equalsIgnoreCase(location)) {
+            return Optional.empty();
+        }
+        else if (location.isEmpty()) {
+            String spillBucket = envVarService.getSpillBucket();
+            if (spillBucket == null || spillBucket.isEmpty()) {
+                return Optional.empty();
+            }
+            store = new S3CatalogSnapshotStore(S3Client.create(), spillBucket, joinKey(envVarService.getSpillPrefix(), SNAPSHOT_DIRECTORY, fileName));
+        }
+        else if (location.startsWith(S3_SCHEME)) {
+            String bucketAndPrefix = location.substring(S3_SCHEME.length());
+            int slash = bucketAndPrefix.indexOf('/');
+            String bucket = slash < 0 ? bucketAndPrefix : bucketAndPrefix.substring(0, slash);
+            String prefix = slash < 0 ? "" : bucketAndPrefix.substring(slash + 1);
+            store = new S3CatalogSnapshotStore(S3Client.create(), bucket, joinKey(prefix, fileName));
+        }
+        else {
+            String directory = location.startsWith(FILE_SCHEME) ? location.substring(FILE_SCHEME.length()) : location;
+            store = new LocalCatalogSnapshotStore(Path.of(directory, fileName));
+        }
+
+        logger.info("Lark catalog snapshots are kept at {}", store);
+        return Optional.of(new CatalogSnapshotService(store, fingerprint));
+    }
+
+    /**
+     * Fingerprints everything that decides which tables get resolved, so a snapshot is only reused by a connector
+     * configured to resolve the very same catalog.
+     */
+    public static String fingerprint(EnvVarService envVarService)
+    {
+        String source = String.join("\n",
+                String.valueOf(CatalogSnapshot.FORMAT_VERSION),
+                String.valueOf(envVarService.getLarkAppId()),
+                String.valueOf(envVarService.isActivateLarkBaseSource()),
+                String.valueOf(envVarService.getLarkBaseSources()),
+                String.valueOf(envVarService.isActivateLarkDriveSource()),
+                String.valueOf(envVarService.getLarkDriveSources()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return the stored snapshot, or empty if there is none, or it was written by another format version or for
+     * another source configuration, or it cannot be read.
+     */
+    public Optional<CatalogSnapshot> load()
+    {
+        try {
+            Optional<byte[]> bytes = store.read();
+            if (bytes.isEmpty()) {
+                logger.info("No Lark catalog snapshot found at {}", store);
+                return Optional.empty();
+            }
+
+            CatalogSnapshot snapshot = deserialize(bytes.get());
+            if (snapshot.formatVersion() != CatalogSnapshot.FORMAT_VERSION
+                    || !sourceFingerprint.equals(snapshot.sourceFingerprint())
+                    || snapshot.tables() == null) {
+                logger.warn("Ignoring Lark catalog snapshot at {}: format version {} / fingerprint {} does not match {} / {}",
+                        store, snapshot.formatVersion(), snapshot.sourceFingerprint(), CatalogSnapshot.FORMAT_VERSION, sourceFingerprint);
+                return Optional.empty();
+            }
+
+            logger.info("Loaded Lark catalog snapshot from {} with {} tables, written at {}", store, snapshot.tables().size(), snapshot.createdAtEpochMillis());
+            return Optional.of(snapshot);
+        }
+        catch (IOException | RuntimeException e) {
+            logger.warn("Failed to load Lark catalog snapshot from {}: {}", store, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given catalog state. Tables whose fields have not been resolved yet are stored by
+     * name only.
+     */
+    public void save(List<ResolvedTableName> tableNames, Map<ResolvedTableName, TableDirectInitialized> resolvedTables)
+    {
+        List<CatalogSnapshot.Table> tables = new ArrayList<>(tableNames.size());
+        for (ResolvedTableName name : tableNames) {
+            TableDirectInitialized resolved = resolvedTables.get(name);
+            tables.add(new CatalogSnapshot.Table(name, resolved == null ? null : resolved.columns()));
+        }
+
+        try {
+            store.write(serialize(new CatalogSnapshot(CatalogSnapshot.FORMAT_VERSION, sourceFingerprint, System.currentTimeMillis(), tables)));
+            logger.info("Saved Lark catalog snapshot with {} tables to {}", tables.size(), store);
+        }
+        catch (IOException | RuntimeException e) {
+            logger.warn("Failed to save Lark catalog snapshot to {}: {}", store, e.getMessage(), e);
+        }
+    }
+
+    static byte[] serialize(CatalogSnapshot snapshot) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            OBJECT_MAPPER.writeValue(out, snapshot);
+        }
+        return bytes.toByteArray();
+    }
+
+    static CatalogSnapshot deserialize(byte[] bytes) throws IOException
+    {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return OBJECT_MAPPER.readValue(in, CatalogSnapshot.class);
+        }
+    }
+
+    private static String joinKey(String... parts)
+    {
+        StringBuilder key = new StringBuilder();
+        for (String part : parts) {
+            String trimmed = part == null ? "" : part.replaceAll("^/+|/+$", "");
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (key.length() > 0) {
+                key.append('/');
+            }
+            key.append(trimmed);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,39 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Storage backend for the serialized catalog snapshot (see {@link CatalogSnapshotService}).
+ */
+public interface CatalogSnapshotStore
+{
+    /**
+     * @return the stored snapshot bytes, or empty if no snapshot has been written yet.
+     */
+    Optional<byte[]> read() throws IOException;
+
+    /**
+     * Replaces the stored snapshot. Readers must never observe a partially written snapshot.
+     */
+    void write(byte[] snapshot) throws IOException;
+}
@@ -30,7 +30,11 @@ import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.BLACKLIST_TABLES_ENV_VAR;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.CATALOG_SNAPSHOT_LOCATION_ENV_VAR;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DEFAULT_DISCOVERY_MAX_CONCURRENCY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DEFAULT_LARK_LOOKUP_MAX_DEPTH;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DEFAULT_SPLIT_MAX_CONCURRENCY;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DISCOVERY_MAX_CONCURRENCY_ENV_VAR;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DOES_ACTIVATE_EXPERIMENTAL_FEATURE_ENV_VAR;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DOES_ACTIVATE_LARK_BASE_SOURCE_ENV_VAR;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DOES_ACTIVATE_LARK_DRIVE_SOURCE_ENV_VAR;
@@ -40,6 +44,9 @@ import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_APP_K
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_BASE_SOURCES_ENV_VAR;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_DRIVE_SOURCES_ENV_VAR;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_LOOKUP_MAX_DEPTH_ENV_VAR;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.SPILL_BUCKET_ENV_VAR;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.SPILL_PREFIX_ENV_VAR;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.SPLIT_MAX_CONCURRENCY_ENV_VAR;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.WHITELIST_TABLES_ENV_VAR;
 import static java.util.Objects.requireNonNull;
 
@@ -58,8 +65,13 @@ public class EnvVarService
     private final String larkBaseSources;
     private final String larkDriveSources;
     private final int lookupMaxDepth;
+    private final int splitMaxConcurrency;
+    private final int discoveryMaxConcurrency;
     private final String whitelistTables;
     private final String blacklistTables;
+    private final String catalogSnapshotLocation;
+    private final String spillBucket;
+    private final String spillPrefix;
 
     public EnvVarService(Map<String, String> configOptions, ThrottlingInvoker invoker)
     {
@@ -98,22 +110,27 @@ public class EnvVarService
         this.enableDebugLogging = Boolean.parseBoolean(configOptions.getOrDefault(ENABLE_DEBUG_LOGGING_ENV_VAR, "false"));
         this.larkBaseSources = configOptions.getOrDefault(LARK_BASE_SOURCES_ENV_VAR, "");
         this.larkDriveSources = configOptions.getOrDefault(LARK_DRIVE_SOURCES_ENV_VAR, "");
-        this.lookupMaxDepth = parseLookupMaxDepth(configOptions.get(LARK_LOOKUP_MAX_DEPTH_ENV_VAR));
+        this.lookupMaxDepth = parsePositiveInt(configOptions.get(LARK_LOOKUP_MAX_DEPTH_ENV_VAR), DEFAULT_LARK_LOOKUP_MAX_DEPTH);
+        this.splitMaxConcurrency = parsePositiveInt(configOptions.get(SPLIT_MAX_CONCURRENCY_ENV_VAR), DEFAULT_SPLIT_MAX_CONCURRENCY);
+        this.discoveryMaxConcurrency = parsePositiveInt(configOptions.get(DISCOVERY_MAX_CONCURRENCY_ENV_VAR), DEFAULT_DISCOVERY_MAX_CONCURRENCY);
         this.whitelistTables = configOptions.getOrDefault(WHITELIST_TABLES_ENV_VAR, "");
         this.blacklistTables = configOptions.getOrDefault(BLACKLIST_TABLES_ENV_VAR, "");
+        this.catalogSnapshotLocation = configOptions.getOrDefault(CATALOG_SNAPSHOT_LOCATION_ENV_VAR, "");
+        this.spillBucket = configOptions.getOrDefault(SPILL_BUCKET_ENV_VAR, "");
+        this.spillPrefix = configOptions.getOrDefault(SPILL_PREFIX_ENV_VAR, "");
     }
 
-    private static int parseLookupMaxDepth(String rawValue)
+    private static int parsePositiveInt(String rawValue, int defaultValue)
     {
         if (rawValue == null || rawValue.isEmpty()) {
-            return DEFAULT_LARK_LOOKUP_MAX_DEPTH;
+            return defaultValue;
         }
         try {
             int parsed = Integer.parseInt(rawValue);
-            return parsed > 0 ? parsed : DEFAULT_LARK_LOOKUP_MAX_DEPTH;
+            return parsed > 0 ? parsed : defaultValue;
         }
         catch (NumberFormatException e) {
-            return DEFAULT_LARK_LOOKUP_MAX_DEPTH;
+            return defaultValue;
         }
     }
 
@@ -167,6 +184,16 @@ public class EnvVarService
         return lookupMaxDepth;
     }
 
+    public int getSplitMaxConcurrency()
+    {
+        return splitMaxConcurrency;
+    }
+
+    public int getDiscoveryMaxConcurrency()
+    {
+        return discoveryMaxConcurrency;
+    }
+
     public String getWhitelistTables()
     {
         return whitelistTables;
@@ -176,4 +203,19 @@ public class EnvVarService
     {
         return blacklistTables;
     }
+
+    public String getCatalogSnapshotLocation()
+    {
+        return catalogSnapshotLocation;
+    }
+
+    public String getSpillBucket()
+    {
+        return spillBucket;
+    }
+
+    public String getSpillPrefix()
+    {
+        return spillPrefix;
+    }
 }
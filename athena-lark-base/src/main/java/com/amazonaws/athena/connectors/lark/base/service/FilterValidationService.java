@@ -0,0 +1,357 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
+import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
+import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
+import com.amazonaws.athena.connectors.lark.base.model.request.TableRecordsRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Validates translated Search API filters against Lark before they are handed to splits, and narrows a rejected
+ * filter down to the part Lark actually accepts.
+ * <p>
+ * Lark rejects some operator/field-type combinations (e.g. range operators on certain field types) with an error
+ * instead of an empty result. Previously such a filter reached the record handler, whose fetch failed and was
+ * treated as "no matching records", so the query silently returned nothing. Here each filter is split into
+ * independent units (a top-level condition, or one OR-group under "children"); units whose combination is known
+ * to be rejected for the table are dropped, and an unseen combination is probed once with a page_size=1 search.
+ * Results are cached per table, so steady-state queries do not pay for any probe. Only Lark's invalid-filter error
+ * counts as a rejection: a probe that fails for any other reason (throttling, a timeout, a server or permission
+ * error) says nothing about the filter, so nothing is cached for it and the filter is left unchanged. Dropping a
+ * unit only widens the filter - Athena re-applies the full WHERE clause to whatever the connector returns - so the
+ * outcome stays correct while keeping as much of the pushdown as Lark can take.
+ */
+public class FilterValidationService
+{
+    private static final Logger logger = LoggerFactory.getLogger(FilterValidationService.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final int VALIDATION_CACHE_MAX_SIZE = 1000;
+    private static final int VALIDATION_CACHE_TTL_MINUTES = 60;
+
+    // Lark's error for a filter it cannot evaluate, e.g. an operator the field type does not support.
+    private static final String INVALID_FILTER_CODE = "1254018";
+    private static final String INVALID_FILTER_MSG = "InvalidFilter";
+
+    private enum ProbeResult
+    {
+        ACCEPTED,
+        REJECTED,
+        // The probe failed for a reason unrelated to the filter.
+        FAILED
+    }
+
+    private final LarkBaseService larkBaseService;
+    private final ThrottlingInvoker invoker;
+
+    // "baseId|tableId" -> ("UI_TYPE:operator" -> accepted by Lark)
+    private final Cache<String, Map<String, Boolean>> combinationCache;
+
+    public FilterValidationService(LarkBaseService larkBaseService, ThrottlingInvoker invoker)
+    {
+        this.larkBaseService = requireNonNull(larkBaseService, "larkBaseService cannot be null");
+        this.invoker = requireNonNull(invoker, "invoker cannot be null");
+        this.combinationCache = CacheBuilder.newBuilder()
+                .maximumSize(VALIDATION_CACHE_MAX_SIZE)
+                .expireAfterWrite(VALIDATION_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Returns the largest part of the given filter that Lark accepts for this table.
+     *
+     * @param baseId The Lark Base ID
+     * @param tableId The Lark table ID
+     * @param filterJson The translated Search API filter, possibly empty
+     * @param fieldNameMappings Athena to Lark field mappings, used to resolve each condition's field type
+     * @return The original filter if it is accepted as a whole, a narrowed filter if only part of it is, or an empty
+     * string if nothing in it can be pushed down
+     */
+    public String toPushableFilter(String baseId, String tableId, String filterJson, List<AthenaFieldLarkBaseMapping> fieldNameMappings)
+    {
+        if (filterJson == null || filterJson.isEmpty()) {
+            return "";
+        }
+
+        List<Map<String, Object>> conditions = new ArrayList<>();
+        List<Map<String, Object>> children = new ArrayList<>();
+        if (!parseFilter(filterJson, conditions, children)) {
+            return filterJson;
+        }
+
+        Map<String, String> fieldTypes = new HashMap<>();
+        if (fieldNameMappings != null) {
+            for (AthenaFieldLarkBaseMapping mapping : fieldNameMappings) {
+                if (mapping.nestedUIType() != null && mapping.nestedUIType().uiType() != null) {
+                    fieldTypes.put(mapping.larkBaseFieldName(), typeKeyOf(mapping.nestedUIType()));
+                }
+            }
+        }
+
+        Map<String, Boolean> knownCombinations = getKnownCombinations(baseId, tableId);
+
+        List<Map<String, Object>> keptConditions = new ArrayList<>();
+        List<Map<String, Object>> keptChildren = new ArrayList<>();
+        Set<String> unverified = new LinkedHashSet<>();
+        boolean droppedKnownRejected = false;
+
+        for (Map<String, Object> condition : conditions) {
+            Set<String> combinations = combinationsOf(List.of(condition), fieldTypes);
+            if (isAnyRejected(combinations, knownCombinations)) {
+                droppedKnownRejected = true;
+                continue;
+            }
+            keptConditions.add(condition);
+            collectUnverified(combinations, knownCombinations, unverified);
+        }
+        for (Map<String, Object> child : children) {
+            Set<String> combinations = combinationsOf(getConditions(child), fieldTypes);
+            if (isAnyRejected(combinations, knownCombinations)) {
+                droppedKnownRejected = true;
+                continue;
+            }
+            keptChildren.add(child);
+            collectUnverified(combinations, knownCombinations, unverified);
+        }
+
+        String candidate = droppedKnownRejected ? buildFilter(keptConditions, keptChildren) : filterJson;
+        if (unverified.isEmpty() || candidate.isEmpty()) {
+            if (droppedKnownRejected) {
+                logger.info("Dropped filter conditions Lark previously rejected for {}.{}; pushing down: '{}'", baseId, tableId, candidate);
+            }
+            return candidate;
+        }
+
+        ProbeResult candidateResult = probe(baseId, tableId, candidate);
+        if (candidateResult == ProbeResult.ACCEPTED) {
+            markAccepted(knownCombinations, combinationsOf(keptConditions, fieldTypes));
+            for (Map<String, Object> child : keptChildren) {
+                markAccepted(knownCombinations, combinationsOf(getConditions(child), fieldTypes));
+            }
+            return candidate;
+        }
+        if (candidateResult == ProbeResult.FAILED) {
+            logger.warn("Could not validate filter for {}.{}; leaving the filter unchanged.", baseId, tableId);
+            return candidate;
+        }
+
+        List<Map<String, Object>> allUnits = new ArrayList<>(keptConditions);
+        for (Map<String, Object> child : keptChildren) {
+            allUnits.addAll(getConditions(child));
+        }
+        for (String combination : unverified) {
+            Map<String, Object> representative = allUnits.stream()
+                    .filter(condition -> combination.equals(combinationOf(condition, fieldTypes)))
+                    .findFirst()
+                    .orElse(null);
+            if (representative == null) {
+                continue;
+            }
+            ProbeResult result = probe(baseId, tableId, buildFilter(List.of(representative), List.of()));
+            if (result == ProbeResult.FAILED) {
+                logger.warn("Could not validate filter combination {} for {}.{}; leaving the filter unchanged.",
+                        combination, baseId, tableId);
+                return candidate;
+            }
+            knownCombinations.put(combination, result == ProbeResult.ACCEPTED);
+            if (result == ProbeResult.REJECTED) {
+                logger.info("Lark rejected filter combination {} for {}.{}; it will be applied by Athena instead.",
+                        combination, baseId, tableId);
+            }
+        }
+
+        keptConditions.removeIf(condition -> isAnyRejected(combinationsOf(List.of(condition), fieldTypes), knownCombinations));
+        keptChildren.removeIf(child -> isAnyRejected(combinationsOf(getConditions(child), fieldTypes), knownCombinations));
+
+        String narrowed = buildFilter(keptConditions, keptChildren);
+        if (narrowed.isEmpty() || probe(baseId, tableId, narrowed) != ProbeResult.REJECTED) {
+            logger.info("Narrowed rejected filter for {}.{} to its pushable part: '{}'", baseId, tableId, narrowed);
+            return narrowed;
+        }
+
+        // Every combination is accepted on its own but not together (e.g. a request-level limit); push nothing.
+        logger.warn("Lark rejected the narrowed filter for {}.{} as well. Falling back to no filter pushdown.", baseId, tableId);
+        return "";
+    }
+
+    private Map<String, Boolean> getKnownCombinations(String baseId, String tableId)
+    {
+        try {
+            return combinationCache.get(baseId + "|" + tableId, ConcurrentHashMap::new);
+        }
+        catch (ExecutionException e) {
+            return new ConcurrentHashMap<>();
+        }
+    }
+
+    private ProbeResult probe(String baseId, String tableId, String filterJson)
+    {
+        try {
+            TableRecordsRequest request = TableRecordsRequest.builder()
+                    .baseId(baseId)
+                    .tableId(tableId)
+                    .pageSize(1)
+                    .filterJson(filterJson)
+                    .sortJson("")
+                    .build();
+            invoker.invoke(() -> larkBaseService.getTableRecords(request));
+            return ProbeResult.ACCEPTED;
+        }
+        catch (Exception e) {
+            logger.info("Filter probe failed for {}.{} with filter '{}': {}", baseId, tableId, filterJson, e.getMessage());
+            return isInvalidFilter(e) ? ProbeResult.REJECTED : ProbeResult.FAILED;
+        }
+    }
+
+    private static boolean isInvalidFilter(Exception e)
+    {
+        String message = e.getMessage();
+        return message != null && (message.contains(INVALID_FILTER_CODE) || message.contains(INVALID_FILTER_MSG));
+    }
+
+    private static boolean parseFilter(String filterJson, List<Map<String, Object>> conditions, List<Map<String, Object>> children)
+    {
+        try {
+            Map<String, Object> filter = OBJECT_MAPPER.readValue(filterJson, new TypeReference<>()
+            {
+            });
+            Object rawConditions = filter.get("conditions");
+            Object rawChildren = filter.get("children");
+            if (rawConditions instanceof List<?> list) {
+                for (Object item : list) {
+                    conditions.add(asMap(item));
+                }
+            }
+            if (rawChildren instanceof List<?> list) {
+                for (Object item : list) {
+                    children.add(asMap(item));
+                }
+            }
+            return true;
+        }
+        catch (Exception e) {
+            logger.warn("Could not parse filter '{}' for validation: {}", filterJson, e.getMessage());
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object item)
+    {
+        return (Map<String, Object>) item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getConditions(Map<String, Object> group)
+    {
+        Object conditions = group.get("conditions");
+        return conditions instanceof List ? (List<Map<String, Object>>) conditions : List.of();
+    }
+
+    /**
+     * Lark accepts a different operator set for a formula than for a plain field of its result type, so formula
+     * verdicts are kept apart from those of the result type, e.g. {@code FORMULA(NUMBER)} vs {@code NUMBER}.
+     */
+    private static String typeKeyOf(NestedUIType nestedUIType)
+    {
+        if (nestedUIType.uiType() == UITypeEnum.FORMULA && nestedUIType.childType() != null) {
+            return nestedUIType.uiType().name() + "(" + nestedUIType.childType().name() + ")";
+        }
+        return nestedUIType.uiType().name();
+    }
+
+    private static String combinationOf(Map<String, Object> condition, Map<String, String> fieldTypes)
+    {
+        String fieldType = fieldTypes.getOrDefault(String.valueOf(condition.get("field_name")), "UNKNOWN");
+        return fieldType + ":" + condition.get("operator");
+    }
+
+    private static Set<String> combinationsOf(List<Map<String, Object>> conditions, Map<String, String> fieldTypes)
+    {
+        Set<String> combinations = new LinkedHashSet<>();
+        for (Map<String, Object> condition : conditions) {
+            combinations.add(combinationOf(condition, fieldTypes));
+        }
+        return combinations;
+    }
+
+    private static boolean isAnyRejected(Set<String> combinations, Map<String, Boolean> knownCombinations)
+    {
+        return combinations.stream().anyMatch(combination -> Boolean.FALSE.equals(knownCombinations.get(combination)));
+    }
+
+    private static void collectUnverified(Set<String> combinations, Map<String, Boolean> knownCombinations, Set<String> unverified)
+    {
+        for (String combination : combinations) {
+            if (!knownCombinations.containsKey(combination)) {
+                unverified.add(combination);
+            }
+        }
+    }
+
+    private static void markAccepted(Map<String, Boolean> knownCombinations, Set<String> combinations)
+    {
+        for (String combination : combinations) {
+            knownCombinations.put(combination, true);
+        }
+    }
+
+    private static String buildFilter(List<Map<String, Object>> conditions, List<Map<String, Object>> children)
+    {
+        if (conditions.isEmpty() && children.isEmpty()) {
+            return "";
+        }
+
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("conjunction", "and");
+        filter.put("conditions", conditions);
+        if (!children.isEmpty()) {
+            filter.put("children", children);
+        }
+
+        try {
+            return OBJECT_MAPPER.writeValueAsString(filter);
+        }
+        catch (Exception e) {
+            logger.error("Failed to serialize filter to JSON: {}", e.getMessage(), e);
+            return "";
+        }
+    }
+}
@@ -22,58 +22,154 @@ package com.amazonaws.athena.connectors.lark.base.service;
 import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
 import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
 import com.amazonaws.athena.connectors.lark.base.util.CommonUtil;
+import com.google.common.base.Suppliers;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.glue.GlueClient;
+import software.amazon.awssdk.services.glue.model.EntityNotFoundException;
 import software.amazon.awssdk.services.glue.model.GetTableRequest;
-import software.amazon.awssdk.services.glue.model.GetTableResponse;
+import software.amazon.awssdk.services.glue.model.Table;
 import software.amazon.awssdk.utils.Pair;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_BASE_ID_PARAMETER;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_TABLE_ID_PARAMETER;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Reads the Lark identifiers and field mappings the crawler stored on a Glue table.
+ * <p>
+ * Parsed table definitions are cached per container, keyed by (database, table) and tagged with the Glue
+ * {@code VersionId} and {@code UpdateTime} they were parsed from, so the base/table IDs and the field mappings of
+ * one query come out of a single {@code GetTable} and the column comments are parsed once per table version
+ * rather than once per call.
+ * <p>
+ * Glue has no conditional {@code GetTable}, so revalidation is a metadata comparison: within
+ * {@link #REVALIDATE_AFTER_SECONDS} of the last check a definition is served without calling Glue at all; after
+ * that the table is fetched again and the parsed definition is kept as long as its version and update time are
+ * unchanged. A schema change made by the crawler therefore lands within that window.
+ */
 public class GlueCatalogService
 {
     private static final Logger logger = LoggerFactory.getLogger(GlueCatalogService.class);
+
+    private static final int TABLE_CACHE_MAX_SIZE = 500;
+    private static final int TABLE_CACHE_TTL_MINUTES = 60;
+    static final int REVALIDATE_AFTER_SECONDS = 30;
+
     private final GlueClient glueClient;
+    private final Ticker ticker;
+    private final Cache<String, TableDefinition> tableDefinitions;
 
     public GlueCatalogService(GlueClient glueClient)
+    {
+        this(glueClient, Ticker.systemTicker());
+    }
+
+    GlueCatalogService(GlueClient glueClient, Ticker ticker)
     {
         requireNonNull(glueClient);
         this.glueClient = glueClient;
+        this.ticker = requireNonNull(ticker, "ticker cannot be null");
+        this.tableDefinitions = CacheBuilder.newBuilder()
+                .maximumSize(TABLE_CACHE_MAX_SIZE)
+                .expireAfterAccess(TABLE_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+                .build();
     }
 
-    private GetTableResponse getGlueTable(String databaseName, String tableName)
+    /**
+     * A Glue table as parsed for the connector.
+     *
+     * @param versionId     Glue {@code VersionId} the definition was parsed from; may be null
+     * @param updateTime    Glue {@code UpdateTime} the definition was parsed from; may be null
+     * @param larkBaseId    Value of the {@code larkBaseId} table parameter
+     * @param larkTableId   Value of the {@code larkTableId} table parameter
+     * @param fieldMappings Column mappings, parsed from the column comments on first use
+     * @param checkedAtNanos Ticker reading of the last time this definition was confirmed against Glue
+     */
+    private record TableDefinition(String versionId, Instant updateTime, String larkBaseId, String larkTableId,
+                                   Supplier<List<AthenaFieldLarkBaseMapping>> fieldMappings, long checkedAtNanos)
+    {
+        boolean sameVersionAs(Table table)
+        {
+            return Objects.equals(versionId, table.versionId()) && Objects.equals(updateTime, table.updateTime());
+        }
+
+        TableDefinition checkedAt(long nanos)
+        {
+            return new TableDefinition(versionId, updateTime, larkBaseId, larkTableId, fieldMappings, nanos);
+        }
+    }
+
+    private TableDefinition getTableDefinition(String databaseName, String tableName)
+    {
+        String key = databaseName + "." + tableName;
+        long now = ticker.read();
+        TableDefinition cached = tableDefinitions.getIfPresent(key);
+        if (cached != null && now - cached.checkedAtNanos() < TimeUnit.SECONDS.toNanos(REVALIDATE_AFTER_SECONDS)) {
+            return cached;
+        }
+
+        Table table;
+        try {
+            table = getGlueTable(databaseName, tableName);
+        }
+        catch (EntityNotFoundException e) {
+            tableDefinitions.invalidate(key);
+            throw e;
+        }
+
+        TableDefinition definition;
+        if (cached != null && cached.sameVersionAs(table)) {
+            definition = cached.checkedAt(now);
+        }
+        else {
+            logger.info("Parsing Glue table definition {} (version {}, updated {})", key, table.versionId(), table.updateTime());
+            definition = new TableDefinition(table.versionId(), table.updateTime(),
+                    table.parameters().get(LARK_BASE_ID_PARAMETER), table.parameters().get(LARK_TABLE_ID_PARAMETER),
+                    Suppliers.memoize(() -> parseFieldNameMappings(table)), now);
+        }
+        tableDefinitions.put(key, definition);
+        return definition;
+    }
+
+    private Table getGlueTable(String databaseName, String tableName)
     {
         GetTableRequest request = GetTableRequest.builder()
                 .databaseName(databaseName)
                 .name(tableName)
                 .build();
 
-        return glueClient.getTable(request);
+        return glueClient.getTable(request).table();
     }
 
     public Pair<String, String> getLarkBaseAndTableIdFromTable(String databaseName, String tableName)
     {
-        GetTableResponse response = this.getGlueTable(databaseName, tableName);
+        TableDefinition definition = getTableDefinition(databaseName, tableName);
 
         // On the glue table, lark table id is stored in the table properties key "larkTableId"
-        String baseId = response.table().parameters().get(LARK_BASE_ID_PARAMETER);
-        String tableId = response.table().parameters().get(LARK_TABLE_ID_PARAMETER);
-
-        return Pair.of(baseId, tableId);
+        return Pair.of(definition.larkBaseId(), definition.larkTableId());
     }
 
     public List<AthenaFieldLarkBaseMapping> getFieldNameMappings(String schemaName, String tableName)
     {
-        GetTableResponse response = getGlueTable(schemaName, tableName);
+        return getTableDefinition(schemaName, tableName).fieldMappings().get();
+    }
 
+    private static List<AthenaFieldLarkBaseMapping> parseFieldNameMappings(Table table)
+    {
         List<AthenaFieldLarkBaseMapping> fieldNameMappings = new ArrayList<>();
-        response.table().storageDescriptor().columns().forEach(column -> {
+        table.storageDescriptor().columns().forEach(column -> {
             String comment = column.comment();
             String columnName = CommonUtil.extractFieldNameFromComment(comment);
             NestedUIType fieldType = CommonUtil.extractFieldTypeFromComment(comment);
@@ -88,6 +184,7 @@ public class GlueCatalogService
             fieldNameMappings.add(new AthenaFieldLarkBaseMapping(column.name(), columnName, fieldType));
         });
 
-        return fieldNameMappings;
+        // Shared by every query served from this definition, so callers must not be able to modify it.
+        return Collections.unmodifiableList(fieldNameMappings);
     }
 }
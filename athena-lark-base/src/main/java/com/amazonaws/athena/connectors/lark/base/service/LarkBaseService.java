@@ -37,7 +37,6 @@ import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.utils.Pair;
 
 import javax.annotation.Nonnull;
 
@@ -45,13 +44,21 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DEFAULT_DISCOVERY_MAX_CONCURRENCY;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DEFAULT_LARK_LOOKUP_MAX_DEPTH;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.PAGE_SIZE;
 import static java.util.Objects.requireNonNull;
@@ -64,12 +71,19 @@ public class LarkBaseService extends CommonLarkService
 
     private static final int FIELD_CACHE_MAX_SIZE = 1000;
     private static final int FIELD_CACHE_TTL_MINUTES = 5;
+    // Workers are created on demand for a bulk field load and die off when idle, so a service that never
+    // prefetches (e.g. in the record handler) holds no threads.
+    private static final int FIELD_PREFETCH_IDLE_SECONDS = 30;
 
     // Cache table fields to avoid N+1 query problem when resolving lookup types
     private final LoadingCache<String, List<ListFieldResponse.FieldItem>> tableFieldsCache;
 
-    // Safety valve on top of cycle detection for chained LOOKUP resolution; see BaseConstants.LARK_LOOKUP_MAX_DEPTH_ENV_VAR.
-    private final int lookupMaxDepth;
+    // Memoized LOOKUP resolution per base, reading from tableFieldsCache. Its max depth is the safety valve on top
+    // of cycle detection for chained LOOKUPs; see BaseConstants.LARK_LOOKUP_MAX_DEPTH_ENV_VAR.
+    private final LookupTypeGraph lookupTypeGraph;
+
+    // Runs the per-table fetches of a bulk field load (see getAllTableFields) with the discovery concurrency.
+    private final ExecutorService fieldPrefetchExecutor;
 
     public LarkBaseService(String larkAppId, String larkAppSecret)
     {
@@ -77,10 +91,16 @@ public class LarkBaseService extends CommonLarkService
     }
 
     public LarkBaseService(String larkAppId, String larkAppSecret, int lookupMaxDepth)
+    {
+        this(larkAppId, larkAppSecret, lookupMaxDepth, DEFAULT_DISCOVERY_MAX_CONCURRENCY);
+    }
+
+    public LarkBaseService(String larkAppId, String larkAppSecret, int lookupMaxDepth, int discoveryMaxConcurrency)
     {
         super(larkAppId, larkAppSecret);
-        this.lookupMaxDepth = lookupMaxDepth;
         this.tableFieldsCache = buildTableFieldsCache();
+        this.lookupTypeGraph = new LookupTypeGraph(this::getTableFields, lookupMaxDepth, FIELD_CACHE_TTL_MINUTES);
+        this.fieldPrefetchExecutor = buildFieldPrefetchExecutor(discoveryMaxConcurrency);
     }
 
     public LarkBaseService(String larkAppId, String larkAppSecret, HttpClientWrapper httpClient)
@@ -89,10 +109,17 @@ public class LarkBaseService extends CommonLarkService
     }
 
     public LarkBaseService(String larkAppId, String larkAppSecret, HttpClientWrapper httpClient, int lookupMaxDepth)
+    {
+        this(larkAppId, larkAppSecret, httpClient, lookupMaxDepth, DEFAULT_DISCOVERY_MAX_CONCURRENCY);
+    }
+
+    public LarkBaseService(String larkAppId, String larkAppSecret, HttpClientWrapper httpClient, int lookupMaxDepth,
+                           int discoveryMaxConcurrency)
     {
         super(larkAppId, larkAppSecret, httpClient);
-        this.lookupMaxDepth = lookupMaxDepth;
         this.tableFieldsCache = buildTableFieldsCache();
+        this.lookupTypeGraph = new LookupTypeGraph(this::getTableFields, lookupMaxDepth, FIELD_CACHE_TTL_MINUTES);
+        this.fieldPrefetchExecutor = buildFieldPrefetchExecutor(discoveryMaxConcurrency);
     }
 
     private LoadingCache<String, List<ListFieldResponse.FieldItem>> buildTableFieldsCache()
@@ -112,7 +139,28 @@ public class LarkBaseService extends CommonLarkService
                         }
                         return fetchTableFieldsUncached(parts[0], parts[1]);
                     }
+
+                    @Override
+                    @Nonnull
+                    public Map<String, List<ListFieldResponse.FieldItem>> loadAll(@Nonnull Iterable<? extends String> tableKeys)
+                    {
+                        return fetchAllTableFieldsUncached(tableKeys);
+                    }
+                });
+    }
+
+    private static ExecutorService buildFieldPrefetchExecutor(int discoveryMaxConcurrency)
+    {
+        int poolSize = discoveryMaxConcurrency > 0 ? discoveryMaxConcurrency : DEFAULT_DISCOVERY_MAX_CONCURRENCY;
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                FIELD_PREFETCH_IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "lark-field-prefetch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
                 });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     /**
@@ -239,7 +287,8 @@ public class LarkBaseService extends CommonLarkService
                     return recordsResponse;
                 }
                 else {
-                    throw new IOException("Failed to retrieve records for table: " + request.getTableId() + ", Error: " + recordsResponse.getMsg());
+                    throw new IOException("Failed to retrieve records for table: " + request.getTableId() + ", Error: " + recordsResponse.getMsg()
+                            + ", Code: " + recordsResponse.getCode());
                 }
             }
         }
@@ -307,6 +356,100 @@ public class LarkBaseService extends CommonLarkService
         }
     }
 
+    /**
+     * Get the fields of every table of a base, loading all tables that are not cached yet concurrently.
+     *
+     * @param baseId The base ID
+     * @return Field items by table ID, in {@link #listTables} order; see {@link #getAllTableFields(String, Collection)}
+     */
+    public Map<String, List<ListFieldResponse.FieldItem>> getAllTableFields(String baseId)
+    {
+        List<String> tableIds = listTables(baseId).stream()
+                .map(ListAllTableResponse.BaseItem::getTableId)
+                .collect(Collectors.toList());
+        return getAllTableFields(baseId, tableIds);
+    }
+
+    /**
+     * Get the fields of the given tables of a base. Tables already in the field cache are served from it; all the
+     * others are fetched concurrently in one bulk cache load, so that LOOKUP resolution and field discovery for
+     * the base afterwards run against warm data instead of one cache miss at a time in chain-walking order.
+     * <p>
+     * This is a best-effort prefetch: a table whose fields cannot be fetched (e.g. Lark throttled the request) is
+     * logged and left out of the result instead of failing the other tables, and a later
+     * {@link #getTableFields} for it simply fetches it again.
+     *
+     * @param baseId   The base ID
+     * @param tableIds The table IDs
+     * @return Field items by table ID, in {@code tableIds} order, for every table that could be loaded
+     */
+    public Map<String, List<ListFieldResponse.FieldItem>> getAllTableFields(String baseId, Collection<String> tableIds)
+    {
+        requireNonNull(baseId, "baseId cannot be null");
+        requireNonNull(tableIds, "tableIds cannot be null");
+
+        List<String> cacheKeys = tableIds.stream()
+                .map(tableId -> baseId + "|" + tableId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<String, List<ListFieldResponse.FieldItem>> cached;
+        try {
+            cached = tableFieldsCache.getAll(cacheKeys);
+        }
+        catch (Exception e) {
+            // loadAll leaves out the tables it could not fetch, which getAll reports as an exception after
+            // caching everything it did get.
+            logger.debug("Bulk field load for base {} incomplete: {}", baseId, e.getMessage());
+            cached = tableFieldsCache.getAllPresent(cacheKeys);
+        }
+
+        Map<String, List<ListFieldResponse.FieldItem>> fieldsByTableId = new LinkedHashMap<>();
+        for (String cacheKey : cacheKeys) {
+            List<ListFieldResponse.FieldItem> fields = cached.get(cacheKey);
+            if (fields != null) {
+                fieldsByTableId.put(cacheKey.substring(baseId.length() + 1), fields);
+            }
+        }
+        return fieldsByTableId;
+    }
+
+    /**
+     * Fetch the fields of several tables directly from Lark API, in parallel and without caching.
+     * Internal method used by the cache loader's bulk load; tables that fail are logged and left out.
+     *
+     * @param tableKeys "baseId|tableId" cache keys
+     * @return Field items by cache key
+     */
+    private Map<String, List<ListFieldResponse.FieldItem>> fetchAllTableFieldsUncached(Iterable<? extends String> tableKeys)
+    {
+        Map<String, Future<List<ListFieldResponse.FieldItem>>> pending = new LinkedHashMap<>();
+        for (String tableKey : tableKeys) {
+            String[] parts = tableKey.split("\\|");
+            if (parts.length != 2) {
+                logger.warn("Skipping invalid table key in bulk field load: {}", tableKey);
+                continue;
+            }
+            pending.put(tableKey, fieldPrefetchExecutor.submit(() -> fetchTableFieldsUncached(parts[0], parts[1])));
+        }
+
+        Map<String, List<ListFieldResponse.FieldItem>> loaded = new HashMap<>();
+        for (Map.Entry<String, Future<List<ListFieldResponse.FieldItem>>> entry : pending.entrySet()) {
+            try {
+                loaded.put(entry.getKey(), entry.getValue().get());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.values().forEach(future -> future.cancel(true));
+                break;
+            }
+            catch (ExecutionException e) {
+                logger.warn("Failed to prefetch fields for {}: {}", entry.getKey(), e.getCause().getMessage());
+            }
+        }
+        return loaded;
+    }
+
     /**
      * Fetch table fields directly from Lark API without caching.
      * Internal method used by the cache loader.
@@ -437,51 +580,19 @@ public class LarkBaseService extends CommonLarkService
         return allTables;
     }
 
-    public UITypeEnum getLookupType(String baseId, String tableId, String fieldId)
-    {
-        return getLookupType(baseId, tableId, fieldId, new HashSet<>());
-    }
-
     /**
      * Resolves the effective UI type of a (possibly chained) LOOKUP field, following each LOOKUP to its target
      * field/table until a non-LOOKUP type is found.
-     *
-     * @param visited table/field pairs already visited in this resolution chain. A misconfigured Lark Base can
-     *                have LOOKUP fields that reference each other in a cycle (e.g. table A's field looks up to
-     *                table B's field, which looks up back to table A's field); without cycle detection this would
-     *                recurse indefinitely and crash schema discovery with a StackOverflowError. On top of that,
-     *                {@code lookupMaxDepth} (configurable via {@code LARK_LOOKUP_MAX_DEPTH_ENV_VAR}) caps how many
-     *                hops are followed even for a legitimate, non-circular chain, as a defense-in-depth safety valve.
+     * <p>
+     * A misconfigured Lark Base can have LOOKUP fields that reference each other in a cycle (e.g. table A's field
+     * looks up to table B's field, which looks up back to table A's field); those resolve to UNKNOWN instead of
+     * recursing forever. On top of that, {@code lookupMaxDepth} (configurable via
+     * {@code LARK_LOOKUP_MAX_DEPTH_ENV_VAR}) caps how many hops are followed even for a legitimate, non-circular
+     * chain, as a defense-in-depth safety valve. Resolutions are memoized per base by {@link LookupTypeGraph}, so
+     * many LOOKUPs into the same target field (from this table or any other) only walk the chain once.
      */
-    private UITypeEnum getLookupType(String baseId, String tableId, String fieldId, Set<String> visited)
+    public UITypeEnum getLookupType(String baseId, String tableId, String fieldId)
     {
-        if (visited.size() >= lookupMaxDepth) {
-            logger.warn("LOOKUP resolution for field '{}' in table '{}' (base '{}') exceeded the configured max "
-                    + "depth ({}). Returning UNKNOWN.", fieldId, tableId, baseId, lookupMaxDepth);
-            return UITypeEnum.UNKNOWN;
-        }
-
-        String visitKey = tableId + "|" + fieldId;
-        if (!visited.add(visitKey)) {
-            logger.warn("Detected circular LOOKUP reference while resolving field '{}' in table '{}' (base '{}'). "
-                    + "Breaking the cycle and returning UNKNOWN.", fieldId, tableId, baseId);
-            return UITypeEnum.UNKNOWN;
-        }
-
-        List<ListFieldResponse.FieldItem> fields = getTableFields(baseId, tableId);
-        for (ListFieldResponse.FieldItem field : fields) {
-            if (field.getFieldId().equalsIgnoreCase(fieldId)) {
-                if (field.getUIType().equals(UITypeEnum.LOOKUP)) {
-                    Pair<String, String> lookupId = field.getTargetFieldAndTableForLookup();
-                    String newTableId = lookupId.right();
-                    String newFieldId = lookupId.left();
-                    return getLookupType(baseId, newTableId, newFieldId, visited);
-                }
-
-                return field.getUIType();
-            }
-        }
-
-        return UITypeEnum.UNKNOWN;
+        return lookupTypeGraph.resolve(baseId, tableId, fieldId);
     }
 }
@@ -0,0 +1,228 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
+import com.amazonaws.athena.connectors.lark.base.model.response.ListFieldResponse;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Per-base graph of LOOKUP fields, used to resolve the effective UI type of a (possibly chained) LOOKUP.
+ * <p>
+ * Every table's field list is indexed by field ID the first time the table is reached, so each hop is a map
+ * lookup instead of a scan over all fields. Every (tableId, fieldId) node a walk passes through is memoized
+ * together with the number of hops left to its terminal field, so a later LOOKUP into any field already on a
+ * resolved chain stops right there. Broken chains (a missing target field or a circular LOOKUP) are memoized as
+ * {@link UITypeEnum#UNKNOWN} too, so a misconfigured base is only walked once.
+ * <p>
+ * The hop count is what keeps the memo independent of the configured max depth: a memoized terminal type is
+ * only returned when the chain from the requested field fits within {@code maxDepth}. A walk that is cut off
+ * by the max depth memoizes nothing, because it never learned where the chain ends.
+ * <p>
+ * A base's graph expires as a whole after {@code ttlMinutes}, in step with the field cache it reads from, so
+ * an edited LOOKUP target is picked up at the same time as the edited field list.
+ */
+public class LookupTypeGraph
+{
+    private static final Logger logger = LoggerFactory.getLogger(LookupTypeGraph.class);
+    private static final int BASE_CACHE_MAX_SIZE = 100;
+
+    private final BiFunction<String, String, List<ListFieldResponse.FieldItem>> fieldsLoader;
+    private final int maxDepth;
+    private final Cache<String, BaseGraph> baseGraphs;
+
+    /**
+     * @param fieldsLoader Returns the fields of a (baseId, tableId); normally the cached
+     *                     {@link LarkBaseService#getTableFields(String, String)}.
+     * @param maxDepth     Maximum number of fields followed for one resolution; see
+     *                     {@code BaseConstants.LARK_LOOKUP_MAX_DEPTH_ENV_VAR}.
+     * @param ttlMinutes   How long a base's index and memoized resolutions are kept.
+     */
+    public LookupTypeGraph(BiFunction<String, String, List<ListFieldResponse.FieldItem>> fieldsLoader, int maxDepth, int ttlMinutes)
+    {
+        this.fieldsLoader = requireNonNull(fieldsLoader, "fieldsLoader cannot be null");
+        this.maxDepth = maxDepth;
+        this.baseGraphs = CacheBuilder.newBuilder()
+                .maximumSize(BASE_CACHE_MAX_SIZE)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Resolves the effective UI type of the field {@code fieldId} in {@code tableId}, following LOOKUPs to their
+     * target field/table until a non-LOOKUP type is found.
+     *
+     * @return The terminal UI type, or {@link UITypeEnum#UNKNOWN} when the chain points at a missing field, is
+     * circular, or is longer than the configured max depth.
+     */
+    public UITypeEnum resolve(String baseId, String tableId, String fieldId)
+    {
+        BaseGraph graph = baseGraph(baseId);
+
+        List<String> path = new ArrayList<>();
+        Set<String> onPath = new HashSet<>();
+        Resolution beyondPath;
+        String currentTableId = tableId;
+        String currentFieldId = fieldId;
+
+        while (true) {
+            String nodeKey = nodeKey(currentTableId, currentFieldId);
+
+            Resolution memoized = graph.resolutions.get(nodeKey);
+            if (memoized != null) {
+                beyondPath = memoized;
+                break;
+            }
+
+            if (!onPath.add(nodeKey)) {
+                logger.warn("Detected circular LOOKUP reference while resolving field '{}' in table '{}' (base '{}'). "
+                        + "Breaking the cycle and returning UNKNOWN.", fieldId, tableId, baseId);
+                beyondPath = Resolution.UNRESOLVABLE;
+                break;
+            }
+
+            if (path.size() >= maxDepth) {
+                logger.warn("LOOKUP resolution for field '{}' in table '{}' (base '{}') exceeded the configured max "
+                        + "depth ({}). Returning UNKNOWN.", fieldId, tableId, baseId, maxDepth);
+                return UITypeEnum.UNKNOWN;
+            }
+
+            path.add(nodeKey);
+            ListFieldResponse.FieldItem field = graph.field(baseId, currentTableId, currentFieldId);
+            if (field == null) {
+                beyondPath = Resolution.UNRESOLVABLE;
+                break;
+            }
+
+            if (!field.getUIType().equals(UITypeEnum.LOOKUP)) {
+                beyondPath = new Resolution(field.getUIType(), 0);
+                break;
+            }
+
+            Pair<String, String> lookupId = field.getTargetFieldAndTableForLookup();
+            currentTableId = lookupId.right();
+            currentFieldId = lookupId.left();
+        }
+
+        // Every node on the path ends in the same place; record how far away that is from each of them.
+        for (int i = 0; i < path.size(); i++) {
+            graph.resolutions.putIfAbsent(path.get(i), beyondPath.extendedBy(path.size() - i));
+        }
+
+        Resolution resolution = path.isEmpty() ? beyondPath : beyondPath.extendedBy(path.size());
+        if (resolution.hops() > maxDepth) {
+            logger.warn("LOOKUP resolution for field '{}' in table '{}' (base '{}') exceeded the configured max "
+                    + "depth ({}). Returning UNKNOWN.", fieldId, tableId, baseId, maxDepth);
+            return UITypeEnum.UNKNOWN;
+        }
+        return resolution.type();
+    }
+
+    /**
+     * Drops the index and memoized resolutions of every base.
+     */
+    public void invalidateAll()
+    {
+        baseGraphs.invalidateAll();
+    }
+
+    private BaseGraph baseGraph(String baseId)
+    {
+        try {
+            return baseGraphs.get(baseId, BaseGraph::new);
+        }
+        catch (ExecutionException e) {
+            // BaseGraph::new cannot throw; keep the compiler happy without losing the cause if it ever does.
+            throw new IllegalStateException("Failed to create LOOKUP graph for base: " + baseId, e);
+        }
+    }
+
+    private static String nodeKey(String tableId, String fieldId)
+    {
+        return tableId + "|" + fieldId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param type Terminal UI type, or UNKNOWN for a broken chain.
+     * @param hops Number of fields visited from this node to the terminal field, inclusive. Zero for a broken
+     *             chain, which is UNKNOWN however short it is.
+     */
+    private record Resolution(UITypeEnum type, int hops)
+    {
+        private static final Resolution UNRESOLVABLE = new Resolution(UITypeEnum.UNKNOWN, 0);
+
+        Resolution extendedBy(int extraHops)
+        {
+            return this == UNRESOLVABLE ? this : new Resolution(type, hops + extraHops);
+        }
+    }
+
+    private final class BaseGraph
+    {
+        // tableId -> (lowercased fieldId -> field). Lark field IDs are matched case-insensitively.
+        private final Map<String, Map<String, ListFieldResponse.FieldItem>> fieldIndex = new ConcurrentHashMap<>();
+        // "tableId|lowercased fieldId" -> resolution
+        private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+        ListFieldResponse.FieldItem field(String baseId, String tableId, String fieldId)
+        {
+            Map<String, ListFieldResponse.FieldItem> fields = fieldIndex.get(tableId);
+            if (fields == null) {
+                // Loaded outside computeIfAbsent: the loader may call Lark, which must not hold a map bin lock.
+                fields = index(fieldsLoader.apply(baseId, tableId));
+                Map<String, ListFieldResponse.FieldItem> raced = fieldIndex.putIfAbsent(tableId, fields);
+                if (raced != null) {
+                    fields = raced;
+                }
+            }
+            return fields.get(fieldId.toLowerCase(Locale.ROOT));
+        }
+
+        private Map<String, ListFieldResponse.FieldItem> index(List<ListFieldResponse.FieldItem> fields)
+        {
+            Map<String, ListFieldResponse.FieldItem> indexed = new HashMap<>();
+            for (ListFieldResponse.FieldItem field : fields) {
+                if (field.getFieldId() != null) {
+                    indexed.putIfAbsent(field.getFieldId().toLowerCase(Locale.ROOT), field);
+                }
+            }
+            return Collections.unmodifiableMap(indexed);
+        }
+    }
+}
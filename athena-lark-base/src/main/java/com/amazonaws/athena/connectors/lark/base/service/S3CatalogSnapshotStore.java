@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps the catalog snapshot in a single S3 object, by default under the connector's spill bucket. A PUT replaces
+ * the object atomically, so readers always see either the previous or the new snapshot.
+ */
+public class S3CatalogSnapshotStore implements CatalogSnapshotStore
+{
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+
+    public S3CatalogSnapshotStore(S3Client s3Client, String bucket, String key)
+    {
+        this.s3Client = requireNonNull(s3Client, "s3Client is null");
+        this.bucket = requireNonNull(bucket, "bucket is null");
+        this.key = requireNonNull(key, "key is null");
+    }
+
+    @Override
+    public Optional<byte[]> read()
+    {
+        try {
+            return Optional.of(s3Client.getObjectAsBytes(GetObjectRequest.builder().bucket(bucket).key(key).build()).asByteArray());
+        }
+        catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void write(byte[] snapshot)
+    {
+        s3Client.putObject(PutObjectRequest.builder().bucket(bucket).key(key).build(), RequestBody.fromBytes(snapshot));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "s3://" + bucket + "/" + key;
+    }
+}
@@ -0,0 +1,286 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
+import com.amazonaws.athena.connectors.lark.base.model.request.TableRecordsRequest;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.arrow.util.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.DEFAULT_SPLIT_MAX_CONCURRENCY;
+import static com.amazonaws.athena.connectors.lark.base.BaseConstants.PAGE_SIZE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Chooses how a query against one Lark table is split, by estimating the wall-clock cost of each strategy from
+ * the filtered and total row counts, the table's observed Search API latency and the number of splits Athena
+ * can run at once:
+ * <ul>
+ *     <li>{@link Strategy#SINGLE_FILTERED}: one split paginating through the filtered result.</li>
+ *     <li>{@link Strategy#RANGE_SPLITS}: one split per page-sized range of {@code $reserved_split_key}, each
+ *     applying the filter. Ranges are positional over the whole table, so a selective filter leaves most of
+ *     them empty - every one still costs a Lambda invocation and a Lark request.</li>
+ *     <li>{@link Strategy#SUB_FILTERED_SPLITS}: K wider ranges (K at most the concurrency limit), each
+ *     paginating through its share of the filtered rows, which keeps the parallelism without paying for
+ *     thousands of near-empty splits.</li>
+ * </ul>
+ * Row counts are cached per query, so the count used for planning is the same one the partition writer uses
+ * and is only requested once.
+ */
+public class SplitPlanningService
+{
+    private static final Logger logger = LoggerFactory.getLogger(SplitPlanningService.class);
+
+    /**
+     * Returned by {@link #getRowCount} when Lark could not count the rows; never to be mistaken for "zero rows".
+     */
+    public static final int UNKNOWN_ROW_COUNT = -1;
+
+    private static final int ROW_COUNT_CACHE_MAX_SIZE = 1000;
+    private static final int ROW_COUNT_CACHE_TTL_MINUTES = 15;
+
+    /**
+     * Fixed cost of one split regardless of how much it reads: the Lambda invocation, record handler set-up and
+     * block spilling.
+     */
+    private static final double SPLIT_OVERHEAD_MS = 300;
+
+    /**
+     * The only latency observable at planning time is that of the one-row count request; a full page carries
+     * {@code PAGE_SIZE} records and costs roughly this much more to produce and transfer.
+     */
+    private static final double PAGE_TRANSFER_MS = 400;
+
+    /**
+     * Count request latency assumed for a table that has not been timed yet.
+     */
+    private static final double DEFAULT_PROBE_LATENCY_MS = 300;
+
+    /**
+     * Weight of the newest sample in the per-table latency moving average.
+     */
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    public enum Strategy
+    {
+        SINGLE_FILTERED,
+        RANGE_SPLITS,
+        SUB_FILTERED_SPLITS
+    }
+
+    /**
+     * The chosen strategy together with the estimates it was chosen from.
+     *
+     * @param strategy         The cheapest strategy
+     * @param splitCount       Number of splits the strategy plans
+     * @param rangeWidth       Width of each {@code $reserved_split_key} range; 0 for a single split
+     * @param filteredRowCount Rows matching the filter, or {@link #UNKNOWN_ROW_COUNT}
+     * @param totalRowCount    Rows in the table, or {@link #UNKNOWN_ROW_COUNT} if it was not needed or not known
+     * @param pageLatencyMs    Estimated latency of one full Search API page
+     * @param singleCostMs     Estimated wall-clock cost of {@link Strategy#SINGLE_FILTERED}
+     * @param rangeCostMs      Estimated wall-clock cost of {@link Strategy#RANGE_SPLITS}
+     * @param subFilteredCostMs Estimated wall-clock cost of {@link Strategy#SUB_FILTERED_SPLITS}
+     */
+    public record SplitPlan(Strategy strategy, int splitCount, long rangeWidth, long filteredRowCount, long totalRowCount,
+                            double pageLatencyMs, double singleCostMs, double rangeCostMs, double subFilteredCostMs)
+    {
+        public static SplitPlan single(long filteredRowCount)
+        {
+            return new SplitPlan(Strategy.SINGLE_FILTERED, 1, 0, filteredRowCount, UNKNOWN_ROW_COUNT,
+                    Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        static SplitPlan pageRanges()
+        {
+            return new SplitPlan(Strategy.RANGE_SPLITS, 0, PAGE_SIZE, UNKNOWN_ROW_COUNT, UNKNOWN_ROW_COUNT,
+                    Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        public boolean isParallel()
+        {
+            return strategy != Strategy.SINGLE_FILTERED;
+        }
+    }
+
+    private final LarkBaseService larkBaseService;
+    private final ThrottlingInvoker invoker;
+
+    // "queryId|baseId|tableId|filter" -> row count. Scoped to the query so a positional range plan is never built
+    // from another query's (possibly stale) table size.
+    private final Cache<String, Integer> rowCountCache;
+    // "baseId|tableId" -> moving average of the count request latency in ms
+    private final Map<String, Double> probeLatencyMs = new ConcurrentHashMap<>();
+
+    public SplitPlanningService(LarkBaseService larkBaseService, ThrottlingInvoker invoker)
+    {
+        this.larkBaseService = requireNonNull(larkBaseService, "larkBaseService is null");
+        this.invoker = requireNonNull(invoker, "invoker is null");
+        this.rowCountCache = CacheBuilder.newBuilder()
+                .maximumSize(ROW_COUNT_CACHE_MAX_SIZE)
+                .expireAfterWrite(ROW_COUNT_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Plans the splits for a table that has a {@code $reserved_split_key}, with parallel splitting enabled.
+     *
+     * @param queryId          The Athena query ID, scoping cached row counts
+     * @param baseId           The Lark Base ID
+     * @param tableId          The Lark table ID
+     * @param filterExpression The pushed-down filter, or an empty string
+     * @param maxConcurrency   How many splits Athena can usefully run at once; non-positive for the default
+     * @return The cheapest plan
+     */
+    public SplitPlan plan(String queryId, String baseId, String tableId, String filterExpression, int maxConcurrency)
+    {
+        // Without a filter every page-sized range is full, so range splits are never worse than the alternatives
+        // and the table size is counted once, by the partition writer.
+        if (filterExpression == null || filterExpression.isEmpty()) {
+            return SplitPlan.pageRanges();
+        }
+
+        int filteredRowCount = getRowCount(queryId, baseId, tableId, filterExpression);
+        if (filteredRowCount == UNKNOWN_ROW_COUNT || filteredRowCount <= PAGE_SIZE) {
+            // Unknown: nothing to size a plan with. One page or less: nothing to parallelize.
+            return SplitPlan.single(filteredRowCount);
+        }
+
+        int totalRowCount = getRowCount(queryId, baseId, tableId, "");
+        if (totalRowCount == UNKNOWN_ROW_COUNT) {
+            return SplitPlan.single(filteredRowCount);
+        }
+
+        double pageLatencyMs = probeLatencyMs.getOrDefault(tableKey(baseId, tableId), DEFAULT_PROBE_LATENCY_MS) + PAGE_TRANSFER_MS;
+        return choose(filteredRowCount, totalRowCount, pageLatencyMs, maxConcurrency > 0 ? maxConcurrency : DEFAULT_SPLIT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Estimates the wall-clock cost of each strategy and returns the cheapest. On a tie the strategy issuing fewer
+     * Lark requests wins, in the order single, sub-filtered, range.
+     */
+    @VisibleForTesting
+    static SplitPlan choose(long filteredRowCount, long totalRowCount, double pageLatencyMs, int maxConcurrency)
+    {
+        long filteredPages = Math.max(1, ceilDiv(filteredRowCount, PAGE_SIZE));
+        double singleCost = SPLIT_OVERHEAD_MS + filteredPages * pageLatencyMs;
+
+        // Each range split reads at most one page; splits beyond the concurrency limit queue up in waves.
+        long rangeSplits = Math.max(1, ceilDiv(totalRowCount, PAGE_SIZE));
+        double rangeCost = ceilDiv(rangeSplits, maxConcurrency) * (SPLIT_OVERHEAD_MS + pageLatencyMs);
+
+        // One wave of wider ranges, assuming the matching rows are spread evenly over the key space. With K equal
+        // to the number of page ranges this is just the range strategy again, so it needs K below that.
+        long subSplits = Math.min(Math.min(maxConcurrency, filteredPages), rangeSplits);
+        double subFilteredCost = Double.POSITIVE_INFINITY;
+        long subRangeWidth = 0;
+        if (subSplits >= 2 && subSplits < rangeSplits) {
+            subRangeWidth = ceilDiv(totalRowCount, subSplits);
+            long pagesPerSplit = Math.max(1, ceilDiv(ceilDiv(filteredRowCount, subSplits), PAGE_SIZE));
+            subFilteredCost = SPLIT_OVERHEAD_MS + pagesPerSplit * pageLatencyMs;
+        }
+
+        Strategy strategy = Strategy.SINGLE_FILTERED;
+        double best = singleCost;
+        if (subFilteredCost < best) {
+            strategy = Strategy.SUB_FILTERED_SPLITS;
+            best = subFilteredCost;
+        }
+        if (rangeCost < best) {
+            strategy = Strategy.RANGE_SPLITS;
+        }
+
+        return switch (strategy) {
+            case SINGLE_FILTERED -> new SplitPlan(strategy, 1, 0, filteredRowCount, totalRowCount,
+                    pageLatencyMs, singleCost, rangeCost, subFilteredCost);
+            case SUB_FILTERED_SPLITS -> new SplitPlan(strategy, (int) ceilDiv(totalRowCount, subRangeWidth), subRangeWidth,
+                    filteredRowCount, totalRowCount, pageLatencyMs, singleCost, rangeCost, subFilteredCost);
+            case RANGE_SPLITS -> new SplitPlan(strategy, (int) rangeSplits, PAGE_SIZE, filteredRowCount, totalRowCount,
+                    pageLatencyMs, singleCost, rangeCost, subFilteredCost);
+        };
+    }
+
+    /**
+     * Counts the rows matching a filter with a one-row search, caching the answer for the rest of the query and
+     * timing the request for the latency estimate.
+     *
+     * @param queryId          The Athena query ID
+     * @param baseId           The Lark Base ID
+     * @param tableId          The Lark table ID
+     * @param filterExpression The filter to count, or an empty string / null for the whole table
+     * @return The number of matching rows, or {@link #UNKNOWN_ROW_COUNT} if Lark could not count them
+     */
+    public int getRowCount(String queryId, String baseId, String tableId, String filterExpression)
+    {
+        String filter = filterExpression != null ? filterExpression : "";
+        String cacheKey = queryId + "|" + tableKey(baseId, tableId) + "|" + filter;
+        Integer cached = rowCountCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            TableRecordsRequest request = TableRecordsRequest.builder()
+                    .baseId(baseId)
+                    .tableId(tableId)
+                    .pageSize(1)
+                    .filterJson(filter)
+                    .sortJson("")
+                    .build();
+
+            long start = System.nanoTime();
+            int total = invoker.invoke(() -> larkBaseService.getTableRecords(request)).getTotal();
+            recordLatency(baseId, tableId, (System.nanoTime() - start) / 1_000_000.0);
+
+            logger.info("getPartitions: Estimated total row count matching filter: {}", total);
+            rowCountCache.put(cacheKey, total);
+            return total;
+        }
+        catch (Exception e) {
+            // A failed count says nothing about how many rows match, so it must not be mistaken for "zero rows":
+            // planning on 0 would write no parallel partitions at all and turn the query into an empty result.
+            logger.warn("getPartitions: Failed to estimate row count for partition planning with filter '{}'. Treating it as unknown: {}",
+                    filter, e.getMessage());
+            return UNKNOWN_ROW_COUNT;
+        }
+    }
+
+    private void recordLatency(String baseId, String tableId, double latencyMs)
+    {
+        probeLatencyMs.merge(tableKey(baseId, tableId), latencyMs,
+                (previous, sample) -> previous + LATENCY_SMOOTHING * (sample - previous));
+    }
+
+    private static String tableKey(String baseId, String tableId)
+    {
+        return baseId + "|" + tableId;
+    }
+
+    private static long ceilDiv(long dividend, long divisor)
+    {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
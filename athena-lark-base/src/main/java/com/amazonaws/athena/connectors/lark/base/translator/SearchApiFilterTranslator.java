@@ -27,16 +27,29 @@ import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
 import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.RESERVED_SPLIT_KEY;
 
@@ -51,6 +64,17 @@ public final class SearchApiFilterTranslator
     private static final Logger logger = LoggerFactory.getLogger(SearchApiFilterTranslator.class);
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    /**
+     * How far a date bound is pushed outwards before it is handed to Lark. Lark compares {@code ExactDate}
+     * values at day granularity, in the time zone of the base - which the connector does not know. No calendar
+     * day is longer than 25 hours (DST fall-back), so two instants two days apart always fall on different
+     * local days in every zone, which turns Lark's strict day comparison into a guaranteed superset of the
+     * instant-precise Athena bound.
+     */
+    private static final long DATE_BOUND_SLACK_MILLIS = 2 * DAY_MILLIS;
+
     private SearchApiFilterTranslator()
     {
     }
@@ -63,14 +87,152 @@ public final class SearchApiFilterTranslator
      * @return JSON filter string, or empty string if no valid constraints
      */
     public static String toFilterJson(Map<String, ValueSet> constraints, List<AthenaFieldLarkBaseMapping> fieldNameMappings)
+    {
+        List<String> filters = toFilterJsonBatches(constraints, fieldNameMappings, Integer.MAX_VALUE);
+        return filters.isEmpty() ? "" : filters.get(0);
+    }
+
+    /**
+     * Converts Athena constraints to one or more Search API JSON filters, splitting an oversize IN-clause
+     * across several filters so that no single OR-group carries more than {@code maxConditionsPerGroup}
+     * conditions.
+     * <p>
+     * Large IN-lists (typically semi-join keys handed down by Athena's dynamic filtering) otherwise become one
+     * huge OR-group that Lark rejects for exceeding its per-request condition limit, and the split then reads
+     * nothing useful. Instead, the largest oversize OR-group is chunked and each returned filter carries the
+     * shared AND conditions plus exactly one chunk, so the caller can plan one partition per filter and read
+     * them in parallel. Only an IN-list over an exact-match field is chunked, with its values de-duplicated
+     * first and values that differ only in case kept in the same chunk, so that a record matches conditions in
+     * at most one chunk and the partitions do not return it twice. Any other OR-group that is also oversize is
+     * left out of the pushdown entirely (Athena re-applies the full WHERE clause itself) rather than multiplying
+     * the number of partitions, and so is an oversize date IN-list: Lark compares dates by whole day, so two
+     * timestamps on the same day in different chunks would return the same records twice.
+     *
+     * @param constraints Map of field names to value sets from Athena query
+     * @param fieldNameMappings Athena to Lark field mappings
+     * @param maxConditionsPerGroup Maximum number of conditions a single OR-group may carry
+     * @return The JSON filter strings, one per partition to plan; empty if no valid constraints
+     */
+    public static List<String> toFilterJsonBatches(Map<String, ValueSet> constraints, List<AthenaFieldLarkBaseMapping> fieldNameMappings,
+                                                   int maxConditionsPerGroup)
     {
         if (constraints == null || constraints.isEmpty()) {
-            return "";
+            return Collections.emptyList();
         }
 
         List<Map<String, Object>> allConditions = new ArrayList<>();
         List<Map<String, Object>> orGroups = new ArrayList<>();
+        Set<Map<String, Object>> chunkableOrGroups = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectConditions(constraints, fieldNameMappings, allConditions, orGroups, chunkableOrGroups);
+
+        if (allConditions.isEmpty() && orGroups.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, Object> groupToChunk = null;
+        List<Map<String, Object>> fittingOrGroups = new ArrayList<>();
+        for (Map<String, Object> orGroup : orGroups) {
+            int size = getGroupConditions(orGroup).size();
+            if (size <= maxConditionsPerGroup) {
+                fittingOrGroups.add(orGroup);
+            }
+            else if (!chunkableOrGroups.contains(orGroup)) {
+                logger.info("Skipping pushdown of an oversize OR-group ({} conditions) that cannot be split into "
+                        + "disjoint batches; Athena will apply it.", size);
+            }
+            else if (groupToChunk == null || size > getGroupConditions(groupToChunk).size()) {
+                if (groupToChunk != null) {
+                    logger.info("Skipping pushdown of an oversize OR-group ({} conditions); Athena will apply it.",
+                            getGroupConditions(groupToChunk).size());
+                }
+                groupToChunk = orGroup;
+            }
+            else {
+                logger.info("Skipping pushdown of an oversize OR-group ({} conditions); Athena will apply it.", size);
+            }
+        }
+
+        if (groupToChunk == null) {
+            String filterJson = serializeFilter(allConditions, fittingOrGroups);
+            return filterJson.isEmpty() ? Collections.emptyList() : List.of(filterJson);
+        }
+
+        List<Map<String, Object>> chunkedConditions = getGroupConditions(groupToChunk);
+        List<List<Map<String, Object>>> chunks = chunkByMatchKey(chunkedConditions, maxConditionsPerGroup);
+        if (chunks.isEmpty()) {
+            logger.info("Skipping pushdown of an oversize OR-group ({} conditions) with too many values differing "
+                    + "only in case; Athena will apply it.", chunkedConditions.size());
+            String filterJson = serializeFilter(allConditions, fittingOrGroups);
+            return filterJson.isEmpty() ? Collections.emptyList() : List.of(filterJson);
+        }
+
+        List<String> filters = new ArrayList<>();
+        for (List<Map<String, Object>> chunk : chunks) {
+            Map<String, Object> chunkGroup = new HashMap<>();
+            chunkGroup.put("conjunction", "or");
+            chunkGroup.put("conditions", new ArrayList<>(chunk));
+
+            List<Map<String, Object>> chunkOrGroups = new ArrayList<>(fittingOrGroups);
+            chunkOrGroups.add(chunkGroup);
+
+            String filterJson = serializeFilter(allConditions, chunkOrGroups);
+            if (filterJson.isEmpty()) {
+                return Collections.emptyList();
+            }
+            filters.add(filterJson);
+        }
+
+        logger.info("Split an IN-clause of {} values into {} filter batches of at most {} conditions each",
+                chunkedConditions.size(), filters.size(), maxConditionsPerGroup);
+        return filters;
+    }
+
+    /**
+     * Packs IN-list conditions into chunks of at most {@code maxConditionsPerGroup}, never separating two
+     * conditions whose values differ only in case or surrounding whitespace: Lark may match such values against
+     * the same records, which would then be returned by two partitions. Returns no chunks when a single set of
+     * such values is itself larger than a chunk.
+     */
+    private static List<List<Map<String, Object>>> chunkByMatchKey(List<Map<String, Object>> conditions, int maxConditionsPerGroup)
+    {
+        Map<String, List<Map<String, Object>>> conditionsByKey = new LinkedHashMap<>();
+        for (Map<String, Object> condition : conditions) {
+            conditionsByKey.computeIfAbsent(matchKey(condition), key -> new ArrayList<>()).add(condition);
+        }
 
+        List<List<Map<String, Object>>> chunks = new ArrayList<>();
+        List<Map<String, Object>> chunk = new ArrayList<>();
+        for (List<Map<String, Object>> sameKey : conditionsByKey.values()) {
+            if (sameKey.size() > maxConditionsPerGroup) {
+                return Collections.emptyList();
+            }
+            if (chunk.size() + sameKey.size() > maxConditionsPerGroup) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+            chunk.addAll(sameKey);
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static String matchKey(Map<String, Object> condition)
+    {
+        return String.valueOf(condition.get("value")).trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Translates every pushable constraint into either a flat, top-level AND condition or an OR-group that must
+     * be nested under "children". IN-list OR-groups whose conditions each match a single exact value are also
+     * added to {@code chunkableOrGroups}; a date IN-list is not, because Lark matches every {@code ExactDate}
+     * condition against a whole day in the base's time zone, so two distinct timestamps can match the same rows.
+     */
+    private static void collectConditions(Map<String, ValueSet> constraints, List<AthenaFieldLarkBaseMapping> fieldNameMappings,
+                                          List<Map<String, Object>> allConditions, List<Map<String, Object>> orGroups,
+                                          Set<Map<String, Object>> chunkableOrGroups)
+    {
         for (Map.Entry<String, ValueSet> entry : constraints.entrySet()) {
             String lowercaseColumnName = entry.getKey();
             ValueSet valueSet = entry.getValue();
@@ -82,10 +244,11 @@ public final class SearchApiFilterTranslator
             }
 
             String fieldName = mapping.larkBaseFieldName();
-            UITypeEnum fieldUiType = mapping.nestedUIType().uiType();
+            boolean isFormula = mapping.nestedUIType().uiType() == UITypeEnum.FORMULA;
+            UITypeEnum fieldUiType = resolveFilterUiType(mapping.nestedUIType());
 
-            if (!isUiTypeAllowedForPushdown(fieldUiType)) {
-                logger.info("Skipping pushdown for column '{}' - UI type {} not supported", fieldName, fieldUiType);
+            if (fieldUiType == null || !isUiTypeAllowedForPushdown(fieldUiType)) {
+                logger.info("Skipping pushdown for column '{}' - UI type {} not supported", fieldName, mapping.nestedUIType());
                 continue;
             }
 
@@ -98,11 +261,21 @@ public final class SearchApiFilterTranslator
             // "isNot" conditions ANDed together already correctly means "not equal to any of these values".
             if (valueSet instanceof EquatableValueSet equatableValueSet
                     && equatableValueSet.isWhiteList() && equatableValueSet.getValueBlock().getRowCount() > 1) {
-                List<Map<String, Object>> orConditions = translateEquatableValueSet(fieldName, equatableValueSet, fieldUiType);
+                // Distinct values that stringify identically would only produce duplicate conditions, and would
+                // let the same records match two of the batches toFilterJsonBatches may chunk this group into.
+                List<Map<String, Object>> orConditions = new ArrayList<>(new LinkedHashSet<>(
+                        translateEquatableValueSet(fieldName, equatableValueSet, fieldUiType)));
+                if (orConditions.isEmpty()) {
+                    logger.info("Skipping pushdown for IN-clause on column '{}' - values not expressible as Lark conditions", fieldName);
+                    continue;
+                }
                 Map<String, Object> orGroup = new HashMap<>();
                 orGroup.put("conjunction", "or");
                 orGroup.put("conditions", orConditions);
                 orGroups.add(orGroup);
+                if (!isDateUiType(fieldUiType)) {
+                    chunkableOrGroups.add(orGroup);
+                }
             }
             // A SortedRangeSet with more than one Range represents a UNION of ranges for this single column
             // (per the SDK's own definition: "col between 10 and 30, or col between 40 and 60, ..."), e.g.
@@ -129,14 +302,26 @@ public final class SearchApiFilterTranslator
             }
             else {
                 List<Map<String, Object>> conditions = translateValueSetToConditions(fieldName, valueSet, fieldUiType);
+                if (isFormula) {
+                    // Lark evaluates isEmpty/isNotEmpty on a formula against its rendered result, so a formula whose
+                    // inputs are empty (and which Athena therefore reads as NULL) can still render "0" or "" and
+                    // be counted as non-empty. Dropping these conditions from the AND list only widens the pushed
+                    // filter; Athena re-applies IS [NOT] NULL itself.
+                    conditions.removeIf(condition -> isEmptinessOperator(condition.get("operator")));
+                }
                 allConditions.addAll(conditions);
             }
         }
+    }
 
-        if (allConditions.isEmpty() && orGroups.isEmpty()) {
-            return "";
-        }
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getGroupConditions(Map<String, Object> orGroup)
+    {
+        return (List<Map<String, Object>>) orGroup.get("conditions");
+    }
 
+    private static String serializeFilter(List<Map<String, Object>> allConditions, List<Map<String, Object>> orGroups)
+    {
         // Build filter structure
         Map<String, Object> filter = new HashMap<>();
         filter.put("conjunction", "and");
@@ -263,6 +448,11 @@ public final class SearchApiFilterTranslator
                 return conditions;
             }
 
+            if (isDateUiType(fieldUiType)) {
+                conditions.addAll(translateDateEquality(fieldName, value));
+                return conditions;
+            }
+
             Object convertedValue = convertValueForSearchApi(value, fieldUiType);
             conditions.add(createCondition(fieldName, "is", convertedValue));
             return conditions;
@@ -308,6 +498,11 @@ public final class SearchApiFilterTranslator
         Marker low = range.getLow();
         Marker high = range.getHigh();
 
+        if (isDateUiType(fieldUiType)) {
+            addDateRangeBoundConditions(conditions, fieldName, low, high);
+            return;
+        }
+
         if (!low.isLowerUnbounded()) {
             String operator = (low.getBound() == Marker.Bound.EXACTLY) ? "isGreaterEqual" : "isGreater";
             Object value = convertValueForSearchApi(low.getValue(), fieldUiType);
@@ -356,6 +551,10 @@ public final class SearchApiFilterTranslator
 
     private static List<Map<String, Object>> translateEquatableValueSet(String fieldName, EquatableValueSet valueSet, UITypeEnum fieldUiType)
     {
+        if (isDateUiType(fieldUiType)) {
+            return translateDateEquatableValueSet(fieldName, valueSet);
+        }
+
         List<Map<String, Object>> conditions = new ArrayList<>();
         boolean isWhiteList = valueSet.isWhiteList();
         String operator = isWhiteList ? "is" : "isNot";
@@ -395,6 +594,164 @@ public final class SearchApiFilterTranslator
         return condition;
     }
 
+    /**
+     * Appends the day-granular superset of a date/timestamp range. Lark's date filter only offers the strict
+     * {@code isGreater}/{@code isLess} operators over whole days, so the inclusive/exclusive distinction of
+     * the Athena bound cannot be expressed; instead each bound is widened by {@link #DATE_BOUND_SLACK_MILLIS}
+     * so that every record inside the Athena range is returned, and Athena trims the few extra days of rows
+     * at the edges. This is what lets BETWEEN and half-open windows such as "the last 7 days" push down.
+     *
+     * @throws IllegalArgumentException if a bound's value is not a recognised date/timestamp representation;
+     *                                   callers decide whether dropping the range is safe.
+     */
+    private static void addDateRangeBoundConditions(List<Map<String, Object>> conditions, String fieldName, Marker low, Marker high)
+    {
+        if (!low.isLowerUnbounded()) {
+            DateSpan span = requireDateSpan(low.getValue());
+            conditions.add(createDateCondition(fieldName, "isGreater", Math.subtractExact(span.firstMillis(), DATE_BOUND_SLACK_MILLIS)));
+        }
+
+        if (!high.isUpperUnbounded()) {
+            DateSpan span = requireDateSpan(high.getValue());
+            conditions.add(createDateCondition(fieldName, "isLess", Math.addExact(span.lastMillis(), DATE_BOUND_SLACK_MILLIS)));
+        }
+    }
+
+    /**
+     * Translates {@code col = <date value>}. A timestamp falls on exactly one local day whatever the base's
+     * time zone is, so {@code is ExactDate} is already a correct superset. A DATEDAY value covers a UTC day,
+     * which can straddle two local days, so it is expressed as a widened range instead.
+     */
+    private static List<Map<String, Object>> translateDateEquality(String fieldName, Object value)
+    {
+        DateSpan span = toDateSpan(value);
+        if (span == null) {
+            logger.info("Skipping pushdown for date column '{}' - unsupported value type {}", fieldName,
+                    value == null ? null : value.getClass().getSimpleName());
+            return Collections.emptyList();
+        }
+
+        if (span.isInstant()) {
+            return List.of(createDateCondition(fieldName, "is", span.firstMillis()));
+        }
+
+        try {
+            return List.of(
+                    createDateCondition(fieldName, "isGreater", Math.subtractExact(span.firstMillis(), DATE_BOUND_SLACK_MILLIS)),
+                    createDateCondition(fieldName, "isLess", Math.addExact(span.lastMillis(), DATE_BOUND_SLACK_MILLIS)));
+        }
+        catch (ArithmeticException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Translates a date IN-list into one {@code is ExactDate} condition per value, for the caller to OR together.
+     * Returns no conditions (so nothing is pushed down) whenever that would not be a superset of the Athena
+     * predicate: for NOT IN, where excluding whole days would drop matching rows, and for DATEDAY values, whose
+     * widened two-condition ranges cannot be nested inside an OR-group.
+     */
+    private static List<Map<String, Object>> translateDateEquatableValueSet(String fieldName, EquatableValueSet valueSet)
+    {
+        if (!valueSet.isWhiteList()) {
+            logger.info("Skipping pushdown of NOT IN on date column '{}' - Lark only compares whole days", fieldName);
+            return Collections.emptyList();
+        }
+
+        int valueCount = valueSet.getValueBlock().getRowCount();
+        if (valueCount == 1) {
+            return translateDateEquality(fieldName, valueSet.getValue(0));
+        }
+
+        List<Map<String, Object>> conditions = new ArrayList<>();
+        for (int i = 0; i < valueCount; i++) {
+            DateSpan span = toDateSpan(valueSet.getValue(i));
+            if (span == null || !span.isInstant()) {
+                logger.info("Skipping pushdown of IN-clause on date column '{}' - value {} has no single-condition form", fieldName, i);
+                return Collections.emptyList();
+            }
+            conditions.add(createDateCondition(fieldName, "is", span.firstMillis()));
+        }
+        return conditions;
+    }
+
+    private static Map<String, Object> createDateCondition(String fieldName, String operator, long epochMillis)
+    {
+        Map<String, Object> condition = new HashMap<>();
+        condition.put("field_name", fieldName);
+        condition.put("operator", operator);
+        condition.put("value", List.of("ExactDate", String.valueOf(epochMillis)));
+        return condition;
+    }
+
+    private static DateSpan requireDateSpan(Object value)
+    {
+        DateSpan span = toDateSpan(value);
+        if (span == null) {
+            throw new IllegalArgumentException("Unsupported date value type: " + (value == null ? null : value.getClass().getName()));
+        }
+        return span;
+    }
+
+    /**
+     * Resolves the epoch-millisecond interval a constraint value covers. Athena hands DATEMILLI values over as
+     * zone-less {@link LocalDateTime}s that are UTC wall-clock times (the connector declares these columns as
+     * {@code Timestamp(MILLISECOND, "UTC")}), TIMESTAMPMILLI values as epoch-millisecond {@link Long}s, and
+     * DATEDAY values as epoch-day {@link Integer}s or {@link LocalDate}s, which span a whole UTC day.
+     *
+     * @return The covered interval, or null if the value is not a recognised date/timestamp representation.
+     */
+    private static DateSpan toDateSpan(Object value)
+    {
+        if (value instanceof LocalDateTime localDateTime) {
+            return DateSpan.instant(localDateTime.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        if (value instanceof ZonedDateTime zonedDateTime) {
+            return DateSpan.instant(zonedDateTime.toInstant().toEpochMilli());
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return DateSpan.instant(offsetDateTime.toInstant().toEpochMilli());
+        }
+        if (value instanceof Instant instant) {
+            return DateSpan.instant(instant.toEpochMilli());
+        }
+        if (value instanceof Date date) {
+            return DateSpan.instant(date.getTime());
+        }
+        if (value instanceof Long epochMillis) {
+            return DateSpan.instant(epochMillis);
+        }
+        if (value instanceof LocalDate localDate) {
+            return DateSpan.day(localDate.toEpochDay());
+        }
+        if (value instanceof Integer epochDay) {
+            return DateSpan.day(epochDay);
+        }
+        return null;
+    }
+
+    /**
+     * Inclusive epoch-millisecond interval covered by a date/timestamp constraint value.
+     */
+    private record DateSpan(long firstMillis, long lastMillis)
+    {
+        static DateSpan instant(long epochMillis)
+        {
+            return new DateSpan(epochMillis, epochMillis);
+        }
+
+        static DateSpan day(long epochDay)
+        {
+            long start = Math.multiplyExact(epochDay, DAY_MILLIS);
+            return new DateSpan(start, start + DAY_MILLIS - 1);
+        }
+
+        boolean isInstant()
+        {
+            return firstMillis == lastMillis;
+        }
+    }
+
     private static Object convertValueForSearchApi(Object value, UITypeEnum fieldUiType)
     {
         if (value == null) {
@@ -446,6 +803,43 @@ public final class SearchApiFilterTranslator
         return false;
     }
 
+    /**
+     * Resolves the UI type whose operators and value encoding a filter on this field must use. A FORMULA column
+     * is typed by its result ({@code childType}, see {@code getFormulaGlueCatalogUITypeEnum}), and Lark filters
+     * it with that result type's operators, so a formula producing a NUMBER, TEXT or DATE_TIME pushes down like
+     * a plain field of that type. A CHECKBOX result is kept out: the "NULL means unchecked" mapping used for real
+     * checkbox fields does not hold for a formula, which is only unchecked when it evaluates to false.
+     * <p>
+     * LOOKUP columns stay unsupported: they are exposed as {@code array<target type>}, and Athena never hands a
+     * connector a value set for an array column, so there is no constraint to translate.
+     *
+     * @return The UI type to translate the constraint with, or null if the field cannot be pushed down.
+     */
+    private static UITypeEnum resolveFilterUiType(NestedUIType nestedUIType)
+    {
+        if (nestedUIType == null) {
+            return null;
+        }
+        if (nestedUIType.uiType() != UITypeEnum.FORMULA) {
+            return nestedUIType.uiType();
+        }
+        UITypeEnum resultType = nestedUIType.childType();
+        if (resultType == null || resultType == UITypeEnum.CHECKBOX || resultType == UITypeEnum.FORMULA) {
+            return null;
+        }
+        return resultType;
+    }
+
+    private static boolean isEmptinessOperator(Object operator)
+    {
+        return "isEmpty".equals(operator) || "isNotEmpty".equals(operator);
+    }
+
+    private static boolean isDateUiType(UITypeEnum uiType)
+    {
+        return uiType == UITypeEnum.DATE_TIME || uiType == UITypeEnum.CREATED_TIME || uiType == UITypeEnum.MODIFIED_TIME;
+    }
+
     private static boolean isUiTypeAllowedForPushdown(UITypeEnum uiType)
     {
         return switch (uiType) {
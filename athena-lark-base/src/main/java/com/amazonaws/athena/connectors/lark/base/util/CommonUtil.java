@@ -50,6 +50,11 @@ public final class CommonUtil
 {
     private static final Logger logger = LoggerFactory.getLogger(CommonUtil.class);
 
+    // Regex for matching identifiers in a SQL query: can be quoted (") or not (alphanumeric + _)
+    // Group 1: Quoted identifier
+    // Group 2: Unquoted identifier
+    private static final Pattern SQL_IDENTIFIER_PATTERN = Pattern.compile("\"([^\"]+)\"|([a-zA-Z0-9$_]+)");
+
     private CommonUtil()
     {
         // Prevent instantiation
@@ -157,11 +162,7 @@ public final class CommonUtil
      */
     public static Pair<String, String> extractOriginalIdentifiers(String originalQuery, String lowercaseSchema, String lowercaseTable)
     {
-        // Regex for matching identifiers: can be quoted (") or not (alphanumeric + _)
-        // Group 1: Quoted identifier
-        // Group 2: Unquoted identifier
-        Pattern identifierPattern = Pattern.compile("\"([^\"]+)\"|([a-zA-Z0-9$_]+)");
-        Matcher matcher = identifierPattern.matcher(originalQuery);
+        Matcher matcher = SQL_IDENTIFIER_PATTERN.matcher(originalQuery);
 
         String foundBaseId = null;
         int baseIdEndPosition = -1;
@@ -291,37 +292,6 @@ public final class CommonUtil
         return schemaToTableNames;
     }
 
-    /**
-     * Decides whether a table should be visible/queryable given the connector's configured whitelist and
-     * blacklist. The blacklist always wins: a table listed there is blocked even if it also matches the
-     * whitelist. The whitelist only restricts schemas that have at least one entry in it - a schema with no
-     * whitelist entries is unrestricted by the whitelist (only the blacklist, if any, applies to it).
-     *
-     * @param schemaName The schema (database) name, matched case-insensitively.
-     * @param tableName The table name, matched case-insensitively.
-     * @param whitelistTables Schema-to-table-names map from {@link #parseSchemaTableGrouping}, or empty if unset.
-     * @param blacklistTables Schema-to-table-names map from {@link #parseSchemaTableGrouping}, or empty if unset.
-     * @return true if the table should be visible/queryable.
-     */
-    public static boolean isTableAccessAllowed(String schemaName, String tableName,
-            Map<String, Set<String>> whitelistTables, Map<String, Set<String>> blacklistTables)
-    {
-        String normalizedSchema = schemaName == null ? "" : schemaName.toLowerCase();
-        String normalizedTable = tableName == null ? "" : tableName.toLowerCase();
-
-        Set<String> blacklistedTables = blacklistTables.get(normalizedSchema);
-        if (blacklistedTables != null && blacklistedTables.contains(normalizedTable)) {
-            return false;
-        }
-
-        Set<String> whitelistedTables = whitelistTables.get(normalizedSchema);
-        if (whitelistedTables != null && !whitelistedTables.isEmpty()) {
-            return whitelistedTables.contains(normalizedTable);
-        }
-
-        return true;
-    }
-
     /**
      * Enhances the original table schema by adding connector-specific reserved fields.
      * These fields provide additional context about the record's origin within Lark Base.
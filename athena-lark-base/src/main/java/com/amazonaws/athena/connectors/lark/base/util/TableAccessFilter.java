@@ -0,0 +1,162 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The connector's WHITELIST_TABLES_ENV_VAR / BLACKLIST_TABLES_ENV_VAR settings, parsed once into a matcher.
+ * <p>
+ * Schema and table names are matched case-insensitively. The blacklist always wins: a table listed there is blocked
+ * even if it also matches the whitelist. The whitelist only restricts schemas that have at least one entry in it; a
+ * schema with no whitelist entries is only subject to the blacklist. Each schema's plain table names are kept in a hash set, so
+ * checking a table is a map lookup plus a set lookup however long the lists are. A table entry may also be a glob
+ * ({@code *} for any run of characters, {@code ?} for one character, e.g. {@code sales:report_*}); the globs of
+ * one schema are compiled into a single pattern that is only tried when the plain names do not match. Glue table
+ * names cannot contain {@code *} or {@code ?}, so no existing entry changes meaning.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class TableAccessFilter
+{
+    private static final TableAccessFilter ALLOW_ALL = new TableAccessFilter("", "", Map.of(), Map.of());
+
+    private final String whitelistSource;
+    private final String blacklistSource;
+    private final Map<String, TableRules> whitelist;
+    private final Map<String, TableRules> blacklist;
+
+    private TableAccessFilter(String whitelistSource, String blacklistSource,
+                              Map<String, TableRules> whitelist, Map<String, TableRules> blacklist)
+    {
+        this.whitelistSource = whitelistSource;
+        this.blacklistSource = blacklistSource;
+        this.whitelist = whitelist;
+        this.blacklist = blacklist;
+    }
+
+    /**
+     * @param whitelistTables Raw WHITELIST_TABLES_ENV_VAR value ({@code schema:table,...}), or null/empty if unset.
+     * @param blacklistTables Raw BLACKLIST_TABLES_ENV_VAR value ({@code schema:table,...}), or null/empty if unset.
+     */
+    public static TableAccessFilter compile(String whitelistTables, String blacklistTables)
+    {
+        String whitelistSource = whitelistTables == null ? "" : whitelistTables;
+        String blacklistSource = blacklistTables == null ? "" : blacklistTables;
+        if (whitelistSource.isBlank() && blacklistSource.isBlank()) {
+            return ALLOW_ALL;
+        }
+        return new TableAccessFilter(whitelistSource, blacklistSource,
+                compileRules(CommonUtil.parseSchemaTableGrouping(whitelistSource)),
+                compileRules(CommonUtil.parseSchemaTableGrouping(blacklistSource)));
+    }
+
+    /**
+     * @return true if this filter was compiled from exactly these raw settings, i.e. can be reused for them.
+     */
+    public boolean isCompiledFrom(String whitelistTables, String blacklistTables)
+    {
+        return whitelistSource.equals(whitelistTables == null ? "" : whitelistTables)
+                && blacklistSource.equals(blacklistTables == null ? "" : blacklistTables);
+    }
+
+    /**
+     * @param schemaName The schema (database) name, matched case-insensitively.
+     * @param tableName The table name, matched case-insensitively.
+     * @return true if the table should be visible/queryable.
+     */
+    public boolean isAllowed(String schemaName, String tableName)
+    {
+        if (this == ALLOW_ALL) {
+            return true;
+        }
+
+        String normalizedSchema = schemaName == null ? "" : schemaName.toLowerCase();
+        String normalizedTable = tableName == null ? "" : tableName.toLowerCase();
+
+        TableRules blacklisted = blacklist.get(normalizedSchema);
+        if (blacklisted != null && blacklisted.matches(normalizedTable)) {
+            return false;
+        }
+
+        TableRules whitelisted = whitelist.get(normalizedSchema);
+        return whitelisted == null || whitelisted.matches(normalizedTable);
+    }
+
+    private static Map<String, TableRules> compileRules(Map<String, Set<String>> schemaToTables)
+    {
+        Map<String, TableRules> rules = new HashMap<>();
+        schemaToTables.forEach((schemaName, tableEntries) -> {
+            Set<String> names = new HashSet<>();
+            List<String> globs = new ArrayList<>();
+            for (String entry : tableEntries) {
+                if (entry.indexOf('*') >= 0 || entry.indexOf('?') >= 0) {
+                    globs.add(globToRegex(entry));
+                }
+                else {
+                    names.add(entry);
+                }
+            }
+            Pattern globPattern = globs.isEmpty() ? null : Pattern.compile(String.join("|", globs));
+            rules.put(schemaName, new TableRules(Set.copyOf(names), globPattern));
+        });
+        return Map.copyOf(rules);
+    }
+
+    private static String globToRegex(String glob)
+    {
+        StringBuilder regex = new StringBuilder("(?:");
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            }
+            else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.append(')').toString();
+    }
+
+    /**
+     * @param names Plain table names of one schema
+     * @param globs All glob entries of the schema as one alternation, or null if it has none
+     */
+    private record TableRules(Set<String> names, Pattern globs)
+    {
+        boolean matches(String tableName)
+        {
+            return names.contains(tableName) || (globs != null && globs.matcher(tableName).matches());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.util;
+
+import com.amazonaws.athena.connector.lambda.domain.TableName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+
+import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pages through the tables of one schema as a single merged listing of the Lark catalog and Glue.
+ * <p>
+ * The merged order is stable across calls: first every Lark table of the schema, sorted by name, then every
+ * Glue table that is not also a Lark table, in Glue's own order. The continuation token records where the last
+ * page stopped in that order, so a page never holds more than {@code pageSize} tables and Glue is only read as
+ * far as the page needs:
+ * <ul>
+ *     <li>{@code lark:<table name>} - continue with the Lark tables sorted after that name. A name rather than an
+ *     offset, so a catalog refresh between two pages neither repeats nor skips the tables that were already
+ *     returned.</li>
+ *     <li>{@code glue:<Glue token>} - continue with Glue from that Glue token; {@code glue:} alone starts Glue
+ *     from the beginning.</li>
+ * </ul>
+ * Tables the access filter rejects are skipped before they count towards the page, so a short page only ever
+ * means the listing is finished.
+ * <p>
+ * If Glue cannot be read at all, the listing ends after the Lark tables. A Glue failure part way through Glue's
+ * tables fails the page instead: ending the listing there would silently drop every Glue table still to come.
+ */
+public final class TableListingPaginator
+{
+    private static final Logger logger = LoggerFactory.getLogger(TableListingPaginator.class);
+
+    static final String LARK_TOKEN_PREFIX = "lark:";
+    static final String GLUE_TOKEN_PREFIX = "glue:";
+
+    private TableListingPaginator()
+    {
+        // Prevent instantiation
+    }
+
+    /**
+     * One page of Glue tables.
+     *
+     * @param tables    The tables of the page
+     * @param nextToken Glue's token for the next page, or null after the last page
+     */
+    public record GluePage(Collection<TableName> tables, String nextToken)
+    {
+    }
+
+    /**
+     * Reads one page of Glue tables, normally through {@code GlueMetadataHandler.doListTables}.
+     */
+    @FunctionalInterface
+    public interface GlueTableLister
+    {
+        /**
+         * @param glueToken  Glue token to continue from, or null to start from the first table
+         * @param maxResults Maximum number of tables to return, or {@code UNLIMITED_PAGE_SIZE_VALUE} for all of them
+         */
+        GluePage list(String glueToken, int maxResults) throws Exception;
+    }
+
+    /**
+     * One page of the merged listing.
+     *
+     * @param tables    The tables of the page, at most the requested page size
+     * @param nextToken Token for the next page, or null after the last page
+     */
+    public record Page(List<TableName> tables, String nextToken)
+    {
+    }
+
+    /**
+     * Returns the page of the merged listing that starts at {@code token}.
+     *
+     * @param schemaName    The schema being listed
+     * @param larkTables    Every Lark table of the schema; duplicates are ignored
+     * @param glueLister    Reads the Glue tables of the schema
+     * @param accessAllowed Whether a (schema, table) may be listed
+     * @param token         Token returned with the previous page, or null for the first page
+     * @param pageSize      Maximum tables per page; zero or less returns everything in one page
+     * @throws IllegalArgumentException if {@code token} was not produced by this class
+     */
+    public static Page page(String schemaName, Collection<TableName> larkTables, GlueTableLister glueLister,
+                            BiPredicate<String, String> accessAllowed, String token, int pageSize)
+    {
+        requireNonNull(larkTables, "larkTables cannot be null");
+        requireNonNull(glueLister, "glueLister cannot be null");
+        requireNonNull(accessAllowed, "accessAllowed cannot be null");
+
+        boolean unlimited = pageSize <= 0;
+        List<TableName> tables = new ArrayList<>();
+
+        // Only the Lark table names are held for de-duplication; they are already in memory in the catalog.
+        TreeSet<TableName> sortedLarkTables = new TreeSet<>(Comparator.comparing(TableName::getTableName));
+        Set<TableName> larkTableSet = new HashSet<>();
+        for (TableName larkTable : larkTables) {
+            if (larkTableSet.add(larkTable) && accessAllowed.test(larkTable.getSchemaName(), larkTable.getTableName())) {
+                sortedLarkTables.add(larkTable);
+            }
+        }
+
+        String glueToken = null;
+        if (token == null || token.isEmpty() || token.startsWith(LARK_TOKEN_PREFIX)) {
+            Collection<TableName> remainingLarkTables = sortedLarkTables;
+            if (token != null && token.startsWith(LARK_TOKEN_PREFIX)) {
+                String lastTableName = token.substring(LARK_TOKEN_PREFIX.length());
+                remainingLarkTables = sortedLarkTables.tailSet(new TableName(schemaName, lastTableName), false);
+            }
+            for (TableName larkTable : remainingLarkTables) {
+                if (!unlimited && tables.size() == pageSize) {
+                    return new Page(tables, LARK_TOKEN_PREFIX + tables.get(tables.size() - 1).getTableName());
+                }
+                tables.add(larkTable);
+            }
+        }
+        else if (token.startsWith(GLUE_TOKEN_PREFIX)) {
+            String encodedGlueToken = token.substring(GLUE_TOKEN_PREFIX.length());
+            glueToken = encodedGlueToken.isEmpty() ? null : encodedGlueToken;
+        }
+        else {
+            throw new IllegalArgumentException("Invalid table listing token: " + token);
+        }
+
+        if (!unlimited && tables.size() == pageSize) {
+            return new Page(tables, GLUE_TOKEN_PREFIX);
+        }
+
+        do {
+            int maxResults = unlimited ? UNLIMITED_PAGE_SIZE_VALUE : pageSize - tables.size();
+            GluePage gluePage;
+            try {
+                gluePage = glueLister.list(glueToken, maxResults);
+            }
+            catch (Exception e) {
+                if (glueToken != null) {
+                    throw new RuntimeException("Failed to continue listing tables from AWSGlue in database/schema " + schemaName, e);
+                }
+                // Glue could not be read from its start: list whatever Lark provided, and end the listing.
+                logger.warn("Unable to retrieve tables from AWSGlue in database/schema {}", schemaName, e);
+                return new Page(tables, null);
+            }
+
+            // Glue does not promise an order within one response, so sort it to keep pages reproducible.
+            List<TableName> glueTables = new ArrayList<>(gluePage.tables());
+            glueTables.sort(Comparator.comparing(TableName::getTableName));
+            for (TableName glueTable : glueTables) {
+                if (!larkTableSet.contains(glueTable) && accessAllowed.test(glueTable.getSchemaName(), glueTable.getTableName())) {
+                    tables.add(glueTable);
+                }
+            }
+            glueToken = gluePage.nextToken() == null || gluePage.nextToken().isEmpty() ? null : gluePage.nextToken();
+        }
+        while (glueToken != null && (unlimited || tables.size() < pageSize));
+
+        return new Page(tables, glueToken == null ? null : GLUE_TOKEN_PREFIX + glueToken);
+    }
+}
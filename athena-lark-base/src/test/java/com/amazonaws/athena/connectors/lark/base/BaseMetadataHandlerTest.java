@@ -233,34 +233,34 @@ public class BaseMetadataHandlerTest {
     }
 
     @Test
-    public void testShouldUseParallelSplits_falseWhenTableHasNoParallelSplitKey() {
+    public void testPlanSplits_falseWhenTableHasNoParallelSplitKey() {
         com.amazonaws.athena.connector.lambda.domain.TableName tableName =
             new com.amazonaws.athena.connector.lambda.domain.TableName("test_schema", "test_table");
 
         // Absence of the split key must short-circuit before even checking the activation flag.
-        boolean result = handler.shouldUseParallelSplits(false, "base1", "tbl1", "", tableName);
+        boolean result = handler.planSplits(false, "query1", "base1", "tbl1", "", tableName).isParallel();
 
         assertFalse(result);
     }
 
     @Test
-    public void testShouldUseParallelSplits_falseWhenFeatureNotActivated() {
+    public void testPlanSplits_falseWhenFeatureNotActivated() {
         com.amazonaws.athena.connector.lambda.domain.TableName tableName =
             new com.amazonaws.athena.connector.lambda.domain.TableName("test_schema", "test_table");
         when(mockEnvVarService.isActivateParallelSplit()).thenReturn(false);
 
-        boolean result = handler.shouldUseParallelSplits(true, "base1", "tbl1", "", tableName);
+        boolean result = handler.planSplits(true, "query1", "base1", "tbl1", "", tableName).isParallel();
 
         assertFalse(result);
     }
 
     @Test
-    public void testShouldUseParallelSplits_trueWhenNoFilter() throws Exception {
+    public void testPlanSplits_trueWhenNoFilter() throws Exception {
         com.amazonaws.athena.connector.lambda.domain.TableName tableName =
             new com.amazonaws.athena.connector.lambda.domain.TableName("test_schema", "test_table");
         when(mockEnvVarService.isActivateParallelSplit()).thenReturn(true);
 
-        boolean result = handler.shouldUseParallelSplits(true, "base1", "tbl1", "", tableName);
+        boolean result = handler.planSplits(true, "query1", "base1", "tbl1", "", tableName).isParallel();
 
         assertTrue(result);
         // No filter means no selectivity check is needed, so the row-count lookup must never fire.
@@ -268,7 +268,7 @@ public class BaseMetadataHandlerTest {
     }
 
     @Test
-    public void testShouldUseParallelSplits_falseWhenFilterIsHighlySelective() throws Exception {
+    public void testPlanSplits_falseWhenFilterIsHighlySelective() throws Exception {
         // A selective filter (e.g. WHERE id = 'x') matching only a handful of rows must not trigger parallel
         // splitting, because splits are sized off the table's full row count and would mostly return zero rows.
         com.amazonaws.athena.connector.lambda.domain.TableName tableName =
@@ -284,13 +284,13 @@ public class BaseMetadataHandlerTest {
                 .build();
         when(mockInvoker.invoke(any())).thenReturn(response);
 
-        boolean result = handler.shouldUseParallelSplits(true, "base1", "tbl1", "{\"conditions\":[]}", tableName);
+        boolean result = handler.planSplits(true, "query1", "base1", "tbl1", "{\"conditions\":[]}", tableName).isParallel();
 
         assertFalse(result);
     }
 
     @Test
-    public void testShouldUseParallelSplits_trueWhenFilterMatchesManyRows() throws Exception {
+    public void testPlanSplits_trueWhenFilterMatchesManyRows() throws Exception {
         com.amazonaws.athena.connector.lambda.domain.TableName tableName =
             new com.amazonaws.athena.connector.lambda.domain.TableName("test_schema", "test_table");
         when(mockEnvVarService.isActivateParallelSplit()).thenReturn(true);
@@ -304,7 +304,7 @@ public class BaseMetadataHandlerTest {
                 .build();
         when(mockInvoker.invoke(any())).thenReturn(response);
 
-        boolean result = handler.shouldUseParallelSplits(true, "base1", "tbl1", "{\"conditions\":[]}", tableName);
+        boolean result = handler.planSplits(true, "query1", "base1", "tbl1", "{\"conditions\":[]}", tableName).isParallel();
 
         assertTrue(result);
     }
@@ -424,6 +424,79 @@ public class BaseRecordHandlerTest {
         assertFalse("Iterator should return false when API throws exception", iterator.hasNext());
     }
 
+    @Test
+    public void testGetIteratorRejectedFilterFallsBackToUnfilteredRead() throws Exception {
+        SearchRecordsResponse.RecordItem item1 = SearchRecordsResponse.RecordItem.builder()
+                .recordId("rec1")
+                .fields(Map.of("field1", "value1"))
+                .build();
+
+        SearchRecordsResponse response = (SearchRecordsResponse) SearchRecordsResponse.builder()
+                .data(SearchRecordsResponse.ListData.builder()
+                        .items(List.of(item1))
+                        .hasMore(false)
+                        .pageToken(null)
+                        .total(1)
+                        .build())
+                .build();
+
+        // Lark rejects the pushed-down filter, then serves the unfiltered read.
+        when(mockInvoker.invoke(any()))
+                .thenThrow(new RuntimeException("Failed to retrieve records for table: tableId, Error: InvalidFilter"))
+                .thenReturn(response);
+        when(mockEnvVarService.isEnableDebugLogging()).thenReturn(false);
+
+        Iterator<Map<String, Object>> iterator = handler.getIterator(
+                "baseId",
+                "tableId",
+                100,
+                0,
+                false,
+                0,
+                0,
+                "{\"conjunction\":\"and\",\"conditions\":[{\"field_name\":\"field1\",\"operator\":\"is\",\"value\":[\"value1\"]}]}",
+                "",
+                Collections.emptyMap()
+        );
+
+        // A rejected filter must not be mistaken for "no matching records": Athena re-applies the WHERE clause.
+        assertTrue(iterator.hasNext());
+        assertEquals("rec1", iterator.next().get(RESERVED_RECORD_ID));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testGetIteratorRejectedFilterOnBatchSplitsFailsInsteadOfReadingUnfiltered() throws Exception {
+        // Lark rejects the filter of both IN-list batches. Relaxing either one would read the whole table, and
+        // relaxing both would read it twice.
+        when(mockInvoker.invoke(any()))
+                .thenThrow(new RuntimeException("Failed to retrieve records for table: tableId, Error: InvalidFilter"));
+        when(mockEnvVarService.isEnableDebugLogging()).thenReturn(false);
+
+        List<String> batchFilters = List.of(
+                "{\"conjunction\":\"and\",\"children\":[{\"conjunction\":\"or\",\"conditions\":[{\"field_name\":\"field1\",\"operator\":\"is\",\"value\":[\"a\"]}]}]}",
+                "{\"conjunction\":\"and\",\"children\":[{\"conjunction\":\"or\",\"conditions\":[{\"field_name\":\"field1\",\"operator\":\"is\",\"value\":[\"b\"]}]}]}");
+        for (String batchFilter : batchFilters) {
+            Iterator<Map<String, Object>> iterator = handler.getIterator(
+                    "baseId",
+                    "tableId",
+                    100,
+                    0,
+                    false,
+                    true,
+                    0,
+                    0,
+                    batchFilter,
+                    "",
+                    Collections.emptyMap()
+            );
+            assertThrows(IllegalStateException.class, iterator::hasNext);
+        }
+
+        // One rejected fetch per batch, and no unfiltered re-read.
+        verify(mockInvoker, times(batchFilters.size())).invoke(any());
+    }
+
     @Test
     public void testGetIteratorNoSuchElement() throws Exception {
         SearchRecordsResponse response = (SearchRecordsResponse) SearchRecordsResponse.builder()
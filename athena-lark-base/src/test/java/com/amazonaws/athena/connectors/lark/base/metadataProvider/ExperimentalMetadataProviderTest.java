@@ -50,6 +50,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -428,4 +429,32 @@ public class ExperimentalMetadataProviderTest {
         assertTrue(result.isPresent());
         assertEquals(1, result.get().schema().getFields().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getTableSchemaThenPartitionInfo_sameQuery_reusesQueryTextAndFieldMappings() throws Exception {
+        when(athenaService.getAthenaQueryString("queryId")).thenReturn("SELECT * FROM \"base1\".\"table1\"");
+        when(larkBaseService.getTableFields("base1", "table1")).thenReturn(List.of(
+                ListFieldResponse.FieldItem.builder().fieldName("field1").fieldId("fld1").uiType(UITypeEnum.TEXT.name()).build()));
+        TableName tableName = new TableName("base1", "table1");
+        GetTableRequest tableRequest = new GetTableRequest(new FederatedIdentity("arn", "account", Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap()), "queryId", "catalog", tableName, Collections.emptyMap());
+        GetTableLayoutRequest layoutRequest = new GetTableLayoutRequest(new FederatedIdentity("arn", "account", Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap()), "queryId", "catalog", tableName, new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), 0L, Collections.emptyMap(), null), Mockito.mock(Schema.class), Collections.emptySet());
+
+        assertTrue(metadataProvider.getTableSchema(tableRequest).isPresent());
+        Optional<PartitionInfoResult> partitionInfo = metadataProvider.getPartitionInfo(tableName, layoutRequest);
+
+        assertTrue(partitionInfo.isPresent());
+        assertEquals("field1", partitionInfo.get().fieldNameMappings().get(0).athenaName());
+        verify(athenaService, times(1)).getAthenaQueryString("queryId");
+        verify(larkBaseService, times(1)).getTableFields("base1", "table1");
+    }
+
+    @Test
+    public void getTableSchema_utilityQuery_isNotLookedUpAgain() throws Exception {
+        when(athenaService.getAthenaQueryString(anyString())).thenThrow(InvalidRequestException.builder().build());
+        GetTableRequest request = new GetTableRequest(new FederatedIdentity("arn", "account", Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap()), "queryId", "catalog", new TableName("base1", "table1"), Collections.emptyMap());
+
+        assertFalse(metadataProvider.getTableSchema(request).isPresent());
+        assertFalse(metadataProvider.getTableSchema(request).isPresent());
+        verify(athenaService, times(1)).getAthenaQueryString("queryId");
+    }
+}
@@ -39,11 +39,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -103,7 +106,7 @@ public class LarkBaseTableResolverTest {
     public void testResolveTables_LarkDriveEnabled() throws Exception {
         when(mockEnvVarService.isActivateLarkDriveSource()).thenReturn(true);
         when(mockEnvVarService.getLarkDriveSources()).thenReturn("drive1");
-        when(mockLarkDriveService.getLarkBases(anyString())).thenReturn(Collections.singletonList(new LarkDatabaseRecord("db1", "base1")));
+        when(mockLarkDriveService.getLarkBases(anyString(), anyInt(), any())).thenReturn(Collections.singletonList(new LarkDatabaseRecord("db1", "base1")));
         when(mockLarkBaseService.listTables(anyString())).thenReturn(Collections.singletonList(ListAllTableResponse.BaseItem.builder().name("table1").tableId("tableId1").build()));
         when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.singletonList(ListFieldResponse.FieldItem.builder().fieldName("field1").fieldId("fieldId1").uiType("TEXT").build()));
 
@@ -111,6 +114,30 @@ public class LarkBaseTableResolverTest {
         assertEquals(1, tables.size());
     }
 
+    @Test
+    public void testResolveTables_LarkDriveEnabled_reusesTableListingsStartedDuringTheWalk() throws Exception {
+        when(mockEnvVarService.isActivateLarkDriveSource()).thenReturn(true);
+        when(mockEnvVarService.getLarkDriveSources()).thenReturn("drive1");
+        LarkDatabaseRecord first = new LarkDatabaseRecord("base1", "sales");
+        LarkDatabaseRecord second = new LarkDatabaseRecord("base2", "inventory");
+        doAnswer(invocation -> {
+            Consumer<LarkDatabaseRecord> onBaseDiscovered = invocation.getArgument(2);
+            onBaseDiscovered.accept(first);
+            onBaseDiscovered.accept(second);
+            return List.of(first, second);
+        }).when(mockLarkDriveService).getLarkBases(eq("drive1"), anyInt(), any());
+        when(mockLarkBaseService.listTables(anyString())).thenReturn(Collections.singletonList(ListAllTableResponse.BaseItem.builder().name("table1").tableId("tableId1").build()));
+        when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.singletonList(ListFieldResponse.FieldItem.builder().fieldName("field1").fieldId("fieldId1").uiType("TEXT").build()));
+
+        List<TableDirectInitialized> tables = resolver.resolveTables();
+
+        assertEquals(2, tables.size());
+        assertEquals("sales", tables.get(0).database().athenaName());
+        assertEquals("inventory", tables.get(1).database().athenaName());
+        verify(mockLarkBaseService, times(1)).listTables("base1");
+        verify(mockLarkBaseService, times(1)).listTables("base2");
+    }
+
     @Test
     public void testResolveTables_CollidingSanitizedFieldNames_disambiguatesWithFieldId() throws Exception {
         // Reproduces a real production case: two distinct Lark fields named "segment 5" and "Segment 5"
@@ -150,7 +177,7 @@ public class LarkBaseTableResolverTest {
     public void testResolveFromLarkDriveSource_Exception() throws Exception {
         when(mockEnvVarService.isActivateLarkDriveSource()).thenReturn(true);
         when(mockEnvVarService.getLarkDriveSources()).thenReturn("drive1");
-        when(mockLarkDriveService.getLarkBases(anyString())).thenThrow(new RuntimeException("Lark Error"));
+        when(mockLarkDriveService.getLarkBases(anyString(), anyInt(), any())).thenThrow(new RuntimeException("Lark Error"));
 
         List<TableDirectInitialized> tables = resolver.resolveTables();
         assertEquals(0, tables.size());
@@ -340,4 +367,94 @@ public class LarkBaseTableResolverTest {
         assertEquals(1, tables.size());
         assertEquals(0, tables.get(0).columns().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testResolveTables_ConcurrentDiscovery_keepsSequentialDedupOrder() throws Exception {
+        // The first base answers last; its names must still win the dedup, exactly as in a sequential walk.
+        when(mockEnvVarService.isActivateLarkBaseSource()).thenReturn(true);
+        when(mockEnvVarService.getLarkBaseSources()).thenReturn("base1:table1");
+        when(mockEnvVarService.getDiscoveryMaxConcurrency()).thenReturn(4);
+        when(mockLarkBaseService.getDatabaseRecords(anyString(), anyString())).thenReturn(List.of(
+                new LarkDatabaseRecord("slowBase", "sales_data"),
+                new LarkDatabaseRecord("fastBase", "Sales Data")));
+        when(mockLarkBaseService.listTables(anyString())).thenAnswer(invocation -> {
+            if ("slowBase".equals(invocation.getArgument(0))) {
+                Thread.sleep(200);
+            }
+            return List.of(
+                    ListAllTableResponse.BaseItem.builder().name("orders").tableId("tbl1").build(),
+                    ListAllTableResponse.BaseItem.builder().name("Orders").tableId("tbl2").build());
+        });
+        when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.emptyList());
+
+        List<TableDirectInitialized> tables = resolver.resolveTables();
+
+        List<String> names = tables.stream().map(t -> t.database().athenaName() + "." + t.table().athenaName()).toList();
+        assertEquals(List.of(
+                "sales_data.orders", "sales_data.orders_tbl2",
+                "sales_data_fastbase.orders", "sales_data_fastbase.orders_tbl2"), names);
+    }
+
+    @Test
+    public void testResolveTables_TimeoutInOneBase_keepsTheOtherBases() throws Exception {
+        when(mockEnvVarService.isActivateLarkBaseSource()).thenReturn(true);
+        when(mockEnvVarService.getLarkBaseSources()).thenReturn("base1:table1");
+        when(mockLarkBaseService.getDatabaseRecords(anyString(), anyString())).thenReturn(List.of(
+                new LarkDatabaseRecord("base1", "db1"),
+                new LarkDatabaseRecord("base2", "db2")));
+        when(mockLarkBaseService.listTables(anyString())).thenReturn(Collections.singletonList(
+                ListAllTableResponse.BaseItem.builder().name("table1").tableId("tableId1").build()));
+        when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenAnswer(invocation -> {
+            if ("base1".equals(invocation.getArgument(0))) {
+                throw new IllegalStateException("throttled");
+            }
+            return Collections.emptyList();
+        });
+        // The invoker gives up on base1's field call, as it would after exhausting its retries.
+        doAnswer(invocation -> {
+            try {
+                return ((Callable<?>) invocation.getArgument(0)).call();
+            }
+            catch (IllegalStateException e) {
+                throw new TimeoutException(e.getMessage());
+            }
+        }).when(mockInvoker).invoke(any(Callable.class));
+
+        List<TableDirectInitialized> tables = resolver.resolveTables();
+
+        assertEquals(1, tables.size());
+        assertEquals("db2", tables.get(0).database().athenaName());
+    }
+
+    @Test
+    public void testResolveTableNames_listsTablesWithoutDiscoveringFields() throws Exception {
+        when(mockEnvVarService.isActivateLarkBaseSource()).thenReturn(true);
+        when(mockEnvVarService.getLarkBaseSources()).thenReturn("base1:table1");
+        when(mockLarkBaseService.getDatabaseRecords(anyString(), anyString())).thenReturn(Collections.singletonList(new LarkDatabaseRecord("base1", "db1")));
+        when(mockLarkBaseService.listTables(anyString())).thenReturn(List.of(
+                ListAllTableResponse.BaseItem.builder().name("report a").tableId("tableId1").build(),
+                ListAllTableResponse.BaseItem.builder().name("Report A").tableId("tableId2").build()));
+
+        List<com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName> names = resolver.resolveTableNames();
+
+        assertEquals(List.of("report_a", "report_a_tableid2"), names.stream().map(n -> n.table().athenaName()).toList());
+        verify(mockLarkBaseService, times(0)).getTableFields(anyString(), anyString());
+        verify(mockLarkBaseService, times(0)).getAllTableFields(anyString(), any());
+    }
+
+    @Test
+    public void testResolveTables_prefetchesEveryTableOfABaseInOneBulkLoad() throws Exception {
+        when(mockEnvVarService.isActivateLarkBaseSource()).thenReturn(true);
+        when(mockEnvVarService.getLarkBaseSources()).thenReturn("base1:table1");
+        when(mockLarkBaseService.getDatabaseRecords(anyString(), anyString())).thenReturn(Collections.singletonList(new LarkDatabaseRecord("base1", "db1")));
+        when(mockLarkBaseService.listTables(anyString())).thenReturn(List.of(
+                ListAllTableResponse.BaseItem.builder().name("orders").tableId("tableId1").build(),
+                ListAllTableResponse.BaseItem.builder().name("customers").tableId("tableId2").build()));
+        when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.singletonList(ListFieldResponse.FieldItem.builder().fieldName("field1").fieldId("fieldId1").uiType("TEXT").build()));
+
+        List<TableDirectInitialized> tables = resolver.resolveTables();
+
+        assertEquals(2, tables.size());
+        verify(mockLarkBaseService, times(1)).getAllTableFields("base1", List.of("tableId1", "tableId2"));
+    }
+}
@@ -0,0 +1,265 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.resolver;
+
+import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
+import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.AthenaLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.CatalogSnapshot;
+import com.amazonaws.athena.connectors.lark.base.model.LarkDatabaseRecord;
+import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
+import com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName;
+import com.amazonaws.athena.connectors.lark.base.model.TableDirectInitialized;
+import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
+import com.amazonaws.athena.connectors.lark.base.model.response.ListAllTableResponse;
+import com.amazonaws.athena.connectors.lark.base.model.response.ListFieldResponse;
+import com.amazonaws.athena.connectors.lark.base.service.CatalogSnapshotService;
+import com.amazonaws.athena.connectors.lark.base.service.EnvVarService;
+import com.amazonaws.athena.connectors.lark.base.service.LarkBaseService;
+import com.amazonaws.athena.connectors.lark.base.service.LarkDriveService;
+import com.amazonaws.athena.connectors.lark.base.service.LocalCatalogSnapshotStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LarkTableCatalogTest {
+
+    private static final List<AthenaFieldLarkBaseMapping> AMOUNT_COLUMNS =
+            List.of(new AthenaFieldLarkBaseMapping("amount", "Amount", new NestedUIType(UITypeEnum.NUMBER, UITypeEnum.UNKNOWN)));
+
+    @TempDir
+    Path tempDir;
+
+    private LarkBaseService larkBaseService;
+    private LarkBaseTableResolver resolver;
+    private LarkTableCatalog catalog;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        EnvVarService envVarService = mock(EnvVarService.class);
+        larkBaseService = mock(LarkBaseService.class);
+        ThrottlingInvoker invoker = mock(ThrottlingInvoker.class);
+        when(invoker.invoke(any())).thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call());
+
+        when(envVarService.isActivateLarkBaseSource()).thenReturn(true);
+        when(envVarService.getLarkBaseSources()).thenReturn("meta:tbl");
+        when(larkBaseService.getDatabaseRecords(anyString(), anyString())).thenReturn(List.of(new LarkDatabaseRecord("base1", "Sales")));
+        when(larkBaseService.listTables("base1")).thenReturn(List.of(
+                ListAllTableResponse.BaseItem.builder().name("Orders").tableId("tbl1").revision("8").build(),
+                ListAllTableResponse.BaseItem.builder().name("Customers").tableId("tbl2").revision("3").build()));
+        when(larkBaseService.getTableFields(anyString(), anyString())).thenReturn(List.of(
+                ListFieldResponse.FieldItem.builder().fieldName("Amount").fieldId("fld1").uiType("NUMBER").build()));
+
+        resolver = new LarkBaseTableResolver(envVarService, larkBaseService, mock(LarkDriveService.class), invoker);
+        catalog = LarkTableCatalog.lazy(resolver);
+    }
+
+    @Test
+    public void getTableNames_resolvesNamesOnceWithoutTouchingFields() throws Exception {
+        assertEquals(2, catalog.getTableNames().size());
+        assertEquals(2, catalog.getTableNames().size());
+
+        verify(larkBaseService, times(1)).getDatabaseRecords(anyString(), anyString());
+        verify(larkBaseService, times(1)).listTables("base1");
+        verify(larkBaseService, never()).getTableFields(anyString(), anyString());
+    }
+
+    @Test
+    public void getTable_resolvesOnlyTheRequestedTableAndCachesIt() throws Exception {
+        Optional<TableDirectInitialized> table = catalog.getTable("SALES", "orders");
+
+        assertTrue(table.isPresent());
+        assertEquals("tbl1", table.get().table().larkBaseId());
+        assertEquals(List.of(new AthenaFieldLarkBaseMapping("amount", "Amount", new NestedUIType(UITypeEnum.NUMBER, UITypeEnum.UNKNOWN))),
+                table.get().columns());
+
+        catalog.getTable("sales", "orders");
+        verify(larkBaseService, times(1)).getTableFields("base1", "tbl1");
+        verify(larkBaseService, never()).getTableFields(eq("base1"), eq("tbl2"));
+    }
+
+    @Test
+    public void getTable_firstLookupInABase_prefetchesFieldsOfEveryTableOfThatBaseOnce() throws Exception {
+        catalog.getTable("sales", "orders");
+        catalog.getTable("sales", "customers");
+
+        verify(larkBaseService, times(1)).getAllTableFields("base1", List.of("tbl1", "tbl2"));
+    }
+
+    @Test
+    public void getTable_unknownTable_isEmpty() {
+        assertTrue(catalog.getTable("sales", "missing").isEmpty());
+        assertTrue(catalog.getTable("other", "orders").isEmpty());
+    }
+
+    @Test
+    public void getTable_emptyFieldDiscovery_isRetriedOnNextLookup() throws Exception {
+        when(larkBaseService.getTableFields("base1", "tbl1"))
+                .thenThrow(new RuntimeException("Lark error"))
+                .thenReturn(List.of(ListFieldResponse.FieldItem.builder().fieldName("Amount").fieldId("fld1").uiType("NUMBER").build()));
+
+        assertEquals(0, catalog.getTable("sales", "orders").orElseThrow().columns().size());
+        assertEquals(1, catalog.getTable("sales", "orders").orElseThrow().columns().size());
+        assertEquals(1, catalog.getTable("sales", "orders").orElseThrow().columns().size());
+        verify(larkBaseService, times(2)).getTableFields("base1", "tbl1");
+    }
+
+    @Test
+    public void preResolved_servesTablesWithoutAnyLarkCall() {
+        TableDirectInitialized table = new TableDirectInitialized(
+                new AthenaLarkBaseMapping("sales", "base1"),
+                new AthenaLarkBaseMapping("orders", "tbl1"),
+                List.of());
+        LarkTableCatalog preResolved = LarkTableCatalog.preResolved(List.of(table));
+
+        assertEquals(1, preResolved.getTableNames().size());
+        assertEquals(table, preResolved.getTable("Sales", "Orders").orElseThrow());
+    }
+
+    @Test
+    public void warmStart_servesTheSnapshotWithoutLarkAndRevalidatesChangedTablesInTheBackground() throws Exception {
+        AthenaLarkBaseMapping sales = new AthenaLarkBaseMapping("sales", "base1");
+        ResolvedTableName ordersAtOldRevision = new ResolvedTableName(sales, new AthenaLarkBaseMapping("orders", "tbl1"), "7");
+        ResolvedTableName customers = new ResolvedTableName(sales, new AthenaLarkBaseMapping("customers", "tbl2"), "3");
+        List<AthenaFieldLarkBaseMapping> staleColumns =
+                List.of(new AthenaFieldLarkBaseMapping("total", "Total", new NestedUIType(UITypeEnum.NUMBER, UITypeEnum.UNKNOWN)));
+        CatalogSnapshotService snapshots = new CatalogSnapshotService(new LocalCatalogSnapshotStore(tempDir.resolve("snapshot.json.gz")), "fp");
+        snapshots.save(List.of(ordersAtOldRevision, customers), Map.of(
+                ordersAtOldRevision, new TableDirectInitialized(sales, ordersAtOldRevision.table(), staleColumns),
+                customers, new TableDirectInitialized(sales, customers.table(), AMOUNT_COLUMNS)));
+        List<Runnable> background = new ArrayList<>();
+
+        LarkTableCatalog warm = LarkTableCatalog.warmStart(resolver, snapshots, background::add);
+
+        // Served straight from the snapshot: no Lark call at all.
+        assertEquals(staleColumns, warm.getTable("sales", "orders").orElseThrow().columns());
+        assertEquals(AMOUNT_COLUMNS, warm.getTable("sales", "customers").orElseThrow().columns());
+        verify(larkBaseService, never()).getDatabaseRecords(anyString(), anyString());
+        verify(larkBaseService, never()).getTableFields(anyString(), anyString());
+
+        // Revalidation: orders moved from revision 7 to 8, customers did not.
+        background.remove(0).run();
+        assertEquals(AMOUNT_COLUMNS, warm.getTable("sales", "orders").orElseThrow().columns());
+        assertEquals(AMOUNT_COLUMNS, warm.getTable("sales", "customers").orElseThrow().columns());
+        verify(larkBaseService, times(1)).getTableFields("base1", "tbl1");
+        verify(larkBaseService, never()).getTableFields("base1", "tbl2");
+
+        // The revalidated state is what the next container starts from.
+        background.forEach(Runnable::run);
+        assertEquals("8", snapshots.load().orElseThrow().tables().get(0).name().revision());
+        assertEquals(AMOUNT_COLUMNS, snapshots.load().orElseThrow().tables().get(0).columns());
+    }
+
+    @Test
+    public void warmStart_tableWithoutRevision_isRevalidated() throws Exception {
+        when(larkBaseService.listTables("base1")).thenReturn(List.of(
+                ListAllTableResponse.BaseItem.builder().name("Orders").tableId("tbl1").revision("8").build(),
+                ListAllTableResponse.BaseItem.builder().name("Customers").tableId("tbl2").build()));
+        AthenaLarkBaseMapping sales = new AthenaLarkBaseMapping("sales", "base1");
+        ResolvedTableName orders = new ResolvedTableName(sales, new AthenaLarkBaseMapping("orders", "tbl1"), "8");
+        ResolvedTableName customers = new ResolvedTableName(sales, new AthenaLarkBaseMapping("customers", "tbl2"), null);
+        List<AthenaFieldLarkBaseMapping> staleColumns =
+                List.of(new AthenaFieldLarkBaseMapping("total", "Total", new NestedUIType(UITypeEnum.NUMBER, UITypeEnum.UNKNOWN)));
+        CatalogSnapshotService snapshots = new CatalogSnapshotService(new LocalCatalogSnapshotStore(tempDir.resolve("snapshot.json.gz")), "fp");
+        snapshots.save(List.of(orders, customers), Map.of(
+                orders, new TableDirectInitialized(sales, orders.table(), AMOUNT_COLUMNS),
+                customers, new TableDirectInitialized(sales, customers.table(), staleColumns)));
+        List<Runnable> background = new ArrayList<>();
+
+        LarkTableCatalog warm = LarkTableCatalog.warmStart(resolver, snapshots, background::add);
+        background.remove(0).run();
+
+        // Without a revision nothing shows customers is unchanged, so its fields are rediscovered.
+        assertEquals(AMOUNT_COLUMNS, warm.getTable("sales", "customers").orElseThrow().columns());
+        assertEquals(AMOUNT_COLUMNS, warm.getTable("sales", "orders").orElseThrow().columns());
+        verify(larkBaseService, times(1)).getTableFields("base1", "tbl2");
+        verify(larkBaseService, never()).getTableFields("base1", "tbl1");
+    }
+
+    @Test
+    public void warmStart_lookupTargetChanged_revalidatesTheLookupTable() throws Exception {
+        AthenaLarkBaseMapping sales = new AthenaLarkBaseMapping("sales", "base1");
+        ResolvedTableName orders = new ResolvedTableName(sales, new AthenaLarkBaseMapping("orders", "tbl1"), "8");
+        ResolvedTableName customersAtOldRevision = new ResolvedTableName(sales, new AthenaLarkBaseMapping("customers", "tbl2"), "2");
+        // orders looks up a customers field whose type has changed since.
+        List<AthenaFieldLarkBaseMapping> staleLookupColumns =
+                List.of(new AthenaFieldLarkBaseMapping("customer_amount", "Customer Amount", new NestedUIType(UITypeEnum.LOOKUP, UITypeEnum.TEXT)));
+        CatalogSnapshotService snapshots = new CatalogSnapshotService(new LocalCatalogSnapshotStore(tempDir.resolve("snapshot.json.gz")), "fp");
+        snapshots.save(List.of(orders, customersAtOldRevision), Map.of(
+                orders, new TableDirectInitialized(sales, orders.table(), staleLookupColumns)));
+        List<Runnable> background = new ArrayList<>();
+
+        LarkTableCatalog warm = LarkTableCatalog.warmStart(resolver, snapshots, background::add);
+        assertEquals(staleLookupColumns, warm.getTable("sales", "orders").orElseThrow().columns());
+
+        // Revalidation: orders kept its revision, but customers moved from 2 to 3.
+        background.remove(0).run();
+        assertEquals(AMOUNT_COLUMNS, warm.getTable("sales", "orders").orElseThrow().columns());
+        verify(larkBaseService, times(1)).getTableFields("base1", "tbl1");
+
+        // The stale lookup types are not written back for the next container.
+        background.forEach(Runnable::run);
+        assertEquals(AMOUNT_COLUMNS, snapshots.load().orElseThrow().tables().get(0).columns());
+    }
+
+    @Test
+    public void warmStart_withoutSnapshot_resolvesLazilyAndPersists() throws Exception {
+        CatalogSnapshotService snapshots = new CatalogSnapshotService(new LocalCatalogSnapshotStore(tempDir.resolve("snapshot.json.gz")), "fp");
+
+        LarkTableCatalog warm = LarkTableCatalog.warmStart(resolver, snapshots, Runnable::run);
+        assertTrue(snapshots.load().isEmpty());
+
+        warm.getTable("sales", "orders");
+
+        List<CatalogSnapshot.Table> saved = snapshots.load().orElseThrow().tables();
+        assertEquals(2, saved.size());
+        assertEquals(AMOUNT_COLUMNS, saved.get(0).columns());
+        assertNull(saved.get(1).columns());
+    }
+
+    @Test
+    public void getTableSchema_isBuiltOncePerCachedTable() {
+        org.apache.arrow.vector.types.pojo.Schema schema = catalog.getTableSchema("sales", "orders").orElseThrow();
+
+        assertTrue(schema.findField("amount") != null);
+        assertTrue(schema == catalog.getTableSchema("Sales", "Orders").orElseThrow());
+        assertEquals(List.of("sales"), catalog.getSchemaNames());
+        assertEquals(2, catalog.getTableNames("SALES").size());
+    }
+}
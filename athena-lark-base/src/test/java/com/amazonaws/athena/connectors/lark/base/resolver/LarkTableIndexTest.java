@@ -0,0 +1,72 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.resolver;
+
+import com.amazonaws.athena.connectors.lark.base.model.AthenaLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LarkTableIndexTest {
+
+    private static ResolvedTableName table(String schema, String table) {
+        return new ResolvedTableName(new AthenaLarkBaseMapping(schema, "base_" + schema), new AthenaLarkBaseMapping(table, "tbl_" + table));
+    }
+
+    private final ResolvedTableName salesOrders = table("sales", "orders");
+    private final ResolvedTableName salesCustomers = table("sales", "customers");
+    private final ResolvedTableName hrPeople = table("hr", "people");
+    private final LarkTableIndex index = LarkTableIndex.of(List.of(salesOrders, hrPeople, salesCustomers));
+
+    @Test
+    public void find_matchesCaseInsensitively() {
+        assertSame(salesOrders, index.find("SALES", "Orders").orElseThrow());
+        assertSame(hrPeople, index.find("hr", "PEOPLE").orElseThrow());
+        assertTrue(index.find("sales", "people").isEmpty());
+        assertTrue(index.find("missing", "orders").isEmpty());
+    }
+
+    @Test
+    public void schemaNamesAndTablesInSchema_keepResolutionOrder() {
+        assertEquals(List.of("sales", "hr"), index.schemaNames());
+        assertEquals(List.of(salesOrders, salesCustomers), index.tablesInSchema("Sales"));
+        assertEquals(List.of(), index.tablesInSchema("missing"));
+        assertEquals(List.of(salesOrders, hrPeople, salesCustomers), index.tables());
+    }
+
+    @Test
+    public void find_firstTableWinsOnCollision() {
+        ResolvedTableName shadowed = new ResolvedTableName(salesOrders.database(), new AthenaLarkBaseMapping("ORDERS", "other"));
+
+        assertSame(salesOrders, LarkTableIndex.of(List.of(salesOrders, shadowed)).find("sales", "orders").orElseThrow());
+    }
+
+    @Test
+    public void index_isImmutable() {
+        assertThrows(UnsupportedOperationException.class, () -> index.tablesInSchema("sales").add(hrPeople));
+        assertThrows(UnsupportedOperationException.class, () -> index.schemaNames().add("x"));
+    }
+}
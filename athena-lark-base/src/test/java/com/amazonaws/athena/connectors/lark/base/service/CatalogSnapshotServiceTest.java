@@ -0,0 +1,125 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.AthenaLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.CatalogSnapshot;
+import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
+import com.amazonaws.athena.connectors.lark.base.model.ResolvedTableName;
+import com.amazonaws.athena.connectors.lark.base.model.TableDirectInitialized;
+import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CatalogSnapshotServiceTest {
+
+    private static final ResolvedTableName ORDERS = new ResolvedTableName(
+            new AthenaLarkBaseMapping("sales", "base1"), new AthenaLarkBaseMapping("orders", "tbl1"), "7");
+    private static final ResolvedTableName CUSTOMERS = new ResolvedTableName(
+            new AthenaLarkBaseMapping("sales", "base1"), new AthenaLarkBaseMapping("customers", "tbl2"), "3");
+    private static final List<AthenaFieldLarkBaseMapping> ORDER_COLUMNS = List.of(
+            new AthenaFieldLarkBaseMapping("amount", "Amount", new NestedUIType(UITypeEnum.NUMBER, UITypeEnum.UNKNOWN)),
+            new AthenaFieldLarkBaseMapping("customer_name", "Customer Name", new NestedUIType(UITypeEnum.LOOKUP, UITypeEnum.TEXT)));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void saveThenLoad_roundTripsNamesRevisionsAndResolvedFields() {
+        CatalogSnapshotService service = new CatalogSnapshotService(new LocalCatalogSnapshotStore(tempDir.resolve("snapshot.json.gz")), "fp");
+
+        service.save(List.of(ORDERS, CUSTOMERS), Map.of(ORDERS, new TableDirectInitialized(ORDERS.database(), ORDERS.table(), ORDER_COLUMNS)));
+        CatalogSnapshot snapshot = service.load().orElseThrow();
+
+        assertEquals(CatalogSnapshot.FORMAT_VERSION, snapshot.formatVersion());
+        assertEquals(2, snapshot.tables().size());
+        assertEquals(ORDERS, snapshot.tables().get(0).name());
+        assertEquals(ORDER_COLUMNS, snapshot.tables().get(0).columns());
+        assertEquals(CUSTOMERS, snapshot.tables().get(1).name());
+        assertNull(snapshot.tables().get(1).columns());
+    }
+
+    @Test
+    public void load_missingSnapshot_isEmpty() {
+        CatalogSnapshotService service = new CatalogSnapshotService(new LocalCatalogSnapshotStore(tempDir.resolve("missing.json.gz")), "fp");
+
+        assertTrue(service.load().isEmpty());
+    }
+
+    @Test
+    public void load_snapshotOfAnotherSourceConfiguration_isIgnored() {
+        Path file = tempDir.resolve("snapshot.json.gz");
+        new CatalogSnapshotService(new LocalCatalogSnapshotStore(file), "old-config").save(List.of(ORDERS), Map.of());
+
+        assertTrue(new CatalogSnapshotService(new LocalCatalogSnapshotStore(file), "new-config").load().isEmpty());
+    }
+
+    @Test
+    public void load_corruptSnapshot_isIgnored() throws Exception {
+        Path file = tempDir.resolve("snapshot.json.gz");
+        Files.write(file, new byte[] {1, 2, 3});
+
+        assertTrue(new CatalogSnapshotService(new LocalCatalogSnapshotStore(file), "fp").load().isEmpty());
+    }
+
+    @Test
+    public void fromConfig_localLocation_keysTheFileByFingerprint() {
+        EnvVarService envVarService = mock(EnvVarService.class);
+        when(envVarService.getLarkAppId()).thenReturn("app");
+        when(envVarService.isActivateLarkBaseSource()).thenReturn(true);
+        when(envVarService.getLarkBaseSources()).thenReturn("base1:tbl1");
+        when(envVarService.getCatalogSnapshotLocation()).thenReturn("file://" + tempDir);
+
+        Optional<CatalogSnapshotService> service = CatalogSnapshotService.fromConfig(envVarService);
+        service.orElseThrow().save(List.of(ORDERS), Map.of());
+
+        assertTrue(Files.exists(tempDir.resolve(CatalogSnapshotService.fingerprint(envVarService) + ".json.gz")));
+
+        // Any change to the configured sources yields a different fingerprint, hence a different snapshot.
+        String fingerprint = CatalogSnapshotService.fingerprint(envVarService);
+        when(envVarService.getLarkBaseSources()).thenReturn("base1:tbl1,base2:tbl1");
+        assertTrue(!fingerprint.equals(CatalogSnapshotService.fingerprint(envVarService)));
+    }
+
+    @Test
+    public void fromConfig_disabledOrNowhereToStore_isEmpty() {
+        EnvVarService envVarService = mock(EnvVarService.class);
+        when(envVarService.getCatalogSnapshotLocation()).thenReturn("disabled");
+        when(envVarService.getSpillBucket()).thenReturn("spill");
+        assertTrue(CatalogSnapshotService.fromConfig(envVarService).isEmpty());
+
+        when(envVarService.getCatalogSnapshotLocation()).thenReturn("");
+        when(envVarService.getSpillBucket()).thenReturn("");
+        assertTrue(CatalogSnapshotService.fromConfig(envVarService).isEmpty());
+    }
+}
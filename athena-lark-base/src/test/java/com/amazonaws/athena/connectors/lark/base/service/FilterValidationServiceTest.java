@@ -0,0 +1,171 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
+import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
+import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
+import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
+import com.amazonaws.athena.connectors.lark.base.model.request.TableRecordsRequest;
+import com.amazonaws.athena.connectors.lark.base.model.response.SearchRecordsResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FilterValidationServiceTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String NUMBER_CONDITION = "{\"field_name\":\"Amount\",\"operator\":\"isGreater\",\"value\":[\"10\"]}";
+    private static final String DATE_CONDITION = "{\"field_name\":\"Due\",\"operator\":\"isGreater\",\"value\":[\"ExactDate\",\"1700000000000\"]}";
+
+    private final List<AthenaFieldLarkBaseMapping> mappings = List.of(
+            new AthenaFieldLarkBaseMapping("amount", "Amount", new NestedUIType(UITypeEnum.NUMBER, null)),
+            new AthenaFieldLarkBaseMapping("due", "Due", new NestedUIType(UITypeEnum.DATE_TIME, null)));
+
+    private LarkBaseService larkBaseService;
+    private FilterValidationService service;
+    private final List<String> probedFilters = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        larkBaseService = mock(LarkBaseService.class);
+        ThrottlingInvoker invoker = mock(ThrottlingInvoker.class);
+        when(invoker.invoke(any())).thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call());
+        service = new FilterValidationService(larkBaseService, invoker);
+    }
+
+    private void rejectFiltersContaining(String fieldName) throws IOException {
+        when(larkBaseService.getTableRecords(any())).thenAnswer(invocation -> {
+            String filter = ((TableRecordsRequest) invocation.getArgument(0)).getFilterJson();
+            probedFilters.add(filter);
+            if (filter != null && filter.contains("\"" + fieldName + "\"")) {
+                throw new IOException("Failed to retrieve records for table: tbl, Error: InvalidFilter");
+            }
+            return SearchRecordsResponse.builder()
+                    .data(SearchRecordsResponse.ListData.builder().items(Collections.emptyList()).total(1).build())
+                    .build();
+        });
+    }
+
+    private static String filterOf(String... conditions) {
+        return "{\"conjunction\":\"and\",\"conditions\":[" + String.join(",", conditions) + "]}";
+    }
+
+    @Test
+    public void toPushableFilter_emptyFilter_returnsEmptyWithoutProbing() throws Exception {
+        rejectFiltersContaining("nothing");
+
+        assertEquals("", service.toPushableFilter("base", "tbl", "", mappings));
+        assertEquals("", service.toPushableFilter("base", "tbl", null, mappings));
+        assertEquals(0, probedFilters.size());
+    }
+
+    @Test
+    public void toPushableFilter_acceptedFilter_isReturnedUnchangedAndCached() throws Exception {
+        rejectFiltersContaining("nothing");
+        String filter = filterOf(NUMBER_CONDITION, DATE_CONDITION);
+
+        assertEquals(filter, service.toPushableFilter("base", "tbl", filter, mappings));
+        assertEquals(1, probedFilters.size());
+
+        // Every combination in the filter is now known to be accepted, so no further probe is needed.
+        assertEquals(filter, service.toPushableFilter("base", "tbl", filter, mappings));
+        assertEquals(1, probedFilters.size());
+    }
+
+    @Test
+    public void toPushableFilter_rejectedCombination_isDroppedAndRememberedForTheTable() throws Exception {
+        rejectFiltersContaining("Due");
+        String filter = filterOf(NUMBER_CONDITION, DATE_CONDITION);
+
+        String pushable = service.toPushableFilter("base", "tbl", filter, mappings);
+
+        JsonNode conditions = OBJECT_MAPPER.readTree(pushable).get("conditions");
+        assertEquals(1, conditions.size());
+        assertEquals("Amount", conditions.get(0).get("field_name").asText());
+
+        // The rejected DATE_TIME:isGreater combination is dropped up front next time, without another probe.
+        int probesSoFar = probedFilters.size();
+        String again = service.toPushableFilter("base", "tbl", filterOf(DATE_CONDITION), mappings);
+        assertEquals("", again);
+        assertEquals(probesSoFar, probedFilters.size());
+
+        // ...but only for this table.
+        assertEquals("", service.toPushableFilter("base", "other", filterOf(DATE_CONDITION), mappings));
+        assertTrue(probedFilters.size() > probesSoFar);
+    }
+
+    @Test
+    public void toPushableFilter_rejectedOrGroup_isDroppedAsAWhole() throws Exception {
+        rejectFiltersContaining("Due");
+        String orGroup = "{\"conjunction\":\"or\",\"conditions\":[" + DATE_CONDITION + "," + DATE_CONDITION.replace("isGreater", "isLess") + "]}";
+        String filter = "{\"conjunction\":\"and\",\"conditions\":[" + NUMBER_CONDITION + "],\"children\":[" + orGroup + "]}";
+
+        String pushable = service.toPushableFilter("base", "tbl", filter, mappings);
+
+        JsonNode parsed = OBJECT_MAPPER.readTree(pushable);
+        assertEquals(1, parsed.get("conditions").size());
+        assertNull(parsed.get("children"));
+    }
+
+    @Test
+    public void toPushableFilter_throttledProbe_leavesFilterUnchangedAndCachesNothing() throws Exception {
+        String filter = filterOf(NUMBER_CONDITION);
+        when(larkBaseService.getTableRecords(any())).thenAnswer(invocation -> {
+            probedFilters.add(((TableRecordsRequest) invocation.getArgument(0)).getFilterJson());
+            if (probedFilters.size() == 1) {
+                throw new IOException("Failed to retrieve records for table: tbl, Error: TooManyRequest, Code: 1254290");
+            }
+            return SearchRecordsResponse.builder()
+                    .data(SearchRecordsResponse.ListData.builder().items(Collections.emptyList()).total(1).build())
+                    .build();
+        });
+
+        assertEquals(filter, service.toPushableFilter("base", "tbl", filter, mappings));
+        assertEquals(1, probedFilters.size());
+
+        // Nothing was learned about NUMBER:isGreater, so it is probed again once Lark answers.
+        assertEquals(filter, service.toPushableFilter("base", "tbl", filter, mappings));
+        assertEquals(2, probedFilters.size());
+    }
+
+    @Test
+    public void toPushableFilter_tableUnsearchable_leavesFilterUnchanged() throws Exception {
+        when(larkBaseService.getTableRecords(any())).thenThrow(new IOException("Failed to retrieve records for table: tbl, Error: NoPermission"));
+        String filter = filterOf(NUMBER_CONDITION);
+
+        assertEquals(filter, service.toPushableFilter("base", "tbl", filter, mappings));
+    }
+}
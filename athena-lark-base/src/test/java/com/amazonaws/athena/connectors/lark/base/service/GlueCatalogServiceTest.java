@@ -23,19 +23,28 @@ package com.amazonaws.athena.connectors.lark.base.service;
 import com.amazonaws.athena.connectors.lark.base.model.AthenaFieldLarkBaseMapping;
 import com.amazonaws.athena.connectors.lark.base.model.NestedUIType;
 import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
+import com.google.common.base.Ticker;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import software.amazon.awssdk.services.glue.GlueClient;
 import software.amazon.awssdk.services.glue.model.*;
 import software.amazon.awssdk.utils.Pair;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_BASE_ID_PARAMETER;
 import static com.amazonaws.athena.connectors.lark.base.BaseConstants.LARK_TABLE_ID_PARAMETER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class GlueCatalogServiceTest {
@@ -100,4 +109,82 @@ public class GlueCatalogServiceTest {
         assertEquals("segment_5", result.get(0).athenaName());
         assertEquals("segment_5_fldzrayo2s", result.get(1).athenaName());
     }
+
+    private static GetTableResponse larkTable(String versionId, Instant updateTime, String fieldName) {
+        Column column = Column.builder().name("col1")
+                .comment("LarkBaseFieldName=" + fieldName + "/LarkBaseFieldType=Text/LarkBaseChildFieldType=null").build();
+        Table table = Table.builder()
+                .versionId(versionId)
+                .updateTime(updateTime)
+                .parameters(Map.of(LARK_BASE_ID_PARAMETER, "base_id", LARK_TABLE_ID_PARAMETER, "table_id"))
+                .storageDescriptor(StorageDescriptor.builder().columns(column).build())
+                .build();
+        return GetTableResponse.builder().table(table).build();
+    }
+
+    @Test
+    public void idsAndFieldMappings_areServedFromOneGetTable() {
+        GlueClient glueClient = Mockito.mock(GlueClient.class);
+        when(glueClient.getTable(any(GetTableRequest.class))).thenReturn(larkTable("1", Instant.EPOCH, "field1"));
+        GlueCatalogService glueCatalogService = new GlueCatalogService(glueClient);
+
+        Pair<String, String> ids = glueCatalogService.getLarkBaseAndTableIdFromTable("database", "table");
+        List<AthenaFieldLarkBaseMapping> mappings = glueCatalogService.getFieldNameMappings("database", "table");
+
+        assertEquals("base_id", ids.left());
+        assertEquals("field1", mappings.get(0).larkBaseFieldName());
+        verify(glueClient, times(1)).getTable(any(GetTableRequest.class));
+    }
+
+    @Test
+    public void revalidation_keepsParsedMappingsUntilVersionChanges() {
+        GlueClient glueClient = Mockito.mock(GlueClient.class);
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        when(glueClient.getTable(any(GetTableRequest.class)))
+                .thenReturn(larkTable("1", Instant.EPOCH, "field1"))
+                .thenReturn(larkTable("1", Instant.EPOCH, "field1"))
+                .thenReturn(larkTable("2", Instant.EPOCH.plusSeconds(60), "renamed"));
+        GlueCatalogService glueCatalogService = new GlueCatalogService(glueClient, ticker);
+        long window = TimeUnit.SECONDS.toNanos(GlueCatalogService.REVALIDATE_AFTER_SECONDS);
+
+        List<AthenaFieldLarkBaseMapping> first = glueCatalogService.getFieldNameMappings("database", "table");
+
+        // Same version after the revalidation window: Glue is asked again, but nothing is re-parsed.
+        nanos.addAndGet(window);
+        assertSame(first, glueCatalogService.getFieldNameMappings("database", "table"));
+
+        // New version: the definition is parsed again.
+        nanos.addAndGet(window);
+        List<AthenaFieldLarkBaseMapping> changed = glueCatalogService.getFieldNameMappings("database", "table");
+        assertNotSame(first, changed);
+        assertEquals("renamed", changed.get(0).larkBaseFieldName());
+        verify(glueClient, times(3)).getTable(any(GetTableRequest.class));
+    }
+
+    @Test
+    public void droppedTable_isNotServedFromCache() {
+        GlueClient glueClient = Mockito.mock(GlueClient.class);
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        when(glueClient.getTable(any(GetTableRequest.class)))
+                .thenReturn(larkTable("1", Instant.EPOCH, "field1"))
+                .thenThrow(EntityNotFoundException.builder().message("gone").build());
+        GlueCatalogService glueCatalogService = new GlueCatalogService(glueClient, ticker);
+
+        glueCatalogService.getFieldNameMappings("database", "table");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(GlueCatalogService.REVALIDATE_AFTER_SECONDS));
+
+        assertThrows(EntityNotFoundException.class, () -> glueCatalogService.getFieldNameMappings("database", "table"));
+    }
 }
@@ -440,6 +440,42 @@ public class LarkBaseServiceTest {
         assertEquals(UITypeEnum.UNKNOWN, result);
     }
 
+    @Test
+    public void getAllTableFields_loadsEveryTableOnceAndServesLaterLookupsFromCache() throws Exception {
+        // Routed by URL rather than by call order: the bulk load fetches tables concurrently.
+        Map<String, String> fieldsByTable = Map.of(
+                "tbl1", "{\"code\":0, \"data\":{\"items\":[{\"field_id\":\"fld1\",\"field_name\":\"Field 1\",\"ui_type\":\"Lookup\", \"property\":{\"target_field\":\"fld2\",\"filter_info\":{\"target_table\":\"tbl2\"}}}]}}",
+                "tbl2", "{\"code\":0, \"data\":{\"items\":[{\"field_id\":\"fld2\",\"field_name\":\"Field 2\",\"ui_type\":\"Number\"}],\"has_more\":false}}",
+                "tbl3", "{\"code\":1, \"msg\":\"error\"}");
+        AtomicInteger fieldRequests = new AtomicInteger();
+        MockHttpClientWrapper mockHttpClient = new MockHttpClientWrapper() {
+            @Override
+            public CloseableHttpResponse execute(HttpGet request) throws IOException {
+                String path = request.getURI().getPath();
+                if (path.endsWith("/tables")) {
+                    return super.execute(request);
+                }
+                fieldRequests.incrementAndGet();
+                String tableId = path.replaceAll(".*/tables/([^/]+)/fields$", "$1");
+                return super.createMockResponse(fieldsByTable.get(tableId), 200, "OK");
+            }
+        };
+        mockHttpClient.addResponse("{\"code\":0, \"msg\":\"success\", \"data\":{\"items\":[{\"table_id\":\"tbl1\",\"name\":\"a\"},{\"table_id\":\"tbl2\",\"name\":\"b\"},{\"table_id\":\"tbl3\",\"name\":\"c\"}],\"has_more\":false}}", 200, "OK");
+        LarkBaseService larkBaseService = new LarkBaseService(TEST_APP_ID, TEST_APP_SECRET, mockHttpClient);
+
+        Map<String, List<ListFieldResponse.FieldItem>> fields = larkBaseService.getAllTableFields("base1");
+
+        // tbl3 failed to load and is left out instead of failing the other tables.
+        assertEquals(List.of("tbl1", "tbl2"), new ArrayList<>(fields.keySet()));
+        assertEquals("fld2", fields.get("tbl2").get(0).getFieldId());
+        assertEquals(3, fieldRequests.get());
+
+        // Lookup resolution and the next bulk load now run entirely against warm data.
+        assertEquals(UITypeEnum.NUMBER, larkBaseService.getLookupType("base1", "tbl1", "fld1"));
+        assertEquals(2, larkBaseService.getAllTableFields("base1", List.of("tbl1", "tbl2")).size());
+        assertEquals(3, fieldRequests.get());
+    }
+
     @Test
     public void getTableFields_invalidCacheKey_fallsBackToDirectFetch() throws Exception {
         // Test that the cache loader's IllegalArgumentException path is covered
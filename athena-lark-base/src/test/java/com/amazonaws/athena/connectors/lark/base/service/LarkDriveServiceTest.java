@@ -27,11 +27,17 @@ import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.StringEntity;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -334,4 +340,76 @@ public class LarkDriveServiceTest {
         assertTrue(exception.getCause().getMessage().contains("Failed to retrieve tables for folder"));
         assertTrue(exception.getCause().getMessage().contains("Internal Server Error"));
     }
+
+    @Test
+    public void testGetLarkBasesWalksSubfoldersOnceAndReportsEachBaseOnce() throws Exception {
+        // root -> [base a, folder f1, folder f2]; f1 -> [base b, shortcut to f2]; f2 -> [base a again, base c]
+        Map<String, String> bodiesByFolder = Map.of(
+                "root", folderBody(bitable("a", "Alpha"), folder("f1"), folder("f2")),
+                "f1", folderBody(bitable("b", "Beta"), folder("f2")),
+                "f2", folderBody(bitable("a", "Alpha"), bitable("c", "Gamma")));
+        List<String> listedFolders = Collections.synchronizedList(new ArrayList<>());
+        MockHttpClientWrapper mockHttpClient = new MockHttpClientWrapper("", 200, "OK") {
+            @Override
+            public CloseableHttpResponse execute(HttpGet request) throws IOException {
+                String folderToken = new URIBuilder(request.getURI()).getQueryParams().stream()
+                        .filter(param -> param.getName().equals("folder_token"))
+                        .findFirst().orElseThrow().getValue();
+                listedFolders.add(folderToken);
+                return createMockResponse(bodiesByFolder.get(folderToken), 200, "OK");
+            }
+        };
+        List<String> reported = Collections.synchronizedList(new ArrayList<>());
+
+        LarkDriveService larkDriveService = new LarkDriveService("appId", "appSecret", mockHttpClient);
+        List<LarkDatabaseRecord> result = larkDriveService.getLarkBases("root", 4, record -> reported.add(record.id()));
+
+        assertEquals(List.of("a", "b", "c"), result.stream().map(LarkDatabaseRecord::id).toList());
+        assertEquals(List.of("alpha", "beta", "gamma"), result.stream().map(LarkDatabaseRecord::name).toList());
+        assertEquals(Set.of("a", "b", "c"), new HashSet<>(reported));
+        assertEquals(3, reported.size());
+        assertEquals(3, listedFolders.size());
+        assertEquals(Set.of("root", "f1", "f2"), new HashSet<>(listedFolders));
+    }
+
+    @Test
+    public void testGetLarkBasesFailsWhenASubfolderFails() throws Exception {
+        String rootBody = folderBody(bitable("a", "Alpha"), folder("f1"), folder("f2"));
+        String okBody = folderBody(bitable("b", "Beta"));
+        String errorBody = objectMapper.writeValueAsString(ListAllFolderResponse.builder().code(1061004).msg("forbidden").build());
+        MockHttpClientWrapper mockHttpClient = new MockHttpClientWrapper("", 200, "OK") {
+            @Override
+            public CloseableHttpResponse execute(HttpGet request) throws IOException {
+                String query = request.getURI().getQuery();
+                if (query.contains("folder_token=root")) {
+                    return createMockResponse(rootBody, 200, "OK");
+                }
+                return createMockResponse(query.contains("folder_token=f2") ? errorBody : okBody, 200, "OK");
+            }
+        };
+
+        LarkDriveService larkDriveService = new LarkDriveService("appId", "appSecret", mockHttpClient);
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                larkDriveService.getLarkBases("root", 2, record -> { })
+        );
+
+        assertTrue(exception.getMessage().contains("Failed to get records for folder: f2"));
+    }
+
+    private String folderBody(ListAllFolderResponse.DriveFile... files) throws Exception {
+        ListAllFolderResponse.ListData listData = ListAllFolderResponse.ListData.builder()
+                .files(List.of(files))
+                .nextPageToken("")
+                .hasMore(false)
+                .build();
+        return objectMapper.writeValueAsString(ListAllFolderResponse.builder().code(0).msg("success").data(listData).build());
+    }
+
+    private static ListAllFolderResponse.DriveFile bitable(String token, String name) {
+        return ListAllFolderResponse.DriveFile.builder().name(name).token(token).type("bitable").build();
+    }
+
+    private static ListAllFolderResponse.DriveFile folder(String token) {
+        return ListAllFolderResponse.DriveFile.builder().name(token).token(token).type("folder").build();
+    }
 }
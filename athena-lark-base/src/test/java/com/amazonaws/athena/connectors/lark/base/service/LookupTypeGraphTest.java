@@ -0,0 +1,125 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import com.amazonaws.athena.connectors.lark.base.model.enums.UITypeEnum;
+import com.amazonaws.athena.connectors.lark.base.model.response.ListFieldResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LookupTypeGraphTest {
+
+    private final Map<String, List<ListFieldResponse.FieldItem>> tables = new HashMap<>();
+    private final List<String> loadedTables = new ArrayList<>();
+    private LookupTypeGraph graph;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new LookupTypeGraph((baseId, tableId) -> {
+            loadedTables.add(baseId + "." + tableId);
+            return tables.getOrDefault(tableId, List.of());
+        }, 5, 5);
+    }
+
+    private static ListFieldResponse.FieldItem field(String fieldId, String uiType) {
+        return ListFieldResponse.FieldItem.builder().fieldId(fieldId).fieldName(fieldId).uiType(uiType).build();
+    }
+
+    private static ListFieldResponse.FieldItem lookup(String fieldId, String targetTable, String targetField) {
+        return ListFieldResponse.FieldItem.builder().fieldId(fieldId).fieldName(fieldId).uiType("Lookup")
+                .property(Map.of("target_field", targetField, "filter_info", Map.of("target_table", targetTable)))
+                .build();
+    }
+
+    @Test
+    public void resolve_sharedTarget_walksTheChainOnce() {
+        tables.put("tbl1", List.of(lookup("a", "tbl2", "x"), lookup("b", "tbl2", "x")));
+        tables.put("tbl2", List.of(lookup("x", "tbl3", "y")));
+        tables.put("tbl3", List.of(field("y", "Number")));
+
+        assertEquals(UITypeEnum.NUMBER, graph.resolve("base", "tbl1", "a"));
+        assertEquals(UITypeEnum.NUMBER, graph.resolve("base", "tbl1", "b"));
+        assertEquals(UITypeEnum.NUMBER, graph.resolve("base", "tbl2", "x"));
+
+        // Each table's fields are indexed once; the second chain stops at the memoized tbl2.x.
+        assertEquals(List.of("base.tbl1", "base.tbl2", "base.tbl3"), loadedTables);
+    }
+
+    @Test
+    public void resolve_fieldIdsMatchCaseInsensitively() {
+        tables.put("tbl1", List.of(field("FldAbc", "Text")));
+
+        assertEquals(UITypeEnum.TEXT, graph.resolve("base", "tbl1", "fldabc"));
+    }
+
+    @Test
+    public void resolve_cycle_isMemoizedAsUnknownForEveryFieldOnIt() {
+        tables.put("tbl1", List.of(lookup("a", "tbl2", "b")));
+        tables.put("tbl2", List.of(lookup("b", "tbl1", "a")));
+
+        assertEquals(UITypeEnum.UNKNOWN, graph.resolve("base", "tbl1", "a"));
+        assertEquals(UITypeEnum.UNKNOWN, graph.resolve("base", "tbl2", "b"));
+        assertEquals(2, loadedTables.size());
+    }
+
+    @Test
+    public void resolve_missingTarget_isMemoizedAsUnknown() {
+        tables.put("tbl1", List.of(lookup("a", "tbl2", "gone")));
+        tables.put("tbl2", List.of(field("other", "Text")));
+
+        assertEquals(UITypeEnum.UNKNOWN, graph.resolve("base", "tbl1", "a"));
+        assertEquals(UITypeEnum.UNKNOWN, graph.resolve("base", "tbl1", "a"));
+        assertEquals(2, loadedTables.size());
+    }
+
+    @Test
+    public void resolve_memoizedChainLongerThanMaxDepthFromTheRequestedField_isUnknown() {
+        // tbl1.a -> tbl2.b -> tbl3.c -> tbl4.d (Text): four fields from a, three from b.
+        tables.put("tbl1", List.of(lookup("a", "tbl2", "b")));
+        tables.put("tbl2", List.of(lookup("b", "tbl3", "c")));
+        tables.put("tbl3", List.of(lookup("c", "tbl4", "d")));
+        tables.put("tbl4", List.of(field("d", "Text")));
+        LookupTypeGraph shallow = new LookupTypeGraph((baseId, tableId) -> tables.get(tableId), 3, 5);
+
+        assertEquals(UITypeEnum.TEXT, shallow.resolve("base", "tbl2", "b"));
+        // The memoized tbl2.b resolution must not let a chain that is one hop too long slip through.
+        assertEquals(UITypeEnum.UNKNOWN, shallow.resolve("base", "tbl1", "a"));
+    }
+
+    @Test
+    public void resolve_basesAreIndependent() {
+        tables.put("tbl1", List.of(field("a", "Text")));
+
+        assertEquals(UITypeEnum.TEXT, graph.resolve("base1", "tbl1", "a"));
+        assertEquals(UITypeEnum.TEXT, graph.resolve("base2", "tbl1", "a"));
+        assertEquals(List.of("base1.tbl1", "base2.tbl1"), loadedTables);
+
+        graph.invalidateAll();
+        assertEquals(UITypeEnum.TEXT, graph.resolve("base1", "tbl1", "a"));
+        assertEquals(3, loadedTables.size());
+    }
+}
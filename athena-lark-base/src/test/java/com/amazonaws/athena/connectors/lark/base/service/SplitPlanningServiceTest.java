@@ -0,0 +1,132 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.service;
+
+import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
+import com.amazonaws.athena.connectors.lark.base.model.request.TableRecordsRequest;
+import com.amazonaws.athena.connectors.lark.base.model.response.SearchRecordsResponse;
+import com.amazonaws.athena.connectors.lark.base.service.SplitPlanningService.SplitPlan;
+import com.amazonaws.athena.connectors.lark.base.service.SplitPlanningService.Strategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SplitPlanningServiceTest {
+
+    private static final String FILTER = "{\"conjunction\":\"and\",\"conditions\":[]}";
+
+    private LarkBaseService larkBaseService;
+    private SplitPlanningService service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        larkBaseService = mock(LarkBaseService.class);
+        ThrottlingInvoker invoker = mock(ThrottlingInvoker.class);
+        when(invoker.invoke(any())).thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call());
+        service = new SplitPlanningService(larkBaseService, invoker);
+    }
+
+    private void counts(int filteredRows, int totalRows) throws IOException {
+        when(larkBaseService.getTableRecords(any())).thenAnswer(invocation -> {
+            String filter = ((TableRecordsRequest) invocation.getArgument(0)).getFilterJson();
+            int total = filter == null || filter.isEmpty() ? totalRows : filteredRows;
+            return SearchRecordsResponse.builder()
+                    .data(SearchRecordsResponse.ListData.builder().items(Collections.emptyList()).total(total).build())
+                    .build();
+        });
+    }
+
+    @Test
+    public void plan_noFilter_usesPageRangesWithoutCounting() throws Exception {
+        SplitPlan plan = service.plan("q", "base", "tbl", "", 32);
+
+        assertEquals(Strategy.RANGE_SPLITS, plan.strategy());
+        assertEquals(500, plan.rangeWidth());
+        verify(larkBaseService, never()).getTableRecords(any());
+    }
+
+    @Test
+    public void plan_filterFitsInOnePage_usesSingleSplitWithoutCountingTheTable() throws Exception {
+        counts(120, 1_000_000);
+
+        SplitPlan plan = service.plan("q", "base", "tbl", FILTER, 32);
+
+        assertEquals(Strategy.SINGLE_FILTERED, plan.strategy());
+        verify(larkBaseService, times(1)).getTableRecords(any());
+    }
+
+    @Test
+    public void plan_selectiveFilterOnLargeTable_prefersFewWideSplitsOverThousandsOfRanges() throws Exception {
+        counts(20_000, 1_000_000);
+
+        SplitPlan plan = service.plan("q", "base", "tbl", FILTER, 32);
+
+        assertEquals(Strategy.SUB_FILTERED_SPLITS, plan.strategy());
+        assertTrue(plan.splitCount() <= 32);
+        assertTrue(plan.rangeWidth() * plan.splitCount() >= 1_000_000);
+        assertTrue(plan.subFilteredCostMs() < plan.rangeCostMs());
+        assertTrue(plan.subFilteredCostMs() < plan.singleCostMs());
+    }
+
+    @Test
+    public void plan_unselectiveFilterWithEnoughConcurrency_usesPageRanges() {
+        // Every range is full and they all fit in one wave, so nothing beats one page per split.
+        SplitPlan plan = SplitPlanningService.choose(10_000, 10_000, 700, 64);
+
+        assertEquals(Strategy.RANGE_SPLITS, plan.strategy());
+        assertEquals(20, plan.splitCount());
+        assertEquals(500, plan.rangeWidth());
+    }
+
+    @Test
+    public void plan_unknownCount_fallsBackToSingleSplit() throws Exception {
+        when(larkBaseService.getTableRecords(any())).thenThrow(new IOException("boom"));
+
+        SplitPlan plan = service.plan("q", "base", "tbl", FILTER, 32);
+
+        assertEquals(Strategy.SINGLE_FILTERED, plan.strategy());
+        assertEquals(SplitPlanningService.UNKNOWN_ROW_COUNT, plan.filteredRowCount());
+    }
+
+    @Test
+    public void getRowCount_isCachedPerQuery() throws Exception {
+        counts(700, 5_000);
+
+        assertEquals(700, service.getRowCount("q1", "base", "tbl", FILTER));
+        assertEquals(700, service.getRowCount("q1", "base", "tbl", FILTER));
+        verify(larkBaseService, times(1)).getTableRecords(any());
+
+        // Another query must see a fresh count: range plans are only correct against the current table size.
+        assertEquals(700, service.getRowCount("q2", "base", "tbl", FILTER));
+        verify(larkBaseService, times(2)).getTableRecords(any());
+    }
+}
@@ -31,6 +31,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -929,7 +932,10 @@ public class SearchApiFilterTranslatorTest {
         for (UITypeEnum uiType : supportedTypes) {
             SortedRangeSet valueSet = mock(SortedRangeSet.class);
             when(valueSet.isSingleValue()).thenReturn(true);
-            when(valueSet.getSingleValue()).thenReturn(uiType == UITypeEnum.CHECKBOX ? true : "test");
+            Object value = uiType == UITypeEnum.CHECKBOX ? true
+                    : (uiType == UITypeEnum.DATE_TIME || uiType == UITypeEnum.CREATED_TIME || uiType == UITypeEnum.MODIFIED_TIME)
+                    ? LocalDateTime.of(2024, 1, 15, 10, 30) : "test";
+            when(valueSet.getSingleValue()).thenReturn(value);
 
             Map<String, ValueSet> constraints = new HashMap<>();
             constraints.put("test_field", valueSet);
@@ -1206,4 +1212,412 @@ public class SearchApiFilterTranslatorTest {
         JsonNode conditions = filter.get("conditions");
         assertEquals("42.5", conditions.get(0).get("value").get(0).asText());
     }
+
+    private static EquatableValueSet mockInClause(List<Object> values) {
+        EquatableValueSet valueSet = mock(EquatableValueSet.class);
+        when(valueSet.isWhiteList()).thenReturn(true);
+        Block block = mock(Block.class);
+        when(block.getRowCount()).thenReturn(values.size());
+        when(valueSet.getValueBlock()).thenReturn(block);
+        for (int i = 0; i < values.size(); i++) {
+            when(valueSet.getValue(i)).thenReturn(values.get(i));
+        }
+        return valueSet;
+    }
+
+    @Test
+    public void testToFilterJsonBatches_smallInClause_returnsSingleFilter() throws Exception {
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("status", mockInClause(Arrays.asList("a", "b", "c")));
+
+        List<AthenaFieldLarkBaseMapping> mappings = Collections.singletonList(
+            new AthenaFieldLarkBaseMapping("status", "Status", new NestedUIType(UITypeEnum.TEXT, null)));
+
+        List<String> filters = SearchApiFilterTranslator.toFilterJsonBatches(constraints, mappings, 50);
+
+        assertEquals(1, filters.size());
+        assertEquals(SearchApiFilterTranslator.toFilterJson(constraints, mappings), filters.get(0));
+    }
+
+    @Test
+    public void testToFilterJsonBatches_oversizeInClause_isChunkedAndKeepsSharedConditions() throws Exception {
+        // WHERE id IN (0, 1, ..., 119) AND priority = 'high', with at most 50 conditions per OR-group.
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            ids.add(i);
+        }
+
+        SortedRangeSet equality = mock(SortedRangeSet.class);
+        when(equality.isSingleValue()).thenReturn(true);
+        when(equality.getSingleValue()).thenReturn("high");
+
+        Map<String, ValueSet> constraints = new LinkedHashMap<>();
+        constraints.put("id", mockInClause(ids));
+        constraints.put("priority", equality);
+
+        List<AthenaFieldLarkBaseMapping> mappings = Arrays.asList(
+            new AthenaFieldLarkBaseMapping("id", "ID", new NestedUIType(UITypeEnum.NUMBER, null)),
+            new AthenaFieldLarkBaseMapping("priority", "Priority", new NestedUIType(UITypeEnum.TEXT, null)));
+
+        List<String> filters = SearchApiFilterTranslator.toFilterJsonBatches(constraints, mappings, 50);
+
+        assertEquals(3, filters.size());
+        Set<String> seenValues = new HashSet<>();
+        int[] expectedChunkSizes = {50, 50, 20};
+        for (int i = 0; i < filters.size(); i++) {
+            JsonNode filter = OBJECT_MAPPER.readTree(filters.get(i));
+            assertEquals(1, filter.get("conditions").size());
+            assertEquals("Priority", filter.get("conditions").get(0).get("field_name").asText());
+
+            JsonNode children = filter.get("children");
+            assertEquals(1, children.size());
+            assertEquals("or", children.get(0).get("conjunction").asText());
+            JsonNode chunk = children.get(0).get("conditions");
+            assertEquals(expectedChunkSizes[i], chunk.size());
+            for (JsonNode condition : chunk) {
+                // Chunks must be disjoint so no record is returned by more than one partition.
+                assertTrue(seenValues.add(condition.get("value").get(0).asText()));
+            }
+        }
+        assertEquals(120, seenValues.size());
+    }
+
+    @Test
+    public void testToFilterJsonBatches_duplicateValuesAreCollapsedBeforeChunking() throws Exception {
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("status", mockInClause(Arrays.asList("a", "b", "a", "c", "b")));
+
+        List<AthenaFieldLarkBaseMapping> mappings = Collections.singletonList(
+            new AthenaFieldLarkBaseMapping("status", "Status", new NestedUIType(UITypeEnum.TEXT, null)));
+
+        List<String> filters = SearchApiFilterTranslator.toFilterJsonBatches(constraints, mappings, 3);
+
+        assertEquals(1, filters.size());
+        JsonNode orConditions = OBJECT_MAPPER.readTree(filters.get(0)).get("children").get(0).get("conditions");
+        assertEquals(3, orConditions.size());
+    }
+
+    @Test
+    public void testToFilterJsonBatches_caseVariantsStayInOneBatch() throws Exception {
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("status", mockInClause(Arrays.asList("a", "B", "A", "c", "b")));
+
+        List<AthenaFieldLarkBaseMapping> mappings = Collections.singletonList(
+            new AthenaFieldLarkBaseMapping("status", "Status", new NestedUIType(UITypeEnum.TEXT, null)));
+
+        List<String> filters = SearchApiFilterTranslator.toFilterJsonBatches(constraints, mappings, 2);
+
+        // A record whose status Lark matches case-insensitively must still be read by exactly one partition.
+        assertEquals(3, filters.size());
+        Set<String> seenKeys = new HashSet<>();
+        for (String filterJson : filters) {
+            Set<String> batchKeys = new HashSet<>();
+            for (JsonNode condition : OBJECT_MAPPER.readTree(filterJson).get("children").get(0).get("conditions")) {
+                batchKeys.add(condition.get("value").get(0).asText().toLowerCase());
+            }
+            for (String key : batchKeys) {
+                assertTrue(seenKeys.add(key));
+            }
+        }
+        assertEquals(Set.of("a", "b", "c"), seenKeys);
+    }
+
+    @Test
+    public void testToFilterJsonBatches_secondOversizeInClause_isLeftToAthena() throws Exception {
+        Map<String, ValueSet> constraints = new LinkedHashMap<>();
+        constraints.put("id", mockInClause(Arrays.asList(1, 2, 3, 4, 5)));
+        constraints.put("status", mockInClause(Arrays.asList("a", "b", "c", "d")));
+        constraints.put("region", mockInClause(Arrays.asList("x", "y")));
+
+        List<AthenaFieldLarkBaseMapping> mappings = Arrays.asList(
+            new AthenaFieldLarkBaseMapping("id", "ID", new NestedUIType(UITypeEnum.NUMBER, null)),
+            new AthenaFieldLarkBaseMapping("status", "Status", new NestedUIType(UITypeEnum.TEXT, null)),
+            new AthenaFieldLarkBaseMapping("region", "Region", new NestedUIType(UITypeEnum.TEXT, null)));
+
+        List<String> filters = SearchApiFilterTranslator.toFilterJsonBatches(constraints, mappings, 3);
+
+        // Only the largest oversize IN-clause (id) is chunked; "status" is dropped rather than multiplying the
+        // partition count, and the small "region" IN-clause is carried by every batch.
+        assertEquals(2, filters.size());
+        for (String filterJson : filters) {
+            JsonNode children = OBJECT_MAPPER.readTree(filterJson).get("children");
+            assertEquals(2, children.size());
+            assertEquals("Region", children.get(0).get("conditions").get(0).get("field_name").asText());
+            assertEquals("ID", children.get(1).get("conditions").get(0).get("field_name").asText());
+        }
+    }
+
+    @Test
+    public void testToFilterJsonBatches_noConstraints_returnsEmptyList() {
+        assertTrue(SearchApiFilterTranslator.toFilterJsonBatches(null, Collections.emptyList(), 50).isEmpty());
+        assertTrue(SearchApiFilterTranslator.toFilterJsonBatches(new HashMap<>(), Collections.emptyList(), 50).isEmpty());
+    }
+
+    // ========== Tests for date/timestamp pushdown ==========
+
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final LocalDateTime JAN_15_1030 = LocalDateTime.of(2024, 1, 15, 10, 30);
+    private static final long JAN_15_1030_MILLIS = JAN_15_1030.toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    private static final List<AthenaFieldLarkBaseMapping> DATE_MAPPINGS = Collections.singletonList(
+        new AthenaFieldLarkBaseMapping("due", "Due", new NestedUIType(UITypeEnum.DATE_TIME, null)));
+
+    private static Marker mockMarker(Object value, Marker.Bound bound, boolean unbounded) {
+        Marker marker = mock(Marker.class);
+        lenient().when(marker.isLowerUnbounded()).thenReturn(unbounded);
+        lenient().when(marker.isUpperUnbounded()).thenReturn(unbounded);
+        lenient().when(marker.getValue()).thenReturn(value);
+        lenient().when(marker.getBound()).thenReturn(bound);
+        return marker;
+    }
+
+    /** A single-range SortedRangeSet; a null low/high value means that side is unbounded. */
+    private static SortedRangeSet mockSingleRange(Object low, Marker.Bound lowBound, Object high, Marker.Bound highBound) {
+        Range range = mock(Range.class);
+        Marker lowMarker = mockMarker(low, lowBound, low == null);
+        Marker highMarker = mockMarker(high, highBound, high == null);
+        when(range.getLow()).thenReturn(lowMarker);
+        when(range.getHigh()).thenReturn(highMarker);
+
+        Ranges ranges = mock(Ranges.class);
+        when(ranges.getOrderedRanges()).thenReturn(Collections.singletonList(range));
+
+        SortedRangeSet valueSet = mock(SortedRangeSet.class);
+        when(valueSet.isSingleValue()).thenReturn(false);
+        when(valueSet.isNullAllowed()).thenReturn(false);
+        when(valueSet.getRanges()).thenReturn(ranges);
+        return valueSet;
+    }
+
+    private static JsonNode dateConditions(ValueSet valueSet) throws Exception {
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("due", valueSet);
+        String filterJson = SearchApiFilterTranslator.toFilterJson(constraints, DATE_MAPPINGS);
+        return OBJECT_MAPPER.readTree(filterJson).get("conditions");
+    }
+
+    private static void assertDateCondition(JsonNode condition, String operator, long epochMillis) {
+        assertEquals("Due", condition.get("field_name").asText());
+        assertEquals(operator, condition.get("operator").asText());
+        assertEquals("ExactDate", condition.get("value").get(0).asText());
+        assertEquals(String.valueOf(epochMillis), condition.get("value").get(1).asText());
+    }
+
+    @Test
+    public void testToFilterJson_timestampBetween_widensBothBoundsToDaySuperset() throws Exception {
+        LocalDateTime end = JAN_15_1030.plusDays(7);
+        JsonNode conditions = dateConditions(mockSingleRange(JAN_15_1030, Marker.Bound.EXACTLY, end, Marker.Bound.EXACTLY));
+
+        assertEquals(2, conditions.size());
+        assertDateCondition(conditions.get(0), "isGreater", JAN_15_1030_MILLIS - 2 * DAY_MILLIS);
+        assertDateCondition(conditions.get(1), "isLess", JAN_15_1030_MILLIS + 7 * DAY_MILLIS + 2 * DAY_MILLIS);
+    }
+
+    @Test
+    public void testToFilterJson_timestampHalfOpenRanges_pushOnlyTheBoundedSide() throws Exception {
+        // ts >= x (e.g. "the last 7 days")
+        JsonNode lowerOnly = dateConditions(mockSingleRange(JAN_15_1030, Marker.Bound.EXACTLY, null, Marker.Bound.BELOW));
+        assertEquals(1, lowerOnly.size());
+        assertDateCondition(lowerOnly.get(0), "isGreater", JAN_15_1030_MILLIS - 2 * DAY_MILLIS);
+
+        // ts < x: exclusive and inclusive bounds widen identically, since Lark can only compare whole days
+        JsonNode upperOnly = dateConditions(mockSingleRange(null, Marker.Bound.ABOVE, JAN_15_1030, Marker.Bound.BELOW));
+        assertEquals(1, upperOnly.size());
+        assertDateCondition(upperOnly.get(0), "isLess", JAN_15_1030_MILLIS + 2 * DAY_MILLIS);
+    }
+
+    @Test
+    public void testToFilterJson_timestampEquality_usesExactDate() throws Exception {
+        SortedRangeSet valueSet = mock(SortedRangeSet.class);
+        when(valueSet.isSingleValue()).thenReturn(true);
+        when(valueSet.getSingleValue()).thenReturn(JAN_15_1030);
+
+        JsonNode conditions = dateConditions(valueSet);
+
+        assertEquals(1, conditions.size());
+        assertDateCondition(conditions.get(0), "is", JAN_15_1030_MILLIS);
+    }
+
+    @Test
+    public void testToFilterJson_epochMillisBound_isTreatedAsInstant() throws Exception {
+        JsonNode conditions = dateConditions(mockSingleRange(JAN_15_1030_MILLIS, Marker.Bound.ABOVE, null, Marker.Bound.BELOW));
+
+        assertEquals(1, conditions.size());
+        assertDateCondition(conditions.get(0), "isGreater", JAN_15_1030_MILLIS - 2 * DAY_MILLIS);
+    }
+
+    @Test
+    public void testToFilterJson_dateDayEquality_coversTheWholeUtcDay() throws Exception {
+        LocalDate day = LocalDate.of(2024, 1, 15);
+        long dayStart = day.toEpochDay() * DAY_MILLIS;
+
+        for (Object value : Arrays.asList(day, (int) day.toEpochDay())) {
+            SortedRangeSet valueSet = mock(SortedRangeSet.class);
+            when(valueSet.isSingleValue()).thenReturn(true);
+            when(valueSet.getSingleValue()).thenReturn(value);
+
+            JsonNode conditions = dateConditions(valueSet);
+
+            assertEquals(2, conditions.size());
+            assertDateCondition(conditions.get(0), "isGreater", dayStart - 2 * DAY_MILLIS);
+            assertDateCondition(conditions.get(1), "isLess", dayStart + DAY_MILLIS - 1 + 2 * DAY_MILLIS);
+        }
+    }
+
+    @Test
+    public void testToFilterJson_dateDayBetween_usesDayEdges() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+
+        JsonNode conditions = dateConditions(mockSingleRange(from, Marker.Bound.EXACTLY, to, Marker.Bound.EXACTLY));
+
+        assertEquals(2, conditions.size());
+        assertDateCondition(conditions.get(0), "isGreater", from.toEpochDay() * DAY_MILLIS - 2 * DAY_MILLIS);
+        assertDateCondition(conditions.get(1), "isLess", (to.toEpochDay() + 1) * DAY_MILLIS - 1 + 2 * DAY_MILLIS);
+    }
+
+    @Test
+    public void testToFilterJson_timestampInClause_becomesOrGroupOfExactDates() throws Exception {
+        LocalDateTime other = JAN_15_1030.plusDays(3);
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("due", mockInClause(Arrays.asList(JAN_15_1030, other)));
+
+        JsonNode filter = OBJECT_MAPPER.readTree(SearchApiFilterTranslator.toFilterJson(constraints, DATE_MAPPINGS));
+
+        JsonNode orConditions = filter.get("children").get(0).get("conditions");
+        assertEquals(2, orConditions.size());
+        assertDateCondition(orConditions.get(0), "is", JAN_15_1030_MILLIS);
+        assertDateCondition(orConditions.get(1), "is", JAN_15_1030_MILLIS + 3 * DAY_MILLIS);
+    }
+
+    @Test
+    public void testToFilterJsonBatches_oversizeTimestampInClause_isNotChunked() throws Exception {
+        // Lark matches each ExactDate against a whole day, so two timestamps on the same day in different
+        // batches would return the same rows twice. The oversize date IN-list is left to Athena instead.
+        Map<String, ValueSet> constraints = new LinkedHashMap<>();
+        constraints.put("due", mockInClause(Arrays.asList(JAN_15_1030, JAN_15_1030.plusHours(2),
+                JAN_15_1030.plusDays(1), JAN_15_1030.plusDays(2))));
+        SortedRangeSet equality = mock(SortedRangeSet.class);
+        when(equality.isSingleValue()).thenReturn(true);
+        when(equality.getSingleValue()).thenReturn("high");
+        constraints.put("priority", equality);
+
+        List<AthenaFieldLarkBaseMapping> mappings = Arrays.asList(
+            DATE_MAPPINGS.get(0),
+            new AthenaFieldLarkBaseMapping("priority", "Priority", new NestedUIType(UITypeEnum.TEXT, null)));
+
+        List<String> filters = SearchApiFilterTranslator.toFilterJsonBatches(constraints, mappings, 2);
+
+        assertEquals(1, filters.size());
+        JsonNode filter = OBJECT_MAPPER.readTree(filters.get(0));
+        assertNull(filter.get("children"));
+        assertEquals("Priority", filter.get("conditions").get(0).get("field_name").asText());
+    }
+
+    @Test
+    public void testToFilterJson_dateNotInAndUnsupportedValues_areNotPushedDown() throws Exception {
+        EquatableValueSet notIn = mockInClause(Arrays.asList(JAN_15_1030, JAN_15_1030.plusDays(1)));
+        when(notIn.isWhiteList()).thenReturn(false);
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("due", notIn);
+        assertEquals("", SearchApiFilterTranslator.toFilterJson(constraints, DATE_MAPPINGS));
+
+        // A day-valued IN-list cannot be expressed without nesting ranges inside the OR-group
+        constraints.put("due", mockInClause(Arrays.asList(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 2))));
+        assertEquals("", SearchApiFilterTranslator.toFilterJson(constraints, DATE_MAPPINGS));
+
+        SortedRangeSet unsupported = mock(SortedRangeSet.class);
+        when(unsupported.isSingleValue()).thenReturn(true);
+        when(unsupported.getSingleValue()).thenReturn("2024-01-15");
+        constraints.put("due", unsupported);
+        assertEquals("", SearchApiFilterTranslator.toFilterJson(constraints, DATE_MAPPINGS));
+    }
+
+    // ========== Tests for FORMULA / LOOKUP pushdown ==========
+
+    @Test
+    public void testToFilterJson_numberFormula_usesResultTypeOperators() throws Exception {
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("kpi", mockSingleRange(new java.math.BigDecimal("0.75"), Marker.Bound.ABOVE, null, Marker.Bound.BELOW));
+        List<AthenaFieldLarkBaseMapping> mappings = Collections.singletonList(
+            new AthenaFieldLarkBaseMapping("kpi", "KPI", new NestedUIType(UITypeEnum.FORMULA, UITypeEnum.NUMBER)));
+
+        JsonNode conditions = OBJECT_MAPPER.readTree(SearchApiFilterTranslator.toFilterJson(constraints, mappings)).get("conditions");
+
+        assertEquals(1, conditions.size());
+        assertEquals("KPI", conditions.get(0).get("field_name").asText());
+        assertEquals("isGreater", conditions.get(0).get("operator").asText());
+        assertEquals("0.75", conditions.get(0).get("value").get(0).asText());
+    }
+
+    @Test
+    public void testToFilterJson_dateFormula_usesExactDate() throws Exception {
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("due", mockSingleRange(JAN_15_1030, Marker.Bound.EXACTLY, null, Marker.Bound.BELOW));
+        List<AthenaFieldLarkBaseMapping> mappings = Collections.singletonList(
+            new AthenaFieldLarkBaseMapping("due", "Due", new NestedUIType(UITypeEnum.FORMULA, UITypeEnum.DATE_TIME)));
+
+        JsonNode conditions = OBJECT_MAPPER.readTree(SearchApiFilterTranslator.toFilterJson(constraints, mappings)).get("conditions");
+
+        assertEquals(1, conditions.size());
+        assertDateCondition(conditions.get(0), "isGreater", JAN_15_1030_MILLIS - 2 * DAY_MILLIS);
+    }
+
+    @Test
+    public void testToFilterJson_textFormulaInClause_becomesOrGroup() throws Exception {
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("label", mockInClause(Arrays.asList("hot", "warm")));
+        List<AthenaFieldLarkBaseMapping> mappings = Collections.singletonList(
+            new AthenaFieldLarkBaseMapping("label", "Label", new NestedUIType(UITypeEnum.FORMULA, UITypeEnum.TEXT)));
+
+        JsonNode filter = OBJECT_MAPPER.readTree(SearchApiFilterTranslator.toFilterJson(constraints, mappings));
+
+        JsonNode orConditions = filter.get("children").get(0).get("conditions");
+        assertEquals(2, orConditions.size());
+        assertEquals("is", orConditions.get(0).get("operator").asText());
+    }
+
+    @Test
+    public void testToFilterJson_formulaEmptinessChecks_areLeftToAthena() throws Exception {
+        SortedRangeSet isNotNull = mock(SortedRangeSet.class);
+        when(isNotNull.isSingleValue()).thenReturn(false);
+        when(isNotNull.isNullAllowed()).thenReturn(false);
+        Range span = mock(Range.class);
+        Marker low = mockMarker(null, Marker.Bound.ABOVE, true);
+        Marker high = mockMarker(null, Marker.Bound.BELOW, true);
+        when(span.getLow()).thenReturn(low);
+        when(span.getHigh()).thenReturn(high);
+        when(isNotNull.getSpan()).thenReturn(span);
+        Ranges ranges = mock(Ranges.class);
+        when(ranges.getOrderedRanges()).thenReturn(Collections.emptyList());
+        when(isNotNull.getRanges()).thenReturn(ranges);
+
+        Map<String, ValueSet> constraints = new HashMap<>();
+        constraints.put("kpi", isNotNull);
+        List<AthenaFieldLarkBaseMapping> mappings = Collections.singletonList(
+            new AthenaFieldLarkBaseMapping("kpi", "KPI", new NestedUIType(UITypeEnum.FORMULA, UITypeEnum.NUMBER)));
+
+        assertEquals("", SearchApiFilterTranslator.toFilterJson(constraints, mappings));
+    }
+
+    @Test
+    public void testToFilterJson_unpushableFormulaAndLookup_areSkipped() {
+        SortedRangeSet valueSet = mock(SortedRangeSet.class);
+        lenient().when(valueSet.isSingleValue()).thenReturn(true);
+        lenient().when(valueSet.getSingleValue()).thenReturn(true);
+
+        for (NestedUIType type : Arrays.asList(
+                new NestedUIType(UITypeEnum.FORMULA, UITypeEnum.CHECKBOX),
+                new NestedUIType(UITypeEnum.FORMULA, UITypeEnum.ATTACHMENT),
+                new NestedUIType(UITypeEnum.FORMULA, null),
+                new NestedUIType(UITypeEnum.LOOKUP, UITypeEnum.NUMBER))) {
+            Map<String, ValueSet> constraints = new HashMap<>();
+            constraints.put("col", valueSet);
+            List<AthenaFieldLarkBaseMapping> mappings = Collections.singletonList(
+                new AthenaFieldLarkBaseMapping("col", "Col", type));
+
+            assertEquals("Type " + type + " should not be pushed down", "",
+                SearchApiFilterTranslator.toFilterJson(constraints, mappings));
+        }
+    }
 }
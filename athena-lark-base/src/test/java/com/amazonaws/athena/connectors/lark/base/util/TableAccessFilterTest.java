@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableAccessFilterTest {
+
+    @Test
+    void testIsAllowed_unsetSettingsAllowEverything() {
+        TableAccessFilter filter = TableAccessFilter.compile(null, "");
+
+        assertThat(filter.isAllowed("any", "table")).isTrue();
+    }
+
+    @Test
+    void testIsAllowed_schemaWithoutWhitelistEntriesIsUnrestricted() {
+        // Only schemab is whitelisted; schemaa has no entries, so the whitelist does not restrict it.
+        TableAccessFilter filter = TableAccessFilter.compile("schemab:table9", "");
+
+        assertThat(filter.isAllowed("schemaa", "table1")).isTrue();
+        assertThat(filter.isAllowed("schemab", "table1")).isFalse();
+    }
+
+    @Test
+    void testIsAllowed_whitelistedSchemaOnlyAllowsItsListedTables() {
+        TableAccessFilter filter = TableAccessFilter.compile("schemaa:table1,schemaa:table2", "");
+
+        assertThat(filter.isAllowed("schemaa", "table1")).isTrue();
+        assertThat(filter.isAllowed("schemaa", "table3")).isFalse();
+    }
+
+    @Test
+    void testIsAllowed_blacklistedTableIsBlocked() {
+        TableAccessFilter filter = TableAccessFilter.compile("", "schemaa:table1");
+
+        assertThat(filter.isAllowed("schemaa", "table1")).isFalse();
+        assertThat(filter.isAllowed("schemaa", "table2")).isTrue();
+    }
+
+    @Test
+    void testIsAllowed_blacklistWinsOverWhitelist() {
+        // A table that's both whitelisted and blacklisted must be blocked - deny wins.
+        TableAccessFilter filter = TableAccessFilter.compile("schemaa:table1, schemaa:table2", "schemaa:table2");
+
+        assertThat(filter.isAllowed("schemaa", "table1")).isTrue();
+        assertThat(filter.isAllowed("schemaa", "table2")).isFalse();
+    }
+
+    @Test
+    void testIsAllowed_caseInsensitiveMatching() {
+        TableAccessFilter filter = TableAccessFilter.compile("SchemaA:Table1", "schemaa:TABLE2");
+
+        assertThat(filter.isAllowed("SCHEMAA", "table1")).isTrue();
+        assertThat(filter.isAllowed("schemaA", "Table2")).isFalse();
+    }
+
+    @Test
+    void testIsAllowed_globEntries() {
+        TableAccessFilter filter = TableAccessFilter.compile("sales:report_*,sales:daily", "sales:report_tmp?");
+
+        assertThat(filter.isAllowed("sales", "report_q1")).isTrue();
+        assertThat(filter.isAllowed("sales", "daily")).isTrue();
+        assertThat(filter.isAllowed("sales", "report_tmp1")).isFalse();
+        assertThat(filter.isAllowed("sales", "report_tmp12")).isTrue();
+        assertThat(filter.isAllowed("sales", "weekly")).isFalse();
+        // Regex metacharacters in an entry are literal.
+        assertThat(TableAccessFilter.compile("s:a.b*", "").isAllowed("s", "axb")).isFalse();
+    }
+
+    @Test
+    void testIsCompiledFrom_comparesTheRawSettings() {
+        TableAccessFilter filter = TableAccessFilter.compile("s:t", null);
+
+        assertThat(filter.isCompiledFrom("s:t", "")).isTrue();
+        assertThat(filter.isCompiledFrom("s:u", "")).isFalse();
+    }
+}
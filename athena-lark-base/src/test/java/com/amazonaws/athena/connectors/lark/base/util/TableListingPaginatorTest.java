@@ -0,0 +1,155 @@
+/*-
+ * #%L
+ * athena-lark-base
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.lark.base.util;
+
+import com.amazonaws.athena.connector.lambda.domain.TableName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TableListingPaginatorTest {
+
+    private static final BiPredicate<String, String> ALLOW_ALL = (schema, table) -> true;
+
+    private final List<Integer> glueRequests = new ArrayList<>();
+
+    /**
+     * A fake Glue with the tables "g0".."g{count-1}"; tokens are the index of the next table.
+     */
+    private TableListingPaginator.GlueTableLister glue(int count) {
+        return (glueToken, maxResults) -> {
+            glueRequests.add(maxResults);
+            int from = glueToken == null ? 0 : Integer.parseInt(glueToken);
+            int to = maxResults < 0 ? count : Math.min(count, from + maxResults);
+            List<TableName> tables = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                tables.add(new TableName("db", "g" + i));
+            }
+            return new TableListingPaginator.GluePage(tables, to < count ? String.valueOf(to) : null);
+        };
+    }
+
+    private static List<TableName> tables(String... names) {
+        List<TableName> tables = new ArrayList<>();
+        for (String name : names) {
+            tables.add(new TableName("db", name));
+        }
+        return tables;
+    }
+
+    private List<TableName> listAll(List<TableName> larkTables, TableListingPaginator.GlueTableLister glue,
+                                    BiPredicate<String, String> accessAllowed, int pageSize) {
+        List<TableName> all = new ArrayList<>();
+        String token = null;
+        do {
+            TableListingPaginator.Page page = TableListingPaginator.page("db", larkTables, glue, accessAllowed, token, pageSize);
+            assertThat(page.tables().size()).isLessThanOrEqualTo(pageSize);
+            all.addAll(page.tables());
+            token = page.nextToken();
+        }
+        while (token != null);
+        return all;
+    }
+
+    @Test
+    void testPage_walksSortedLarkTablesThenGlueTablesWithoutDuplicates() {
+        List<TableName> all = listAll(tables("l2", "g1", "l1", "l0"), glue(4), ALLOW_ALL, 2);
+
+        assertThat(all).containsExactlyElementsOf(tables("g1", "l0", "l1", "l2", "g0", "g2", "g3"));
+    }
+
+    @Test
+    void testPage_onlyReadsAsMuchOfGlueAsThePageNeeds() {
+        TableListingPaginator.Page page = TableListingPaginator.page("db", tables("l0"), glue(1000), ALLOW_ALL, null, 3);
+
+        assertThat(page.tables()).containsExactlyElementsOf(tables("l0", "g0", "g1"));
+        assertThat(page.nextToken()).isEqualTo("glue:2");
+        assertThat(glueRequests).containsExactly(2);
+    }
+
+    @Test
+    void testPage_filteredTablesDoNotShortenThePage() {
+        BiPredicate<String, String> noOddGlueTables = (schema, table) -> !table.matches("g[13579]");
+
+        TableListingPaginator.Page page = TableListingPaginator.page("db", List.of(), glue(10), noOddGlueTables, null, 3);
+
+        assertThat(page.tables()).containsExactlyElementsOf(tables("g0", "g2", "g4"));
+        assertThat(listAll(List.of(), glue(10), noOddGlueTables, 3)).containsExactlyElementsOf(tables("g0", "g2", "g4", "g6", "g8"));
+    }
+
+    @Test
+    void testPage_larkTokenSurvivesCatalogChangesBetweenPages() {
+        TableListingPaginator.Page first = TableListingPaginator.page("db", tables("b", "d"), glue(0), ALLOW_ALL, null, 1);
+        // "a" appears before the cursor and "c" after it while the caller is between pages.
+        TableListingPaginator.Page second = TableListingPaginator.page("db", tables("a", "b", "c", "d"), glue(0), ALLOW_ALL, first.nextToken(), 2);
+
+        assertThat(first.tables()).containsExactlyElementsOf(tables("b"));
+        assertThat(second.tables()).containsExactlyElementsOf(tables("c", "d"));
+    }
+
+    @Test
+    void testPage_unlimitedPageSizeReturnsEverythingInOnePage() {
+        TableListingPaginator.Page page = TableListingPaginator.page("db", tables("l0"), glue(3), ALLOW_ALL, null, -1);
+
+        assertThat(page.tables()).containsExactlyElementsOf(tables("l0", "g0", "g1", "g2"));
+        assertThat(page.nextToken()).isNull();
+    }
+
+    @Test
+    void testPage_glueFailureStillReturnsLarkTablesAndEndsTheListing() {
+        TableListingPaginator.GlueTableLister failing = (glueToken, maxResults) -> {
+            throw new RuntimeException("Glue unavailable");
+        };
+
+        TableListingPaginator.Page page = TableListingPaginator.page("db", tables("l0"), failing, ALLOW_ALL, null, 5);
+
+        assertThat(page.tables()).containsExactlyElementsOf(tables("l0"));
+        assertThat(page.nextToken()).isNull();
+    }
+
+    @Test
+    void testPage_glueFailureOnALaterGluePageFailsInsteadOfEndingTheListing() {
+        TableListingPaginator.GlueTableLister failsAfterFirstPage = (glueToken, maxResults) -> {
+            if (glueToken != null) {
+                throw new RuntimeException("Glue throttled");
+            }
+            return glue(10).list(null, maxResults);
+        };
+
+        TableListingPaginator.Page first = TableListingPaginator.page("db", List.of(), failsAfterFirstPage, ALLOW_ALL, null, 2);
+        assertThat(first.tables()).containsExactlyElementsOf(tables("g0", "g1"));
+        assertThat(first.nextToken()).isEqualTo("glue:2");
+
+        assertThatThrownBy(() -> TableListingPaginator.page("db", List.of(), failsAfterFirstPage, ALLOW_ALL, first.nextToken(), 2))
+                .isInstanceOf(RuntimeException.class)
+                .hasRootCauseMessage("Glue throttled");
+    }
+
+    @Test
+    void testPage_unknownTokenIsRejected() {
+        assertThatThrownBy(() -> TableListingPaginator.page("db", List.of(), glue(0), ALLOW_ALL, "bogus", 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
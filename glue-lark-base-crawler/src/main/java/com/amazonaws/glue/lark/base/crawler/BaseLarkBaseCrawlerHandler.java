@@ -20,22 +20,35 @@
 package com.amazonaws.glue.lark.base.crawler;
 
 import com.amazonaws.glue.lark.base.crawler.model.ColumnParameters;
+import com.amazonaws.glue.lark.base.crawler.model.CrawlCheckpoint;
 import com.amazonaws.glue.lark.base.crawler.model.DatabaseProcessResult;
+import com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome;
 import com.amazonaws.glue.lark.base.crawler.model.LarkDatabaseRecord;
-import com.amazonaws.glue.lark.base.crawler.model.SecretValue;
 import com.amazonaws.glue.lark.base.crawler.model.TableInputParameters;
-import com.amazonaws.glue.lark.base.crawler.model.TableOnUpdateDatabaseProcessResult;
 import com.amazonaws.glue.lark.base.crawler.model.UpdateDatabaseProcessResult;
 import com.amazonaws.glue.lark.base.crawler.model.enums.UITypeEnum;
 import com.amazonaws.glue.lark.base.crawler.model.response.ListAllTableResponse;
 import com.amazonaws.glue.lark.base.crawler.model.response.ListFieldResponse;
+import com.amazonaws.glue.lark.base.crawler.service.CrawlCheckpointStore;
+import com.amazonaws.glue.lark.base.crawler.service.CrawlExecutor;
+import com.amazonaws.glue.lark.base.crawler.service.CrawlPlan;
+import com.amazonaws.glue.lark.base.crawler.service.CrawlProgress;
 import com.amazonaws.glue.lark.base.crawler.service.GlueCatalogService;
+import com.amazonaws.glue.lark.base.crawler.service.GlueWriteExecutor;
 import com.amazonaws.glue.lark.base.crawler.service.LarkBaseService;
 import com.amazonaws.glue.lark.base.crawler.service.LarkDriveService;
+import com.amazonaws.glue.lark.base.crawler.service.LarkSession;
+import com.amazonaws.glue.lark.base.crawler.service.LookupTypeGraph;
 import com.amazonaws.glue.lark.base.crawler.service.STSService;
+import com.amazonaws.glue.lark.base.crawler.util.CatalogDiff;
+import com.amazonaws.glue.lark.base.crawler.util.CrawlShard;
+import com.amazonaws.glue.lark.base.crawler.util.RequestRateLimiter;
+import com.amazonaws.glue.lark.base.crawler.util.TableAccessFilter;
+import com.amazonaws.glue.lark.base.crawler.util.TableFingerprints;
 import com.amazonaws.glue.lark.base.crawler.util.Util;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,8 +58,6 @@ import software.amazon.awssdk.services.glue.model.Column;
 import software.amazon.awssdk.services.glue.model.Database;
 import software.amazon.awssdk.services.glue.model.Table;
 import software.amazon.awssdk.services.glue.model.TableInput;
-import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
-import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
 import software.amazon.awssdk.utils.Pair;
 
 import java.time.Duration;
@@ -54,10 +65,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -73,6 +88,20 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
     protected final LarkBaseService larkBaseService;
     protected final LarkDriveService larkDriveService;
     protected final STSService stsService;
+    // Rebuilt at the start of every crawl: its field index and memoized LOOKUP resolutions are only as current as
+    // the crawl that fetched them.
+    private LookupTypeGraph lookupTypeGraph;
+    private final CrawlExecutor.Settings crawlSettings;
+    // Created for every crawl and shut down at its end; null outside of handleRequest.
+    private CrawlExecutor crawlExecutor;
+    // Null when crawls are not checkpointed, i.e. must finish within one invocation.
+    private final CrawlCheckpointStore checkpointStore;
+    private final CrawlProgress.Settings progressSettings;
+    // Whether a crawl whose payload does not say is a dry run.
+    private final boolean dryRunByDefault;
+    // Both set for every crawl; null and false outside of handleRequest.
+    private CrawlPlan crawlPlan;
+    private boolean dryRun;
 
     public BaseLarkBaseCrawlerHandler()
     {
@@ -83,26 +112,22 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
                     .httpClientBuilder(ApacheHttpClient
                             .builder()
                             .connectionTimeout(Duration.ofMillis(CONNECT_TIMEOUT)))
-                    .build(), catalogId);
-
-            SecretsManagerClient secretsManager = SecretsManagerClient.create();
-
-            String larkAppSecretManagerEnvVar = System.getenv(LarkBaseCrawlerConstants.LARK_APP_KEY_ENV_VAR);
-
-            if (larkAppSecretManagerEnvVar == null) {
-                throw new RuntimeException("Environment variables " + LarkBaseCrawlerConstants.LARK_APP_KEY_ENV_VAR);
-            }
-
-            String rawLarkApp = secretsManager.getSecretValue(GetSecretValueRequest.builder()
-                    .secretId(larkAppSecretManagerEnvVar)
-                    .build()).secretString();
-
-            SecretValue secretMapping = OBJECT_MAPPER.readValue(rawLarkApp, SecretValue.class);
-            String larkAppID = secretMapping.larkAppId();
-            String larkAppSecret = secretMapping.larkAppSecret();
-
-            this.larkBaseService = new LarkBaseService(larkAppID, larkAppSecret);
-            this.larkDriveService = new LarkDriveService(larkAppID, larkAppSecret);
+                    .build(), catalogId, new GlueWriteExecutor(GlueWriteExecutor.Settings.fromEnvironment(System::getenv)));
+
+            // Shared with every other handler of this container: one pooled HTTP client, one tenant access token,
+            // and a secret that is only read again once its cache TTL has passed.
+            LarkSession larkSession = LarkSession.forContainer();
+            this.larkBaseService = new LarkBaseService(larkSession);
+            this.larkDriveService = new LarkDriveService(larkSession);
+            this.lookupTypeGraph = new LookupTypeGraph(larkBaseService::getTableFields);
+            this.crawlSettings = CrawlExecutor.Settings.fromEnvironment(System::getenv);
+
+            String checkpointLocation = System.getenv(LarkBaseCrawlerConstants.CRAWL_CHECKPOINT_LOCATION_ENV_VAR);
+            this.checkpointStore = checkpointLocation == null || checkpointLocation.isBlank()
+                    ? null
+                    : CrawlCheckpointStore.fromLocation(checkpointLocation);
+            this.progressSettings = CrawlProgress.Settings.fromEnvironment(System::getenv);
+            this.dryRunByDefault = Boolean.parseBoolean(System.getenv(LarkBaseCrawlerConstants.CRAWL_DRY_RUN_ENV_VAR));
         }
         catch (Exception e) {
             throw new RuntimeException(e);
@@ -110,11 +135,22 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
     }
 
     BaseLarkBaseCrawlerHandler(GlueCatalogService glueCatalogService, LarkBaseService larkBaseService, LarkDriveService larkDriveService, STSService stsService)
+    {
+        this(glueCatalogService, larkBaseService, larkDriveService, stsService, null);
+    }
+
+    BaseLarkBaseCrawlerHandler(GlueCatalogService glueCatalogService, LarkBaseService larkBaseService, LarkDriveService larkDriveService, STSService stsService,
+                               CrawlCheckpointStore checkpointStore)
     {
         this.glueCatalogService = glueCatalogService;
         this.larkBaseService = larkBaseService;
         this.larkDriveService = larkDriveService;
         this.stsService = stsService;
+        this.lookupTypeGraph = new LookupTypeGraph(larkBaseService::getTableFields);
+        this.crawlSettings = CrawlExecutor.Settings.DEFAULT;
+        this.checkpointStore = checkpointStore;
+        this.progressSettings = CrawlProgress.Settings.DEFAULT;
+        this.dryRunByDefault = false;
     }
 
     /**
@@ -129,6 +165,18 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
      */
     abstract String getCrawlingSource();
 
+    /**
+     * Get the shard of the crawl this invocation handles
+     *
+     * @return The crawl shard, {@link CrawlShard#ALL} unless the payload asks for sharding
+     */
+    abstract CrawlShard getCrawlShard();
+
+    /**
+     * Whether the payload asks for a dry run, or null if it does not say and the function's default applies.
+     */
+    abstract Boolean getDryRun();
+
     /**
      * Get Lark Databases
      *
@@ -143,12 +191,8 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
      */
     private List<Database> getGlueDatabases()
     {
-        List<Database> databases = glueCatalogService.getDatabases();
-
-        return databases.stream()
-                .filter(database -> database.locationUri() != null &&
-                        database.locationUri().contains(Util.constructDatabaseLocationURIPrefix(getCrawlingMethod(), getCrawlingSource())))
-                .collect(Collectors.toList());
+        // Filtered while the catalog is paged through, so other databases in the account are never kept.
+        return glueCatalogService.getDatabases(Util.constructDatabaseLocationURIPrefix(getCrawlingMethod(), getCrawlingSource()));
     }
 
     /**
@@ -185,6 +229,15 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
             return true;
         }
 
+        // Compare the incremental-crawl parameters, so a table written before they existed (or whose Lark
+        // revision moved without a schema change) gets them written once and can be skipped from then on.
+        if (!Objects.equals(newParams.get(TableFingerprints.SCHEMA_FINGERPRINT_PARAMETER),
+                existingParams.get(TableFingerprints.SCHEMA_FINGERPRINT_PARAMETER)) ||
+                !Objects.equals(newParams.get(TableFingerprints.REVISION_KEY_PARAMETER),
+                        existingParams.get(TableFingerprints.REVISION_KEY_PARAMETER))) {
+            return true;
+        }
+
         // Compare storageDescriptor
         if (!newTableInput.storageDescriptor().columns()
                 .equals(existingTable.storageDescriptor().columns())) {
@@ -197,34 +250,18 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
     /**
      * Remove Non Existent Lark Databases
      *
-     * @param databasesFromCatalog The databases from catalog
-     * @param databaseFromLark     The database from Lark
-     * @return The remaining databases
+     * @param databaseDiff The diff between the databases in the catalog and in Lark
      */
-    private List<Database> removeNonExistentLarkDatabases(List<Database> databasesFromCatalog,
-                                                          List<LarkDatabaseRecord> databaseFromLark)
+    private void removeNonExistentLarkDatabases(CatalogDiff.DatabaseDiff databaseDiff)
     {
-        List<String> databaseNamesToDelete = new ArrayList<>();
-        Set<String> larkDatabaseNames = databaseFromLark.stream()
-                .map(LarkDatabaseRecord::name)
-                .collect(Collectors.toSet());
-
-        List<Database> remainingDatabases = new ArrayList<>();
-
-        for (Database database : databasesFromCatalog) {
-            if (!larkDatabaseNames.contains(database.name())) {
-                databaseNamesToDelete.add(database.name());
-            }
-            else {
-                remainingDatabases.add(database);
-            }
-        }
+        List<String> databaseNamesToDelete = databaseDiff.toDelete().stream()
+                .map(Database::name)
+                .collect(Collectors.toList());
 
         if (!databaseNamesToDelete.isEmpty()) {
-            glueCatalogService.batchDeleteDatabase(databaseNamesToDelete);
+            crawlPlan.deleteDatabases(databaseNamesToDelete);
+            applyGlueWrite(() -> glueCatalogService.batchDeleteDatabase(databaseNamesToDelete));
         }
-
-        return remainingDatabases;
     }
 
     /**
@@ -233,30 +270,37 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
      * @param databaseId The database ID
      * @param tableId    The table ID
      * @param tableName  The table name
+     * @param revisions  The revisions of the base's tables, to derive the table's revision key from
      * @return The table input
      */
-    private TableInput constructNewTables(String databaseId, String tableId, String tableName)
+    private TableInput constructNewTables(String databaseId, String tableId, String tableName,
+                                          TableFingerprints.Revisions revisions)
     {
-        List<ListFieldResponse.FieldItem> listFieldResponse = larkBaseService.getTableFields(databaseId, tableId);
-
-        ArrayList<ColumnParameters> columns = listFieldResponse.stream()
-                .map(fieldItem -> ColumnParameters.builder()
-                        .columnName(fieldItem.getFieldName())
-                        .columnType(fieldItem.getUIType().getGlueCatalogType(getFormulaOrLookupFieldType(fieldItem, databaseId)))
-                        .larkBaseFieldId(fieldItem.getFieldId())
-                        .larkBaseColumnType(getLarkBaseOriginalColumnType(fieldItem, databaseId))
-                        .larkBaseId(databaseId)
-                        .larkBaseTableId(tableId)
-                        .build())
-                .collect(Collectors.toCollection(ArrayList::new));
+        // From the per-crawl cache: a table that was already fetched as a LOOKUP target is not fetched again.
+        List<ListFieldResponse.FieldItem> listFieldResponse = lookupTypeGraph.fields(databaseId, tableId);
+
+        ArrayList<ColumnParameters> columns = new ArrayList<>();
+        for (ListFieldResponse.FieldItem fieldItem : listFieldResponse) {
+            ColumnTypes columnTypes = resolveColumnTypes(fieldItem, databaseId);
+            columns.add(ColumnParameters.builder()
+                    .columnName(fieldItem.getFieldName())
+                    .columnType(columnTypes.glueCatalogType())
+                    .larkBaseFieldId(fieldItem.getFieldId())
+                    .larkBaseColumnType(columnTypes.larkBaseColumnType())
+                    .larkBaseId(databaseId)
+                    .larkBaseTableId(tableId)
+                    .build());
+        }
 
         Collection<Column> fixedColumns = Util.constructColumns(columns);
+        String revisionKey = revisions.keyFor(tableId, TableFingerprints.dependsOnOtherTables(fixedColumns));
 
         return Util.constructTableInput(
                 TableInputParameters.builder()
                         .larkTableName(tableName)
                         .larkBaseId(databaseId)
                         .larkTableId(tableId)
+                        .larkRevisionKey(revisionKey)
                         .build(),
                 fixedColumns,
                 getCrawlingMethod(),
@@ -272,88 +316,43 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
             return Optional.empty();
         }
 
-        String fieldId = metadata.left();
-        String tableId = metadata.right();
-
-        try {
-            return larkBaseService.getTableFields(baseId, tableId)
-                    .stream()
-                    .filter(fieldItem -> fieldItem.getFieldId().equals(fieldId))
-                    .findFirst();
-        }
-        catch (Exception e) {
-            logger.error("Error getting lookup type for fieldId: {} and tableId: {}", fieldId, tableId, e);
-            return Optional.empty();
-        }
+        return lookupTypeGraph.findField(baseId, metadata.right(), metadata.left());
     }
 
-    private String getLarkBaseOriginalColumnType(ListFieldResponse.FieldItem item, String baseId)
+    /**
+     * The two type strings stored for a column.
+     *
+     * @param glueCatalogType    The Glue column type, e.g. {@code string} or {@code array<string>}
+     * @param larkBaseColumnType The original Lark type kept in the column comment, e.g. {@code Lookup<Lookup<Text>>}
+     */
+    private record ColumnTypes(String glueCatalogType, String larkBaseColumnType)
     {
-        if (item.getUIType().equals(UITypeEnum.FORMULA)) {
-            return item.getUIType().getUiType() + "<" + item.getFormulaType() + ">";
-        }
-        else if (item.getUIType().equals(UITypeEnum.LOOKUP)) {
-            Optional<ListFieldResponse.FieldItem> fieldOptional = getLookupType(item, baseId);
-            if (fieldOptional.isPresent()) {
-                ListFieldResponse.FieldItem field = fieldOptional.get();
-                if (field.getUIType() != null) {
-                    try {
-                        UITypeEnum newUIType = field.getUIType();
-
-                        if (newUIType == UITypeEnum.LOOKUP) {
-                            return item.getUIType().getUiType() + "<" + getLarkBaseOriginalColumnType(field, baseId) + ">";
-                        }
-                        else {
-                            return item.getUIType().getUiType() + "<" + newUIType.getUiType() + ">";
-                        }
-                    }
-                    catch (IllegalArgumentException e) {
-                        return item.getUIType().getUiType() + "<NULL>";
-                    }
-                }
-                else {
-                    return item.getUIType().getUiType() + "<NULL>";
-                }
-            }
-
-            return item.getUIType().getUiType() + "<NULL>";
-        }
-
-        return item.getUIType().getUiType();
     }
 
-    private String getFormulaOrLookupFieldType(ListFieldResponse.FieldItem item, String baseId)
+    /**
+     * Works out both type strings of a column from a single resolution of the field, so a LOOKUP chain is walked
+     * (or read from the crawl's memo) once per column rather than once per type string.
+     */
+    private ColumnTypes resolveColumnTypes(ListFieldResponse.FieldItem item, String baseId)
     {
-        switch (item.getUIType()) {
+        UITypeEnum uiType = item.getUIType();
+        switch (uiType) {
             case FORMULA:
-                return item.getFormulaGlueCatalogType();
+                return new ColumnTypes(uiType.getGlueCatalogType(item.getFormulaGlueCatalogType()),
+                        uiType.getUiType() + "<" + item.getFormulaType() + ">");
             case LOOKUP:
-                Optional<ListFieldResponse.FieldItem> fieldOptional = getLookupType(item, baseId);
-                if (fieldOptional.isPresent()) {
-                    ListFieldResponse.FieldItem field = fieldOptional.get();
-                    if (field.getUIType() != null) {
-                        try {
-                            UITypeEnum newUIType = field.getUIType();
-
-                            if (newUIType == UITypeEnum.LOOKUP) {
-                                return getFormulaOrLookupFieldType(field, baseId);
-                            }
-                            else {
-                                return newUIType.getGlueCatalogType(null);
-                            }
-                        }
-                        catch (IllegalArgumentException e) {
-                            return null;
-                        }
-                    }
-                    else {
-                        return null;
-                    }
-                }
-
-                return null;
+                // e.g. Lookup<Lookup<Text>> for a LOOKUP into another LOOKUP into a Text field, or Lookup<NULL>
+                // when the chain points at a missing field or loops back on itself.
+                LookupTypeGraph.Resolution resolution = lookupTypeGraph.resolve(baseId, item);
+                ListFieldResponse.FieldItem terminal = resolution.terminal();
+                String terminalGlueType = terminal != null ? terminal.getUIType().getGlueCatalogType(null) : null;
+                String terminalType = terminal != null ? terminal.getUIType().getUiType() : "NULL";
+                String nestedPrefix = (UITypeEnum.LOOKUP.getUiType() + "<").repeat(resolution.nestedLookups());
+                String nestedSuffix = ">".repeat(resolution.nestedLookups());
+                return new ColumnTypes(uiType.getGlueCatalogType(terminalGlueType),
+                        uiType.getUiType() + "<" + nestedPrefix + terminalType + nestedSuffix + ">");
             default:
-                return null;
+                return new ColumnTypes(uiType.getGlueCatalogType(null), uiType.getUiType());
         }
     }
 
@@ -361,7 +360,7 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
      * Filters the tables discovered in Lark for a database down to those allowed by that database's
      * whitelist/blacklist configuration (read from the control table's "whitelist_tables"/"blacklist_tables"
      * columns). The blacklist always wins; the whitelist only restricts a database that has at least one
-     * whitelist entry.
+     * whitelist entry. Entries may be globs; see {@link TableAccessFilter}.
      *
      * @param tables The tables discovered in Lark for this database.
      * @param recordItem The control-table record for this database, carrying its whitelist/blacklist table IDs.
@@ -370,14 +369,10 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
     private List<ListAllTableResponse.BaseItem> filterTablesByAccessControl(List<ListAllTableResponse.BaseItem> tables,
                                                                             LarkDatabaseRecord recordItem)
     {
-        Set<String> blacklistTableIds = recordItem.blacklistTableIds();
-        Set<String> whitelistTableIds = recordItem.whitelistTableIds();
+        TableAccessFilter accessFilter = TableAccessFilter.of(recordItem);
 
         return tables.stream()
-                .filter(table -> blacklistTableIds == null || blacklistTableIds.isEmpty()
-                        || !blacklistTableIds.contains(table.getTableId()))
-                .filter(table -> whitelistTableIds == null || whitelistTableIds.isEmpty()
-                        || whitelistTableIds.contains(table.getTableId()))
+                .filter(table -> accessFilter.isAllowed(table.getTableId()))
                 .collect(Collectors.toList());
     }
 
@@ -386,190 +381,271 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
      *
      * @param databaseToCreate The database to create
      * @param recordsByDatabaseName The control-table record for each database being created, keyed by database name
+     * @return The databases whose tables could not be listed or written
      */
-    private void createTablesForNewDatabases(Map<String, String> databaseToCreate,
-                                             Map<String, LarkDatabaseRecord> recordsByDatabaseName)
+    private Set<String> createTablesForNewDatabases(Map<String, String> databaseToCreate,
+                                                    Map<String, LarkDatabaseRecord> recordsByDatabaseName)
     {
-        Map<String, List<TableInput>> batchCreateTableRequest = new HashMap<>();
-
-        for (Map.Entry<String, String> databaseItem : databaseToCreate.entrySet()) {
-            String databaseName = databaseItem.getKey();
-            String locationURI = databaseItem.getValue();
-            String databaseId = Util.extractDatabaseIdFromLocationURI(locationURI);
-
-            List<TableInput> tableInputs = new ArrayList<>();
-
-            // Listing tables for this database can fail for reasons unrelated to any other database -
-            // e.g. this specific Lark base was deleted or had its permissions changed between
-            // discovery and now. Isolate that failure to this one database instead of letting it crash
-            // table creation for every other new database in the same batch.
-            List<ListAllTableResponse.BaseItem> listTables;
-            try {
-                listTables = larkBaseService.listTables(databaseId);
-                LarkDatabaseRecord recordItem = recordsByDatabaseName.get(databaseName);
-                if (recordItem != null) {
-                    listTables = filterTablesByAccessControl(listTables, recordItem);
-                }
+        // Sorted so the create request (and the log) is the same however the databases' tasks interleave.
+        List<String> databaseNames = databaseToCreate.keySet().stream().sorted().collect(Collectors.toList());
 
-                // Two distinct Lark tables in this (brand-new) base can collide after name
-                // sanitization (e.g. "Report A" and "report a" both -> "report_a"). Disambiguate with
-                // the Lark table ID, same fix as colliding column names in Util.constructColumns,
-                // rather than silently keeping only one or erroring out this whole database.
-                listTables = Util.disambiguateDuplicateTableNames(listTables);
-            }
-            catch (Exception e) {
-                logger.error("Skipping database {} ({}): failed to list tables: {}", databaseName, databaseId, e.getMessage(), e);
+        List<Callable<List<TableInput>>> databaseTasks = new ArrayList<>();
+        for (String databaseName : databaseNames) {
+            String databaseId = Util.extractDatabaseIdFromLocationURI(databaseToCreate.get(databaseName));
+            databaseTasks.add(() -> constructTablesForNewDatabase(databaseName, databaseId, recordsByDatabaseName.get(databaseName)));
+        }
+        List<CrawlExecutor.Outcome<List<TableInput>>> outcomes = crawlExecutor.forEachDatabase(databaseTasks);
+
+        Set<String> failedDatabases = new HashSet<>();
+        Map<String, List<TableInput>> batchCreateTableRequest = new LinkedHashMap<>();
+        for (int i = 0; i < databaseNames.size(); i++) {
+            String databaseName = databaseNames.get(i);
+            CrawlExecutor.Outcome<List<TableInput>> outcome = outcomes.get(i);
+            if (!outcome.succeeded()) {
+                // Listing tables for this database can fail for reasons unrelated to any other database -
+                // e.g. this specific Lark base was deleted or had its permissions changed between
+                // discovery and now. Isolate that failure to this one database instead of letting it crash
+                // table creation for every other new database in the same batch.
+                logger.error("Skipping database {} ({}): failed to list tables: {}", databaseName,
+                        Util.extractDatabaseIdFromLocationURI(databaseToCreate.get(databaseName)),
+                        outcome.failure().getMessage(), outcome.failure());
+                failedDatabases.add(databaseName);
                 continue;
             }
-
-            for (ListAllTableResponse.BaseItem tableItem : listTables) {
-                // getTableFields (inside constructNewTables) can fail for reasons unrelated to any
-                // other table - e.g. a field restricted by Advanced Permission at the field level, or
-                // a transient API error - and this table's own field list is a separate Lark API call
-                // per table, not a batch. Isolate the failure to this one table instead of letting it
-                // crash database and table creation for every other table in this (and other) bases.
-                try {
-                    TableInput newTableInput = this.constructNewTables(databaseId, tableItem.getTableId(), tableItem.getName());
-                    tableInputs.add(newTableInput);
-                }
-                catch (Exception e) {
-                    logger.error("Skipping table {} ({}) in base {}: failed to construct table input: {}",
-                            tableItem.getName(), tableItem.getTableId(), databaseId, e.getMessage(), e);
-                }
-            }
-
-            if (!tableInputs.isEmpty()) {
-                batchCreateTableRequest.put(databaseName, tableInputs);
+            if (!outcome.value().isEmpty()) {
+                batchCreateTableRequest.put(databaseName, outcome.value());
             }
         }
 
         if (!batchCreateTableRequest.isEmpty()) {
             logger.info("Creating tables for {} databases", batchCreateTableRequest.size());
-            glueCatalogService.batchCreateTable(batchCreateTableRequest);
+            crawlPlan.createTables(batchCreateTableRequest);
+            failedDatabases.addAll(failedDatabases(batchCreateTableRequest.keySet(),
+                    applyGlueWrite(() -> glueCatalogService.batchCreateTable(batchCreateTableRequest))));
             logger.info("Tables on database {} created successfully", databaseToCreate.keySet());
         }
         else {
             logger.info("No tables to create on database {}", databaseToCreate.keySet());
         }
+        return failedDatabases;
     }
 
     /**
-     * Create Glue Databases
+     * Lists the tables of one new database and builds a table input for each of them, in parallel.
      *
-     * @param databasesFromCatalog The databases from catalog
-     * @param databaseFromLark     The database from Lark
-     * @return The database process result
+     * @throws RuntimeException if the database's tables could not be listed
      */
-    private DatabaseProcessResult createGlueDatabases(List<Database> databasesFromCatalog,
-                                                      List<LarkDatabaseRecord> databaseFromLark)
+    private List<TableInput> constructTablesForNewDatabase(String databaseName, String databaseId, LarkDatabaseRecord recordItem)
     {
-        Map<String, String> databaseToCreate = new HashMap<>();
-        Map<String, LarkDatabaseRecord> recordsByDatabaseName = new HashMap<>();
-        Set<String> existingDatabaseNames = databasesFromCatalog.stream()
-                .map(Database::name)
-                .collect(Collectors.toSet());
-
-        List<LarkDatabaseRecord> recordsToKeep = new ArrayList<>();
-        List<Database> remainingDatabases = new ArrayList<>(databasesFromCatalog);
-
-        for (LarkDatabaseRecord recordItem : databaseFromLark) {
-            if (!existingDatabaseNames.contains(recordItem.name())) {
-                databaseToCreate.put(recordItem.name(), Util.constructDatabaseLocationURI(
-                        getCrawlingMethod(), getCrawlingSource(), recordItem.id()));
-                recordsByDatabaseName.put(recordItem.name(), recordItem);
-                logger.info("Marking database for creation: {}, locationUri: {}",
-                        recordItem.name(), Util.constructDatabaseLocationURIPrefix(
-                                getCrawlingMethod(), getCrawlingSource()
-                        ));
+        List<ListAllTableResponse.BaseItem> listTables = larkBaseService.listTables(databaseId);
+        TableFingerprints.Revisions revisions = TableFingerprints.revisions(listTables);
+        if (recordItem != null) {
+            listTables = filterTablesByAccessControl(listTables, recordItem);
+        }
+
+        // Two distinct Lark tables in this (brand-new) base can collide after name
+        // sanitization (e.g. "Report A" and "report a" both -> "report_a"). Disambiguate with
+        // the Lark table ID, same fix as colliding column names in Util.constructColumns,
+        // rather than silently keeping only one or erroring out this whole database.
+        listTables = Util.disambiguateDuplicateTableNames(listTables);
+
+        List<Callable<TableInput>> tableTasks = new ArrayList<>();
+        for (ListAllTableResponse.BaseItem tableItem : listTables) {
+            tableTasks.add(() -> this.constructNewTables(databaseId, tableItem.getTableId(), tableItem.getName(), revisions));
+        }
+        List<CrawlExecutor.Outcome<TableInput>> outcomes = crawlExecutor.forEachTable(tableTasks);
+
+        List<TableInput> tableInputs = new ArrayList<>();
+        for (int i = 0; i < listTables.size(); i++) {
+            ListAllTableResponse.BaseItem tableItem = listTables.get(i);
+            CrawlExecutor.Outcome<TableInput> outcome = outcomes.get(i);
+            if (outcome.succeeded()) {
+                tableInputs.add(outcome.value());
             }
             else {
-                recordsToKeep.add(recordItem);
+                // getTableFields (inside constructNewTables) can fail for reasons unrelated to any
+                // other table - e.g. a field restricted by Advanced Permission at the field level, or
+                // a transient API error - and this table's own field list is a separate Lark API call
+                // per table, not a batch. Isolate the failure to this one table instead of letting it
+                // crash database and table creation for every other table in this (and other) bases.
+                logger.error("Skipping table {} ({}) in base {}: failed to construct table input: {}",
+                        tableItem.getName(), tableItem.getTableId(), databaseId, outcome.failure().getMessage(), outcome.failure());
             }
         }
+        logger.info("Built {} of {} tables for new database {}", tableInputs.size(), listTables.size(), databaseName);
+        return tableInputs;
+    }
 
-        if (!databaseToCreate.isEmpty()) {
-            logger.info("Creating {} databases", databaseToCreate.size());
-            glueCatalogService.batchCreateDatabase(databaseToCreate);
-
-            // Filter out databases that were created
-            remainingDatabases = databasesFromCatalog.stream()
-                    .filter(database -> !databaseToCreate.containsKey(database.name()))
-                    .collect(Collectors.toList());
+    /**
+     * Create Glue Databases
+     *
+     * @param databaseDiff The diff between the databases in the catalog and in Lark
+     * @param progress     The progress of the crawl, to create databases in checkpointed batches
+     * @return The database process result
+     */
+    private DatabaseProcessResult createGlueDatabases(CatalogDiff.DatabaseDiff databaseDiff, CrawlProgress progress)
+    {
+        Map<String, String> databaseToCreate = new HashMap<>();
+        Map<String, LarkDatabaseRecord> recordsByDatabaseName = databaseDiff.toCreate();
 
-            logger.info("Databases created successfully");
+        recordsByDatabaseName.forEach((databaseName, recordItem) -> {
+            databaseToCreate.put(databaseName, Util.constructDatabaseLocationURI(
+                    getCrawlingMethod(), getCrawlingSource(), recordItem.id()));
+            logger.info("Marking database for creation: {}, locationUri: {}",
+                    databaseName, Util.constructDatabaseLocationURIPrefix(
+                            getCrawlingMethod(), getCrawlingSource()
+                    ));
+        });
 
-            // Step 4.1: Create tables for new databases
-            logger.info("Step 4.1: Creating tables for new databases");
-            this.createTablesForNewDatabases(databaseToCreate, recordsByDatabaseName);
-            logger.info("Step 4.1: Tables created successfully");
+        if (!databaseToCreate.isEmpty()) {
+            // A database and its tables are created in the same batch, and the batch is only checkpointed after both.
+            // A batch cut short by a timeout leaves databases without all of their tables. The next invocation sees
+            // them in Glue and completes their tables as it would for any existing database. A database whose tables
+            // could not be listed or written is left out of the checkpoint, so a resumed crawl updates it again.
+            for (List<String> batch : progress.batches(new ArrayList<>(recordsByDatabaseName.keySet()))) {
+                if (!progress.startBatch()) {
+                    break;
+                }
+                Map<String, String> batchToCreate = new HashMap<>();
+                batch.forEach(databaseName -> batchToCreate.put(databaseName, databaseToCreate.get(databaseName)));
+
+                logger.info("Creating {} databases", batchToCreate.size());
+                crawlPlan.createDatabases(batchToCreate);
+                Set<String> failedDatabases = failedDatabases(batchToCreate.keySet(),
+                        applyGlueWrite(() -> glueCatalogService.batchCreateDatabase(batchToCreate)));
+                logger.info("Databases created successfully");
+
+                // Step 4.1: Create tables for new databases
+                logger.info("Step 4.1: Creating tables for new databases");
+                failedDatabases.addAll(this.createTablesForNewDatabases(batchToCreate, recordsByDatabaseName));
+                logger.info("Step 4.1: Tables created successfully");
+                completeBatch(progress, batch, failedDatabases);
+            }
         }
         else {
             logger.info("No databases to create");
         }
 
+        List<Database> remainingDatabases = databaseDiff.matched().stream()
+                .map(CatalogDiff.DatabaseMatch::glueDatabase)
+                .distinct()
+                .collect(Collectors.toList());
+        List<LarkDatabaseRecord> recordsToKeep = databaseDiff.matched().stream()
+                .map(CatalogDiff.DatabaseMatch::larkRecord)
+                .collect(Collectors.toList());
         return new DatabaseProcessResult(remainingDatabases, recordsToKeep, databaseToCreate);
     }
 
     /**
      * Update Glue Databases
      *
-     * @param databasesFromCatalog The databases from catalog
-     * @param databaseFromLark     The database from Lark
+     * @param matchedDatabases Every database in the catalog paired with the Lark record of the same name
+     * @param progress         The progress of the crawl; databases it already completed are skipped
      */
-    private void updateGlueDatabases(List<Database> databasesFromCatalog,
-                                     List<LarkDatabaseRecord> databaseFromLark)
+    private void updateGlueDatabases(List<CatalogDiff.DatabaseMatch> matchedDatabases, CrawlProgress progress)
     {
-        Map<String, String> databaseToUpdate = new HashMap<>();
-        Map<String, List<TableInput>> tablesToCreate = new HashMap<>();
-        Map<String, List<TableInput>> tablesToUpdate = new HashMap<>();
-        Map<String, List<Table>> tablesToDelete = new HashMap<>();
-
-        for (Database database : databasesFromCatalog) {
-            for (LarkDatabaseRecord recordItem : databaseFromLark) {
-                String pivotLocationURI = Util.constructDatabaseLocationURI(
-                        getCrawlingMethod(), getCrawlingSource(), recordItem.id());
-
-                if (database.name().equals(recordItem.name())) {
-                    if (!database.locationUri().equals(pivotLocationURI)) {
-                        logger.info("Step 5.1: Identifying databases that have changed");
-                        databaseToUpdate.put(database.name(), pivotLocationURI);
-                        logger.info("Step 5.1: Finished identifying databases that have changed");
-                    }
-                    else {
-                        logger.info("No changes needed for database: {}", database.name());
-                    }
-
-                    // processTablesForDatabase calls out to both Glue (getTables) and Lark (listTables)
-                    // for this one database, plus the duplicate-name fail-fast check. Isolate a failure
-                    // there to this one database instead of letting it crash the update/create/delete
-                    // diffing for every other database being processed in this same crawl run.
-                    UpdateDatabaseProcessResult result;
-                    try {
-                        result = processTablesForDatabase(database, recordItem);
-                    }
-                    catch (Exception e) {
-                        logger.error("Skipping database {}: failed to process tables: {}", database.name(), e.getMessage(), e);
-                        continue;
-                    }
-
-                    if (result.tablesToDelete() != null && !result.tablesToDelete().isEmpty()) {
-                        tablesToDelete.put(database.name(), result.tablesToDelete());
-                    }
-
-                    if (result.tablesToCreate() != null && !result.tablesToCreate().isEmpty()) {
-                        tablesToCreate.put(database.name(), result.tablesToCreate());
-                    }
-
-                    if (result.tablesToUpdate() != null && !result.tablesToUpdate().isEmpty()) {
-                        tablesToUpdate.put(database.name(), result.tablesToUpdate());
-                    }
-                }
+        List<CatalogDiff.DatabaseMatch> pending = matchedDatabases.stream()
+                .filter(match -> !progress.isCompleted(match.glueDatabase().name()))
+                .collect(Collectors.toList());
+        if (pending.size() < matchedDatabases.size()) {
+            logger.info("Skipping {} databases already crawled by an earlier invocation", matchedDatabases.size() - pending.size());
+        }
+
+        for (List<CatalogDiff.DatabaseMatch> batch : progress.batches(pending)) {
+            if (!progress.startBatch()) {
+                break;
+            }
+            Set<String> failedDatabases = this.updateGlueDatabaseBatch(batch);
+            completeBatch(progress, batch.stream().map(match -> match.glueDatabase().name()).collect(Collectors.toList()),
+                    failedDatabases);
+        }
+    }
+
+    /**
+     * Checkpoints the databases of a batch, except those that failed: a resumed crawl must crawl those again.
+     */
+    private static void completeBatch(CrawlProgress progress, List<String> batch, Set<String> failedDatabases)
+    {
+        if (!failedDatabases.isEmpty()) {
+            logger.warn("Not checkpointing {} databases with failed tasks or Glue writes: {}", failedDatabases.size(),
+                    failedDatabases.stream().sorted().collect(Collectors.toList()));
+        }
+        progress.completeBatch(batch.stream()
+                .filter(databaseName -> !failedDatabases.contains(databaseName))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Updates one batch of matched databases: works out every change of their tables, then applies all of them.
+     *
+     * @param matchedDatabases Databases in the catalog paired with the Lark record of the same name
+     * @return The databases whose tables could not be processed or that had a Glue write fail
+     */
+    private Set<String> updateGlueDatabaseBatch(List<CatalogDiff.DatabaseMatch> matchedDatabases)
+    {
+        Set<String> failedDatabases = new HashSet<>();
+        Map<String, String> databaseToUpdate = new LinkedHashMap<>();
+        Map<String, List<TableInput>> tablesToCreate = new LinkedHashMap<>();
+        Map<String, List<TableInput>> tablesToUpdate = new LinkedHashMap<>();
+        Map<String, List<Table>> tablesToDelete = new LinkedHashMap<>();
+
+        List<Database> databasesToProcess = new ArrayList<>();
+        List<Callable<UpdateDatabaseProcessResult>> databaseTasks = new ArrayList<>();
+        for (CatalogDiff.DatabaseMatch match : matchedDatabases) {
+            Database database = match.glueDatabase();
+            LarkDatabaseRecord recordItem = match.larkRecord();
+            String pivotLocationURI = Util.constructDatabaseLocationURI(
+                    getCrawlingMethod(), getCrawlingSource(), recordItem.id());
+
+            if (!database.locationUri().equals(pivotLocationURI)) {
+                logger.info("Step 5.1: Identifying databases that have changed");
+                databaseToUpdate.put(database.name(), pivotLocationURI);
+                logger.info("Step 5.1: Finished identifying databases that have changed");
+            }
+            else {
+                logger.info("No changes needed for database: {}", database.name());
+            }
+
+            databasesToProcess.add(database);
+            databaseTasks.add(() -> processTablesForDatabase(database, recordItem));
+        }
+
+        // Processed in parallel, applied in the order above, exactly as a sequential crawl would.
+        List<CrawlExecutor.Outcome<UpdateDatabaseProcessResult>> outcomes = crawlExecutor.forEachDatabase(databaseTasks);
+        for (int i = 0; i < databasesToProcess.size(); i++) {
+            Database database = databasesToProcess.get(i);
+            CrawlExecutor.Outcome<UpdateDatabaseProcessResult> outcome = outcomes.get(i);
+
+            // processTablesForDatabase calls out to both Glue (getTables) and Lark (listTables)
+            // for this one database, plus the duplicate-name fail-fast check. Isolate a failure
+            // there to this one database instead of letting it crash the update/create/delete
+            // diffing for every other database being processed in this same crawl run.
+            if (!outcome.succeeded()) {
+                logger.error("Skipping database {}: failed to process tables: {}", database.name(),
+                        outcome.failure().getMessage(), outcome.failure());
+                failedDatabases.add(database.name());
+                continue;
+            }
+            UpdateDatabaseProcessResult result = outcome.value();
+
+            if (result.tablesToDelete() != null && !result.tablesToDelete().isEmpty()) {
+                tablesToDelete.put(database.name(), result.tablesToDelete());
+            }
+
+            if (result.tablesToCreate() != null && !result.tablesToCreate().isEmpty()) {
+                tablesToCreate.put(database.name(), result.tablesToCreate());
+            }
+
+            if (result.tablesToUpdate() != null && !result.tablesToUpdate().isEmpty()) {
+                tablesToUpdate.put(database.name(), result.tablesToUpdate());
             }
         }
 
         logger.info("Step 6: Updating databases");
         if (!databaseToUpdate.isEmpty()) {
-            glueCatalogService.batchUpdateDatabase(databaseToUpdate);
+            crawlPlan.updateDatabases(databaseToUpdate);
+            failedDatabases.addAll(failedDatabases(databaseToUpdate.keySet(),
+                    applyGlueWrite(() -> glueCatalogService.batchUpdateDatabase(databaseToUpdate))));
             logger.info("Step 6: Databases updated successfully");
         }
         else {
@@ -579,7 +655,9 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
 
         logger.info("Step 7: Deleting tables that don't exist in Lark anymore");
         if (!tablesToDelete.isEmpty()) {
-            glueCatalogService.batchDeleteTable(tablesToDelete);
+            crawlPlan.deleteTables(tablesToDelete);
+            failedDatabases.addAll(failedDatabases(tablesToDelete.keySet(),
+                    applyGlueWrite(() -> glueCatalogService.batchDeleteTable(tablesToDelete))));
             logger.info("Step 7: Tables deleted successfully");
         }
         else {
@@ -589,7 +667,9 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
 
         logger.info("Step 8: Creating tables that exist in Lark but not in Glue");
         if (!tablesToCreate.isEmpty()) {
-            glueCatalogService.batchCreateTable(tablesToCreate);
+            crawlPlan.createTables(tablesToCreate);
+            failedDatabases.addAll(failedDatabases(tablesToCreate.keySet(),
+                    applyGlueWrite(() -> glueCatalogService.batchCreateTable(tablesToCreate))));
             logger.info("Step 8: Tables created successfully");
         }
         else {
@@ -599,13 +679,16 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
 
         logger.info("Step 9: Updating tables with changed metadata");
         if (!tablesToUpdate.isEmpty()) {
-            glueCatalogService.batchUpdateTable(tablesToUpdate);
+            crawlPlan.updateTables(tablesToUpdate);
+            failedDatabases.addAll(failedDatabases(tablesToUpdate.keySet(),
+                    applyGlueWrite(() -> glueCatalogService.batchUpdateTable(tablesToUpdate))));
             logger.info("Step 9: Tables updated successfully");
         }
         else {
             logger.info("Step 9: No tables to update");
         }
         logger.info("Step 9: Finished updating tables with changed metadata");
+        return failedDatabases;
     }
 
     /**
@@ -623,8 +706,9 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
         logger.info("Step 5.2.1: Found {} tables in Glue for database: {}", originalExistingTables.size(), database.name());
 
         logger.info("Step 5.2.2: Getting tables from Lark");
-        List<ListAllTableResponse.BaseItem> larkTables = filterTablesByAccessControl(
-                larkBaseService.listTables(recordItem.id()), recordItem);
+        List<ListAllTableResponse.BaseItem> allLarkTables = larkBaseService.listTables(recordItem.id());
+        TableFingerprints.Revisions revisions = TableFingerprints.revisions(allLarkTables);
+        List<ListAllTableResponse.BaseItem> larkTables = filterTablesByAccessControl(allLarkTables, recordItem);
         logger.info("Step 5.2.2: Found {} tables in Lark for database: {}", larkTables.size(), database.name());
 
         // Two distinct Lark tables in the same base can collide after name sanitization (e.g.
@@ -635,172 +719,146 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
         // than silently dropping one table or erroring out this whole database.
         larkTables = Util.disambiguateDuplicateTableNames(larkTables);
 
-        Map<String, String> larkTableNameMap = new HashMap<>();
-        Map<String, String> glueTableNameMap = new HashMap<>();
-
-        Set<String> existingTableNamesLower = originalExistingTables.stream()
-                .map(table -> {
-                    String originalName = table.name();
-                    String lowerName = originalName.toLowerCase();
-                    glueTableNameMap.put(lowerName, originalName);
-                    return lowerName;
-                })
-                .collect(Collectors.toSet());
-
-        Set<String> larkTableNamesLower = larkTables.stream()
-                .map(item -> {
-                    String originalName = item.getName();
-                    String lowerName = originalName.toLowerCase();
-                    larkTableNameMap.put(lowerName, originalName);
-                    return lowerName;
-                })
-                .collect(Collectors.toSet());
+        CatalogDiff.TableDiff tableDiff = CatalogDiff.tables(originalExistingTables, larkTables);
 
         logger.info("Step 5.2.3: Identifying tables to delete");
-        TableOnUpdateDatabaseProcessResult<Table> deleteResult = identifyTablesToDelete(originalExistingTables, larkTableNamesLower);
-        List<Table> existingTables = deleteResult.itemsToKeep();
-        List<Table> tablesToDelete = deleteResult.itemsToProcess();
+        List<Table> tablesToDelete = tableDiff.toDelete();
+        tablesToDelete.forEach(table -> logger.info("Step 5.3.1: Marking table for deletion: {}", table.name()));
         logger.info("Step 5.2.3: Finished identifying tables to delete");
 
         logger.info("Step 5.2.4: Identifying tables to create");
-        List<TableInput> tablesToCreate = identifyTablesToCreate(recordItem.id(), larkTables,
-                existingTables, larkTableNamesLower, larkTableNameMap, glueTableNameMap);
+        List<TableInput> tablesToCreate = identifyTablesToCreate(recordItem.id(), tableDiff.toCreate(), revisions);
         logger.info("Step 5.2.4: Finished identifying tables to create");
 
         logger.info("Step 5.2.5: Identifying tables to update");
-        List<TableInput> tablesToUpdate = identifyTablesToUpdate(recordItem.id(),
-                larkTables, existingTables, existingTableNamesLower);
+        List<TableInput> tablesToUpdate = identifyTablesToUpdate(recordItem.id(), tableDiff.matched(), revisions);
         logger.info("Step 5.2.5: Finished identifying tables to update");
 
         return new UpdateDatabaseProcessResult(tablesToCreate, tablesToUpdate, tablesToDelete);
     }
 
     /**
-     * Identify Tables to Delete
+     * Identify Tables to Create
      *
-     * @param existingTables      The existing tables
-     * @param larkTableNamesLower The Lark table names lower
-     * @return The table on update database process result
+     * @param databaseId The database ID
+     * @param larkTables The Lark tables that have no Glue table yet
+     * @param revisions  The revisions of the base's tables
+     * @return The tables to create
      */
-    private TableOnUpdateDatabaseProcessResult<Table> identifyTablesToDelete(List<Table> existingTables,
-                                                                             Set<String> larkTableNamesLower)
+    private List<TableInput> identifyTablesToCreate(String databaseId,
+                                                    List<ListAllTableResponse.BaseItem> larkTables,
+                                                    TableFingerprints.Revisions revisions)
     {
-        List<Table> tablesToDelete = new ArrayList<>();
-        List<Table> tablesToKeep = new ArrayList<>();
-
-        for (Table table : existingTables) {
-            String tableName = table.name();
-            String tableNameLower = tableName.toLowerCase();
-
-            boolean existsInLark = larkTableNamesLower.contains(tableNameLower);
+        List<Callable<TableInput>> tableTasks = new ArrayList<>();
+        for (ListAllTableResponse.BaseItem tableItem : larkTables) {
+            tableTasks.add(() -> this.constructNewTables(databaseId, tableItem.getTableId(),
+                    tableItem.getName().toLowerCase(), revisions));
+        }
+        List<CrawlExecutor.Outcome<TableInput>> outcomes = crawlExecutor.forEachTable(tableTasks);
 
-            if (!existsInLark) {
-                logger.info("Step 5.3.1: Marking table for deletion: {}", tableName);
-                tablesToDelete.add(table);
+        List<TableInput> tablesToCreate = new ArrayList<>();
+        for (int i = 0; i < larkTables.size(); i++) {
+            ListAllTableResponse.BaseItem tableItem = larkTables.get(i);
+            CrawlExecutor.Outcome<TableInput> outcome = outcomes.get(i);
+            if (outcome.succeeded()) {
+                tablesToCreate.add(outcome.value());
             }
             else {
-                tablesToKeep.add(table);
+                // See the comment in constructTablesForNewDatabase: isolate a single table's
+                // getTableFields failure instead of crashing the whole database update.
+                logger.error("Skipping table {} ({}) in base {}: failed to construct table input: {}",
+                        tableItem.getName(), tableItem.getTableId(), databaseId, outcome.failure().getMessage(), outcome.failure());
             }
         }
 
-        return new TableOnUpdateDatabaseProcessResult<>(tablesToDelete, tablesToKeep);
+        return tablesToCreate;
     }
 
     /**
-     * Identify Tables to Create
-     *
-     * @param databaseId          The database ID
-     * @param larkTables          The Lark tables
-     * @param existingTables      The existing tables
-     * @param larkTableNamesLower The Lark table names lower
-     * @param larkTableNameMap    The Lark table name map
-     * @param glueTableNameMap    The Glue table name map
-     * @return The tables to create
+     * Whether an existing Glue table is known to be what this crawl would write again, without fetching its fields.
+     * <p>
+     * True only if the Lark table's revision key (see {@link TableFingerprints}) is the one stored when the table was
+     * last written, and everything else the table input is built from is unchanged too: the table's name, IDs and
+     * location, and the handler's additional parameters. Any doubt - no stored key, a revision Lark did not report,
+     * a different crawl configuration - means the table is fetched and compared as before.
      */
-    private List<TableInput> identifyTablesToCreate(String databaseId,
-                                                    List<ListAllTableResponse.BaseItem> larkTables,
-                                                    List<Table> existingTables,
-                                                    Set<String> larkTableNamesLower,
-                                                    Map<String, String> larkTableNameMap,
-                                                    Map<String, String> glueTableNameMap)
+    private boolean isUnchangedSinceLastCrawl(String databaseId, ListAllTableResponse.BaseItem tableItem,
+                                              Table existingTable, TableFingerprints.Revisions revisions)
     {
-        List<TableInput> tablesToCreate = new ArrayList<>();
-        Set<String> larkTableNamesToProcess = new HashSet<>(larkTableNamesLower);
-
-        for (String tableName : larkTableNamesToProcess) {
-            // INFO: Find table name in Glue
-            if (!existingTables.stream()
-                    .map(Table::name)
-                    .collect(Collectors.toSet())
-                    .contains(glueTableNameMap.get(tableName))) {
-                // INFO: Find ID table in Lark based on table name in Lark
-                String tableId = larkTables.stream()
-                        .filter(item -> item.getName().equals(larkTableNameMap.get(tableName)))
-                        .map(ListAllTableResponse.BaseItem::getTableId)
-                        .findFirst()
-                        .orElse(null);
-
-                if (tableId != null) {
-                    // See the comment in createTablesForNewDatabases: isolate a single table's
-                    // getTableFields failure instead of crashing the whole database update.
-                    try {
-                        TableInput newTableInput = this.constructNewTables(databaseId, tableId, tableName);
-                        tablesToCreate.add(newTableInput);
-                    }
-                    catch (Exception e) {
-                        logger.error("Skipping table {} ({}) in base {}: failed to construct table input: {}",
-                                tableName, tableId, databaseId, e.getMessage(), e);
-                    }
-                }
-            }
+        Map<String, String> existingParams = existingTable.parameters();
+        String storedKey = existingParams.get(TableFingerprints.REVISION_KEY_PARAMETER);
+        if (storedKey == null || !existingTable.name().equals(tableItem.getName())) {
+            return false;
         }
 
-        return tablesToCreate;
+        String currentKey = revisions.keyFor(tableItem.getTableId(),
+                TableFingerprints.dependsOnOtherTables(existingTable.storageDescriptor().columns()));
+        if (!storedKey.equals(currentKey)) {
+            return false;
+        }
+
+        String expectedLocation = Util.constructTableLocationURI(getCrawlingMethod(), getCrawlingSource(),
+                databaseId, tableItem.getTableId());
+        return getCrawlingMethod().equals(existingParams.get("crawlingMethod"))
+                && databaseId.equals(existingParams.get("larkBaseId"))
+                && tableItem.getTableId().equals(existingParams.get("larkTableId"))
+                && expectedLocation.equals(existingTable.storageDescriptor().location())
+                && getAdditionalTableInputParameter().entrySet().stream()
+                        .allMatch(entry -> entry.getValue().equals(existingParams.get(entry.getKey())));
     }
 
     /**
      * Identify Tables to Update
      *
-     * @param databaseId              The database ID
-     * @param larkTables              The Lark tables
-     * @param existingTables          The existing tables
-     * @param existingTableNamesLower The existing table names lower
+     * @param databaseId    The database ID
+     * @param matchedTables The Lark tables paired with their existing Glue table
+     * @param revisions     The revisions of the base's tables
      * @return The tables to update
      */
     private List<TableInput> identifyTablesToUpdate(String databaseId,
-                                                    List<ListAllTableResponse.BaseItem> larkTables,
-                                                    List<Table> existingTables,
-                                                    Set<String> existingTableNamesLower)
+                                                    List<CatalogDiff.TableMatch> matchedTables,
+                                                    TableFingerprints.Revisions revisions)
     {
-        List<TableInput> tablesToUpdate = new ArrayList<>();
+        List<ListAllTableResponse.BaseItem> candidates = new ArrayList<>();
+        List<Table> candidateExistingTables = new ArrayList<>();
 
-        for (ListAllTableResponse.BaseItem tableItem : larkTables) {
+        for (CatalogDiff.TableMatch match : matchedTables) {
+            ListAllTableResponse.BaseItem tableItem = match.larkTable();
+            if (isUnchangedSinceLastCrawl(databaseId, tableItem, match.glueTable(), revisions)) {
+                logger.info("Table {} unchanged since last crawl, skipping", tableItem.getName());
+            }
+            else {
+                candidates.add(tableItem);
+                candidateExistingTables.add(match.glueTable());
+            }
+        }
+
+        List<Callable<TableInput>> tableTasks = new ArrayList<>();
+        for (ListAllTableResponse.BaseItem tableItem : candidates) {
+            tableTasks.add(() -> this.constructNewTables(databaseId, tableItem.getTableId(), tableItem.getName(), revisions));
+        }
+        List<CrawlExecutor.Outcome<TableInput>> outcomes = crawlExecutor.forEachTable(tableTasks);
+
+        List<TableInput> tablesToUpdate = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            ListAllTableResponse.BaseItem tableItem = candidates.get(i);
             String tableName = tableItem.getName();
-            if (existingTableNamesLower.contains(tableName.toLowerCase())) {
-                // INFO: Find existing table in Glue based on table name in Lark
-                Table existingTable = existingTables.stream()
-                        .filter(table -> table.name().equalsIgnoreCase(tableName))
-                        .findFirst()
-                        .orElse(null);
-
-                if (existingTable != null) {
-                    // See the comment in createTablesForNewDatabases: isolate a single table's
-                    // getTableFields failure instead of crashing the whole database update.
-                    try {
-                        TableInput tableInput = this.constructNewTables(databaseId, tableItem.getTableId(), tableName);
-                        boolean hasChanged = doesTableInputChanged(tableInput, existingTable);
-                        logger.info("Table {} has changed: {}", tableName, hasChanged);
-
-                        if (hasChanged) {
-                            tablesToUpdate.add(tableInput);
-                            logger.info("Marking table for update: {}", tableName);
-                        }
-                    }
-                    catch (Exception e) {
-                        logger.error("Skipping table {} ({}) in base {}: failed to construct table input: {}",
-                                tableName, tableItem.getTableId(), databaseId, e.getMessage(), e);
-                    }
-                }
+            CrawlExecutor.Outcome<TableInput> outcome = outcomes.get(i);
+            if (!outcome.succeeded()) {
+                // See the comment in constructTablesForNewDatabase: isolate a single table's
+                // getTableFields failure instead of crashing the whole database update.
+                logger.error("Skipping table {} ({}) in base {}: failed to construct table input: {}",
+                        tableName, tableItem.getTableId(), databaseId, outcome.failure().getMessage(), outcome.failure());
+                continue;
+            }
+
+            TableInput tableInput = outcome.value();
+            boolean hasChanged = doesTableInputChanged(tableInput, candidateExistingTables.get(i));
+            logger.info("Table {} has changed: {}", tableName, hasChanged);
+
+            if (hasChanged) {
+                tablesToUpdate.add(tableInput);
+                logger.info("Marking table for update: {}", tableName);
             }
         }
 
@@ -817,35 +875,140 @@ abstract class BaseLarkBaseCrawlerHandler implements RequestHandler<Object, Stri
     @Override
     public String handleRequest(Object input, Context context)
     {
-        // Step 1: Get records from Lark
-        logger.info("Step 1: Fetching records from Lark Base");
-        List<LarkDatabaseRecord> listRecordsResponse = this.getLarkDatabases();
-        logger.info("Step 1.1: info listRecordsResponse: {}", listRecordsResponse);
-        logger.info("Retrieved {} records from Lark Base", listRecordsResponse.size());
-
-        // Step 2: Get databases from Glue Catalog
-        logger.info("Step 2: Fetching databases from Glue Catalog");
-        List<Database> databaseNames = this.getGlueDatabases();
-        logger.info("Step 2.1: info databaseNames: {}", databaseNames);
-        logger.info("Retrieved {} databases from Glue Catalog", databaseNames.size());
-
-        // Step 3: Delete databases that don't exist in Lark anymore
-        logger.info("Step 3: Deleting databases that don't exist in Lark anymore");
-        List<Database> remainingDatabases = this.removeNonExistentLarkDatabases(databaseNames, listRecordsResponse);
-        logger.info("Step 3: Databases deleted successfully");
-
-        // Step 4: Create databases that exist in Lark but not in Glue
-        logger.info("Step 4: Creating databases that exist in Lark but not in Glue");
-        logger.info("Step 4.1: info remaining databases: {}", remainingDatabases);
-        DatabaseProcessResult creationResult = this.createGlueDatabases(remainingDatabases, listRecordsResponse);
-        logger.info("Step 4.2: info creation result: {}", creationResult);
-        logger.info("Step 4: Databases created successfully");
-
-        // Step 5: Update databases that have changed
-        logger.info("Step 5: Updating databases that have changed");
-        this.updateGlueDatabases(creationResult.remainingDatabases(), creationResult.remainingLarkRecords());
-        logger.info("Step 5: Databases updated successfully");
+        CrawlShard shard = getCrawlShard();
+        boolean isDryRun = getDryRun() != null ? getDryRun() : dryRunByDefault;
+        String crawlKey = CrawlCheckpoint.keyFor(getCrawlingMethod(), getCrawlingSource(), shard);
+        // A dry run neither resumes nor saves a checkpoint: its plan must cover every database, and the next real
+        // crawl must not skip databases that were only planned.
+        CrawlProgress progress = CrawlProgress.start(isDryRun ? null : checkpointStore, crawlKey, progressSettings,
+                invocationDeadline(context), System::currentTimeMillis);
+        CrawlPlan plan = new CrawlPlan(() -> larkBaseService.requestCount() + larkDriveService.requestCount(),
+                glueCatalogService::readRequestCount, System::currentTimeMillis);
+
+        if (isDryRun) {
+            logger.info("Dry run of crawl {}: changes are planned but not written to Glue", crawlKey);
+        }
+
+        try (CrawlExecutor executor = new CrawlExecutor(crawlSettings)) {
+            this.crawlExecutor = executor;
+            this.crawlPlan = plan;
+            this.dryRun = isDryRun;
+            this.lookupTypeGraph = new LookupTypeGraph(larkBaseService::getTableFields);
+            // Every HTTP request of the crawl takes a permit, each page of a listing included.
+            larkBaseService.limitRequests(executor.larkLimiter());
+            larkDriveService.limitRequests(executor.larkLimiter());
+            glueCatalogService.limitReads(executor.glueLimiter());
+
+            // Step 1: Get records from Lark
+            plan.startPhase("discover_lark_databases");
+            logger.info("Step 1: Fetching records from Lark Base");
+            List<LarkDatabaseRecord> listRecordsResponse = this.getLarkDatabases();
+            logger.info("Step 1.1: info listRecordsResponse: {}", listRecordsResponse);
+            logger.info("Retrieved {} records from Lark Base", listRecordsResponse.size());
+
+            // Step 2: Get databases from Glue Catalog
+            plan.startPhase("discover_glue_databases");
+            logger.info("Step 2: Fetching databases from Glue Catalog");
+            List<Database> databaseNames = this.getGlueDatabases();
+            logger.info("Step 2.1: info databaseNames: {}", databaseNames);
+            logger.info("Retrieved {} databases from Glue Catalog", databaseNames.size());
+
+            if (shard != CrawlShard.ALL) {
+                // Both sides are narrowed to this shard before diffing, so deletes and creates stay within it too.
+                listRecordsResponse = listRecordsResponse.stream().filter(r -> shard.owns(r.name())).collect(Collectors.toList());
+                databaseNames = databaseNames.stream().filter(d -> shard.owns(d.name())).collect(Collectors.toList());
+                logger.info("Crawling {}: {} Lark records, {} Glue databases", shard.id(), listRecordsResponse.size(), databaseNames.size());
+            }
+
+            // Step 3: Delete databases that don't exist in Lark anymore
+            plan.startPhase("delete_databases");
+            logger.info("Step 3: Deleting databases that don't exist in Lark anymore");
+            CatalogDiff.DatabaseDiff databaseDiff = CatalogDiff.databases(databaseNames, listRecordsResponse);
+            this.removeNonExistentLarkDatabases(databaseDiff);
+            logger.info("Step 3: Databases deleted successfully");
+
+            // Step 4: Create databases that exist in Lark but not in Glue
+            plan.startPhase("create_databases");
+            logger.info("Step 4: Creating databases that exist in Lark but not in Glue");
+            DatabaseProcessResult creationResult = this.createGlueDatabases(databaseDiff, progress);
+            logger.info("Step 4.2: info creation result: {}", creationResult);
+            logger.info("Step 4: Databases created successfully");
+
+            // Step 5: Update databases that have changed
+            plan.startPhase("update_databases");
+            logger.info("Step 5: Updating databases that have changed");
+            this.updateGlueDatabases(databaseDiff.matched(), progress);
+            logger.info("Step 5: Databases updated successfully");
+        }
+        finally {
+            larkBaseService.limitRequests(RequestRateLimiter.UNLIMITED);
+            larkDriveService.limitRequests(RequestRateLimiter.UNLIMITED);
+            glueCatalogService.limitReads(RequestRateLimiter.UNLIMITED);
+            this.crawlExecutor = null;
+            this.crawlPlan = null;
+            this.dryRun = false;
+        }
 
+        CrawlPlan.Report report = plan.finish(crawlKey, isDryRun);
+        String reportJson = toJson(report);
+        logger.info("Crawl {} plan and cost: {}", crawlKey, reportJson);
+        if (isDryRun) {
+            return reportJson;
+        }
+
+        if (progress.isStopped()) {
+            logger.info("Crawl {} is incomplete; invoke the crawler again with the same payload to resume it", crawlKey);
+            return "Incomplete";
+        }
+        progress.finish();
         return "Success";
     }
+
+    /**
+     * Applies one batch of Glue writes, already recorded in the crawl's plan, unless the crawl is a dry run.
+     *
+     * @return the outcome of every write, or none for a dry run
+     */
+    private List<GlueWriteOutcome> applyGlueWrite(Supplier<List<GlueWriteOutcome>> write)
+    {
+        return dryRun ? List.of() : write.get();
+    }
+
+    /**
+     * @return the databases among {@code databaseNames} that a failed write targeted, itself or one of its tables
+     */
+    private static Set<String> failedDatabases(Collection<String> databaseNames, List<GlueWriteOutcome> outcomes)
+    {
+        Set<String> failedDatabases = new HashSet<>();
+        for (GlueWriteOutcome outcome : outcomes) {
+            if (outcome.succeeded()) {
+                continue;
+            }
+            for (String databaseName : databaseNames) {
+                if (outcome.target().equals(databaseName) || outcome.target().startsWith(databaseName + ".")) {
+                    failedDatabases.add(databaseName);
+                }
+            }
+        }
+        return failedDatabases;
+    }
+
+    private static String toJson(CrawlPlan.Report report)
+    {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(report);
+        }
+        catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize the crawl plan", e);
+        }
+    }
+
+    /**
+     * @return when the invocation times out, or {@link Long#MAX_VALUE} if the context does not tell.
+     */
+    private static long invocationDeadline(Context context)
+    {
+        int remainingMillis = context == null ? 0 : context.getRemainingTimeInMillis();
+        return remainingMillis > 0 ? System.currentTimeMillis() + remainingMillis : Long.MAX_VALUE;
+    }
 }
@@ -39,6 +39,148 @@ public final class LarkBaseCrawlerConstants
      */
     public static final String CRAWLING_METHOD = "CrawlingMethod";
 
+    /**
+     * Env var for how many databases a crawl processes at the same time.
+     */
+    public static final String CRAWL_DATABASE_CONCURRENCY_ENV_VAR = "default_crawl_database_concurrency";
+
+    /**
+     * Default number of databases a crawl processes at the same time.
+     */
+    public static final int DEFAULT_CRAWL_DATABASE_CONCURRENCY = 4;
+
+    /**
+     * Env var for how many tables a crawl builds at the same time, across all databases.
+     */
+    public static final String CRAWL_TABLE_CONCURRENCY_ENV_VAR = "default_crawl_table_concurrency";
+
+    /**
+     * Default number of tables a crawl builds at the same time.
+     */
+    public static final int DEFAULT_CRAWL_TABLE_CONCURRENCY = 8;
+
+    /**
+     * Env var for the maximum sustained rate of Lark API requests during a crawl.
+     */
+    public static final String LARK_REQUESTS_PER_SECOND_ENV_VAR = "default_lark_requests_per_second";
+
+    /**
+     * Default Lark request rate; below Lark's per-app limit of 20 requests per second for the Bitable APIs.
+     */
+    public static final double DEFAULT_LARK_REQUESTS_PER_SECOND = 15;
+
+    /**
+     * Env var for the maximum sustained rate of Glue read requests during a crawl.
+     */
+    public static final String GLUE_REQUESTS_PER_SECOND_ENV_VAR = "default_glue_requests_per_second";
+
+    /**
+     * Default Glue read request rate.
+     */
+    public static final double DEFAULT_GLUE_REQUESTS_PER_SECOND = 10;
+
+    /**
+     * Env var for how many Glue write requests (create/update/delete) are in flight at the same time.
+     */
+    public static final String GLUE_WRITE_CONCURRENCY_ENV_VAR = "default_glue_write_concurrency";
+
+    /**
+     * Default Glue write concurrency.
+     */
+    public static final int DEFAULT_GLUE_WRITE_CONCURRENCY = 4;
+
+    /**
+     * Env var for how many times a Glue write is attempted when Glue throttles it or reports a concurrent
+     * modification.
+     */
+    public static final String GLUE_WRITE_MAX_ATTEMPTS_ENV_VAR = "default_glue_write_max_attempts";
+
+    /**
+     * Default number of attempts per Glue write.
+     */
+    public static final int DEFAULT_GLUE_WRITE_MAX_ATTEMPTS = 5;
+
+    /**
+     * Env var for how many pooled HTTP connections to Lark a container keeps, shared by all of its handlers.
+     */
+    public static final String LARK_HTTP_MAX_CONNECTIONS_ENV_VAR = "default_lark_http_max_connections";
+
+    /**
+     * Default Lark connection pool size; enough for the default database and table concurrency of a crawl.
+     */
+    public static final int DEFAULT_LARK_HTTP_MAX_CONNECTIONS = 16;
+
+    /**
+     * Env var for how long, in seconds, the Lark app secret read from Secrets Manager is reused across warm
+     * invocations before it is read again.
+     */
+    public static final String LARK_SECRET_CACHE_TTL_ENV_VAR = "default_lark_secret_cache_ttl_seconds";
+
+    /**
+     * Default Lark app secret cache TTL in seconds.
+     */
+    public static final int DEFAULT_LARK_SECRET_CACHE_TTL_SECONDS = 300;
+
+    /**
+     * Env var for where crawl checkpoints are kept: {@code s3://bucket/prefix} or a local directory. Unset means a
+     * crawl is never checkpointed and must finish within one invocation.
+     */
+    public static final String CRAWL_CHECKPOINT_LOCATION_ENV_VAR = "default_crawl_checkpoint_location";
+
+    /**
+     * Env var for how many databases a checkpointed crawl writes to Glue and checkpoints together.
+     */
+    public static final String CRAWL_CHECKPOINT_BATCH_SIZE_ENV_VAR = "default_crawl_checkpoint_batch_size";
+
+    /**
+     * Default number of databases per checkpoint.
+     */
+    public static final int DEFAULT_CRAWL_CHECKPOINT_BATCH_SIZE = 10;
+
+    /**
+     * Env var for how long, in seconds after a crawl started, its checkpoint may still be resumed.
+     */
+    public static final String CRAWL_CHECKPOINT_MAX_AGE_ENV_VAR = "default_crawl_checkpoint_max_age_seconds";
+
+    /**
+     * Default maximum checkpoint age in seconds.
+     */
+    public static final long DEFAULT_CRAWL_CHECKPOINT_MAX_AGE_SECONDS = 6 * 60 * 60;
+
+    /**
+     * Env var for how many seconds of an invocation a checkpointed crawl leaves unused, on top of the time of its
+     * longest batch, before it stops to be resumed later.
+     */
+    public static final String CRAWL_TIME_RESERVE_ENV_VAR = "default_crawl_time_reserve_seconds";
+
+    /**
+     * Default time reserve in seconds.
+     */
+    public static final long DEFAULT_CRAWL_TIME_RESERVE_SECONDS = 60;
+
+    /**
+     * Default number of Lark Drive folders listed at the same time while walking a folder tree.
+     */
+    public static final int DEFAULT_LARK_DRIVE_WALK_CONCURRENCY = 4;
+
+    /**
+     * Env var that makes every crawl of the function a dry run unless its payload says otherwise: the crawl reads
+     * Lark and Glue and works out every change as usual, but writes nothing to Glue and returns the change plan
+     * with the time and requests each phase took.
+     */
+    public static final String CRAWL_DRY_RUN_ENV_VAR = "default_crawl_dry_run";
+
+    /**
+     * Env var for the Lark Open API base URL, e.g. a local stand-in serving recorded responses so that dry runs can
+     * be replayed and compared. Unset means the public Lark Open API.
+     */
+    public static final String LARK_API_BASE_URL_ENV_VAR = "default_lark_api_base_url";
+
+    /**
+     * The public Lark Open API base URL.
+     */
+    public static final String DEFAULT_LARK_API_BASE_URL = "https://open.larksuite.com/open-apis";
+
     /**
      * Private constructor to prevent instantiation.
      */
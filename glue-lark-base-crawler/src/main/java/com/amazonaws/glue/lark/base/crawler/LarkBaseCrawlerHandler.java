@@ -21,10 +21,12 @@ package com.amazonaws.glue.lark.base.crawler;
 
 import com.amazonaws.glue.lark.base.crawler.model.LarkDatabaseRecord;
 import com.amazonaws.glue.lark.base.crawler.model.request.LarkBasePayload;
+import com.amazonaws.glue.lark.base.crawler.service.CrawlCheckpointStore;
 import com.amazonaws.glue.lark.base.crawler.service.GlueCatalogService;
 import com.amazonaws.glue.lark.base.crawler.service.LarkBaseService;
 import com.amazonaws.glue.lark.base.crawler.service.LarkDriveService;
 import com.amazonaws.glue.lark.base.crawler.service.STSService;
+import com.amazonaws.glue.lark.base.crawler.util.CrawlShard;
 import com.amazonaws.glue.lark.base.crawler.util.Util;
 import com.amazonaws.services.lambda.runtime.Context;
 import software.amazon.awssdk.services.glue.model.Table;
@@ -48,6 +50,8 @@ public class LarkBaseCrawlerHandler extends BaseLarkBaseCrawlerHandler
 
     private String larkBaseDataSourceId;
     private String larkTableDataSourceId;
+    private CrawlShard crawlShard = CrawlShard.ALL;
+    private Boolean dryRun;
 
     public LarkBaseCrawlerHandler()
     {
@@ -60,12 +64,20 @@ public class LarkBaseCrawlerHandler extends BaseLarkBaseCrawlerHandler
         super(glueCatalogService, larkBaseService, larkDriveService, stsService);
     }
 
+    LarkBaseCrawlerHandler(GlueCatalogService glueCatalogService, LarkBaseService larkBaseService, LarkDriveService larkDriveService, STSService stsService,
+            CrawlCheckpointStore checkpointStore)
+    {
+        super(glueCatalogService, larkBaseService, larkDriveService, stsService, checkpointStore);
+    }
+
     public String handleRequest(Object input, Context context)
     {
         LarkBasePayload payload = OBJECT_MAPPER.convertValue(input, LarkBasePayload.class);
 
         this.larkBaseDataSourceId = payload.larkBaseDataSourceId();
         this.larkTableDataSourceId = payload.larkTableDataSourceId();
+        this.crawlShard = CrawlShard.of(payload.shardIndex(), payload.shardCount());
+        this.dryRun = payload.dryRun();
 
         return super.handleRequest(input, context);
     }
@@ -82,6 +94,18 @@ public class LarkBaseCrawlerHandler extends BaseLarkBaseCrawlerHandler
         return larkBaseDataSourceId + ":" + larkTableDataSourceId;
     }
 
+    @Override
+    CrawlShard getCrawlShard()
+    {
+        return crawlShard;
+    }
+
+    @Override
+    Boolean getDryRun()
+    {
+        return dryRun;
+    }
+
     @Override
     List<LarkDatabaseRecord> getLarkDatabases()
     {
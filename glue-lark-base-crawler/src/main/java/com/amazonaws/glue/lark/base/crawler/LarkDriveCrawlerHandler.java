@@ -25,6 +25,7 @@ import com.amazonaws.glue.lark.base.crawler.service.GlueCatalogService;
 import com.amazonaws.glue.lark.base.crawler.service.LarkBaseService;
 import com.amazonaws.glue.lark.base.crawler.service.LarkDriveService;
 import com.amazonaws.glue.lark.base.crawler.service.STSService;
+import com.amazonaws.glue.lark.base.crawler.util.CrawlShard;
 import com.amazonaws.glue.lark.base.crawler.util.Util;
 import com.amazonaws.services.lambda.runtime.Context;
 import software.amazon.awssdk.services.glue.model.Table;
@@ -46,6 +47,8 @@ public class LarkDriveCrawlerHandler extends BaseLarkBaseCrawlerHandler
     // }
 
     private String larkDriveFolderToken;
+    private CrawlShard crawlShard = CrawlShard.ALL;
+    private Boolean dryRun;
 
     public LarkDriveCrawlerHandler()
     {
@@ -63,6 +66,8 @@ public class LarkDriveCrawlerHandler extends BaseLarkBaseCrawlerHandler
         LarkDrivePayload payload = OBJECT_MAPPER.convertValue(input, LarkDrivePayload.class);
 
         this.larkDriveFolderToken = payload.larkDriveFolderToken();
+        this.crawlShard = CrawlShard.of(payload.shardIndex(), payload.shardCount());
+        this.dryRun = payload.dryRun();
 
         return super.handleRequest(input, context);
     }
@@ -79,6 +84,18 @@ public class LarkDriveCrawlerHandler extends BaseLarkBaseCrawlerHandler
         return larkDriveFolderToken;
     }
 
+    @Override
+    CrawlShard getCrawlShard()
+    {
+        return crawlShard;
+    }
+
+    @Override
+    Boolean getDryRun()
+    {
+        return dryRun;
+    }
+
     @Override
     List<LarkDatabaseRecord> getLarkDatabases()
     {
@@ -0,0 +1,73 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.model;
+
+import com.amazonaws.glue.lark.base.crawler.util.CrawlShard;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The persisted progress of a crawl that may span several invocations.
+ * <p>
+ * Only the databases whose Glue writes have all been applied are recorded. The crawl works out every write from a
+ * fresh diff of Glue against Lark, so there are never pending writes to persist: a database that was not finished is
+ * diffed again on resume, and the part of it that was already written shows up as unchanged.
+ *
+ * @param crawlKey           Identifies the crawl: crawling method, source and shard
+ * @param startedAtMillis    When the first invocation of this crawl started
+ * @param completedDatabases Names of the databases that are fully crawled
+ */
+public record CrawlCheckpoint(
+        @JsonProperty("crawl_key") String crawlKey,
+        @JsonProperty("started_at_millis") long startedAtMillis,
+        @JsonProperty("completed_databases") Set<String> completedDatabases
+)
+{
+    public CrawlCheckpoint
+    {
+        // Sorted, so the stored checkpoint reads the same whatever order databases finished in.
+        completedDatabases = Collections.unmodifiableSortedSet(
+                completedDatabases == null ? new TreeSet<>() : new TreeSet<>(completedDatabases));
+    }
+
+    /**
+     * @return the key of the crawl of {@code crawlingSource} by {@code crawlingMethod}, restricted to {@code shard}.
+     * Only letters, digits, {@code .}, {@code _} and {@code -} are kept, so the key can be used as a file or S3 object
+     * name as is.
+     */
+    public static String keyFor(String crawlingMethod, String crawlingSource, CrawlShard shard)
+    {
+        return (crawlingMethod + "." + crawlingSource + "." + shard.id()).replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * @return a checkpoint with {@code databaseNames} added to the completed databases.
+     */
+    public CrawlCheckpoint withCompleted(Collection<String> databaseNames)
+    {
+        Set<String> completed = new TreeSet<>(completedDatabases);
+        completed.addAll(databaseNames);
+        return new CrawlCheckpoint(crawlKey, startedAtMillis, completed);
+    }
+}
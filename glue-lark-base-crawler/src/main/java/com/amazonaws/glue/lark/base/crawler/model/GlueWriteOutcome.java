@@ -0,0 +1,44 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.model;
+
+/**
+ * The outcome of writing one database or table to the Glue Catalog.
+ *
+ * @param target   The database name, or {@code database.table}
+ * @param status   What happened
+ * @param attempts How many requests were made for it (a batch request counts for every item in it)
+ * @param failure  The last exception, or null if the write succeeded
+ */
+public record GlueWriteOutcome(String target, Status status, int attempts, Exception failure)
+{
+    public enum Status
+    {
+        WRITTEN,
+        // Only for creates: someone else (e.g. an overlapping crawl) created it first, which is as good as written.
+        ALREADY_EXISTS,
+        FAILED
+    }
+
+    public boolean succeeded()
+    {
+        return status != Status.FAILED;
+    }
+}
@@ -30,12 +30,14 @@ public class TableInputParameters
     protected final String larkTableName;
     protected final String larkBaseId;
     protected final String larkTableId;
+    protected final String larkRevisionKey;
 
     private TableInputParameters(Builder builder)
     {
         this.larkTableName = builder.larkTableName;
         this.larkBaseId = builder.larkBaseId;
         this.larkTableId = builder.larkTableId;
+        this.larkRevisionKey = builder.larkRevisionKey;
     }
 
     public String getLarkTableName()
@@ -53,6 +55,14 @@ public class TableInputParameters
         return larkTableId;
     }
 
+    /**
+     * @return the revision key of the Lark tables this table was built from, or null if unknown
+     */
+    public String getLarkRevisionKey()
+    {
+        return larkRevisionKey;
+    }
+
     public static Builder builder()
     {
         return new Builder();
@@ -63,6 +73,7 @@ public class TableInputParameters
         private String larkTableName;
         private String larkBaseId;
         private String larkTableId;
+        private String larkRevisionKey;
 
         public Builder larkTableName(String larkTableName)
         {
@@ -82,6 +93,12 @@ public class TableInputParameters
             return this;
         }
 
+        public Builder larkRevisionKey(String larkRevisionKey)
+        {
+            this.larkRevisionKey = larkRevisionKey;
+            return this;
+        }
+
         public TableInputParameters build()
         {
             requireNonNull(larkTableName, "larkTableName is required");
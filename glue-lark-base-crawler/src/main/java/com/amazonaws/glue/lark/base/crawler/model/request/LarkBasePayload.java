@@ -23,5 +23,16 @@ package com.amazonaws.glue.lark.base.crawler.model.request;
  * Record for Lark Base Payload
  * @param larkBaseDataSourceId The Lark Base Data Source ID
  * @param larkTableDataSourceId The Lark Table Data Source ID
+ * @param shardIndex The shard this invocation crawls, or null to crawl every database (see CrawlShard)
+ * @param shardCount The number of shards the crawl is split into, or null to crawl every database
+ * @param dryRun Whether to only plan the crawl's Glue changes instead of applying them, or null for the function's
+ *               default (see LarkBaseCrawlerConstants.CRAWL_DRY_RUN_ENV_VAR)
  */
-public record LarkBasePayload(String larkBaseDataSourceId, String larkTableDataSourceId) {}
+public record LarkBasePayload(String larkBaseDataSourceId, String larkTableDataSourceId, Integer shardIndex, Integer shardCount,
+                              Boolean dryRun)
+{
+    public LarkBasePayload(String larkBaseDataSourceId, String larkTableDataSourceId)
+    {
+        this(larkBaseDataSourceId, larkTableDataSourceId, null, null, null);
+    }
+}
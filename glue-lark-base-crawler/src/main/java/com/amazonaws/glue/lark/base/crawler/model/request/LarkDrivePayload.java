@@ -22,5 +22,15 @@ package com.amazonaws.glue.lark.base.crawler.model.request;
 /**
  * Record for Lark Drive Payload
  * @param larkDriveFolderToken The Lark Drive Folder Token
+ * @param shardIndex The shard this invocation crawls, or null to crawl every database (see CrawlShard)
+ * @param shardCount The number of shards the crawl is split into, or null to crawl every database
+ * @param dryRun Whether to only plan the crawl's Glue changes instead of applying them, or null for the function's
+ *               default (see LarkBaseCrawlerConstants.CRAWL_DRY_RUN_ENV_VAR)
  */
-public record LarkDrivePayload(String larkDriveFolderToken) {}
+public record LarkDrivePayload(String larkDriveFolderToken, Integer shardIndex, Integer shardCount, Boolean dryRun)
+{
+    public LarkDrivePayload(String larkDriveFolderToken)
+    {
+        this(larkDriveFolderToken, null, null, null);
+    }
+}
@@ -19,36 +19,106 @@
  */
 package com.amazonaws.glue.lark.base.crawler.service;
 
+import com.amazonaws.glue.lark.base.crawler.model.SecretValue;
 import com.amazonaws.glue.lark.base.crawler.model.request.TenantAccessTokenRequest;
 import com.amazonaws.glue.lark.base.crawler.model.response.TenantAccessTokenResponse;
+import com.amazonaws.glue.lark.base.crawler.util.RequestRateLimiter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_LARK_API_BASE_URL;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.LARK_API_BASE_URL_ENV_VAR;
+import static java.util.Objects.requireNonNull;
 
 public class CommonLarkService
 {
-    protected static final String LARK_API_BASE_URL = "https://open.larksuite.com/open-apis";
+    protected static final String LARK_API_BASE_URL = larkApiBaseUrl(System.getenv(LARK_API_BASE_URL_ENV_VAR));
     protected static final String LARK_AUTH_URL = LARK_API_BASE_URL + "/auth";
 
+    // Fetched tokens are treated as expired this long before Lark says they are, so a token shared across warm
+    // invocations is not sent just as it runs out.
+    private static final long TOKEN_EXPIRY_MARGIN_MILLIS = 5 * 60 * 1000L;
+
     protected String tenantAccessToken;
     protected long tokenExpiry;
 
-    private final String larkAppId;
-    private final String larkAppSecret;
+    // Every request this service sends to Lark, token requests included; read by the crawl to report its cost.
+    private final LongAdder requestCount = new LongAdder();
+    private volatile RequestRateLimiter requestLimiter = RequestRateLimiter.UNLIMITED;
+    private final Supplier<SecretValue> credentials;
+    private final LarkSession.TenantToken sharedToken;
     protected HttpClient httpClient;
     protected ObjectMapper objectMapper = new ObjectMapper();
 
     public CommonLarkService(String larkAppId, String larkAppSecret)
     {
-        this.larkAppId = larkAppId;
-        this.larkAppSecret = larkAppSecret;
-        this.httpClient = HttpClientBuilder.create().build();
+        this(HttpClientBuilder.create().build(), () -> new SecretValue(larkAppId, larkAppSecret), new LarkSession.TenantToken());
+    }
+
+    /**
+     * Uses the session's pooled HTTP client, credentials and tenant access token, shared with every other service
+     * built from it.
+     */
+    public CommonLarkService(LarkSession session)
+    {
+        this(session.httpClient(), session::credentials, session.tenantToken());
+    }
+
+    private CommonLarkService(HttpClient httpClient, Supplier<SecretValue> credentials, LarkSession.TenantToken sharedToken)
+    {
+        this.httpClient = httpClient;
+        this.credentials = credentials;
+        this.sharedToken = sharedToken;
+    }
+
+    /**
+     * @return how many requests this service has sent to Lark so far.
+     */
+    public long requestCount()
+    {
+        return requestCount.sum();
+    }
+
+    /**
+     * Makes every later request of this service wait for a permit of {@code limiter}. Services given the same
+     * limiter share its rate.
+     */
+    public void limitRequests(RequestRateLimiter limiter)
+    {
+        this.requestLimiter = requireNonNull(limiter, "limiter cannot be null");
+    }
+
+    /**
+     * Sends one request to Lark. Every Lark request of a service goes through here, so that it is counted and
+     * rate-limited one HTTP request at a time, however many pages a listing takes.
+     */
+    protected HttpResponse execute(HttpUriRequest request) throws IOException
+    {
+        requestLimiter.acquire();
+        requestCount.increment();
+        return httpClient.execute(request);
+    }
+
+    /**
+     * @return the configured Lark Open API base URL without a trailing slash, or the public one if none is set.
+     */
+    static String larkApiBaseUrl(String configured)
+    {
+        if (configured == null || configured.isBlank()) {
+            return DEFAULT_LARK_API_BASE_URL;
+        }
+        String trimmed = configured.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
     }
 
     /**
@@ -65,32 +135,46 @@ public class CommonLarkService
             return;
         }
 
-        HttpPost request = new HttpPost(LARK_AUTH_URL + "/v3/tenant_access_token/internal");
-        request.setHeader("Content-Type", "application/json");
-
-        TenantAccessTokenRequest tokenRequest = new TenantAccessTokenRequest(larkAppId, larkAppSecret);
-        String requestBody = objectMapper.writeValueAsString(tokenRequest);
-        request.setEntity(new StringEntity(requestBody));
-
-        if (httpClient == null) {
-            throw new IllegalStateException("HTTP client not yet initialized");
-        }
-        HttpResponse response = httpClient.execute(request);
-
-        String responseBody = EntityUtils.toString(response.getEntity());
-
-        TenantAccessTokenResponse tokenResponse = objectMapper.readValue(responseBody, TenantAccessTokenResponse.class);
-
-        if (tokenResponse.code() == 0 && tokenResponse.tenantAccessToken() != null
-                && !tokenResponse.tenantAccessToken().isEmpty()) {
-            tenantAccessToken = tokenResponse.tenantAccessToken();
-            tokenExpiry = System.currentTimeMillis() + (tokenResponse.expire() * 1000L);
-            return;
+        // Another service of the same session may already have fetched a token; only one of them fetches at a time.
+        synchronized (sharedToken) {
+            if (sharedToken.isValid(System.currentTimeMillis())) {
+                tenantAccessToken = sharedToken.value;
+                tokenExpiry = sharedToken.expiry;
+                return;
+            }
+
+            HttpPost request = new HttpPost(LARK_AUTH_URL + "/v3/tenant_access_token/internal");
+            request.setHeader("Content-Type", "application/json");
+
+            SecretValue appCredentials = credentials.get();
+            TenantAccessTokenRequest tokenRequest = new TenantAccessTokenRequest(appCredentials.larkAppId(), appCredentials.larkAppSecret());
+            String requestBody = objectMapper.writeValueAsString(tokenRequest);
+            request.setEntity(new StringEntity(requestBody));
+
+            if (httpClient == null) {
+                throw new IllegalStateException("HTTP client not yet initialized");
+            }
+            HttpResponse response = execute(request);
+
+            String responseBody = EntityUtils.toString(response.getEntity());
+
+            TenantAccessTokenResponse tokenResponse = objectMapper.readValue(responseBody, TenantAccessTokenResponse.class);
+
+            if (tokenResponse.code() == 0 && tokenResponse.tenantAccessToken() != null
+                    && !tokenResponse.tenantAccessToken().isEmpty()) {
+                tenantAccessToken = tokenResponse.tenantAccessToken();
+                tokenExpiry = System.currentTimeMillis() + Math.max(0, tokenResponse.expire() * 1000L - TOKEN_EXPIRY_MARGIN_MILLIS);
+                sharedToken.value = tenantAccessToken;
+                sharedToken.expiry = tokenExpiry;
+                return;
+            }
+
+            tenantAccessToken = null;
+            tokenExpiry = 0;
+            sharedToken.value = null;
+            sharedToken.expiry = 0;
+
+            throw new IOException("Failed to obtain Lark access token: " + tokenResponse.msg());
         }
-
-        tenantAccessToken = null;
-        tokenExpiry = 0;
-
-        throw new IOException("Failed to obtain Lark access token: " + tokenResponse.msg());
     }
 }
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.CrawlCheckpoint;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where crawl checkpoints are kept between invocations.
+ */
+public interface CrawlCheckpointStore
+{
+    /**
+     * @return the checkpoint stored under {@code crawlKey}, or empty if there is none.
+     */
+    Optional<CrawlCheckpoint> load(String crawlKey);
+
+    /**
+     * Stores {@code checkpoint} under its crawl key, replacing any previous one.
+     */
+    void save(CrawlCheckpoint checkpoint);
+
+    /**
+     * Removes the checkpoint stored under {@code crawlKey}, if any.
+     */
+    void delete(String crawlKey);
+
+    /**
+     * @param location {@code s3://bucket/prefix} for an S3 store, or a local directory for a file store
+     * @return the store at {@code location}
+     */
+    static CrawlCheckpointStore fromLocation(String location)
+    {
+        if (location.startsWith(S3CrawlCheckpointStore.SCHEME)) {
+            String bucketAndPrefix = location.substring(S3CrawlCheckpointStore.SCHEME.length());
+            int slash = bucketAndPrefix.indexOf('/');
+            String bucket = slash < 0 ? bucketAndPrefix : bucketAndPrefix.substring(0, slash);
+            String prefix = slash < 0 ? "" : bucketAndPrefix.substring(slash + 1);
+            return new S3CrawlCheckpointStore(S3Client.create(), bucket, prefix);
+        }
+        return new FileCrawlCheckpointStore(Path.of(location));
+    }
+}
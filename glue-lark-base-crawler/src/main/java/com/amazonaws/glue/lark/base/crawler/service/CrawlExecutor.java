@@ -0,0 +1,194 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.util.RequestRateLimiter;
+import com.amazonaws.glue.lark.base.crawler.util.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.CRAWL_DATABASE_CONCURRENCY_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.CRAWL_TABLE_CONCURRENCY_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_CRAWL_DATABASE_CONCURRENCY;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_CRAWL_TABLE_CONCURRENCY;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_GLUE_REQUESTS_PER_SECOND;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_LARK_REQUESTS_PER_SECOND;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.GLUE_REQUESTS_PER_SECOND_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.LARK_REQUESTS_PER_SECOND_ENV_VAR;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs the per-database and per-table work of one crawl in parallel, within the rate limits of Lark and Glue.
+ * <p>
+ * Databases and tables get separate bounded pools: a database task waits for its own table tasks, and keeping
+ * those on a different pool means a full database pool can never starve the tables it is waiting for. How many
+ * requests are actually in flight is governed by the two {@link RequestRateLimiter}s, which the crawl hands to its
+ * Lark and Glue services so that every HTTP request they send, each page of a listing included, takes a permit;
+ * the pool sizes only bound how much work is queued up behind them.
+ * <p>
+ * Results come back in the order the tasks were given, whatever order they finish in, and a failed task is
+ * reported as such instead of failing the others, so callers can apply results exactly as a sequential crawl
+ * would have.
+ */
+public class CrawlExecutor implements AutoCloseable
+{
+    private final ExecutorService databasePool;
+    private final ExecutorService tablePool;
+    private final RequestRateLimiter larkLimiter;
+    private final RequestRateLimiter glueLimiter;
+
+    /**
+     * Concurrency and rate limits of a crawl.
+     *
+     * @param databaseConcurrency   Databases processed at the same time
+     * @param tableConcurrency      Tables processed at the same time, across all databases
+     * @param larkRequestsPerSecond Maximum sustained Lark request rate; zero or less for unlimited, which only code
+     *                              can ask for (see {@link #fromEnvironment})
+     * @param glueRequestsPerSecond Maximum sustained Glue read rate; zero or less for unlimited, which only code
+     *                              can ask for (see {@link #fromEnvironment})
+     */
+    public record Settings(int databaseConcurrency, int tableConcurrency, double larkRequestsPerSecond,
+                           double glueRequestsPerSecond)
+    {
+        public static final Settings DEFAULT = new Settings(DEFAULT_CRAWL_DATABASE_CONCURRENCY, DEFAULT_CRAWL_TABLE_CONCURRENCY,
+                DEFAULT_LARK_REQUESTS_PER_SECOND, DEFAULT_GLUE_REQUESTS_PER_SECOND);
+
+        /**
+         * Reads the database and table concurrency (positive integers) and the Lark and Glue request rates
+         * (positive, possibly fractional, requests per second) from their env vars. Anything else keeps its
+         * default, so a deployment cannot switch the rate limits off by setting zero.
+         */
+        public static Settings fromEnvironment(Function<String, String> environment)
+        {
+            return new Settings(
+                    Util.parsePositiveInt(environment.apply(CRAWL_DATABASE_CONCURRENCY_ENV_VAR), DEFAULT.databaseConcurrency()),
+                    Util.parsePositiveInt(environment.apply(CRAWL_TABLE_CONCURRENCY_ENV_VAR), DEFAULT.tableConcurrency()),
+                    Util.parsePositiveDouble(environment.apply(LARK_REQUESTS_PER_SECOND_ENV_VAR), DEFAULT.larkRequestsPerSecond()),
+                    Util.parsePositiveDouble(environment.apply(GLUE_REQUESTS_PER_SECOND_ENV_VAR), DEFAULT.glueRequestsPerSecond()));
+        }
+    }
+
+    /**
+     * The outcome of one task: either its value or the exception it failed with.
+     */
+    public record Outcome<T>(T value, Exception failure)
+    {
+        public boolean succeeded()
+        {
+            return failure == null;
+        }
+    }
+
+    public CrawlExecutor(Settings settings)
+    {
+        requireNonNull(settings, "settings cannot be null");
+        this.databasePool = Executors.newFixedThreadPool(Math.max(1, settings.databaseConcurrency()), daemonThreads("crawl-database-"));
+        this.tablePool = Executors.newFixedThreadPool(Math.max(1, settings.tableConcurrency()), daemonThreads("crawl-table-"));
+        this.larkLimiter = new RequestRateLimiter(settings.larkRequestsPerSecond());
+        this.glueLimiter = new RequestRateLimiter(settings.glueRequestsPerSecond());
+    }
+
+    /**
+     * Runs one task per database and returns their outcomes in the order of {@code tasks}.
+     */
+    public <T> List<Outcome<T>> forEachDatabase(List<? extends Callable<T>> tasks)
+    {
+        return runAll(databasePool, tasks);
+    }
+
+    /**
+     * Runs one task per table and returns their outcomes in the order of {@code tasks}. Must not be called from a
+     * table task itself.
+     */
+    public <T> List<Outcome<T>> forEachTable(List<? extends Callable<T>> tasks)
+    {
+        return runAll(tablePool, tasks);
+    }
+
+    /**
+     * @return the limiter every Lark request of this crawl must take a permit from.
+     */
+    public RequestRateLimiter larkLimiter()
+    {
+        return larkLimiter;
+    }
+
+    /**
+     * @return the limiter every Glue read request of this crawl must take a permit from.
+     */
+    public RequestRateLimiter glueLimiter()
+    {
+        return glueLimiter;
+    }
+
+    @Override
+    public void close()
+    {
+        databasePool.shutdownNow();
+        tablePool.shutdownNow();
+    }
+
+    private static <T> List<Outcome<T>> runAll(ExecutorService pool, List<? extends Callable<T>> tasks)
+    {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(pool.submit(task));
+        }
+
+        List<Outcome<T>> outcomes = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                outcomes.add(new Outcome<>(future.get(), null));
+            }
+            catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                outcomes.add(new Outcome<>(null, (Exception) cause));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for crawl tasks", e);
+            }
+        }
+        return outcomes;
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix)
+    {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
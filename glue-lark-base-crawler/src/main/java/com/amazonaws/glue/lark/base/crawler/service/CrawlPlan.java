@@ -0,0 +1,225 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import software.amazon.awssdk.services.glue.model.Table;
+import software.amazon.awssdk.services.glue.model.TableInput;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The Glue changes of one crawl, and what each phase of the crawl cost.
+ * <p>
+ * The handler records every batch of Glue writes here, whether it then applies them or, in a dry run, only plans
+ * them. Each phase reports its wall-clock time, the Lark and Glue read requests made during it (read from the
+ * services' counters, so requests from the crawl's worker threads are included) and the Glue write requests its
+ * changes take: one per database or table write, and one per {@value GlueCatalogService#BATCH_DELETE_TABLE_LIMIT}
+ * table deletes of a database. Write retries are not counted.
+ * <p>
+ * Writes are only ever recorded from the handler's thread, so the plan is not thread-safe.
+ */
+public final class CrawlPlan
+{
+    private final LongSupplier larkRequests;
+    private final LongSupplier glueReadRequests;
+    private final LongSupplier clock;
+
+    private final List<String> databasesToDelete = new ArrayList<>();
+    private final Map<String, String> databasesToCreate = new TreeMap<>();
+    private final Map<String, String> databasesToUpdate = new TreeMap<>();
+    private final Map<String, List<String>> tablesToCreate = new TreeMap<>();
+    private final Map<String, List<String>> tablesToUpdate = new TreeMap<>();
+    private final Map<String, List<String>> tablesToDelete = new TreeMap<>();
+    private final List<Phase> phases = new ArrayList<>();
+
+    private final long startedAtMillis;
+    private final long larkRequestsAtStart;
+    private final long glueReadRequestsAtStart;
+    private String phaseName;
+    private long phaseStartedAtMillis;
+    private long phaseLarkRequestsAtStart;
+    private long phaseGlueReadRequestsAtStart;
+    private long phaseGlueWriteRequests;
+
+    /**
+     * What one phase of the crawl took.
+     *
+     * @param name              The phase
+     * @param millis            Wall-clock time
+     * @param larkRequests      Requests sent to Lark
+     * @param glueReadRequests  Read requests sent to Glue
+     * @param glueWriteRequests Write requests the phase's changes take in Glue
+     */
+    public record Phase(
+            @JsonProperty("name") String name,
+            @JsonProperty("millis") long millis,
+            @JsonProperty("lark_requests") long larkRequests,
+            @JsonProperty("glue_read_requests") long glueReadRequests,
+            @JsonProperty("glue_write_requests") long glueWriteRequests
+    )
+    {
+    }
+
+    /**
+     * The finished plan. Databases are sorted by name and tables are listed by database, in the order the crawl
+     * found them.
+     *
+     * @param crawlKey          The key of the crawl, see {@code CrawlCheckpoint#keyFor}
+     * @param dryRun            Whether the changes were only planned, not applied
+     * @param databasesToDelete Databases no longer in Lark
+     * @param databasesToCreate New databases, with their location URI
+     * @param databasesToUpdate Databases whose location URI changed, with the new one
+     * @param tablesToCreate    New tables, by database
+     * @param tablesToUpdate    Tables whose schema or parameters changed, by database
+     * @param tablesToDelete    Tables no longer in Lark, by database
+     * @param phases            The phases of the crawl, in order
+     * @param total             All phases together
+     */
+    public record Report(
+            @JsonProperty("crawl_key") String crawlKey,
+            @JsonProperty("dry_run") boolean dryRun,
+            @JsonProperty("databases_to_delete") List<String> databasesToDelete,
+            @JsonProperty("databases_to_create") Map<String, String> databasesToCreate,
+            @JsonProperty("databases_to_update") Map<String, String> databasesToUpdate,
+            @JsonProperty("tables_to_create") Map<String, List<String>> tablesToCreate,
+            @JsonProperty("tables_to_update") Map<String, List<String>> tablesToUpdate,
+            @JsonProperty("tables_to_delete") Map<String, List<String>> tablesToDelete,
+            @JsonProperty("phases") List<Phase> phases,
+            @JsonProperty("total") Phase total
+    )
+    {
+    }
+
+    /**
+     * @param larkRequests     Requests sent to Lark so far
+     * @param glueReadRequests Read requests sent to Glue so far
+     * @param clock            Current time in milliseconds
+     */
+    public CrawlPlan(LongSupplier larkRequests, LongSupplier glueReadRequests, LongSupplier clock)
+    {
+        this.larkRequests = requireNonNull(larkRequests, "larkRequests cannot be null");
+        this.glueReadRequests = requireNonNull(glueReadRequests, "glueReadRequests cannot be null");
+        this.clock = requireNonNull(clock, "clock cannot be null");
+        this.startedAtMillis = clock.getAsLong();
+        this.larkRequestsAtStart = larkRequests.getAsLong();
+        this.glueReadRequestsAtStart = glueReadRequests.getAsLong();
+    }
+
+    /**
+     * Ends the current phase, if any, and starts the next one.
+     */
+    public void startPhase(String name)
+    {
+        requireNonNull(name, "name cannot be null");
+        endPhase();
+        phaseName = name;
+        phaseStartedAtMillis = clock.getAsLong();
+        phaseLarkRequestsAtStart = larkRequests.getAsLong();
+        phaseGlueReadRequestsAtStart = glueReadRequests.getAsLong();
+        phaseGlueWriteRequests = 0;
+    }
+
+    public void deleteDatabases(Collection<String> databaseNames)
+    {
+        databasesToDelete.addAll(databaseNames);
+        phaseGlueWriteRequests += databaseNames.size();
+    }
+
+    public void createDatabases(Map<String, String> databaseNamesAndLocationUris)
+    {
+        databasesToCreate.putAll(databaseNamesAndLocationUris);
+        phaseGlueWriteRequests += databaseNamesAndLocationUris.size();
+    }
+
+    public void updateDatabases(Map<String, String> databaseNamesAndLocationUris)
+    {
+        databasesToUpdate.putAll(databaseNamesAndLocationUris);
+        phaseGlueWriteRequests += databaseNamesAndLocationUris.size();
+    }
+
+    public void createTables(Map<String, List<TableInput>> databaseNameAndTableInputs)
+    {
+        databaseNameAndTableInputs.forEach((databaseName, tableInputs) -> {
+            tableInputs.forEach(tableInput -> tablesToCreate.computeIfAbsent(databaseName, name -> new ArrayList<>()).add(tableInput.name()));
+            phaseGlueWriteRequests += tableInputs.size();
+        });
+    }
+
+    public void updateTables(Map<String, List<TableInput>> databaseNameAndTableInputs)
+    {
+        databaseNameAndTableInputs.forEach((databaseName, tableInputs) -> {
+            tableInputs.forEach(tableInput -> tablesToUpdate.computeIfAbsent(databaseName, name -> new ArrayList<>()).add(tableInput.name()));
+            phaseGlueWriteRequests += tableInputs.size();
+        });
+    }
+
+    public void deleteTables(Map<String, List<Table>> databaseNameAndTables)
+    {
+        databaseNameAndTables.forEach((databaseName, tables) -> {
+            tables.forEach(table -> tablesToDelete.computeIfAbsent(databaseName, name -> new ArrayList<>()).add(table.name()));
+            int limit = GlueCatalogService.BATCH_DELETE_TABLE_LIMIT;
+            phaseGlueWriteRequests += (tables.size() + limit - 1) / limit;
+        });
+    }
+
+    /**
+     * Ends the last phase and returns the plan.
+     */
+    public Report finish(String crawlKey, boolean dryRun)
+    {
+        endPhase();
+        long totalGlueWrites = phases.stream().mapToLong(Phase::glueWriteRequests).sum();
+        Phase total = new Phase("total", clock.getAsLong() - startedAtMillis,
+                larkRequests.getAsLong() - larkRequestsAtStart,
+                glueReadRequests.getAsLong() - glueReadRequestsAtStart,
+                totalGlueWrites);
+        return new Report(crawlKey, dryRun, databasesToDelete.stream().sorted().toList(),
+                sorted(databasesToCreate), sorted(databasesToUpdate),
+                sorted(tablesToCreate), sorted(tablesToUpdate), sorted(tablesToDelete),
+                List.copyOf(phases), total);
+    }
+
+    // Map.copyOf would lose the order by name.
+    private static <V> Map<String, V> sorted(Map<String, V> map)
+    {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(map));
+    }
+
+    private void endPhase()
+    {
+        if (phaseName == null) {
+            return;
+        }
+        phases.add(new Phase(phaseName, clock.getAsLong() - phaseStartedAtMillis,
+                larkRequests.getAsLong() - phaseLarkRequestsAtStart,
+                glueReadRequests.getAsLong() - phaseGlueReadRequestsAtStart,
+                phaseGlueWriteRequests));
+        phaseName = null;
+    }
+}
@@ -0,0 +1,210 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.CrawlCheckpoint;
+import com.amazonaws.glue.lark.base.crawler.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.CRAWL_CHECKPOINT_BATCH_SIZE_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.CRAWL_CHECKPOINT_MAX_AGE_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.CRAWL_TIME_RESERVE_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_CRAWL_CHECKPOINT_BATCH_SIZE;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_CRAWL_CHECKPOINT_MAX_AGE_SECONDS;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_CRAWL_TIME_RESERVE_SECONDS;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tracks which databases of a crawl are done, so a crawl that does not fit in one invocation can be resumed by the
+ * next one.
+ * <p>
+ * With a {@link CrawlCheckpointStore}, the crawl works through its databases in batches. It applies all Glue
+ * writes of a batch and then records the batch's databases in the checkpoint. Before each further batch, it checks
+ * that the invocation has time left for one more batch, the longest so far, plus a reserve. If not, the crawl stops
+ * and the next invocation skips every database already recorded. A checkpoint older than the maximum age is
+ * ignored, so a crawl that was abandoned long ago does not keep databases from being crawled. The checkpoint is
+ * deleted once every database is done.
+ * <p>
+ * Without a store, everything is one batch and nothing is persisted, which is exactly the single-invocation crawl.
+ */
+public final class CrawlProgress
+{
+    private static final Logger logger = LoggerFactory.getLogger(CrawlProgress.class);
+
+    private final CrawlCheckpointStore store;
+    private final Settings settings;
+    private final long deadlineMillis;
+    private final LongSupplier clock;
+    private CrawlCheckpoint checkpoint;
+    private long batchStartedAtMillis;
+    private long longestBatchMillis;
+    private int batchesCompleted;
+    private boolean stopped;
+
+    /**
+     * Batching and time limits of a checkpointed crawl.
+     *
+     * @param batchSize         Databases whose writes are applied and checkpointed together
+     * @param maxAgeMillis      How long after a crawl started its checkpoint may still be resumed
+     * @param timeReserveMillis Time to leave unused at the end of an invocation
+     */
+    public record Settings(int batchSize, long maxAgeMillis, long timeReserveMillis)
+    {
+        public static final Settings DEFAULT = new Settings(DEFAULT_CRAWL_CHECKPOINT_BATCH_SIZE,
+                TimeUnit.SECONDS.toMillis(DEFAULT_CRAWL_CHECKPOINT_MAX_AGE_SECONDS),
+                TimeUnit.SECONDS.toMillis(DEFAULT_CRAWL_TIME_RESERVE_SECONDS));
+
+        /**
+         * Reads the checkpoint batch size, and the checkpoint max age and time reserve in seconds, from their env
+         * vars. A value that is unset or not a positive integer keeps its default.
+         */
+        public static Settings fromEnvironment(Function<String, String> environment)
+        {
+            return new Settings(
+                    Util.parsePositiveInt(environment.apply(CRAWL_CHECKPOINT_BATCH_SIZE_ENV_VAR), DEFAULT.batchSize()),
+                    TimeUnit.SECONDS.toMillis(Util.parsePositiveLong(environment.apply(CRAWL_CHECKPOINT_MAX_AGE_ENV_VAR),
+                            TimeUnit.MILLISECONDS.toSeconds(DEFAULT.maxAgeMillis()))),
+                    TimeUnit.SECONDS.toMillis(Util.parsePositiveLong(environment.apply(CRAWL_TIME_RESERVE_ENV_VAR),
+                            TimeUnit.MILLISECONDS.toSeconds(DEFAULT.timeReserveMillis()))));
+        }
+    }
+
+    private CrawlProgress(CrawlCheckpointStore store, Settings settings, long deadlineMillis, LongSupplier clock,
+                          CrawlCheckpoint checkpoint)
+    {
+        this.store = store;
+        this.settings = settings;
+        this.deadlineMillis = deadlineMillis;
+        this.clock = clock;
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Starts a crawl, resuming its checkpoint if the store has a recent enough one.
+     *
+     * @param store          Where the checkpoint is kept, or null to crawl in a single invocation without one
+     * @param crawlKey       The key of the crawl, see {@link CrawlCheckpoint#keyFor}
+     * @param settings       Batching and time limits
+     * @param deadlineMillis When the invocation ends, or {@link Long#MAX_VALUE} if unknown
+     * @param clock          Current time in milliseconds
+     */
+    public static CrawlProgress start(CrawlCheckpointStore store, String crawlKey, Settings settings,
+                                      long deadlineMillis, LongSupplier clock)
+    {
+        requireNonNull(crawlKey, "crawlKey cannot be null");
+        requireNonNull(settings, "settings cannot be null");
+        requireNonNull(clock, "clock cannot be null");
+
+        long now = clock.getAsLong();
+        CrawlCheckpoint fresh = new CrawlCheckpoint(crawlKey, now, null);
+        if (store == null) {
+            return new CrawlProgress(null, settings, deadlineMillis, clock, fresh);
+        }
+
+        Optional<CrawlCheckpoint> stored = store.load(crawlKey);
+        if (stored.isPresent() && now - stored.get().startedAtMillis() <= settings.maxAgeMillis()) {
+            logger.info("Resuming crawl {}: {} databases already crawled", crawlKey, stored.get().completedDatabases().size());
+            return new CrawlProgress(store, settings, deadlineMillis, clock, stored.get());
+        }
+        if (stored.isPresent()) {
+            logger.info("Ignoring checkpoint of crawl {}: started more than {} ms ago", crawlKey, settings.maxAgeMillis());
+        }
+        return new CrawlProgress(store, settings, deadlineMillis, clock, fresh);
+    }
+
+    /**
+     * @return true if the database was fully crawled by an earlier invocation of this crawl.
+     */
+    public boolean isCompleted(String databaseName)
+    {
+        return checkpoint.completedDatabases().contains(databaseName);
+    }
+
+    /**
+     * Splits {@code items} into the batches they are crawled and checkpointed in; a single batch without a store.
+     */
+    public <T> List<List<T>> batches(List<T> items)
+    {
+        if (store == null) {
+            return List.of(items);
+        }
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += settings.batchSize()) {
+            batches.add(items.subList(from, Math.min(items.size(), from + settings.batchSize())));
+        }
+        return batches;
+    }
+
+    /**
+     * Decides whether to start another batch. The first batch of an invocation always starts, so every invocation
+     * makes progress. Once this returns false the crawl is stopped, and it returns false for every later batch too.
+     */
+    public boolean startBatch()
+    {
+        long now = clock.getAsLong();
+        if (!stopped && batchesCompleted > 0 && deadlineMillis != Long.MAX_VALUE
+                && now + longestBatchMillis + settings.timeReserveMillis() > deadlineMillis) {
+            logger.info("Stopping crawl {} after {} batches: not enough time left for another one", checkpoint.crawlKey(), batchesCompleted);
+            stopped = true;
+        }
+        batchStartedAtMillis = now;
+        return !stopped;
+    }
+
+    /**
+     * Records that every Glue write for these databases has been applied.
+     */
+    public void completeBatch(Collection<String> databaseNames)
+    {
+        longestBatchMillis = Math.max(longestBatchMillis, clock.getAsLong() - batchStartedAtMillis);
+        batchesCompleted++;
+        checkpoint = checkpoint.withCompleted(databaseNames);
+        if (store != null) {
+            store.save(checkpoint);
+        }
+    }
+
+    /**
+     * @return true if the crawl stopped before all of its databases were crawled.
+     */
+    public boolean isStopped()
+    {
+        return stopped;
+    }
+
+    /**
+     * Ends a crawl that crawled all of its databases, deleting its checkpoint.
+     */
+    public void finish()
+    {
+        if (store != null && !stopped) {
+            store.delete(checkpoint.crawlKey());
+        }
+    }
+}
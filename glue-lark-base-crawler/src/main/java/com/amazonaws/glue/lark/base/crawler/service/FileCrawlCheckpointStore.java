@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.CrawlCheckpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps each crawl's checkpoint as one JSON file, {@code <crawl key>.json}, in a local directory. Meant for crawls
+ * run outside Lambda; in Lambda a local file only survives while the same container stays warm.
+ * <p>
+ * A checkpoint is written to a temporary file first and then moved over the old one, so a crawl that dies while
+ * saving leaves the previous checkpoint intact.
+ */
+public class FileCrawlCheckpointStore implements CrawlCheckpointStore
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path directory;
+
+    public FileCrawlCheckpointStore(Path directory)
+    {
+        this.directory = requireNonNull(directory, "directory cannot be null");
+    }
+
+    @Override
+    public Optional<CrawlCheckpoint> load(String crawlKey)
+    {
+        try {
+            return Optional.of(OBJECT_MAPPER.readValue(Files.readAllBytes(file(crawlKey)), CrawlCheckpoint.class));
+        }
+        catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to read crawl checkpoint " + file(crawlKey), e);
+        }
+    }
+
+    @Override
+    public void save(CrawlCheckpoint checkpoint)
+    {
+        Path target = file(checkpoint.crawlKey());
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, checkpoint.crawlKey(), ".tmp");
+            Files.write(temporary, OBJECT_MAPPER.writeValueAsBytes(checkpoint));
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to write crawl checkpoint " + target, e);
+        }
+    }
+
+    @Override
+    public void delete(String crawlKey)
+    {
+        try {
+            Files.deleteIfExists(file(crawlKey));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete crawl checkpoint " + file(crawlKey), e);
+        }
+    }
+
+    private Path file(String crawlKey)
+    {
+        return directory.resolve(crawlKey + ".json");
+    }
+}
@@ -19,11 +19,13 @@
  */
 package com.amazonaws.glue.lark.base.crawler.service;
 
+import com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome;
+import com.amazonaws.glue.lark.base.crawler.util.RequestRateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.glue.GlueClient;
-import software.amazon.awssdk.services.glue.model.AlreadyExistsException;
 import software.amazon.awssdk.services.glue.model.BatchDeleteTableRequest;
+import software.amazon.awssdk.services.glue.model.BatchDeleteTableResponse;
 import software.amazon.awssdk.services.glue.model.CreateDatabaseRequest;
 import software.amazon.awssdk.services.glue.model.CreateTableRequest;
 import software.amazon.awssdk.services.glue.model.DataLakePrincipal;
@@ -31,20 +33,23 @@ import software.amazon.awssdk.services.glue.model.Database;
 import software.amazon.awssdk.services.glue.model.DatabaseInput;
 import software.amazon.awssdk.services.glue.model.DeleteDatabaseRequest;
 import software.amazon.awssdk.services.glue.model.GetDatabasesRequest;
-import software.amazon.awssdk.services.glue.model.GetDatabasesResponse;
 import software.amazon.awssdk.services.glue.model.GetTablesRequest;
-import software.amazon.awssdk.services.glue.model.GetTablesResponse;
 import software.amazon.awssdk.services.glue.model.Permission;
 import software.amazon.awssdk.services.glue.model.PrincipalPermissions;
 import software.amazon.awssdk.services.glue.model.Table;
+import software.amazon.awssdk.services.glue.model.TableError;
 import software.amazon.awssdk.services.glue.model.TableInput;
 import software.amazon.awssdk.services.glue.model.UpdateDatabaseRequest;
 import software.amazon.awssdk.services.glue.model.UpdateTableRequest;
+import software.amazon.awssdk.services.glue.paginators.GetDatabasesIterable;
+import software.amazon.awssdk.services.glue.paginators.GetTablesIterable;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
@@ -56,14 +61,46 @@ public class GlueCatalogService
 {
     private static final Logger logger = LoggerFactory.getLogger(GlueCatalogService.class);
 
+    // The largest page GetDatabases and GetTables return.
+    static final int MAX_PAGE_SIZE = 100;
+    // Glue's BatchDeleteTable accepts at most this many table names per request.
+    static final int BATCH_DELETE_TABLE_LIMIT = 100;
+
     private final GlueClient glueClient;
     private final String catalogId;
+    private final GlueWriteExecutor writeExecutor;
+    // Every GetDatabases/GetTables page requested so far; read by the crawl to report its cost.
+    private final LongAdder readRequestCount = new LongAdder();
+    private volatile RequestRateLimiter readLimiter = RequestRateLimiter.UNLIMITED;
 
     public GlueCatalogService(GlueClient glueClient, String catalogId)
+    {
+        this(glueClient, catalogId, new GlueWriteExecutor(GlueWriteExecutor.Settings.DEFAULT));
+    }
+
+    public GlueCatalogService(GlueClient glueClient, String catalogId, GlueWriteExecutor writeExecutor)
     {
         requireNonNull(glueClient);
         this.glueClient = glueClient;
         this.catalogId = catalogId;
+        this.writeExecutor = requireNonNull(writeExecutor, "writeExecutor cannot be null");
+    }
+
+    /**
+     * @return how many read requests (pages of GetDatabases and GetTables) this service has sent to Glue so far.
+     */
+    public long readRequestCount()
+    {
+        return readRequestCount.sum();
+    }
+
+    /**
+     * Makes every later read request of this service (each page of GetDatabases and GetTables) wait for a permit of
+     * {@code limiter}. Writes are paced by the {@link GlueWriteExecutor} instead.
+     */
+    public void limitReads(RequestRateLimiter limiter)
+    {
+        this.readLimiter = requireNonNull(limiter, "limiter cannot be null");
     }
 
     /**
@@ -73,241 +110,312 @@ public class GlueCatalogService
      */
     public List<Database> getDatabases()
     {
-        List<Database> allDatabases = new ArrayList<>();
-        String nextToken = null;
-
-        do {
-            GetDatabasesRequest request = GetDatabasesRequest.builder()
-                    .catalogId(catalogId)
-                    .nextToken(nextToken)
-                    .build();
+        return getDatabases(null);
+    }
 
-            GetDatabasesResponse response = glueClient.getDatabases(request);
-            allDatabases.addAll(response.databaseList());
-            nextToken = response.nextToken();
-        } while (nextToken != null);
+    /**
+     * Get the databases whose location URI contains the given fragment, e.g. the crawler's location prefix.
+     * <p>
+     * Glue cannot filter databases by location server-side (GetDatabases only filters by resource share), so the
+     * pages are streamed from the paginator and filtered as they arrive: only matching databases are kept, however
+     * many other databases the catalog has.
+     *
+     * @param locationUriFragment The fragment to match, or null for every database
+     * @return The list of matching databases
+     */
+    public List<Database> getDatabases(String locationUriFragment)
+    {
+        GetDatabasesRequest request = GetDatabasesRequest.builder()
+                .catalogId(catalogId)
+                .maxResults(MAX_PAGE_SIZE)
+                .build();
 
-        return allDatabases;
+        // One permit for the first page here, and one for each following page once a page says there is another.
+        RequestRateLimiter limiter = readLimiter;
+        limiter.acquire();
+        return new GetDatabasesIterable(glueClient, request).stream()
+                .peek(page -> countPage(limiter, page.nextToken()))
+                .flatMap(page -> page.databaseList().stream())
+                .filter(database -> locationUriFragment == null ||
+                        (database.locationUri() != null && database.locationUri().contains(locationUriFragment)))
+                .collect(Collectors.toList());
     }
 
     /**
      * Batch delete database.
-     * There is no batch delete database in Glue, so we need to delete one by one.
+     * There is no batch delete database in Glue, so the deletes run concurrently, one request each.
      *
      * @param databaseNames The list of database names
+     * @return The outcome for each database, in order
      */
-    public void batchDeleteDatabase(List<String> databaseNames)
+    public List<GlueWriteOutcome> batchDeleteDatabase(List<String> databaseNames)
     {
-        for (String databaseName : databaseNames) {
-            // Isolate one database's delete failure (e.g. a concurrent invocation already deleted it)
-            // instead of aborting deletion of the rest of the batch.
-            try {
-                glueClient.deleteDatabase(DeleteDatabaseRequest.builder()
+        List<GlueWriteOutcome> outcomes = writeExecutor.writeAll(databaseNames, databaseName -> databaseName,
+                databaseName -> glueClient.deleteDatabase(DeleteDatabaseRequest.builder()
                         .name(databaseName)
                         .catalogId(catalogId)
-                        .build());
-            }
-            catch (Exception e) {
-                logger.error("Failed to delete database {}: {}", databaseName, e.getMessage(), e);
+                        .build()));
+
+        // Isolate one database's delete failure (e.g. a concurrent invocation already deleted it)
+        // instead of aborting deletion of the rest of the batch.
+        for (GlueWriteOutcome outcome : outcomes) {
+            if (!outcome.succeeded()) {
+                logger.error("Failed to delete database {}: {}", outcome.target(), outcome.failure().getMessage(), outcome.failure());
             }
         }
+        return outcomes;
     }
 
     /**
      * Batch create database.
-     * There is no batch create database in Glue, so we need to create one by one.
+     * There is no batch create database in Glue, so the creates run concurrently, one request each.
      *
      * @param databaseNamesWithLocationUri The map of database names and location uris
+     * @return The outcome for each database, in the map's order
      */
-    public void batchCreateDatabase(Map<String, String> databaseNamesWithLocationUri)
+    public List<GlueWriteOutcome> batchCreateDatabase(Map<String, String> databaseNamesWithLocationUri)
     {
-        for (Map.Entry<String, String> databaseNameWithLocationUri : databaseNamesWithLocationUri.entrySet()) {
-            DatabaseInput databaseInput = DatabaseInput.builder()
-                    .name(databaseNameWithLocationUri.getKey())
-                    .locationUri(databaseNameWithLocationUri.getValue())
-                    .createTableDefaultPermissions(
-                            List.of(
-                                    PrincipalPermissions.builder()
-                                            .principal(
-                                                    DataLakePrincipal.builder()
-                                                            .dataLakePrincipalIdentifier("IAM_ALLOWED_PRINCIPALS")
-                                                            .build()
-                                            )
-                                            .permissions(Collections.singletonList(Permission.ALL))
-                                            .build()
-                            )
-                    ).build();
-
-            CreateDatabaseRequest request = CreateDatabaseRequest.builder()
-                    .databaseInput(databaseInput)
-                    .catalogId(catalogId)
-                    .build();
-
-            // Observed in production: a concurrent/overlapping crawler invocation can create the same
-            // database first, so this call throws AlreadyExistsException - which is harmless (the
-            // database is there either way) but, left uncaught, aborted this whole loop before it ever
-            // reached the remaining databases in the batch. Since the caller (createGlueDatabases) goes
-            // on to create tables for every database in this batch regardless of which of these calls
-            // actually succeeded, isolating one database's failure here is enough to let table creation
-            // proceed normally for the rest instead of getting stuck retrying forever with zero tables.
-            try {
-                glueClient.createDatabase(request);
-            }
-            catch (AlreadyExistsException e) {
-                logger.info("Database {} already exists, skipping creation.", databaseNameWithLocationUri.getKey());
+        List<Map.Entry<String, String>> databases = new ArrayList<>(databaseNamesWithLocationUri.entrySet());
+        List<GlueWriteOutcome> outcomes = writeExecutor.writeAll(databases, Map.Entry::getKey,
+                databaseNameWithLocationUri -> glueClient.createDatabase(CreateDatabaseRequest.builder()
+                        .databaseInput(databaseInput(databaseNameWithLocationUri.getKey(), databaseNameWithLocationUri.getValue()))
+                        .catalogId(catalogId)
+                        .build()));
+
+        // Observed in production: a concurrent/overlapping crawler invocation can create the same
+        // database first, so this call throws AlreadyExistsException - which is harmless (the
+        // database is there either way) but, left uncaught, aborted this whole loop before it ever
+        // reached the remaining databases in the batch. Since the caller (createGlueDatabases) goes
+        // on to create tables for every database in this batch regardless of which of these calls
+        // actually succeeded, isolating one database's failure here is enough to let table creation
+        // proceed normally for the rest instead of getting stuck retrying forever with zero tables.
+        for (GlueWriteOutcome outcome : outcomes) {
+            if (outcome.status() == GlueWriteOutcome.Status.ALREADY_EXISTS) {
+                logger.info("Database {} already exists, skipping creation.", outcome.target());
             }
-            catch (Exception e) {
-                logger.error("Failed to create database {}: {}", databaseNameWithLocationUri.getKey(), e.getMessage(), e);
+            else if (!outcome.succeeded()) {
+                logger.error("Failed to create database {}: {}", outcome.target(), outcome.failure().getMessage(), outcome.failure());
             }
         }
+        return outcomes;
     }
 
     /**
      * Batch update database.
-     * There is no batch update database in Glue, so we need to update one by one.
+     * There is no batch update database in Glue, so the updates run concurrently, one request each.
      *
      * @param databaseNamesWithLocationUri The map of database names and location uris
+     * @return The outcome for each database, in the map's order
      */
-    public void batchUpdateDatabase(Map<String, String> databaseNamesWithLocationUri)
+    public List<GlueWriteOutcome> batchUpdateDatabase(Map<String, String> databaseNamesWithLocationUri)
     {
-        for (Map.Entry<String, String> databaseNameWithLocationUri : databaseNamesWithLocationUri.entrySet()) {
-            DatabaseInput databaseInput = DatabaseInput.builder()
-                    .name(databaseNameWithLocationUri.getKey())
-                    .locationUri(databaseNameWithLocationUri.getValue())
-                    .createTableDefaultPermissions(
-                            List.of(
-                                    PrincipalPermissions.builder()
-                                            .principal(
-                                                    DataLakePrincipal.builder()
-                                                            .dataLakePrincipalIdentifier("IAM_ALLOWED_PRINCIPALS")
-                                                            .build()
-                                            )
-                                            .permissions(Collections.singletonList(Permission.ALL))
-                                            .build()
-                            )
-                    ).build();
-
-            // Isolate one database's update failure instead of aborting the rest of the batch.
-            try {
-                glueClient.updateDatabase(UpdateDatabaseRequest.builder()
+        List<Map.Entry<String, String>> databases = new ArrayList<>(databaseNamesWithLocationUri.entrySet());
+        List<GlueWriteOutcome> outcomes = writeExecutor.writeAll(databases, Map.Entry::getKey,
+                databaseNameWithLocationUri -> glueClient.updateDatabase(UpdateDatabaseRequest.builder()
                         .name(databaseNameWithLocationUri.getKey())
-                        .databaseInput(databaseInput)
+                        .databaseInput(databaseInput(databaseNameWithLocationUri.getKey(), databaseNameWithLocationUri.getValue()))
                         .catalogId(catalogId)
-                        .build());
-            }
-            catch (Exception e) {
-                logger.error("Failed to update database {}: {}", databaseNameWithLocationUri.getKey(), e.getMessage(), e);
+                        .build()));
+
+        // Isolate one database's update failure instead of aborting the rest of the batch.
+        for (GlueWriteOutcome outcome : outcomes) {
+            if (!outcome.succeeded()) {
+                logger.error("Failed to update database {}: {}", outcome.target(), outcome.failure().getMessage(), outcome.failure());
             }
         }
+        return outcomes;
+    }
+
+    private static DatabaseInput databaseInput(String databaseName, String locationUri)
+    {
+        return DatabaseInput.builder()
+                .name(databaseName)
+                .locationUri(locationUri)
+                .createTableDefaultPermissions(
+                        List.of(
+                                PrincipalPermissions.builder()
+                                        .principal(
+                                                DataLakePrincipal.builder()
+                                                        .dataLakePrincipalIdentifier("IAM_ALLOWED_PRINCIPALS")
+                                                        .build()
+                                        )
+                                        .permissions(Collections.singletonList(Permission.ALL))
+                                        .build()
+                        )
+                ).build();
     }
 
     /**
      * Get all tables
+     * <p>
+     * Streamed from the paginator in pages of {@value #MAX_PAGE_SIZE}; every table of a crawler database is the
+     * crawler's own, so there is nothing to filter out.
      *
      * @param larkBaseDataSourceId The Lark Base Data Source ID
      * @return The list of tables
      */
     public List<Table> getTables(String larkBaseDataSourceId)
     {
-        List<Table> allTables = new ArrayList<>();
-        String nextToken = null;
-
-        do {
-            GetTablesRequest request = GetTablesRequest.builder()
-                    .catalogId(catalogId)
-                    .databaseName(larkBaseDataSourceId)
-                    .nextToken(nextToken)
-                    .build();
-
-            GetTablesResponse response = glueClient.getTables(request);
-            allTables.addAll(response.tableList());
-            nextToken = response.nextToken();
-        } while (nextToken != null);
-
-        return allTables;
+        GetTablesRequest request = GetTablesRequest.builder()
+                .catalogId(catalogId)
+                .databaseName(larkBaseDataSourceId)
+                .maxResults(MAX_PAGE_SIZE)
+                .build();
+
+        RequestRateLimiter limiter = readLimiter;
+        limiter.acquire();
+        return new GetTablesIterable(glueClient, request).stream()
+                .peek(page -> countPage(limiter, page.nextToken()))
+                .flatMap(page -> page.tableList().stream())
+                .collect(Collectors.toList());
+    }
+
+    private void countPage(RequestRateLimiter limiter, String nextToken)
+    {
+        readRequestCount.increment();
+        if (nextToken != null && !nextToken.isEmpty()) {
+            limiter.acquire();
+        }
     }
 
     /**
      * Batch delete table.
-     * There is no batch delete table in Glue, so we need to delete one by one.
+     * Uses Glue's BatchDeleteTable, one request per chunk of at most {@value #BATCH_DELETE_TABLE_LIMIT} tables of a
+     * database, with the chunks running concurrently.
      *
      * @param databaseNameAndTables The map of database names and tables
+     * @return The outcome for each table, in the map's order
      */
-    public void batchDeleteTable(Map<String, List<Table>> databaseNameAndTables)
+    public List<GlueWriteOutcome> batchDeleteTable(Map<String, List<Table>> databaseNameAndTables)
     {
+        List<DeleteTableChunk> chunks = new ArrayList<>();
         for (Map.Entry<String, List<Table>> dbEntry : databaseNameAndTables.entrySet()) {
-            // Isolate one database's delete-table batch failure instead of aborting the rest.
-            try {
-                glueClient.batchDeleteTable(
+            List<String> tableNames = dbEntry.getValue().stream().map(Table::name).collect(Collectors.toList());
+            for (int from = 0; from < tableNames.size(); from += BATCH_DELETE_TABLE_LIMIT) {
+                chunks.add(new DeleteTableChunk(dbEntry.getKey(),
+                        tableNames.subList(from, Math.min(from + BATCH_DELETE_TABLE_LIMIT, tableNames.size()))));
+            }
+        }
+
+        List<GlueWriteExecutor.Result<BatchDeleteTableResponse>> results = writeExecutor.runAll(chunks,
+                chunk -> glueClient.batchDeleteTable(
                         BatchDeleteTableRequest.builder()
-                                .databaseName(dbEntry.getKey())
-                                .tablesToDelete(dbEntry.getValue().stream()
-                                        .map(Table::name)
-                                        .collect(Collectors.toList()))
+                                .databaseName(chunk.databaseName())
+                                .tablesToDelete(chunk.tableNames())
                                 .catalogId(catalogId)
-                                .build());
+                                .build()));
+
+        List<GlueWriteOutcome> outcomes = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            DeleteTableChunk chunk = chunks.get(i);
+            GlueWriteExecutor.Result<BatchDeleteTableResponse> result = results.get(i);
+            if (!result.succeeded()) {
+                // Isolate one chunk's failure instead of aborting the rest.
+                logger.error("Failed to delete tables {} in database {}: {}", chunk.tableNames(), chunk.databaseName(),
+                        result.failure().getMessage(), result.failure());
+                chunk.tableNames().forEach(tableName -> outcomes.add(new GlueWriteOutcome(
+                        chunk.databaseName() + "." + tableName, GlueWriteOutcome.Status.FAILED, result.attempts(), result.failure())));
+                continue;
             }
-            catch (Exception e) {
-                logger.error("Failed to delete tables in database {}: {}", dbEntry.getKey(), e.getMessage(), e);
+
+            // A batch request succeeds as a whole even if some of its tables could not be deleted.
+            Map<String, TableError> errorsByTable = new HashMap<>();
+            if (result.value() != null && result.value().hasErrors()) {
+                result.value().errors().forEach(error -> errorsByTable.put(error.tableName(), error));
+            }
+            for (String tableName : chunk.tableNames()) {
+                TableError error = errorsByTable.get(tableName);
+                if (error == null) {
+                    outcomes.add(new GlueWriteOutcome(chunk.databaseName() + "." + tableName,
+                            GlueWriteOutcome.Status.WRITTEN, result.attempts(), null));
+                    continue;
+                }
+                String message = error.errorDetail() != null
+                        ? error.errorDetail().errorCode() + ": " + error.errorDetail().errorMessage()
+                        : "unknown error";
+                logger.error("Failed to delete table {}.{}: {}", chunk.databaseName(), tableName, message);
+                outcomes.add(new GlueWriteOutcome(chunk.databaseName() + "." + tableName, GlueWriteOutcome.Status.FAILED,
+                        result.attempts(), new IllegalStateException(message)));
             }
         }
+        return outcomes;
     }
 
     /**
      * Batch create table.
-     * There is no batch create table in Glue, so we need to create one by one.
+     * There is no batch create table in Glue, so the creates run concurrently, one request each.
      *
      * @param databaseNameAndTableInputs The map of database names and table inputs
+     * @return The outcome for each table, in the map's order
      */
-    public void batchCreateTable(Map<String, List<TableInput>> databaseNameAndTableInputs)
+    public List<GlueWriteOutcome> batchCreateTable(Map<String, List<TableInput>> databaseNameAndTableInputs)
     {
-        for (Map.Entry<String, List<TableInput>> databaseNameAndTableInput : databaseNameAndTableInputs.entrySet()) {
-            for (TableInput tableInput : databaseNameAndTableInput.getValue()) {
-                // Isolate one table's create failure (e.g. AlreadyExistsException from a concurrent
-                // invocation, same race condition as batchCreateDatabase above) instead of aborting
-                // creation of every other table across every other database in this same batch.
-                try {
-                    glueClient.createTable(
-                            CreateTableRequest.builder()
-                                    .databaseName(databaseNameAndTableInput.getKey())
-                                    .tableInput(tableInput)
-                                    .catalogId(catalogId)
-                                    .build());
-                }
-                catch (AlreadyExistsException e) {
-                    logger.info("Table {}.{} already exists, skipping creation.", databaseNameAndTableInput.getKey(), tableInput.name());
-                }
-                catch (Exception e) {
-                    logger.error("Failed to create table {}.{}: {}", databaseNameAndTableInput.getKey(), tableInput.name(), e.getMessage(), e);
-                }
+        List<GlueWriteOutcome> outcomes = writeExecutor.writeAll(tableWrites(databaseNameAndTableInputs), TableWrite::target,
+                write -> glueClient.createTable(
+                        CreateTableRequest.builder()
+                                .databaseName(write.databaseName())
+                                .tableInput(write.tableInput())
+                                .catalogId(catalogId)
+                                .build()));
+
+        // Isolate one table's create failure (e.g. AlreadyExistsException from a concurrent
+        // invocation, same race condition as batchCreateDatabase above) instead of aborting
+        // creation of every other table across every other database in this same batch.
+        for (GlueWriteOutcome outcome : outcomes) {
+            if (outcome.status() == GlueWriteOutcome.Status.ALREADY_EXISTS) {
+                logger.info("Table {} already exists, skipping creation.", outcome.target());
+            }
+            else if (!outcome.succeeded()) {
+                logger.error("Failed to create table {}: {}", outcome.target(), outcome.failure().getMessage(), outcome.failure());
             }
         }
+        return outcomes;
     }
 
     /**
      * Batch update table.
-     * There is no batch update table in Glue, so we need to update one by one.
+     * There is no batch update table in Glue, so the updates run concurrently, one request each.
      *
      * @param databaseNameAndTableInputs The map of database names and table inputs
+     * @return The outcome for each table, in the map's order
      */
-    public void batchUpdateTable(Map<String, List<TableInput>> databaseNameAndTableInputs)
+    public List<GlueWriteOutcome> batchUpdateTable(Map<String, List<TableInput>> databaseNameAndTableInputs)
     {
-        for (Map.Entry<String, List<TableInput>> databaseNameAndTableInput : databaseNameAndTableInputs.entrySet()) {
-            for (TableInput tableInput : databaseNameAndTableInput.getValue()) {
-                // Isolate one table's update failure instead of aborting every other table update
-                // across every other database in this same batch.
-                try {
-                    glueClient.updateTable(
-                            UpdateTableRequest.builder()
-                                    .databaseName(databaseNameAndTableInput.getKey())
-                                    .tableInput(tableInput)
-                                    .catalogId(catalogId)
-                                    .build());
-                }
-                catch (Exception e) {
-                    logger.error("Failed to update table {}.{}: {}", databaseNameAndTableInput.getKey(), tableInput.name(), e.getMessage(), e);
-                }
+        List<GlueWriteOutcome> outcomes = writeExecutor.writeAll(tableWrites(databaseNameAndTableInputs), TableWrite::target,
+                write -> glueClient.updateTable(
+                        UpdateTableRequest.builder()
+                                .databaseName(write.databaseName())
+                                .tableInput(write.tableInput())
+                                .catalogId(catalogId)
+                                .build()));
+
+        // Isolate one table's update failure instead of aborting every other table update
+        // across every other database in this same batch.
+        for (GlueWriteOutcome outcome : outcomes) {
+            if (!outcome.succeeded()) {
+                logger.error("Failed to update table {}: {}", outcome.target(), outcome.failure().getMessage(), outcome.failure());
             }
         }
+        return outcomes;
+    }
+
+    private static List<TableWrite> tableWrites(Map<String, List<TableInput>> databaseNameAndTableInputs)
+    {
+        List<TableWrite> writes = new ArrayList<>();
+        databaseNameAndTableInputs.forEach((databaseName, tableInputs) ->
+                tableInputs.forEach(tableInput -> writes.add(new TableWrite(databaseName, tableInput))));
+        return writes;
+    }
+
+    private record TableWrite(String databaseName, TableInput tableInput)
+    {
+        String target()
+        {
+            return databaseName + "." + tableInput.name();
+        }
+    }
+
+    private record DeleteTableChunk(String databaseName, List<String> tableNames)
+    {
     }
 }
@@ -0,0 +1,231 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome;
+import com.amazonaws.glue.lark.base.crawler.util.Util;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.glue.model.AlreadyExistsException;
+import software.amazon.awssdk.services.glue.model.ConcurrentModificationException;
+import software.amazon.awssdk.services.glue.model.ThrottlingException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_GLUE_WRITE_CONCURRENCY;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_GLUE_WRITE_MAX_ATTEMPTS;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.GLUE_WRITE_CONCURRENCY_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.GLUE_WRITE_MAX_ATTEMPTS_ENV_VAR;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs a batch of Glue write requests with bounded concurrency, retrying the ones Glue pushes back on.
+ * <p>
+ * Only a {@link ThrottlingException} (or any other error the SDK classifies as throttling) and a
+ * {@link ConcurrentModificationException} are retried; both mean "not now", not "not ever". Retries wait an
+ * exponentially growing, jittered delay. On top of that the requests of one batch share a pause that doubles
+ * every time Glue throttles any of them and halves every time one succeeds, so once Glue starts throttling the
+ * whole batch slows down rather than each request finding out on its own.
+ * <p>
+ * Every item gets its own result, in the order of the items, whatever order they finish in.
+ */
+public class GlueWriteExecutor
+{
+    private static final long BASE_DELAY_MILLIS = 100;
+    private static final long MAX_DELAY_MILLIS = 5_000;
+
+    private final Settings settings;
+    private final Sleeper sleeper;
+
+    /**
+     * @param concurrency Requests in flight at the same time
+     * @param maxAttempts Attempts per request before its last failure is reported
+     */
+    public record Settings(int concurrency, int maxAttempts)
+    {
+        public static final Settings DEFAULT = new Settings(DEFAULT_GLUE_WRITE_CONCURRENCY, DEFAULT_GLUE_WRITE_MAX_ATTEMPTS);
+
+        /**
+         * Reads the write concurrency and the attempts per request from their env vars. Either one keeps its
+         * default unless it is set to a positive integer, so a write always gets at least one attempt.
+         */
+        public static Settings fromEnvironment(Function<String, String> environment)
+        {
+            return new Settings(
+                    Util.parsePositiveInt(environment.apply(GLUE_WRITE_CONCURRENCY_ENV_VAR), DEFAULT.concurrency()),
+                    Util.parsePositiveInt(environment.apply(GLUE_WRITE_MAX_ATTEMPTS_ENV_VAR), DEFAULT.maxAttempts()));
+        }
+    }
+
+    /**
+     * How the executor waits; replaced in tests so retries do not actually sleep.
+     */
+    @FunctionalInterface
+    public interface Sleeper
+    {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    /**
+     * The result of one item: the value the call returned, or the exception it last failed with.
+     */
+    public record Result<R>(R value, int attempts, Exception failure)
+    {
+        public boolean succeeded()
+        {
+            return failure == null;
+        }
+    }
+
+    public GlueWriteExecutor(Settings settings)
+    {
+        this(settings, Thread::sleep);
+    }
+
+    GlueWriteExecutor(Settings settings, Sleeper sleeper)
+    {
+        this.settings = requireNonNull(settings, "settings cannot be null");
+        this.sleeper = requireNonNull(sleeper, "sleeper cannot be null");
+    }
+
+    /**
+     * Writes every item with a single-item Glue request.
+     *
+     * @param items  The items to write
+     * @param target Names an item in its outcome, e.g. {@code database.table}
+     * @param write  Makes the Glue request for one item
+     * @return one outcome per item, in the order of {@code items}
+     */
+    public <T> List<GlueWriteOutcome> writeAll(List<T> items, Function<T, String> target, Consumer<T> write)
+    {
+        List<Result<Void>> results = runAll(items, item -> {
+            write.accept(item);
+            return null;
+        });
+
+        List<GlueWriteOutcome> outcomes = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Result<Void> result = results.get(i);
+            GlueWriteOutcome.Status status = result.succeeded() ? GlueWriteOutcome.Status.WRITTEN
+                    : result.failure() instanceof AlreadyExistsException ? GlueWriteOutcome.Status.ALREADY_EXISTS
+                    : GlueWriteOutcome.Status.FAILED;
+            outcomes.add(new GlueWriteOutcome(target.apply(items.get(i)), status, result.attempts(), result.failure()));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Makes one Glue request per item, e.g. one batch request per chunk of items.
+     *
+     * @return one result per item, in the order of {@code items}
+     */
+    public <T, R> List<Result<R>> runAll(List<T> items, Function<T, R> call)
+    {
+        AtomicLong sharedPauseMillis = new AtomicLong();
+        int threads = Math.min(Math.max(1, settings.concurrency()), items.size());
+        if (threads <= 1) {
+            List<Result<R>> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(callWithRetries(item, call, sharedPauseMillis));
+            }
+            return results;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, daemonThreads());
+        try {
+            List<Future<Result<R>>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(pool.submit(() -> callWithRetries(item, call, sharedPauseMillis)));
+            }
+
+            List<Result<R>> results = new ArrayList<>(items.size());
+            for (Future<Result<R>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing to Glue", e);
+        }
+        catch (ExecutionException e) {
+            // callWithRetries catches every exception, so only an Error can get here.
+            throw (Error) e.getCause();
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private <T, R> Result<R> callWithRetries(T item, Function<T, R> call, AtomicLong sharedPauseMillis)
+    {
+        long waitMillis = sharedPauseMillis.get();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (waitMillis > 0) {
+                    sleeper.sleep(waitMillis);
+                }
+                R value = call.apply(item);
+                sharedPauseMillis.updateAndGet(pause -> pause / 2 < BASE_DELAY_MILLIS ? 0 : pause / 2);
+                return new Result<>(value, attempt, null);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Result<>(null, attempt, e);
+            }
+            catch (RuntimeException e) {
+                if (!isRetryable(e) || attempt >= settings.maxAttempts()) {
+                    return new Result<>(null, attempt, e);
+                }
+                long pause = sharedPauseMillis.updateAndGet(
+                        current -> Math.min(MAX_DELAY_MILLIS, Math.max(BASE_DELAY_MILLIS, current * 2)));
+                long backoff = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << Math.min(attempt - 1, 16));
+                waitMillis = Math.max(pause, ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+            }
+        }
+    }
+
+    static boolean isRetryable(RuntimeException e)
+    {
+        return e instanceof ThrottlingException
+                || e instanceof ConcurrentModificationException
+                || (e instanceof AwsServiceException serviceException && serviceException.isThrottlingException());
+    }
+
+    private static ThreadFactory daemonThreads()
+    {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "glue-write-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -57,6 +57,11 @@ public class LarkBaseService extends CommonLarkService
         super(larkAppId, larkAppSecret);
     }
 
+    public LarkBaseService(LarkSession session)
+    {
+        super(session);
+    }
+
     /**
      * List all tables.
      *
@@ -93,7 +98,7 @@ public class LarkBaseService extends CommonLarkService
                 request.setHeader("Authorization", "Bearer " + tenantAccessToken);
                 request.setHeader("Content-Type", "application/json");
 
-                HttpResponse response = httpClient.execute(request);
+                HttpResponse response = execute(request);
                 String responseBody = EntityUtils.toString(response.getEntity());
 
                 ListAllTableResponse tableResponse = objectMapper.readValue(responseBody, ListAllTableResponse.class);
@@ -170,7 +175,7 @@ public class LarkBaseService extends CommonLarkService
 
                 logger.info("Requesting fields for table {}: {}", tableId, uri);
 
-                HttpResponse response = httpClient.execute(request);
+                HttpResponse response = execute(request);
                 String responseBody = EntityUtils.toString(response.getEntity());
 
                 ListFieldResponse fieldResponse =
@@ -256,7 +261,7 @@ public class LarkBaseService extends CommonLarkService
                 request.setHeader("Content-Type", "application/json");
                 request.setEntity(new org.apache.http.entity.StringEntity(requestBody, java.nio.charset.StandardCharsets.UTF_8));
 
-                HttpResponse response = httpClient.execute(request);
+                HttpResponse response = execute(request);
                 String responseBody = EntityUtils.toString(response.getEntity());
 
                 SearchRecordsResponse recordsResponse =
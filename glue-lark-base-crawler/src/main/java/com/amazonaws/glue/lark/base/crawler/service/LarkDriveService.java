@@ -32,12 +32,37 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_LARK_DRIVE_WALK_CONCURRENCY;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Finds the Lark Bases under a Lark Drive folder.
+ * <p>
+ * The folder tree is walked breadth-first, one level at a time: the folders of a level are listed in parallel on a
+ * pool private to the walk, and their subfolders make up the next level. Results are still assembled in folder
+ * order, so a walk returns the same bases in the same order however its listings interleave. A folder reachable
+ * twice (through a shortcut or a moved folder) is only listed once and a base found twice is only reported once,
+ * first occurrence winning. Any folder that fails to list fails the whole walk: a crawl reconciles Glue against
+ * the returned list, and a partial list would drop the databases of the folder that failed.
+ */
 public class LarkDriveService extends CommonLarkService
 {
     private static final Logger logger = LoggerFactory.getLogger(LarkDriveService.class);
     private static final String LARK_DRIVE_URL = LARK_API_BASE_URL + "/drive/v1";
+    private static final String TYPE_BITABLE = "bitable";
+    private static final String TYPE_FOLDER = "folder";
     final int pageSize = 200;
 
     public LarkDriveService(String larkAppId, String larkAppSecret)
@@ -45,8 +70,33 @@ public class LarkDriveService extends CommonLarkService
         super(larkAppId, larkAppSecret);
     }
 
+    public LarkDriveService(LarkSession session)
+    {
+        super(session);
+    }
+
+    /**
+     * Lists every Lark Base under {@code folderToken} and its subfolders, with the default walk concurrency.
+     */
     public List<LarkDatabaseRecord> getLarkBases(String folderToken)
     {
+        return getLarkBases(folderToken, DEFAULT_LARK_DRIVE_WALK_CONCURRENCY, base -> { });
+    }
+
+    /**
+     * Lists every Lark Base under {@code folderToken} and its subfolders.
+     *
+     * @param folderToken      The root folder of the walk
+     * @param maxConcurrency   Folders listed at the same time; one lists them one after another on the caller
+     * @param onBaseDiscovered Called once per base as soon as the folder holding it has been listed, possibly from
+     *                         a walk thread and before the walk is done, so callers can start on a base early
+     * @return the bases in breadth-first folder order, each base once
+     */
+    public List<LarkDatabaseRecord> getLarkBases(String folderToken, int maxConcurrency,
+                                                 Consumer<LarkDatabaseRecord> onBaseDiscovered)
+    {
+        requireNonNull(folderToken, "folderToken cannot be null");
+        requireNonNull(onBaseDiscovered, "onBaseDiscovered cannot be null");
         try {
             refreshTenantAccessToken();
         }
@@ -54,7 +104,103 @@ public class LarkDriveService extends CommonLarkService
             throw new RuntimeException("Failed to refresh Lark access token", e);
         }
 
-        List<LarkDatabaseRecord> allTables = new ArrayList<>();
+        Set<String> visitedFolders = new HashSet<>(Set.of(folderToken));
+        Set<String> reportedBases = ConcurrentHashMap.newKeySet();
+        Set<String> collectedBases = new HashSet<>();
+        List<LarkDatabaseRecord> allBases = new ArrayList<>();
+        ExecutorService pool = maxConcurrency > 1 ? Executors.newFixedThreadPool(maxConcurrency, walkThreads()) : null;
+
+        try {
+            List<String> level = List.of(folderToken);
+            while (!level.isEmpty()) {
+                List<String> nextLevel = new ArrayList<>();
+                for (List<ListAllFolderResponse.DriveFile> files : listLevel(pool, level, reportedBases, onBaseDiscovered)) {
+                    for (ListAllFolderResponse.DriveFile file : files) {
+                        if (TYPE_BITABLE.equalsIgnoreCase(file.getType())) {
+                            if (collectedBases.add(file.getToken())) {
+                                allBases.add(toRecord(file));
+                            }
+                        }
+                        else if (TYPE_FOLDER.equalsIgnoreCase(file.getType()) && visitedFolders.add(file.getToken())) {
+                            nextLevel.add(file.getToken());
+                        }
+                    }
+                }
+                level = nextLevel;
+            }
+        }
+        finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        logger.info("Retrieved a total of {} bases from {} folders under folder {}", allBases.size(), visitedFolders.size(), folderToken);
+        return allBases;
+    }
+
+    /**
+     * Lists the folders of one level, in parallel when there is a pool and more than one folder, and returns their
+     * files in the order of {@code folderTokens}.
+     */
+    private List<List<ListAllFolderResponse.DriveFile>> listLevel(ExecutorService pool, List<String> folderTokens,
+                                                                  Set<String> reportedBases,
+                                                                  Consumer<LarkDatabaseRecord> onBaseDiscovered)
+    {
+        List<List<ListAllFolderResponse.DriveFile>> listings = new ArrayList<>(folderTokens.size());
+        if (pool == null || folderTokens.size() == 1) {
+            for (String folderToken : folderTokens) {
+                listings.add(listAndReport(folderToken, reportedBases, onBaseDiscovered));
+            }
+            return listings;
+        }
+
+        List<Future<List<ListAllFolderResponse.DriveFile>>> futures = new ArrayList<>(folderTokens.size());
+        for (String folderToken : folderTokens) {
+            futures.add(pool.submit(() -> listAndReport(folderToken, reportedBases, onBaseDiscovered)));
+        }
+        try {
+            for (Future<List<ListAllFolderResponse.DriveFile>> future : futures) {
+                listings.add(future.get());
+            }
+        }
+        catch (ExecutionException e) {
+            futures.forEach(pending -> pending.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Failed to walk Lark Drive folders", cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(pending -> pending.cancel(true));
+            throw new IllegalStateException("Interrupted while walking Lark Drive folders", e);
+        }
+        return listings;
+    }
+
+    private List<ListAllFolderResponse.DriveFile> listAndReport(String folderToken, Set<String> reportedBases,
+                                                                Consumer<LarkDatabaseRecord> onBaseDiscovered)
+    {
+        List<ListAllFolderResponse.DriveFile> files = listFolder(folderToken);
+        for (ListAllFolderResponse.DriveFile file : files) {
+            if (TYPE_BITABLE.equalsIgnoreCase(file.getType()) && reportedBases.add(file.getToken())) {
+                onBaseDiscovered.accept(toRecord(file));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Lists all files directly in one folder, page by page.
+     */
+    private List<ListAllFolderResponse.DriveFile> listFolder(String folderToken)
+    {
+        List<ListAllFolderResponse.DriveFile> allFiles = new ArrayList<>();
         String pageToken = "";
         boolean hasMore;
 
@@ -74,7 +220,7 @@ public class LarkDriveService extends CommonLarkService
                 request.setHeader("Authorization", "Bearer " + tenantAccessToken);
                 request.setHeader("Content-Type", "application/json");
 
-                HttpResponse response = httpClient.execute(request);
+                HttpResponse response = execute(request);
                 String responseBody = EntityUtils.toString(response.getEntity());
 
                 ListAllFolderResponse tableResponse = objectMapper.readValue(responseBody, ListAllFolderResponse.class);
@@ -82,17 +228,7 @@ public class LarkDriveService extends CommonLarkService
                 // 1254002: No more data
                 if (tableResponse.getCode() == 0 || tableResponse.getCode() == 1254002) {
                     if (tableResponse.getFiles() != null) {
-                        List<ListAllFolderResponse.DriveFile> filteredFiles = tableResponse.getFiles().stream()
-                                .filter(file -> file.getType().equalsIgnoreCase("bitable")).toList();
-
-                        for (ListAllFolderResponse.DriveFile file : filteredFiles) {
-                            allTables.add(
-                                    new LarkDatabaseRecord(
-                                            file.getToken(),
-                                            Util.sanitizeGlueRelatedName(file.getName())
-                                    )
-                            );
-                        }
+                        allFiles.addAll(tableResponse.getFiles());
                     }
 
                     pageToken = tableResponse.getNextPageToken();
@@ -110,7 +246,21 @@ public class LarkDriveService extends CommonLarkService
         }
         while (hasMore && pageToken != null && !pageToken.isEmpty());
 
-        logger.info("Retrieved a total of {} tables from folder {}", allTables.size(), folderToken);
-        return allTables;
+        return allFiles;
+    }
+
+    private static LarkDatabaseRecord toRecord(ListAllFolderResponse.DriveFile file)
+    {
+        return new LarkDatabaseRecord(file.getToken(), Util.sanitizeGlueRelatedName(file.getName()));
+    }
+
+    private static ThreadFactory walkThreads()
+    {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "lark-drive-walk-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 }
@@ -0,0 +1,179 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.SecretValue;
+import com.amazonaws.glue.lark.base.crawler.util.Util;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_LARK_HTTP_MAX_CONNECTIONS;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.DEFAULT_LARK_SECRET_CACHE_TTL_SECONDS;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.LARK_APP_KEY_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.LARK_HTTP_MAX_CONNECTIONS_ENV_VAR;
+import static com.amazonaws.glue.lark.base.crawler.LarkBaseCrawlerConstants.LARK_SECRET_CACHE_TTL_ENV_VAR;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The Lark connection state that the crawler handlers of one Lambda container share: a pooled HTTP client, the
+ * Lark app credentials, and the tenant access token.
+ * <p>
+ * {@code MainLarkBaseCrawlerHandler} builds a Lark Base handler and a Lark Drive handler, each with its own
+ * {@link LarkBaseService} and {@link LarkDriveService}. Before, each of those four services opened its own
+ * connections, and {@code HttpClientBuilder}'s default pool allows only two per route. Each service also fetched
+ * its own token, and every handler read the secret again. Services built from one session reuse warm TLS
+ * connections and one token. The secret is read at most once per TTL, so a rotated app secret is picked up
+ * without a cold start.
+ * <p>
+ * The session lives in static state, which Lambda keeps between warm invocations of a container.
+ */
+public final class LarkSession
+{
+    private static final Logger logger = LoggerFactory.getLogger(LarkSession.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // A pooled connection idle for longer than this is checked before reuse, which catches connections Lark
+    // closed while the container was frozen between invocations.
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2_000;
+
+    private static LarkSession containerSession;
+
+    private final HttpClient httpClient;
+    private final Supplier<String> secretLoader;
+    private final long credentialsTtlMillis;
+    private final LongSupplier clock;
+    private final TenantToken tenantToken = new TenantToken();
+
+    private SecretValue credentials;
+    private long credentialsExpiry;
+
+    /**
+     * The tenant access token shared by every service of a session. Guarded by its own monitor.
+     */
+    static final class TenantToken
+    {
+        String value;
+        long expiry;
+
+        boolean isValid(long now)
+        {
+            return value != null && now < expiry;
+        }
+    }
+
+    LarkSession(HttpClient httpClient, Supplier<String> secretLoader, Duration credentialsTtl, LongSupplier clock)
+    {
+        this.httpClient = requireNonNull(httpClient, "httpClient cannot be null");
+        this.secretLoader = requireNonNull(secretLoader, "secretLoader cannot be null");
+        this.credentialsTtlMillis = requireNonNull(credentialsTtl, "credentialsTtl cannot be null").toMillis();
+        this.clock = requireNonNull(clock, "clock cannot be null");
+    }
+
+    /**
+     * Returns the session of this container, creating it on first use from the environment.
+     *
+     * @throws IllegalStateException If the Lark app secret env var is not set
+     */
+    public static synchronized LarkSession forContainer()
+    {
+        if (containerSession == null) {
+            containerSession = fromEnvironment(System::getenv);
+        }
+        return containerSession;
+    }
+
+    /**
+     * Builds a session for the app secret named by the Lark app key env var. The HTTP pool size and the secret's
+     * cache TTL come from their own env vars, and keep their defaults unless set to a positive integer.
+     */
+    static LarkSession fromEnvironment(Function<String, String> environment)
+    {
+        String secretId = environment.apply(LARK_APP_KEY_ENV_VAR);
+        if (secretId == null) {
+            throw new IllegalStateException("Environment variables " + LARK_APP_KEY_ENV_VAR);
+        }
+
+        SecretsManagerClient secretsManager = SecretsManagerClient.create();
+        return new LarkSession(
+                pooledHttpClient(Util.parsePositiveInt(environment.apply(LARK_HTTP_MAX_CONNECTIONS_ENV_VAR), DEFAULT_LARK_HTTP_MAX_CONNECTIONS)),
+                () -> secretsManager.getSecretValue(GetSecretValueRequest.builder().secretId(secretId).build()).secretString(),
+                Duration.ofSeconds(Util.parsePositiveInt(environment.apply(LARK_SECRET_CACHE_TTL_ENV_VAR), DEFAULT_LARK_SECRET_CACHE_TTL_SECONDS)),
+                System::currentTimeMillis);
+    }
+
+    /**
+     * Builds an HTTP client whose pool allows {@code maxConnections} connections to Lark. Every Lark call goes to
+     * the same host, so the per-route limit is the same as the total.
+     */
+    static HttpClient pooledHttpClient(int maxConnections)
+    {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+        return HttpClients.custom().setConnectionManager(connectionManager).build();
+    }
+
+    public HttpClient httpClient()
+    {
+        return httpClient;
+    }
+
+    /**
+     * Returns the Lark app credentials, reading the secret again once the cached value is older than the TTL.
+     * If that read fails, the cached credentials are kept; they are most likely still valid, and the token request
+     * will fail clearly if they are not.
+     */
+    public synchronized SecretValue credentials()
+    {
+        long now = clock.getAsLong();
+        if (credentials != null && now < credentialsExpiry) {
+            return credentials;
+        }
+
+        try {
+            credentials = OBJECT_MAPPER.readValue(secretLoader.get(), SecretValue.class);
+            credentialsExpiry = now + credentialsTtlMillis;
+        }
+        catch (IOException | RuntimeException e) {
+            if (credentials == null) {
+                throw new IllegalStateException("Failed to read the Lark app secret", e);
+            }
+            logger.warn("Failed to refresh the Lark app secret, keeping the cached one: {}", e.getMessage());
+        }
+        return credentials;
+    }
+
+    TenantToken tenantToken()
+    {
+        return tenantToken;
+    }
+}
@@ -0,0 +1,247 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.enums.UITypeEnum;
+import com.amazonaws.glue.lark.base.crawler.model.response.ListFieldResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Field lists and the graph of LOOKUP fields across the bases of one crawl, used both to build each table's
+ * columns and to resolve what a (possibly chained) LOOKUP field finally points at.
+ * <p>
+ * Every table's field list is fetched once per crawl, whether it is first needed for the table's own columns or
+ * as the target of a LOOKUP, and indexed by field ID, so each hop is a map lookup instead of a scan over all
+ * fields. Every (baseId, tableId, fieldId) node a walk passes through is
+ * memoized, so a later LOOKUP into any field already on a resolved chain stops right there instead of
+ * fetching and scanning the same tables again. A circular LOOKUP is detected and memoized as unresolvable
+ * rather than recursing until the stack overflows.
+ * <p>
+ * Nothing here expires: field lists are only current for the crawl that fetched them, so the handler builds
+ * a new graph for every crawl.
+ */
+public class LookupTypeGraph
+{
+    private static final Logger logger = LoggerFactory.getLogger(LookupTypeGraph.class);
+
+    private final BiFunction<String, String, List<ListFieldResponse.FieldItem>> fieldsLoader;
+    // "baseId|tableId" -> the table's fields
+    private final Map<String, CompletableFuture<TableFields>> fieldIndex = new ConcurrentHashMap<>();
+    // "baseId|tableId|fieldId" -> resolution of that field
+    private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * @param fieldsLoader Returns the fields of a (baseId, tableId); normally {@link LarkBaseService#getTableFields}.
+     */
+    public LookupTypeGraph(BiFunction<String, String, List<ListFieldResponse.FieldItem>> fieldsLoader)
+    {
+        this.fieldsLoader = requireNonNull(fieldsLoader, "fieldsLoader cannot be null");
+    }
+
+    /**
+     * What a LOOKUP chain resolves to.
+     *
+     * @param terminal      The first non-LOOKUP field reached, or null when the chain points at a missing field,
+     *                      is circular, or could not be fetched.
+     * @param nestedLookups How many LOOKUP fields the chain passes through after the field being resolved,
+     *                      e.g. 1 for {@code Lookup<Lookup<Text>>}.
+     */
+    public record Resolution(ListFieldResponse.FieldItem terminal, int nestedLookups)
+    {
+        private static final Resolution UNRESOLVABLE = new Resolution(null, 0);
+    }
+
+    /**
+     * Returns the fields of a table, in the order Lark lists them, fetching them only the first time.
+     *
+     * @throws RuntimeException if the fields could not be fetched; nothing is cached in that case.
+     */
+    public List<ListFieldResponse.FieldItem> fields(String baseId, String tableId)
+    {
+        return tableFields(baseId, tableId).fields();
+    }
+
+    /**
+     * Finds a field by ID.
+     *
+     * @return The field, or empty when the table has no such field or its fields could not be fetched.
+     */
+    public Optional<ListFieldResponse.FieldItem> findField(String baseId, String tableId, String fieldId)
+    {
+        try {
+            return Optional.ofNullable(tableFields(baseId, tableId).byId().get(fieldId));
+        }
+        catch (Exception e) {
+            logger.error("Error getting lookup type for fieldId: {} and tableId: {}", fieldId, tableId, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Resolves the LOOKUP field {@code lookupField} of base {@code baseId}, following its target (and the
+     * target's target, for chained LOOKUPs) until a non-LOOKUP field is found.
+     */
+    public Resolution resolve(String baseId, ListFieldResponse.FieldItem lookupField)
+    {
+        Pair<String, String> target = lookupField.getLookupSourceFieldAndTableId();
+        if (target == null) {
+            return Resolution.UNRESOLVABLE;
+        }
+
+        List<String> path = new ArrayList<>();
+        // Whether the field at the same position in path is itself a LOOKUP (every one but possibly the last).
+        List<Boolean> pathIsLookup = new ArrayList<>();
+        Set<String> onPath = new HashSet<>();
+        Resolution beyondPath;
+        boolean memoize = true;
+
+        while (true) {
+            String tableId = target.right();
+            String fieldId = target.left();
+            String nodeKey = baseId + "|" + tableId + "|" + fieldId;
+
+            Resolution memoized = resolutions.get(nodeKey);
+            if (memoized != null) {
+                beyondPath = memoized;
+                break;
+            }
+
+            if (!onPath.add(nodeKey)) {
+                logger.warn("Detected circular LOOKUP reference at field '{}' in table '{}' (base '{}'). "
+                        + "Treating the chain as unresolvable.", fieldId, tableId, baseId);
+                // Every field on a cycle resolves the same way, wherever the walk entered it.
+                for (String cyclicKey : path) {
+                    resolutions.putIfAbsent(cyclicKey, Resolution.UNRESOLVABLE);
+                }
+                return Resolution.UNRESOLVABLE;
+            }
+
+            Optional<ListFieldResponse.FieldItem> field;
+            try {
+                field = Optional.ofNullable(tableFields(baseId, tableId).byId().get(fieldId));
+            }
+            catch (Exception e) {
+                // A failed fetch may well succeed later in the crawl, so don't remember anything on this path.
+                logger.error("Error getting lookup type for fieldId: {} and tableId: {}", fieldId, tableId, e);
+                beyondPath = Resolution.UNRESOLVABLE;
+                memoize = false;
+                break;
+            }
+
+            path.add(nodeKey);
+            if (field.isEmpty()) {
+                pathIsLookup.add(false);
+                beyondPath = Resolution.UNRESOLVABLE;
+                break;
+            }
+
+            if (!field.get().getUIType().equals(UITypeEnum.LOOKUP)) {
+                pathIsLookup.add(false);
+                beyondPath = new Resolution(field.get(), 0);
+                break;
+            }
+
+            pathIsLookup.add(true);
+            target = field.get().getLookupSourceFieldAndTableId();
+            if (target == null) {
+                beyondPath = Resolution.UNRESOLVABLE;
+                break;
+            }
+        }
+
+        // Walk back from the end of the chain, counting the LOOKUPs between each field and the terminal one.
+        Resolution resolution = beyondPath;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            int lookups = resolution.nestedLookups() + (pathIsLookup.get(i) ? 1 : 0);
+            resolution = new Resolution(resolution.terminal(), lookups);
+            if (memoize) {
+                resolutions.putIfAbsent(path.get(i), resolution);
+            }
+        }
+        return resolution;
+    }
+
+    private TableFields tableFields(String baseId, String tableId)
+    {
+        String tableKey = baseId + "|" + tableId;
+        CompletableFuture<TableFields> fields = fieldIndex.get(tableKey);
+        if (fields == null) {
+            // Table tasks of a crawl run in parallel and often need the same table (the target of their LOOKUPs),
+            // so the first caller loads it and the others wait for that load rather than fetching it again. The
+            // load runs outside of any map method: the loader calls Lark, which must not hold a map bin lock.
+            CompletableFuture<TableFields> loading = new CompletableFuture<>();
+            fields = fieldIndex.putIfAbsent(tableKey, loading);
+            if (fields == null) {
+                try {
+                    loading.complete(loadTableFields(baseId, tableId));
+                }
+                catch (RuntimeException e) {
+                    // Not cached: a later caller retries, exactly as before a failed fetch.
+                    fieldIndex.remove(tableKey, loading);
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+                fields = loading;
+            }
+        }
+        try {
+            return fields.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private TableFields loadTableFields(String baseId, String tableId)
+    {
+        List<ListFieldResponse.FieldItem> loaded = List.copyOf(fieldsLoader.apply(baseId, tableId));
+        Map<String, ListFieldResponse.FieldItem> indexed = new HashMap<>();
+        for (ListFieldResponse.FieldItem field : loaded) {
+            if (field.getFieldId() != null) {
+                indexed.putIfAbsent(field.getFieldId(), field);
+            }
+        }
+        return new TableFields(loaded, Collections.unmodifiableMap(indexed));
+    }
+
+    private record TableFields(List<ListFieldResponse.FieldItem> fields, Map<String, ListFieldResponse.FieldItem> byId)
+    {
+    }
+}
@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.CrawlCheckpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps each crawl's checkpoint as one JSON object, {@code <prefix><crawl key>.json}, in an S3 bucket. Suited to
+ * Lambda, where a crawl is resumed by a later invocation that may run in another container.
+ */
+public class S3CrawlCheckpointStore implements CrawlCheckpointStore
+{
+    static final String SCHEME = "s3://";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String prefix;
+
+    public S3CrawlCheckpointStore(S3Client s3Client, String bucket, String prefix)
+    {
+        this.s3Client = requireNonNull(s3Client, "s3Client cannot be null");
+        this.bucket = requireNonNull(bucket, "bucket cannot be null");
+        requireNonNull(prefix, "prefix cannot be null");
+        this.prefix = prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+    }
+
+    @Override
+    public Optional<CrawlCheckpoint> load(String crawlKey)
+    {
+        try {
+            byte[] content = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey(crawlKey))
+                    .build()).asByteArray();
+            return Optional.of(OBJECT_MAPPER.readValue(content, CrawlCheckpoint.class));
+        }
+        catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to read crawl checkpoint " + objectKey(crawlKey), e);
+        }
+    }
+
+    @Override
+    public void save(CrawlCheckpoint checkpoint)
+    {
+        try {
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey(checkpoint.crawlKey()))
+                            .contentType("application/json")
+                            .build(),
+                    RequestBody.fromBytes(OBJECT_MAPPER.writeValueAsBytes(checkpoint)));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to write crawl checkpoint " + objectKey(checkpoint.crawlKey()), e);
+        }
+    }
+
+    @Override
+    public void delete(String crawlKey)
+    {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey(crawlKey))
+                .build());
+    }
+
+    String objectKey(String crawlKey)
+    {
+        return prefix + crawlKey + ".json";
+    }
+}
@@ -0,0 +1,158 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import com.amazonaws.glue.lark.base.crawler.model.LarkDatabaseRecord;
+import com.amazonaws.glue.lark.base.crawler.model.response.ListAllTableResponse;
+import software.amazon.awssdk.services.glue.model.Database;
+import software.amazon.awssdk.services.glue.model.Table;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconciles what is in the Glue Catalog with what is in Lark, for databases and for the tables of one database.
+ * <p>
+ * Each diff indexes one side by name once and then walks the other side once, so it is linear in the number of
+ * databases or tables instead of scanning one list for every item of the other. Results keep the order of their
+ * input lists (Glue order for what is deleted, Lark order for what is created or compared), so a crawl produces
+ * the same requests every time it sees the same catalog.
+ */
+public final class CatalogDiff
+{
+    private CatalogDiff()
+    {
+    }
+
+    /**
+     * A Glue database and the control-table record with the same name.
+     */
+    public record DatabaseMatch(Database glueDatabase, LarkDatabaseRecord larkRecord)
+    {
+    }
+
+    /**
+     * @param toDelete   Glue databases without a control-table record of the same name
+     * @param toCreate   Control-table records without a Glue database of the same name, keyed by database name
+     * @param matched    Every (Glue database, record) pair with the same name, in Glue order and then record order
+     */
+    public record DatabaseDiff(List<Database> toDelete, Map<String, LarkDatabaseRecord> toCreate,
+                               List<DatabaseMatch> matched)
+    {
+    }
+
+    /**
+     * A Lark table and the existing Glue table it was crawled into.
+     */
+    public record TableMatch(ListAllTableResponse.BaseItem larkTable, Table glueTable)
+    {
+    }
+
+    /**
+     * @param toDelete Glue tables whose name no Lark table has (case-insensitively)
+     * @param toCreate Lark tables without a Glue table of the same name
+     * @param matched  Lark tables with a Glue table of the same name, to compare
+     */
+    public record TableDiff(List<Table> toDelete, List<ListAllTableResponse.BaseItem> toCreate, List<TableMatch> matched)
+    {
+    }
+
+    /**
+     * Database names are compared exactly, as Glue stores them.
+     *
+     * @param glueDatabases The crawler's databases in the Glue Catalog
+     * @param larkRecords   The databases listed in the control table
+     */
+    public static DatabaseDiff databases(List<Database> glueDatabases, List<LarkDatabaseRecord> larkRecords)
+    {
+        Map<String, List<LarkDatabaseRecord>> recordsByName = new LinkedHashMap<>();
+        for (LarkDatabaseRecord record : larkRecords) {
+            recordsByName.computeIfAbsent(record.name(), name -> new ArrayList<>()).add(record);
+        }
+
+        List<Database> toDelete = new ArrayList<>();
+        List<DatabaseMatch> matched = new ArrayList<>();
+        Map<String, Database> glueByName = new HashMap<>();
+        for (Database database : glueDatabases) {
+            glueByName.putIfAbsent(database.name(), database);
+            List<LarkDatabaseRecord> records = recordsByName.get(database.name());
+            if (records == null) {
+                toDelete.add(database);
+                continue;
+            }
+            for (LarkDatabaseRecord record : records) {
+                matched.add(new DatabaseMatch(database, record));
+            }
+        }
+
+        Map<String, LarkDatabaseRecord> toCreate = new LinkedHashMap<>();
+        for (LarkDatabaseRecord record : larkRecords) {
+            if (!glueByName.containsKey(record.name())) {
+                // The last record of a name wins, as the Glue database can only be created once.
+                toCreate.put(record.name(), record);
+            }
+        }
+        return new DatabaseDiff(toDelete, toCreate, matched);
+    }
+
+    /**
+     * Table names are compared case-insensitively. The Lark tables must already have unique names, see
+     * {@link Util#disambiguateDuplicateTableNames}; if Glue has several tables differing only in case, the first is
+     * the one compared.
+     *
+     * @param glueTables The tables of the database in the Glue Catalog
+     * @param larkTables The tables of the base in Lark that are crawled
+     */
+    public static TableDiff tables(List<Table> glueTables, List<ListAllTableResponse.BaseItem> larkTables)
+    {
+        Map<String, ListAllTableResponse.BaseItem> larkByName = new HashMap<>();
+        for (ListAllTableResponse.BaseItem larkTable : larkTables) {
+            larkByName.putIfAbsent(larkTable.getName().toLowerCase(), larkTable);
+        }
+
+        List<Table> toDelete = new ArrayList<>();
+        Map<String, Table> glueByName = new HashMap<>();
+        for (Table glueTable : glueTables) {
+            String nameLower = glueTable.name().toLowerCase();
+            if (larkByName.containsKey(nameLower)) {
+                glueByName.putIfAbsent(nameLower, glueTable);
+            }
+            else {
+                toDelete.add(glueTable);
+            }
+        }
+
+        List<ListAllTableResponse.BaseItem> toCreate = new ArrayList<>();
+        List<TableMatch> matched = new ArrayList<>();
+        for (ListAllTableResponse.BaseItem larkTable : larkTables) {
+            Table glueTable = glueByName.get(larkTable.getName().toLowerCase());
+            if (glueTable == null) {
+                toCreate.add(larkTable);
+            }
+            else {
+                matched.add(new TableMatch(larkTable, glueTable));
+            }
+        }
+        return new TableDiff(toDelete, toCreate, matched);
+    }
+}
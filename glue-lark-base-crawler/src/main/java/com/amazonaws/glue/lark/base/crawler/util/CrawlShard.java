@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import java.util.Locale;
+
+/**
+ * The slice of a crawl's databases that one invocation handles, so that several invocations can crawl one very
+ * large source at the same time.
+ * <p>
+ * A database belongs to shard {@code floorMod(hash(lowercased name), count)}. Glue and Lark databases are matched
+ * by name, so a Lark record and the Glue database of the same name always land in the same shard, including a Glue
+ * database whose Lark record is gone and must be deleted. No database is ever written by two shards.
+ * {@link String#hashCode()} is specified by the JLS, so every invocation computes the same assignment.
+ *
+ * @param index This invocation's shard, from 0 to {@code count - 1}
+ * @param count The number of shards the crawl is split into
+ */
+public record CrawlShard(int index, int count)
+{
+    public static final CrawlShard ALL = new CrawlShard(0, 1);
+
+    public CrawlShard
+    {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid crawl shard " + index + " of " + count);
+        }
+    }
+
+    /**
+     * @param index The shard index from the payload, or null
+     * @param count The shard count from the payload, or null
+     * @return the shard, or {@link #ALL} if the payload does not ask for sharding
+     */
+    public static CrawlShard of(Integer index, Integer count)
+    {
+        if (index == null && count == null) {
+            return ALL;
+        }
+        if (index == null || count == null) {
+            throw new IllegalArgumentException("shardIndex and shardCount must be set together");
+        }
+        return new CrawlShard(index, count);
+    }
+
+    /**
+     * @return true if the database of this name is crawled by this shard.
+     */
+    public boolean owns(String databaseName)
+    {
+        return count == 1 || Math.floorMod(databaseName.toLowerCase(Locale.ROOT).hashCode(), count) == index;
+    }
+
+    /**
+     * @return an identifier of the shard, e.g. {@code shard-2-of-8}.
+     */
+    public String id()
+    {
+        return "shard-" + index + "-of-" + count;
+    }
+}
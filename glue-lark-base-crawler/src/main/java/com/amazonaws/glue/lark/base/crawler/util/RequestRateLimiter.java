@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out requests to at most {@code permitsPerSecond}, shared by every thread of a crawl.
+ * <p>
+ * Each {@link #acquire()} reserves the next free slot under a lock and then sleeps until that slot outside of it,
+ * so waiting threads neither hold the lock nor get reordered. There is no burst allowance: the crawler's calls
+ * are all of similar cost and Lark and Glue both throttle on sustained rate, so even spacing is what keeps a
+ * parallel crawl below their limits. The crawler has no Guava, otherwise this would be its RateLimiter.
+ */
+public final class RequestRateLimiter
+{
+    /**
+     * A limiter that never blocks.
+     */
+    public static final RequestRateLimiter UNLIMITED = new RequestRateLimiter(0);
+
+    private final long intervalNanos;
+    private long nextFreeSlotNanos;
+
+    /**
+     * @param permitsPerSecond Maximum sustained rate; zero or less means unlimited.
+     */
+    public RequestRateLimiter(double permitsPerSecond)
+    {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.nextFreeSlotNanos = System.nanoTime();
+    }
+
+    /**
+     * Blocks until the caller may make one request.
+     */
+    public void acquire()
+    {
+        if (intervalNanos == 0) {
+            return;
+        }
+
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeSlotNanos);
+            nextFreeSlotNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a request slot", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import com.amazonaws.glue.lark.base.crawler.model.LarkDatabaseRecord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A database's whitelist/blacklist of Lark table IDs (the control table's "whitelist_tables"/"blacklist_tables"
+ * columns), compiled once into a matcher. Same design as the connector's {@code TableAccessFilter}, which does the
+ * same for its schema-qualified table names.
+ * <p>
+ * The blacklist always wins; the whitelist only restricts a database that has at least one whitelist entry.
+ * Plain IDs are matched exactly through a hash set. An entry may also be a glob ({@code *} for any run of
+ * characters, {@code ?} for one character); all globs of a list are compiled into a single pattern that is only
+ * tried when the plain IDs do not match. Lark table IDs never contain {@code *} or {@code ?}, so no existing entry
+ * changes meaning.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class TableAccessFilter
+{
+    private static final Rules NO_RULES = new Rules(Set.of(), null);
+
+    private final Rules whitelist;
+    private final Rules blacklist;
+
+    private TableAccessFilter(Rules whitelist, Rules blacklist)
+    {
+        this.whitelist = whitelist;
+        this.blacklist = blacklist;
+    }
+
+    /**
+     * @param whitelistTableIds Table IDs (or globs) to exclusively allow; null or empty allows every table.
+     * @param blacklistTableIds Table IDs (or globs) to always exclude; may be null or empty.
+     */
+    public static TableAccessFilter compile(Collection<String> whitelistTableIds, Collection<String> blacklistTableIds)
+    {
+        return new TableAccessFilter(compileRules(whitelistTableIds), compileRules(blacklistTableIds));
+    }
+
+    /**
+     * @return the filter for the whitelist/blacklist of one control-table record.
+     */
+    public static TableAccessFilter of(LarkDatabaseRecord record)
+    {
+        return compile(record.whitelistTableIds(), record.blacklistTableIds());
+    }
+
+    /**
+     * @param tableId The Lark table ID, matched case-sensitively.
+     * @return true if the table may be crawled.
+     */
+    public boolean isAllowed(String tableId)
+    {
+        if (blacklist.matches(tableId)) {
+            return false;
+        }
+        return whitelist == NO_RULES || whitelist.matches(tableId);
+    }
+
+    private static Rules compileRules(Collection<String> entries)
+    {
+        if (entries == null || entries.isEmpty()) {
+            return NO_RULES;
+        }
+
+        Set<String> ids = new HashSet<>();
+        List<String> globs = new ArrayList<>();
+        for (String entry : entries) {
+            if (entry.indexOf('*') >= 0 || entry.indexOf('?') >= 0) {
+                globs.add(globToRegex(entry));
+            }
+            else {
+                ids.add(entry);
+            }
+        }
+        return new Rules(Set.copyOf(ids), globs.isEmpty() ? null : Pattern.compile(String.join("|", globs)));
+    }
+
+    private static String globToRegex(String glob)
+    {
+        StringBuilder regex = new StringBuilder("(?:");
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            }
+            else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.append(')').toString();
+    }
+
+    /**
+     * @param ids   Plain table IDs
+     * @param globs All glob entries as one alternation, or null if there are none
+     */
+    private record Rules(Set<String> ids, Pattern globs)
+    {
+        boolean matches(String tableId)
+        {
+            return tableId != null && (ids.contains(tableId) || (globs != null && globs.matcher(tableId).matches()));
+        }
+    }
+}
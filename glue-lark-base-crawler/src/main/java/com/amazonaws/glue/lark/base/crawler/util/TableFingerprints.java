@@ -0,0 +1,172 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import com.amazonaws.glue.lark.base.crawler.model.response.ListAllTableResponse;
+import software.amazon.awssdk.services.glue.model.Column;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The two Glue table parameters that let a crawl skip tables that have not changed in Lark since the last one.
+ * <p>
+ * {@value #SCHEMA_FINGERPRINT_PARAMETER} is a hash of what the crawler wrote for the table: its name and, per
+ * column, the name, Glue type and comment (which carries the Lark field ID, field name and the Lark type,
+ * including the resolved chain of a LOOKUP). Two crawls that would write the same table produce the same
+ * fingerprint.
+ * <p>
+ * {@value #REVISION_KEY_PARAMETER} is a hash of the Lark table revisions the table was built from, as reported by
+ * the (cheap, one call per base) list-tables API. A table without LOOKUP columns only depends on its own revision;
+ * a table with LOOKUP columns also depends on what its lookups point at, so its key covers the revision of every
+ * table in the base. Whenever a revision is missing no key is produced, and the table is always re-fetched. The
+ * key is salted with {@link #CRAWLER_SCHEMA_VERSION}, so a crawler release that writes tables differently
+ * re-fetches every table once instead of trusting keys stored by the previous release.
+ * <p>
+ * A crawl re-fetches a table's fields only when its current revision key differs from the stored one, so an
+ * unchanged base costs one list-tables call instead of one field listing per table.
+ */
+public final class TableFingerprints
+{
+    public static final String SCHEMA_FINGERPRINT_PARAMETER = "larkSchemaFingerprint";
+    public static final String REVISION_KEY_PARAMETER = "larkRevisionKey";
+
+    /**
+     * Version of what the crawler writes for a Lark table. Bump it with any change that makes the crawler write a
+     * different table input (columns, types, comments or parameters) for a Lark table whose revision is unchanged.
+     */
+    static final int CRAWLER_SCHEMA_VERSION = 1;
+
+    private static final String LOOKUP_TYPE_MARKER = "/LarkBaseFieldType=Lookup";
+    // 128 bits of SHA-256: far beyond any chance of collision between two versions of one table, and short.
+    private static final int HASH_BYTES = 16;
+
+    private TableFingerprints()
+    {
+    }
+
+    /**
+     * @param tableName The Glue table name
+     * @param columns   The table's columns, in order
+     * @return the schema fingerprint of a table with this name and these columns
+     */
+    public static String schemaFingerprint(String tableName, Collection<Column> columns)
+    {
+        StringBuilder canonical = new StringBuilder(tableName);
+        for (Column column : columns) {
+            canonical.append('\n').append(column.name())
+                    .append('\u0000').append(column.type())
+                    .append('\u0000').append(column.comment());
+        }
+        return hash(canonical.toString());
+    }
+
+    /**
+     * @param columns The columns of a table built (or previously written) by the crawler
+     * @return true if any column is a LOOKUP, i.e. the table's schema depends on other tables of its base
+     */
+    public static boolean dependsOnOtherTables(Collection<Column> columns)
+    {
+        for (Column column : columns) {
+            if (column.comment() != null && column.comment().contains(LOOKUP_TYPE_MARKER)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param baseTables Every table listed for one base, before whitelist/blacklist filtering: a LOOKUP may point
+     *                   at a table that is not crawled itself, and its revision still counts.
+     * @return the revisions of the base's tables, to compute revision keys from
+     */
+    public static Revisions revisions(List<ListAllTableResponse.BaseItem> baseTables)
+    {
+        Map<String, String> byTableId = new HashMap<>();
+        boolean complete = true;
+        for (ListAllTableResponse.BaseItem table : baseTables) {
+            if (table.getTableId() == null || table.getRevision() == null || table.getRevision().isBlank()) {
+                complete = false;
+                continue;
+            }
+            byTableId.put(table.getTableId(), table.getRevision());
+        }
+
+        String baseKey = null;
+        if (complete) {
+            StringBuilder canonical = new StringBuilder();
+            new TreeMap<>(byTableId).forEach((tableId, revision) ->
+                    canonical.append(tableId).append('=').append(revision).append('\n'));
+            baseKey = canonical.toString();
+        }
+        return new Revisions(Map.copyOf(byTableId), baseKey);
+    }
+
+    /**
+     * The revisions of one base's tables, as listed at the start of processing that base.
+     *
+     * @param byTableId Revision of each table that reported one
+     * @param baseKey   All tables' revisions in canonical form, or null if any table did not report one
+     */
+    public record Revisions(Map<String, String> byTableId, String baseKey)
+    {
+        /**
+         * @param tableId              The Lark table ID
+         * @param dependsOnOtherTables Whether the table has LOOKUP columns, see {@link #dependsOnOtherTables}
+         * @return the revision key of the table, or null if it cannot be determined (and the table must be fetched)
+         */
+        public String keyFor(String tableId, boolean dependsOnOtherTables)
+        {
+            return keyFor(tableId, dependsOnOtherTables, CRAWLER_SCHEMA_VERSION);
+        }
+
+        String keyFor(String tableId, boolean dependsOnOtherTables, int crawlerSchemaVersion)
+        {
+            String revision = byTableId.get(tableId);
+            if (revision == null) {
+                return null;
+            }
+            String salt = "crawler-schema-v" + crawlerSchemaVersion + '\n';
+            if (!dependsOnOtherTables) {
+                return hash(salt + tableId + '=' + revision);
+            }
+            return baseKey == null ? null : hash(salt + "lookups\n" + baseKey);
+        }
+    }
+
+    private static String hash(String canonical)
+    {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, HASH_BYTES);
+        }
+        catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256.
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -239,6 +239,12 @@ public final class Util
         ));
 
         paramsMap.putAll(additionalParameters);
+        // See TableFingerprints: lets the next crawl skip this table while it is unchanged in Lark.
+        paramsMap.put(TableFingerprints.SCHEMA_FINGERPRINT_PARAMETER,
+                TableFingerprints.schemaFingerprint(params.getLarkTableName(), columns));
+        if (params.getLarkRevisionKey() != null) {
+            paramsMap.put(TableFingerprints.REVISION_KEY_PARAMETER, params.getLarkRevisionKey());
+        }
 
         return TableInput.builder()
                 .name(params.getLarkTableName())
@@ -320,6 +326,61 @@ public final class Util
         return glueDatabaseNameSet.size() != glueDatabaseNames.size();
     }
 
+    /**
+     * Parses an integer setting, e.g. from an environment variable.
+     *
+     * @param rawValue     The raw setting, possibly null
+     * @param defaultValue Returned if the setting is unset, not an integer, or not positive
+     * @return the setting if it is a positive integer, otherwise {@code defaultValue}
+     */
+    public static int parsePositiveInt(String rawValue, int defaultValue)
+    {
+        if (rawValue == null || rawValue.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(rawValue.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        }
+        catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Same as {@link #parsePositiveInt}, for settings that may not fit an int.
+     */
+    public static long parsePositiveLong(String rawValue, long defaultValue)
+    {
+        if (rawValue == null || rawValue.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(rawValue.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        }
+        catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Same as {@link #parsePositiveInt}, for settings that may be fractional, such as rates.
+     */
+    public static double parsePositiveDouble(String rawValue, double defaultValue)
+    {
+        if (rawValue == null || rawValue.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            double parsed = Double.parseDouble(rawValue.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        }
+        catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     public static String sanitizeGlueRelatedName(String tableName)
     {
         return tableName.toLowerCase().replaceAll("[^a-zA-Z0-9$]", "_");
@@ -19,19 +19,29 @@
  */
 package com.amazonaws.glue.lark.base.crawler;
 
+import com.amazonaws.glue.lark.base.crawler.model.CrawlCheckpoint;
+import com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome;
 import com.amazonaws.glue.lark.base.crawler.model.LarkDatabaseRecord;
 import com.amazonaws.glue.lark.base.crawler.model.enums.UITypeEnum;
 import com.amazonaws.glue.lark.base.crawler.model.response.ListAllTableResponse;
 import com.amazonaws.glue.lark.base.crawler.model.response.ListFieldResponse;
+import com.amazonaws.glue.lark.base.crawler.service.FileCrawlCheckpointStore;
 import com.amazonaws.glue.lark.base.crawler.service.GlueCatalogService;
 import com.amazonaws.glue.lark.base.crawler.service.LarkBaseService;
 import com.amazonaws.glue.lark.base.crawler.service.LarkDriveService;
 import com.amazonaws.glue.lark.base.crawler.service.STSService;
+import com.amazonaws.glue.lark.base.crawler.util.CrawlShard;
+import com.amazonaws.glue.lark.base.crawler.util.TableFingerprints;
 import com.amazonaws.glue.lark.base.crawler.util.Util;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -47,6 +57,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -69,6 +80,9 @@ public class LarkBaseCrawlerHandlerTest {
 
     private LarkBaseCrawlerHandler handler;
 
+    @Rule
+    public TemporaryFolder checkpointFolder = new TemporaryFolder();
+
     // Payload input yang akan digunakan di banyak tes
     private final Map<String, Object> payload = new HashMap<>() {{
         put("larkBaseDataSourceId", "baseDs123");
@@ -107,14 +121,15 @@ public class LarkBaseCrawlerHandlerTest {
                         "larkBaseId", "dbId1",
                         "classification", "lark-base-flag",
                         "larkBaseDataSourceId", "baseDs123",
-                        "larkTableDataSourceId", "tableDs456"
+                        "larkTableDataSourceId", "tableDs456",
+                        TableFingerprints.SCHEMA_FINGERPRINT_PARAMETER, TableFingerprints.schemaFingerprint("table_name", Collections.emptyList())
                 ))
                 .tableType("LARK_BASE_TABLE")
                 .build();
 
         // Mock pemanggilan service
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
         when(mockGlueCatalogService.getTables("db_name")).thenReturn(Collections.singletonList(glueTable));
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(Collections.singletonList(larkTable));
         when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.emptyList());
@@ -153,7 +168,7 @@ public class LarkBaseCrawlerHandlerTest {
         ListAllTableResponse.BaseItem larkTable2 = ListAllTableResponse.BaseItem.builder().tableId("tableId2").name("Report A").build();
 
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
         when(mockGlueCatalogService.getTables("db_name")).thenReturn(Collections.emptyList());
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(java.util.Arrays.asList(larkTable1, larkTable2));
         when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.emptyList());
@@ -193,7 +208,8 @@ public class LarkBaseCrawlerHandlerTest {
                 "larkBaseId", "dbId1",
                 "classification", "lark-base-flag",
                 "larkBaseDataSourceId", "baseDs123",
-                "larkTableDataSourceId", "tableDs456"
+                "larkTableDataSourceId", "tableDs456",
+                TableFingerprints.SCHEMA_FINGERPRINT_PARAMETER, TableFingerprints.schemaFingerprint("table_name", columns)
         );
         Table glueTable = Table.builder().name("table_name").databaseName("db_name").storageDescriptor(sd).parameters(params).tableType("LARK_BASE_TABLE").build();
 
@@ -201,7 +217,7 @@ public class LarkBaseCrawlerHandlerTest {
 
         // Mock pemanggilan service
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
         when(mockGlueCatalogService.getTables("db_name")).thenReturn(Collections.singletonList(glueTable));
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(Collections.singletonList(larkTable));
         when(mockLarkBaseService.getTableFields("dbId1", "tableId1")).thenReturn(Collections.singletonList(larkField));
@@ -216,6 +232,71 @@ public class LarkBaseCrawlerHandlerTest {
         verify(mockGlueCatalogService, never()).batchCreateDatabase(any());
     }
 
+    @Test
+    public void handleRequest_unchangedRevision_skipsFetchingTheTablesFields() {
+        LarkDatabaseRecord larkDb = new LarkDatabaseRecord("dbId1", "db_name");
+        Database glueDb = Database.builder().name("db_name")
+                .locationUri("lark-base-flag/CrawlingMethod=LarkBase/DataSource=baseDs123:tableDs456/Base=dbId1").build();
+        ListAllTableResponse.BaseItem larkTable = ListAllTableResponse.BaseItem.builder().tableId("tableId1").revision("7").name("table_name").build();
+        String revisionKey = TableFingerprints.revisions(List.of(larkTable)).keyFor("tableId1", false);
+
+        when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getTables("db_name")).thenReturn(Collections.singletonList(crawledTextTable(revisionKey)));
+        when(mockLarkBaseService.listTables("dbId1")).thenReturn(Collections.singletonList(larkTable));
+
+        assertEquals("Success", handler.handleRequest(payload, mockContext));
+
+        verify(mockLarkBaseService, never()).getTableFields(anyString(), anyString());
+        verify(mockGlueCatalogService, never()).batchUpdateTable(any());
+    }
+
+    @Test
+    public void handleRequest_movedRevisionWithSameSchema_refetchesAndStoresTheNewRevisionKey() {
+        LarkDatabaseRecord larkDb = new LarkDatabaseRecord("dbId1", "db_name");
+        Database glueDb = Database.builder().name("db_name")
+                .locationUri("lark-base-flag/CrawlingMethod=LarkBase/DataSource=baseDs123:tableDs456/Base=dbId1").build();
+        ListAllTableResponse.BaseItem previous = ListAllTableResponse.BaseItem.builder().tableId("tableId1").revision("7").name("table_name").build();
+        ListAllTableResponse.BaseItem larkTable = ListAllTableResponse.BaseItem.builder().tableId("tableId1").revision("8").name("table_name").build();
+        ListFieldResponse.FieldItem larkField = ListFieldResponse.FieldItem.builder().fieldName("col1").uiType("Text").fieldId("f1").build();
+
+        when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getTables("db_name")).thenReturn(Collections.singletonList(
+                crawledTextTable(TableFingerprints.revisions(List.of(previous)).keyFor("tableId1", false))));
+        when(mockLarkBaseService.listTables("dbId1")).thenReturn(Collections.singletonList(larkTable));
+        when(mockLarkBaseService.getTableFields("dbId1", "tableId1")).thenReturn(Collections.singletonList(larkField));
+
+        assertEquals("Success", handler.handleRequest(payload, mockContext));
+
+        org.mockito.ArgumentCaptor<Map<String, List<TableInput>>> captor = org.mockito.ArgumentCaptor.forClass(Map.class);
+        verify(mockGlueCatalogService, times(1)).batchUpdateTable(captor.capture());
+        TableInput updated = captor.getValue().get("db_name").get(0);
+        assertEquals(TableFingerprints.revisions(List.of(larkTable)).keyFor("tableId1", false),
+                updated.parameters().get(TableFingerprints.REVISION_KEY_PARAMETER));
+    }
+
+    private static Table crawledTextTable(String revisionKey) {
+        List<Column> columns = Collections.singletonList(Column.builder().name("col1").type("string").comment("LarkBaseId=dbId1/LarkBaseTableId=tableId1/LarkBaseFieldId=f1/LarkBaseFieldName=col1/LarkBaseFieldType=Text").build());
+        Map<String, String> params = new HashMap<>(Map.of(
+                "crawlingMethod", "LarkBase",
+                "larkTableId", "tableId1",
+                "larkBaseId", "dbId1",
+                "classification", "lark-base-flag",
+                "larkBaseDataSourceId", "baseDs123",
+                "larkTableDataSourceId", "tableDs456",
+                TableFingerprints.SCHEMA_FINGERPRINT_PARAMETER, TableFingerprints.schemaFingerprint("table_name", columns),
+                TableFingerprints.REVISION_KEY_PARAMETER, revisionKey));
+        return Table.builder().name("table_name").databaseName("db_name")
+                .storageDescriptor(StorageDescriptor.builder()
+                        .location("lark-base-flag/CrawlingMethod=LarkBase/DataSource=baseDs123:tableDs456/Base=dbId1/Table=tableId1")
+                        .columns(columns)
+                        .build())
+                .parameters(params)
+                .tableType("LARK_BASE_TABLE")
+                .build();
+    }
+
     @Test
     public void testGetCrawlingSource() {
         handler.handleRequest(payload, mockContext); // Panggil untuk set properti
@@ -229,7 +310,7 @@ public class LarkBaseCrawlerHandlerTest {
         ListAllTableResponse.BaseItem larkTable = ListAllTableResponse.BaseItem.builder().tableId("tableId1").name("new_table").build();
 
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList()); // Glue kosong
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList()); // Glue kosong
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(Collections.singletonList(larkTable));
         when(mockLarkBaseService.getTableFields("dbId1", "tableId1")).thenReturn(Collections.emptyList());
 
@@ -252,7 +333,7 @@ public class LarkBaseCrawlerHandlerTest {
         ListAllTableResponse.BaseItem larkTable2 = ListAllTableResponse.BaseItem.builder().tableId("tableId2").name("Report A").build();
 
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(java.util.Arrays.asList(larkTable1, larkTable2));
         when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.emptyList());
 
@@ -280,7 +361,7 @@ public class LarkBaseCrawlerHandlerTest {
         ListAllTableResponse.BaseItem badTable = ListAllTableResponse.BaseItem.builder().tableId("tableId2").name("bad_table").build();
 
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(java.util.Arrays.asList(goodTable, badTable));
         when(mockLarkBaseService.getTableFields("dbId1", "tableId1")).thenReturn(Collections.emptyList());
         when(mockLarkBaseService.getTableFields("dbId1", "tableId2")).thenThrow(new RuntimeException("The role has no permissions."));
@@ -304,7 +385,7 @@ public class LarkBaseCrawlerHandlerTest {
         ListAllTableResponse.BaseItem blacklistedTable = ListAllTableResponse.BaseItem.builder().tableId("tableId2").name("blacklisted_table").build();
 
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(java.util.List.of(allowedTable, blacklistedTable));
         when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.emptyList());
 
@@ -328,7 +409,7 @@ public class LarkBaseCrawlerHandlerTest {
         ListAllTableResponse.BaseItem otherTable = ListAllTableResponse.BaseItem.builder().tableId("tableId2").name("other_table").build();
 
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(java.util.List.of(whitelistedTable, otherTable));
         when(mockLarkBaseService.getTableFields(anyString(), anyString())).thenReturn(Collections.emptyList());
 
@@ -356,7 +437,7 @@ public class LarkBaseCrawlerHandlerTest {
         ListAllTableResponse.BaseItem larkTable = ListAllTableResponse.BaseItem.builder().tableId("tableId1").name("now_blacklisted_table").build();
 
         when(mockLarkBaseService.getTableRecords(anyString(), anyString())).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
         when(mockGlueCatalogService.getTables("db_name")).thenReturn(Collections.singletonList(glueTable));
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(Collections.singletonList(larkTable));
 
@@ -375,7 +456,7 @@ public class LarkBaseCrawlerHandlerTest {
                 .locationUri("lark-base-flag/CrawlingMethod=LarkBase/DataSource=baseDs123:tableDs456/Base=dbId1").build();
 
         when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.emptyList());
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
 
         String result = handler.handleRequest(payload, mockContext);
         assertEquals("Success", result);
@@ -390,7 +471,7 @@ public class LarkBaseCrawlerHandlerTest {
         Table glueTable = Table.builder().name("table_to_delete").databaseName("db_name").build();
 
         when(mockLarkBaseService.getTableRecords(anyString(), anyString())).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
         when(mockGlueCatalogService.getTables("db_name")).thenReturn(Collections.singletonList(glueTable));
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(Collections.emptyList()); // Lark tidak punya tabel
 
@@ -417,7 +498,7 @@ public class LarkBaseCrawlerHandlerTest {
         ListFieldResponse.FieldItem newField = ListFieldResponse.FieldItem.builder().fieldName("new_col").uiType("Text").fieldId("field1").build();
 
         when(mockLarkBaseService.getTableRecords(anyString(), anyString())).thenReturn(Collections.singletonList(larkDb));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.singletonList(glueDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.singletonList(glueDb));
         when(mockGlueCatalogService.getTables("db_name")).thenReturn(Collections.singletonList(glueTable));
         when(mockLarkBaseService.listTables("dbId1")).thenReturn(Collections.singletonList(larkTable));
         when(mockLarkBaseService.getTableFields("dbId1", "tableId1")).thenReturn(Collections.singletonList(newField));
@@ -429,9 +510,13 @@ public class LarkBaseCrawlerHandlerTest {
     }
 
     @Test
-    public void testGetFormulaOrLookupFieldType_recursiveLookup() throws Exception {
-        java.lang.reflect.Method method = BaseLarkBaseCrawlerHandler.class.getDeclaredMethod("getFormulaOrLookupFieldType", ListFieldResponse.FieldItem.class, String.class);
+    public void testResolveColumnTypes_recursiveLookup() throws Exception {
+        java.lang.reflect.Method method = BaseLarkBaseCrawlerHandler.class.getDeclaredMethod("resolveColumnTypes", ListFieldResponse.FieldItem.class, String.class);
         method.setAccessible(true);
+        java.lang.reflect.Method glueType = method.getReturnType().getDeclaredMethod("glueCatalogType");
+        java.lang.reflect.Method larkType = method.getReturnType().getDeclaredMethod("larkBaseColumnType");
+        glueType.setAccessible(true);
+        larkType.setAccessible(true);
 
         // Gunakan builder, bukan mock, untuk kelas final
         ListFieldResponse.FieldItem initialLookup = ListFieldResponse.FieldItem.builder().uiType("Lookup").property(Map.of("target_field", "field2", "filter_info", Map.of("target_table", "table2"))).build();
@@ -441,8 +526,143 @@ public class LarkBaseCrawlerHandlerTest {
         when(mockLarkBaseService.getTableFields("baseId", "table2")).thenReturn(Collections.singletonList(intermediateLookup));
         when(mockLarkBaseService.getTableFields("baseId", "table3")).thenReturn(Collections.singletonList(finalText));
 
-        String result = (String) method.invoke(handler, initialLookup, "baseId");
+        Object result = method.invoke(handler, initialLookup, "baseId");
+
+        assertEquals(UITypeEnum.LOOKUP.getGlueCatalogType("string"), glueType.invoke(result));
+        assertEquals("Lookup<Lookup<Text>>", larkType.invoke(result));
+    }
+
+    @Test
+    public void testHandleRequest_lookupColumnsIntoOneTable_fetchEachTablesFieldsOncePerCrawl() {
+        // Twenty LOOKUP columns of "facts" point at the same "dim" field, and "dim" is crawled itself too.
+        LarkDatabaseRecord larkDb = new LarkDatabaseRecord("dbId1", "new_db");
+        ListAllTableResponse.BaseItem factTable = ListAllTableResponse.BaseItem.builder().tableId("facts").name("facts").build();
+        ListAllTableResponse.BaseItem dimTable = ListAllTableResponse.BaseItem.builder().tableId("dim").name("dim").build();
+        List<ListFieldResponse.FieldItem> factFields = new java.util.ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            factFields.add(ListFieldResponse.FieldItem.builder().fieldName("lookup" + i).fieldId("fld" + i).uiType("Lookup")
+                    .property(Map.of("target_field", "dimName", "filter_info", Map.of("target_table", "dim"))).build());
+        }
+        ListFieldResponse.FieldItem dimName = ListFieldResponse.FieldItem.builder().fieldName("name").fieldId("dimName").uiType("Text").build();
+
+        when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(Collections.singletonList(larkDb));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
+        when(mockLarkBaseService.listTables("dbId1")).thenReturn(List.of(factTable, dimTable));
+        when(mockLarkBaseService.getTableFields("dbId1", "facts")).thenReturn(factFields);
+        when(mockLarkBaseService.getTableFields("dbId1", "dim")).thenReturn(Collections.singletonList(dimName));
+
+        assertEquals("Success", handler.handleRequest(payload, mockContext));
 
-        assertEquals("string", result);
+        verify(mockLarkBaseService, times(1)).getTableFields("dbId1", "facts");
+        verify(mockLarkBaseService, times(1)).getTableFields("dbId1", "dim");
+        verify(mockGlueCatalogService, times(1)).batchCreateTable(any());
+    }
+
+    @Test
+    public void testHandleRequest_shardedPayload_crawlsOnlyTheShardsDatabases() {
+        // "db_a" hashes to shard 0 of 2, "db_b" to shard 1.
+        Map<String, Object> shardPayload = new HashMap<>(payload);
+        shardPayload.put("shardIndex", 1);
+        shardPayload.put("shardCount", 2);
+        when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456"))
+                .thenReturn(List.of(new LarkDatabaseRecord("idA", "db_a"), new LarkDatabaseRecord("idB", "db_b")));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
+        when(mockLarkBaseService.listTables("idB")).thenReturn(Collections.emptyList());
+
+        assertEquals("Success", handler.handleRequest(shardPayload, mockContext));
+
+        verify(mockGlueCatalogService).batchCreateDatabase(Map.of("db_b",
+                Util.constructDatabaseLocationURI("LarkBase", "baseDs123:tableDs456", "idB")));
+        verify(mockLarkBaseService, never()).listTables("idA");
+    }
+
+    @Test
+    public void testHandleRequest_checkpointedCrawl_skipsCompletedDatabasesAndClearsTheCheckpoint() {
+        FileCrawlCheckpointStore store = new FileCrawlCheckpointStore(checkpointFolder.getRoot().toPath());
+        String crawlKey = CrawlCheckpoint.keyFor("LarkBase", "baseDs123:tableDs456", CrawlShard.ALL);
+        store.save(new CrawlCheckpoint(crawlKey, System.currentTimeMillis(), Set.of("db_a")));
+        LarkBaseCrawlerHandler checkpointedHandler = new LarkBaseCrawlerHandler(
+                mockGlueCatalogService, mockLarkBaseService, mockLarkDriveService, mockStsService, store);
+
+        when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456"))
+                .thenReturn(List.of(new LarkDatabaseRecord("idA", "db_a"), new LarkDatabaseRecord("idB", "db_b")));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(List.of(
+                Database.builder().name("db_a").locationUri(Util.constructDatabaseLocationURI("LarkBase", "baseDs123:tableDs456", "idA")).build(),
+                Database.builder().name("db_b").locationUri(Util.constructDatabaseLocationURI("LarkBase", "baseDs123:tableDs456", "idB")).build()));
+        when(mockGlueCatalogService.getTables("db_b")).thenReturn(Collections.emptyList());
+        when(mockLarkBaseService.listTables("idB")).thenReturn(Collections.emptyList());
+
+        assertEquals("Success", checkpointedHandler.handleRequest(payload, mockContext));
+
+        verify(mockGlueCatalogService, never()).getTables("db_a");
+        verify(mockLarkBaseService, never()).listTables("idA");
+        assertTrue(store.load(crawlKey).isEmpty());
+    }
+
+    @Test
+    public void testHandleRequest_checkpointedCrawl_doesNotCheckpointDatabasesWithFailedTasksOrWrites() {
+        FileCrawlCheckpointStore store = spy(new FileCrawlCheckpointStore(checkpointFolder.getRoot().toPath()));
+        LarkBaseCrawlerHandler checkpointedHandler = new LarkBaseCrawlerHandler(
+                mockGlueCatalogService, mockLarkBaseService, mockLarkDriveService, mockStsService, store);
+
+        when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456")).thenReturn(List.of(
+                new LarkDatabaseRecord("idA", "db_a"), new LarkDatabaseRecord("idB", "db_b"),
+                new LarkDatabaseRecord("idC", "db_c"), new LarkDatabaseRecord("idNew", "db_new")));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(List.of(
+                Database.builder().name("db_a").locationUri(Util.constructDatabaseLocationURI("LarkBase", "baseDs123:tableDs456", "idA")).build(),
+                Database.builder().name("db_b").locationUri(Util.constructDatabaseLocationURI("LarkBase", "baseDs123:tableDs456", "idB")).build(),
+                Database.builder().name("db_c").locationUri(Util.constructDatabaseLocationURI("LarkBase", "baseDs123:tableDs456", "idC")).build()));
+        // db_new: its database write fails.
+        when(mockGlueCatalogService.batchCreateDatabase(any())).thenReturn(List.of(
+                new GlueWriteOutcome("db_new", GlueWriteOutcome.Status.FAILED, 1, new RuntimeException("throttled"))));
+        when(mockLarkBaseService.listTables("idNew")).thenReturn(Collections.emptyList());
+        // db_a: the write of its new table fails.
+        when(mockGlueCatalogService.getTables("db_a")).thenReturn(Collections.emptyList());
+        when(mockLarkBaseService.listTables("idA")).thenReturn(List.of(
+                ListAllTableResponse.BaseItem.builder().tableId("tbl1").name("orders").build()));
+        when(mockLarkBaseService.getTableFields("idA", "tbl1")).thenReturn(List.of(
+                ListFieldResponse.FieldItem.builder().fieldId("fld1").fieldName("amount").uiType("NUMBER").build()));
+        when(mockGlueCatalogService.batchCreateTable(any())).thenReturn(List.of(
+                new GlueWriteOutcome("db_a.orders", GlueWriteOutcome.Status.FAILED, 1, new RuntimeException("throttled"))));
+        // db_b: its tables cannot be listed.
+        when(mockGlueCatalogService.getTables("db_b")).thenReturn(Collections.emptyList());
+        when(mockLarkBaseService.listTables("idB")).thenThrow(new RuntimeException("base deleted"));
+        when(mockGlueCatalogService.getTables("db_c")).thenReturn(Collections.emptyList());
+        when(mockLarkBaseService.listTables("idC")).thenReturn(Collections.emptyList());
+
+        assertEquals("Success", checkpointedHandler.handleRequest(payload, mockContext));
+
+        ArgumentCaptor<CrawlCheckpoint> saved = ArgumentCaptor.forClass(CrawlCheckpoint.class);
+        verify(store, atLeastOnce()).save(saved.capture());
+        assertEquals(Set.of("db_c"), saved.getValue().completedDatabases());
+    }
+
+    @Test
+    public void testHandleRequest_dryRun_returnsThePlanWithoutWritingToGlue() throws Exception {
+        Map<String, Object> dryRunPayload = new HashMap<>(payload);
+        dryRunPayload.put("dryRun", true);
+        when(mockLarkBaseService.getTableRecords("baseDs123", "tableDs456"))
+                .thenReturn(List.of(new LarkDatabaseRecord("idNew", "db_new")));
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(List.of(
+                Database.builder().name("db_gone").locationUri(Util.constructDatabaseLocationURI("LarkBase", "baseDs123:tableDs456", "idGone")).build()));
+        when(mockLarkBaseService.listTables("idNew")).thenReturn(List.of(
+                ListAllTableResponse.BaseItem.builder().tableId("tbl1").name("orders").build()));
+        when(mockLarkBaseService.getTableFields("idNew", "tbl1")).thenReturn(List.of(
+                ListFieldResponse.FieldItem.builder().fieldId("fld1").fieldName("amount").uiType("NUMBER").build()));
+        when(mockLarkBaseService.requestCount()).thenReturn(0L, 3L);
+
+        String result = handler.handleRequest(dryRunPayload, mockContext);
+
+        JsonNode plan = new ObjectMapper().readTree(result);
+        assertTrue(plan.get("dry_run").asBoolean());
+        assertEquals("db_gone", plan.get("databases_to_delete").get(0).asText());
+        assertTrue(plan.get("databases_to_create").has("db_new"));
+        assertEquals("orders", plan.get("tables_to_create").get("db_new").get(0).asText());
+        assertEquals(5, plan.get("phases").size());
+        assertEquals(3, plan.get("total").get("lark_requests").asLong());
+        assertEquals(3, plan.get("total").get("glue_write_requests").asLong());
+        verify(mockGlueCatalogService, never()).batchDeleteDatabase(any());
+        verify(mockGlueCatalogService, never()).batchCreateDatabase(any());
+        verify(mockGlueCatalogService, never()).batchCreateTable(any());
     }
-}
\ No newline at end of file
+}
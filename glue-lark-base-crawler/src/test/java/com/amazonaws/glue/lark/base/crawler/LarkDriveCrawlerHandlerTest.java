@@ -41,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -76,7 +77,7 @@ public class LarkDriveCrawlerHandlerTest {
 
         when(mockLarkDriveService.getLarkBases("folder123"))
                 .thenReturn(Collections.singletonList(new LarkDatabaseRecord("dbId", "dbName")));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
 
         String result = larkDriveCrawlerHandler.handleRequest(payload, mockContext);
 
@@ -95,7 +96,7 @@ public class LarkDriveCrawlerHandlerTest {
 
         when(mockLarkDriveService.getLarkBases("myFolderToken123"))
                 .thenReturn(Collections.singletonList(new LarkDatabaseRecord("dbId", "dbName")));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
 
         larkDriveCrawlerHandler.handleRequest(payload, mockContext);
 
@@ -112,7 +113,7 @@ public class LarkDriveCrawlerHandlerTest {
         );
 
         when(mockLarkDriveService.getLarkBases("folder456")).thenReturn(expectedDatabases);
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
 
         larkDriveCrawlerHandler.handleRequest(payload, mockContext);
 
@@ -150,7 +151,7 @@ public class LarkDriveCrawlerHandlerTest {
 
         when(mockLarkDriveService.getLarkBases("additionalToken789"))
                 .thenReturn(Collections.singletonList(new LarkDatabaseRecord("dbId", "dbName")));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
 
         larkDriveCrawlerHandler.handleRequest(payload, mockContext);
 
@@ -168,7 +169,7 @@ public class LarkDriveCrawlerHandlerTest {
 
         when(mockLarkDriveService.getLarkBases("newToken"))
                 .thenReturn(Collections.singletonList(new LarkDatabaseRecord("dbId", "dbName")));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
 
         larkDriveCrawlerHandler.handleRequest(payload, mockContext);
 
@@ -205,7 +206,7 @@ public class LarkDriveCrawlerHandlerTest {
 
         when(mockLarkDriveService.getLarkBases("sameToken"))
                 .thenReturn(Collections.singletonList(new LarkDatabaseRecord("dbId", "dbName")));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
 
         larkDriveCrawlerHandler.handleRequest(payload, mockContext);
 
@@ -242,7 +243,7 @@ public class LarkDriveCrawlerHandlerTest {
 
         when(mockLarkDriveService.getLarkBases("unchangedToken"))
                 .thenReturn(Collections.singletonList(new LarkDatabaseRecord("dbId", "dbName")));
-        when(mockGlueCatalogService.getDatabases()).thenReturn(Collections.emptyList());
+        when(mockGlueCatalogService.getDatabases(anyString())).thenReturn(Collections.emptyList());
 
         larkDriveCrawlerHandler.handleRequest(payload, mockContext);
 
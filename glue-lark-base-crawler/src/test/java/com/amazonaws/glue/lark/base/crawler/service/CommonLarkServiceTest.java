@@ -262,4 +262,11 @@ public class CommonLarkServiceTest {
         assertEquals(TEST_APP_ID, capturedRequest.appId());
         assertEquals(TEST_APP_SECRET, capturedRequest.appSecret());
     }
+
+    @Test
+    public void larkApiBaseUrl_defaultsToThePublicApiAndTrimsATrailingSlash() {
+        assertEquals("https://open.larksuite.com/open-apis", CommonLarkService.larkApiBaseUrl(null));
+        assertEquals("https://open.larksuite.com/open-apis", CommonLarkService.larkApiBaseUrl(" "));
+        assertEquals("http://localhost:8080/open-apis", CommonLarkService.larkApiBaseUrl(" http://localhost:8080/open-apis/ "));
+    }
 }
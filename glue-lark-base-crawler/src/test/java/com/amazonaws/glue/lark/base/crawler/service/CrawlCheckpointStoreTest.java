@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.CrawlCheckpoint;
+import com.amazonaws.glue.lark.base.crawler.util.CrawlShard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CrawlCheckpointStoreTest {
+
+    @Test
+    void testFileStore_roundTripsAndDeletesACheckpoint(@TempDir Path directory) throws Exception {
+        FileCrawlCheckpointStore store = new FileCrawlCheckpointStore(directory.resolve("checkpoints"));
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint("LarkBase.base_table.shard-0-of-1", 42, Set.of("db_b", "db_a"));
+
+        assertTrue(store.load(checkpoint.crawlKey()).isEmpty());
+        store.save(checkpoint);
+        store.save(checkpoint.withCompleted(Set.of("db_c")));
+
+        assertEquals(Set.of("db_a", "db_b", "db_c"), store.load(checkpoint.crawlKey()).orElseThrow().completedDatabases());
+        try (var files = Files.list(directory.resolve("checkpoints"))) {
+            assertEquals(1, files.count());
+        }
+
+        store.delete(checkpoint.crawlKey());
+        assertTrue(store.load(checkpoint.crawlKey()).isEmpty());
+    }
+
+    @Test
+    void testS3Store_missingObjectMeansNoCheckpoint() {
+        S3Client s3Client = mock(S3Client.class);
+        when(s3Client.getObjectAsBytes(any(GetObjectRequest.class))).thenThrow(NoSuchKeyException.builder().build());
+
+        assertTrue(new S3CrawlCheckpointStore(s3Client, "bucket", "crawls").load("crawl").isEmpty());
+    }
+
+    @Test
+    void testS3Store_writesOneObjectPerCrawlUnderThePrefix() {
+        S3Client s3Client = mock(S3Client.class);
+        S3CrawlCheckpointStore store = new S3CrawlCheckpointStore(s3Client, "bucket", "crawls");
+
+        store.save(new CrawlCheckpoint("crawl", 0, Set.of()));
+
+        verify(s3Client).putObject(argThat((PutObjectRequest r) -> r != null && r.bucket().equals("bucket")
+                && r.key().equals("crawls/crawl.json")), any(RequestBody.class));
+    }
+
+    @Test
+    void testKeyFor_keepsOnlyFileAndObjectSafeCharacters() {
+        assertEquals("LarkBase.base_1_tbl_2.shard-1-of-4",
+                CrawlCheckpoint.keyFor("LarkBase", "base/1:tbl 2", new CrawlShard(1, 4)));
+    }
+}
@@ -0,0 +1,106 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlExecutorTest {
+
+    private static final CrawlExecutor.Settings UNLIMITED = new CrawlExecutor.Settings(2, 4, 0, 0);
+
+    @Test
+    void testForEachTable_outcomesFollowTaskOrderAndFailuresStayIsolated() {
+        CountDownLatch firstMayFinish = new CountDownLatch(1);
+        try (CrawlExecutor executor = new CrawlExecutor(UNLIMITED)) {
+            List<Callable<String>> tasks = List.of(
+                    () -> {
+                        assertTrue(firstMayFinish.await(5, TimeUnit.SECONDS));
+                        return "first";
+                    },
+                    () -> {
+                        throw new IllegalStateException("boom");
+                    },
+                    () -> {
+                        firstMayFinish.countDown();
+                        return "third";
+                    });
+
+            List<CrawlExecutor.Outcome<String>> outcomes = executor.forEachTable(tasks);
+
+            assertEquals(3, outcomes.size());
+            assertEquals("first", outcomes.get(0).value());
+            assertFalse(outcomes.get(1).succeeded());
+            assertEquals("boom", outcomes.get(1).failure().getMessage());
+            assertEquals("third", outcomes.get(2).value());
+        }
+    }
+
+    @Test
+    void testForEachDatabase_canWaitForTableTasksWithAFullDatabasePool() {
+        try (CrawlExecutor executor = new CrawlExecutor(new CrawlExecutor.Settings(1, 1, 0, 0))) {
+            List<Callable<Integer>> databaseTasks = List.of(
+                    () -> executor.forEachTable(List.<Callable<Integer>>of(() -> 1, () -> 2)).size(),
+                    () -> executor.forEachTable(List.<Callable<Integer>>of(() -> 3)).size());
+
+            List<CrawlExecutor.Outcome<Integer>> outcomes = executor.forEachDatabase(databaseTasks);
+
+            assertEquals(2, outcomes.get(0).value());
+            assertEquals(1, outcomes.get(1).value());
+        }
+    }
+
+    @Test
+    void testLarkLimiter_spacesRequestsToTheConfiguredRate() {
+        try (CrawlExecutor executor = new CrawlExecutor(new CrawlExecutor.Settings(1, 1, 20, 0))) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 5; i++) {
+                executor.larkLimiter().acquire();
+            }
+            // 5 requests at 20/s: the first goes immediately, the other four 50ms apart.
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 180);
+        }
+    }
+
+    @Test
+    void testSettingsFromEnvironment_fallsBackToDefaultsForInvalidValues() {
+        Map<String, String> env = Map.of(
+                "default_crawl_database_concurrency", "2",
+                "default_crawl_table_concurrency", "0.5",
+                "default_lark_requests_per_second", "-1",
+                "default_glue_requests_per_second", "0.5");
+        Function<String, String> lookup = env::get;
+
+        CrawlExecutor.Settings settings = CrawlExecutor.Settings.fromEnvironment(lookup);
+
+        assertEquals(2, settings.databaseConcurrency());
+        assertEquals(CrawlExecutor.Settings.DEFAULT.tableConcurrency(), settings.tableConcurrency());
+        assertEquals(CrawlExecutor.Settings.DEFAULT.larkRequestsPerSecond(), settings.larkRequestsPerSecond());
+        assertEquals(0.5, settings.glueRequestsPerSecond());
+    }
+}
@@ -0,0 +1,84 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.glue.model.Table;
+import software.amazon.awssdk.services.glue.model.TableInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlPlanTest {
+
+    @Test
+    void testFinish_reportsTheChangesSortedByDatabase() {
+        CrawlPlan plan = new CrawlPlan(() -> 0, () -> 0, () -> 0);
+
+        plan.startPhase("apply");
+        plan.deleteDatabases(List.of("old_b", "old_a"));
+        plan.createDatabases(Map.of("new_b", "lark-base-flag/b", "new_a", "lark-base-flag/a"));
+        plan.createTables(Map.of("new_a", List.of(TableInput.builder().name("t2").build(), TableInput.builder().name("t1").build())));
+        plan.updateTables(Map.of("kept", List.of(TableInput.builder().name("t3").build())));
+        plan.deleteTables(Map.of("kept", List.of(Table.builder().name("t4").build())));
+        CrawlPlan.Report report = plan.finish("crawl", true);
+
+        assertEquals("crawl", report.crawlKey());
+        assertTrue(report.dryRun());
+        assertEquals(List.of("old_a", "old_b"), report.databasesToDelete());
+        assertEquals(List.of("new_a", "new_b"), new ArrayList<>(report.databasesToCreate().keySet()));
+        assertEquals(Map.of(), report.databasesToUpdate());
+        assertEquals(Map.of("new_a", List.of("t2", "t1")), report.tablesToCreate());
+        assertEquals(Map.of("kept", List.of("t3")), report.tablesToUpdate());
+        assertEquals(Map.of("kept", List.of("t4")), report.tablesToDelete());
+    }
+
+    @Test
+    void testFinish_reportsTimeAndRequestsPerPhase() {
+        AtomicLong now = new AtomicLong(1_000);
+        AtomicLong larkRequests = new AtomicLong(7);
+        AtomicLong glueReads = new AtomicLong(3);
+        CrawlPlan plan = new CrawlPlan(larkRequests::get, glueReads::get, now::get);
+
+        plan.startPhase("discover");
+        now.addAndGet(40);
+        larkRequests.addAndGet(5);
+        glueReads.addAndGet(2);
+        plan.startPhase("apply");
+        now.addAndGet(10);
+        larkRequests.addAndGet(1);
+        List<Table> manyTables = new ArrayList<>();
+        for (int i = 0; i < GlueCatalogService.BATCH_DELETE_TABLE_LIMIT + 1; i++) {
+            manyTables.add(Table.builder().name("t" + i).build());
+        }
+        plan.deleteTables(Map.of("db", manyTables));
+        plan.createDatabases(Map.of("db_new", "uri"));
+        CrawlPlan.Report report = plan.finish("crawl", false);
+
+        assertEquals(List.of(
+                new CrawlPlan.Phase("discover", 40, 5, 2, 0),
+                new CrawlPlan.Phase("apply", 10, 1, 0, 3)), report.phases());
+        assertEquals(new CrawlPlan.Phase("total", 50, 6, 2, 3), report.total());
+    }
+}
@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.CrawlCheckpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlProgressTest {
+
+    private static final CrawlProgress.Settings SETTINGS = new CrawlProgress.Settings(2, 10_000, 1_000);
+
+    @Test
+    void testStart_resumesARecentCheckpointAndIgnoresAStaleOne() {
+        InMemoryStore store = new InMemoryStore();
+        store.save(new CrawlCheckpoint("crawl", 0, Set.of("db_a")));
+
+        assertTrue(CrawlProgress.start(store, "crawl", SETTINGS, Long.MAX_VALUE, () -> 10_000).isCompleted("db_a"));
+        assertFalse(CrawlProgress.start(store, "crawl", SETTINGS, Long.MAX_VALUE, () -> 10_001).isCompleted("db_a"));
+    }
+
+    @Test
+    void testBatches_splitOnlyWhenCheckpointed() {
+        List<String> databases = List.of("a", "b", "c", "d", "e");
+
+        assertEquals(List.of(databases), CrawlProgress.start(null, "crawl", SETTINGS, Long.MAX_VALUE, () -> 0).batches(databases));
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")),
+                CrawlProgress.start(new InMemoryStore(), "crawl", SETTINGS, Long.MAX_VALUE, () -> 0).batches(databases));
+    }
+
+    @Test
+    void testStartBatch_stopsWhenTheLongestBatchNoLongerFitsBeforeTheDeadline() {
+        InMemoryStore store = new InMemoryStore();
+        AtomicLong now = new AtomicLong(0);
+        CrawlProgress progress = CrawlProgress.start(store, "crawl", SETTINGS, 10_000, now::get);
+
+        // The first batch always starts, even with little time left.
+        assertTrue(progress.startBatch());
+        now.set(4_000);
+        progress.completeBatch(List.of("db_a"));
+        assertEquals(Set.of("db_a"), store.load("crawl").orElseThrow().completedDatabases());
+
+        // 4s taken + 4s for another batch + 1s reserve still fits in 10s.
+        assertTrue(progress.startBatch());
+        now.set(6_000);
+        progress.completeBatch(List.of("db_b"));
+
+        // 6s + 4s + 1s does not.
+        assertFalse(progress.startBatch());
+        assertTrue(progress.isStopped());
+
+        progress.finish();
+        assertEquals(Set.of("db_a", "db_b"), store.load("crawl").orElseThrow().completedDatabases());
+    }
+
+    @Test
+    void testFinish_deletesTheCheckpointOfACompleteCrawl() {
+        InMemoryStore store = new InMemoryStore();
+        CrawlProgress progress = CrawlProgress.start(store, "crawl", SETTINGS, Long.MAX_VALUE, () -> 0);
+
+        assertTrue(progress.startBatch());
+        progress.completeBatch(List.of("db_a"));
+        progress.finish();
+
+        assertTrue(store.load("crawl").isEmpty());
+    }
+
+    @Test
+    void testSettingsFromEnvironment_fallsBackToDefaultsForInvalidValues() {
+        Map<String, String> environment = Map.of("default_crawl_checkpoint_batch_size", "25",
+                "default_crawl_time_reserve_seconds", "-1");
+
+        CrawlProgress.Settings settings = CrawlProgress.Settings.fromEnvironment(environment::get);
+
+        assertEquals(25, settings.batchSize());
+        assertEquals(CrawlProgress.Settings.DEFAULT.timeReserveMillis(), settings.timeReserveMillis());
+        assertEquals(CrawlProgress.Settings.DEFAULT.maxAgeMillis(), settings.maxAgeMillis());
+    }
+
+    private static final class InMemoryStore implements CrawlCheckpointStore {
+        private final Map<String, CrawlCheckpoint> checkpoints = new HashMap<>();
+
+        @Override
+        public Optional<CrawlCheckpoint> load(String crawlKey) {
+            return Optional.ofNullable(checkpoints.get(crawlKey));
+        }
+
+        @Override
+        public void save(CrawlCheckpoint checkpoint) {
+            checkpoints.put(checkpoint.crawlKey(), checkpoint);
+        }
+
+        @Override
+        public void delete(String crawlKey) {
+            checkpoints.remove(crawlKey);
+        }
+    }
+}
@@ -61,6 +61,27 @@ class GlueCatalogServiceTest {
         assertEquals("testDatabase", databases.get(0).name());
     }
 
+    @Test
+    void testGetDatabases_keepsOnlyMatchingDatabasesAcrossPages() {
+        when(glueClient.getDatabases(any(GetDatabasesRequest.class))).thenAnswer(invocation -> {
+            GetDatabasesRequest request = invocation.getArgument(0);
+            if (request.nextToken() == null) {
+                return GetDatabasesResponse.builder().nextToken("page2").databaseList(
+                        Database.builder().name("lark_db").locationUri("lark-base-flag/CrawlingMethod=LarkBase/Base=b1").build(),
+                        Database.builder().name("other").locationUri("s3://bucket/other").build(),
+                        Database.builder().name("no_location").build()).build();
+            }
+            return GetDatabasesResponse.builder().databaseList(
+                    Database.builder().name("lark_db2").locationUri("lark-base-flag/CrawlingMethod=LarkBase/Base=b2").build()).build();
+        });
+
+        List<Database> databases = glueCatalogService.getDatabases("lark-base-flag/CrawlingMethod=LarkBase");
+
+        assertEquals(List.of("lark_db", "lark_db2"), databases.stream().map(Database::name).collect(java.util.stream.Collectors.toList()));
+        verify(glueClient, times(2)).getDatabases(argThat((GetDatabasesRequest r) ->
+                r != null && r.maxResults() == GlueCatalogService.MAX_PAGE_SIZE));
+    }
+
     @Test
     void testBatchCreateDatabase() {
         Map<String, String> databaseNamesWithLocationUri = Map.of(
@@ -106,12 +127,13 @@ class GlueCatalogServiceTest {
         ArgumentCaptor<UpdateDatabaseRequest> captor = ArgumentCaptor.forClass(UpdateDatabaseRequest.class);
         verify(glueClient, times(2)).updateDatabase(captor.capture());
 
+        // The updates run concurrently, so match requests by name rather than by call order.
         List<UpdateDatabaseRequest> capturedRequests = captor.getAllValues();
-        for (String databaseName : databaseNamesWithLocationUri.keySet()) {
-            UpdateDatabaseRequest request = capturedRequests.remove(0); // Ambil request yang ditangkap
-            assertEquals(databaseName, request.name());
-            assertEquals(databaseNamesWithLocationUri.get(databaseName), request.databaseInput().locationUri());
+        for (UpdateDatabaseRequest request : capturedRequests) {
+            assertEquals(databaseNamesWithLocationUri.get(request.name()), request.databaseInput().locationUri());
         }
+        assertEquals(databaseNamesWithLocationUri.keySet(),
+                capturedRequests.stream().map(UpdateDatabaseRequest::name).collect(java.util.stream.Collectors.toSet()));
     }
 
     @Test
@@ -149,6 +171,65 @@ class GlueCatalogServiceTest {
         verify(glueClient, times(1)).batchDeleteTable(any(BatchDeleteTableRequest.class));
     }
 
+    @Test
+    void testBatchDeleteTable_chunksByTheBatchLimitAndReportsPerTableErrors() {
+        List<Table> tables = new java.util.ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            tables.add(Table.builder().name("t" + i).build());
+        }
+        when(glueClient.batchDeleteTable(any(BatchDeleteTableRequest.class))).thenAnswer(invocation -> {
+            BatchDeleteTableRequest request = invocation.getArgument(0);
+            if (!request.tablesToDelete().contains("t7")) {
+                return BatchDeleteTableResponse.builder().build();
+            }
+            return BatchDeleteTableResponse.builder().errors(TableError.builder().tableName("t7")
+                    .errorDetail(ErrorDetail.builder().errorCode("EntityNotFoundException").errorMessage("gone").build()).build()).build();
+        });
+
+        List<com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome> outcomes =
+                glueCatalogService.batchDeleteTable(Map.of("testDatabase", tables));
+
+        ArgumentCaptor<BatchDeleteTableRequest> captor = ArgumentCaptor.forClass(BatchDeleteTableRequest.class);
+        verify(glueClient, times(3)).batchDeleteTable(captor.capture());
+        assertTrue(captor.getAllValues().stream().allMatch(request -> request.tablesToDelete().size() <= GlueCatalogService.BATCH_DELETE_TABLE_LIMIT));
+        assertEquals(250, outcomes.size());
+        assertEquals("testDatabase.t0", outcomes.get(0).target());
+        assertFalse(outcomes.get(7).succeeded());
+        assertEquals(249, outcomes.stream().filter(com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome::succeeded).count());
+    }
+
+    @Test
+    void testBatchCreateTable_retriesThrottlingAndReportsEachTable() {
+        GlueCatalogService service = new GlueCatalogService(glueClient, "test-catalog-id",
+                new GlueWriteExecutor(new GlueWriteExecutor.Settings(2, 3), millis -> { }));
+        when(glueClient.createTable(argThat((CreateTableRequest r) -> r != null && r.tableInput().name().equals("throttled_once"))))
+                .thenThrow(ThrottlingException.builder().message("Rate exceeded").build())
+                .thenReturn(CreateTableResponse.builder().build());
+        when(glueClient.createTable(argThat((CreateTableRequest r) -> r != null && r.tableInput().name().equals("always_throttled"))))
+                .thenThrow(ThrottlingException.builder().message("Rate exceeded").build());
+        when(glueClient.createTable(argThat((CreateTableRequest r) -> r != null && r.tableInput().name().equals("exists"))))
+                .thenThrow(AlreadyExistsException.builder().message("Table already exists.").build());
+        when(glueClient.createTable(argThat((CreateTableRequest r) -> r != null && r.tableInput().name().equals("invalid"))))
+                .thenThrow(InvalidInputException.builder().message("bad column").build());
+
+        List<com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome> outcomes = service.batchCreateTable(Map.of("db", List.of(
+                TableInput.builder().name("throttled_once").build(),
+                TableInput.builder().name("always_throttled").build(),
+                TableInput.builder().name("exists").build(),
+                TableInput.builder().name("invalid").build())));
+
+        assertEquals(List.of("db.throttled_once", "db.always_throttled", "db.exists", "db.invalid"),
+                outcomes.stream().map(com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome::target).collect(java.util.stream.Collectors.toList()));
+        assertEquals(com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome.Status.WRITTEN, outcomes.get(0).status());
+        assertEquals(2, outcomes.get(0).attempts());
+        assertEquals(com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome.Status.FAILED, outcomes.get(1).status());
+        assertEquals(3, outcomes.get(1).attempts());
+        assertEquals(com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome.Status.ALREADY_EXISTS, outcomes.get(2).status());
+        assertEquals(com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome.Status.FAILED, outcomes.get(3).status());
+        // Only throttling is retried.
+        assertEquals(1, outcomes.get(3).attempts());
+    }
+
     @Test
     void testBatchCreateTable() {
         Map<String, List<TableInput>> databaseNameAndTableInputs = Map.of(
@@ -0,0 +1,107 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.GlueWriteOutcome;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.glue.model.ConcurrentModificationException;
+import software.amazon.awssdk.services.glue.model.EntityNotFoundException;
+import software.amazon.awssdk.services.glue.model.GlueException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlueWriteExecutorTest {
+
+    @Test
+    void testWriteAll_retriesConcurrentModificationUntilItSucceeds() {
+        List<Long> sleeps = new CopyOnWriteArrayList<>();
+        GlueWriteExecutor executor = new GlueWriteExecutor(new GlueWriteExecutor.Settings(1, 5), sleeps::add);
+        AtomicInteger calls = new AtomicInteger();
+
+        List<GlueWriteOutcome> outcomes = executor.writeAll(List.of("db.t"), item -> item, item -> {
+            if (calls.incrementAndGet() < 3) {
+                throw ConcurrentModificationException.builder().message("busy").build();
+            }
+        });
+
+        assertEquals(GlueWriteOutcome.Status.WRITTEN, outcomes.get(0).status());
+        assertEquals(3, outcomes.get(0).attempts());
+        assertEquals(2, sleeps.size());
+        // The shared pause only grows while Glue pushes back.
+        assertTrue(sleeps.get(1) >= sleeps.get(0) / 2);
+    }
+
+    @Test
+    void testWriteAll_throttledBatchSlowsDownLaterItems() {
+        List<Long> sleeps = new CopyOnWriteArrayList<>();
+        GlueWriteExecutor executor = new GlueWriteExecutor(new GlueWriteExecutor.Settings(1, 2), sleeps::add);
+        GlueException throttled = (GlueException) GlueException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .statusCode(400)
+                .build();
+
+        List<GlueWriteOutcome> outcomes = executor.writeAll(List.of("first", "second"), item -> item, item -> {
+            if (item.equals("first")) {
+                throw throttled;
+            }
+        });
+
+        assertEquals(GlueWriteOutcome.Status.FAILED, outcomes.get(0).status());
+        assertEquals(2, outcomes.get(0).attempts());
+        assertEquals(GlueWriteOutcome.Status.WRITTEN, outcomes.get(1).status());
+        // One wait before the retry of "first", and "second" waits for the shared pause before its first attempt.
+        assertEquals(2, sleeps.size());
+    }
+
+    @Test
+    void testRunAll_keepsItemOrderWithConcurrentItemsAndDoesNotRetryOtherErrors() {
+        GlueWriteExecutor executor = new GlueWriteExecutor(new GlueWriteExecutor.Settings(4, 5), millis -> { });
+        Map<Integer, Integer> attempts = new ConcurrentHashMap<>();
+
+        List<GlueWriteExecutor.Result<Integer>> results = executor.runAll(List.of(1, 2, 3, 4, 5, 6), item -> {
+            attempts.merge(item, 1, Integer::sum);
+            if (item == 4) {
+                throw EntityNotFoundException.builder().message("gone").build();
+            }
+            return item * 10;
+        });
+
+        assertEquals(List.of(10, 20, 30), List.of(results.get(0).value(), results.get(1).value(), results.get(2).value()));
+        assertFalse(results.get(3).succeeded());
+        assertEquals(1, attempts.get(4));
+        assertEquals(60, results.get(5).value());
+    }
+
+    @Test
+    void testSettingsFromEnvironment_fallsBackToDefaultsForInvalidValues() {
+        GlueWriteExecutor.Settings settings = GlueWriteExecutor.Settings.fromEnvironment(
+                Map.of("default_glue_write_concurrency", "8", "default_glue_write_max_attempts", "0")::get);
+
+        assertEquals(8, settings.concurrency());
+        assertEquals(GlueWriteExecutor.Settings.DEFAULT.maxAttempts(), settings.maxAttempts());
+    }
+}
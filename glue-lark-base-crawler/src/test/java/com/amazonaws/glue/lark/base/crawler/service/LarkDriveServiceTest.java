@@ -21,11 +21,15 @@ package com.amazonaws.glue.lark.base.crawler.service;
 
 import com.amazonaws.glue.lark.base.crawler.model.LarkDatabaseRecord;
 import com.amazonaws.glue.lark.base.crawler.model.response.ListAllFolderResponse;
+import com.amazonaws.glue.lark.base.crawler.util.RequestRateLimiter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -35,9 +39,15 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -147,6 +157,32 @@ public class LarkDriveServiceTest {
         verify(mockHttpClient, times(2)).execute(any(HttpGet.class));
     }
 
+    @Test
+    public void getLarkBases_multiPage_takesARateLimitPermitPerPage() throws Exception {
+        ListAllFolderResponse page1Response = (ListAllFolderResponse) ListAllFolderResponse.builder().code(0)
+                .data(ListAllFolderResponse.ListData.builder().files(List.of()).hasMore(true).nextPageToken("page2Token").build()).build();
+        ListAllFolderResponse page2Response = (ListAllFolderResponse) ListAllFolderResponse.builder().code(0)
+                .data(ListAllFolderResponse.ListData.builder().files(List.of()).hasMore(false).nextPageToken(null).build()).build();
+        String mockJsonResponse1 = "{\"page\":1}";
+        String mockJsonResponse2 = "{\"page\":2}";
+
+        when(mockHttpClient.execute(any(HttpGet.class))).thenReturn(mockHttpResponse);
+        when(mockHttpResponse.getEntity()).thenReturn(mockHttpEntity);
+        when(mockHttpEntity.getContent())
+                .thenReturn(new ByteArrayInputStream(mockJsonResponse1.getBytes()))
+                .thenReturn(new ByteArrayInputStream(mockJsonResponse2.getBytes()));
+        when(mockObjectMapper.readValue(mockJsonResponse1, ListAllFolderResponse.class)).thenReturn(page1Response);
+        when(mockObjectMapper.readValue(mockJsonResponse2, ListAllFolderResponse.class)).thenReturn(page2Response);
+        larkDriveService.limitRequests(new RequestRateLimiter(10));
+
+        long start = System.nanoTime();
+        larkDriveService.getLarkBases("folderToken");
+
+        // Two page requests at 10/s: the second waits 100ms for its permit.
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+        assertEquals(2, larkDriveService.requestCount());
+    }
+
     @Test
     public void getLarkBases_code1254002NoMoreData_shouldHandleGracefully() throws Exception {
         String folderToken = "folderToken3";
@@ -233,4 +269,46 @@ public class LarkDriveServiceTest {
 
         assertEquals(0, result.size());
     }
+
+    @Test
+    public void getLarkBases_walksSubfoldersBreadthFirst_dedupesBasesAndFolders() throws Exception {
+        // root -> [base a, folder f1, folder f2]; f1 -> [base b, folder f2 again]; f2 -> [base a again, base c]
+        stubFolder("root", bitable("a", "Alpha"), folder("f1"), folder("f2"));
+        stubFolder("f1", bitable("b", "Beta"), folder("f2"));
+        stubFolder("f2", bitable("a", "Alpha"), bitable("c", "Gamma"));
+        when(mockHttpClient.execute(any(HttpGet.class))).thenAnswer(invocation -> {
+            String query = invocation.<HttpGet>getArgument(0).getURI().getQuery();
+            String folderToken = query.substring(query.indexOf("folder_token=") + "folder_token=".length()).split("&")[0];
+            BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+            response.setEntity(new StringEntity("folder:" + folderToken));
+            return response;
+        });
+        List<String> reported = Collections.synchronizedList(new ArrayList<>());
+
+        List<LarkDatabaseRecord> result = larkDriveService.getLarkBases("root", 4, record -> reported.add(record.id()));
+
+        assertEquals(List.of("a", "b", "c"), result.stream().map(LarkDatabaseRecord::id).toList());
+        assertEquals(List.of("alpha", "beta", "gamma"), result.stream().map(LarkDatabaseRecord::name).toList());
+        assertEquals(3, reported.size());
+        assertEquals(Set.of("a", "b", "c"), new HashSet<>(reported));
+        verify(mockHttpClient, times(3)).execute(any(HttpGet.class));
+    }
+
+    private void stubFolder(String folderToken, ListAllFolderResponse.DriveFile... files) throws IOException
+    {
+        ListAllFolderResponse.ListData listData = ListAllFolderResponse.ListData.builder()
+                .files(List.of(files)).hasMore(false).nextPageToken(null).build();
+        when(mockObjectMapper.readValue("folder:" + folderToken, ListAllFolderResponse.class))
+                .thenReturn((ListAllFolderResponse) ListAllFolderResponse.builder().code(0).data(listData).build());
+    }
+
+    private static ListAllFolderResponse.DriveFile bitable(String token, String name)
+    {
+        return ListAllFolderResponse.DriveFile.builder().token(token).name(name).type("bitable").build();
+    }
+
+    private static ListAllFolderResponse.DriveFile folder(String token)
+    {
+        return ListAllFolderResponse.DriveFile.builder().token(token).name(token).type("folder").build();
+    }
 }
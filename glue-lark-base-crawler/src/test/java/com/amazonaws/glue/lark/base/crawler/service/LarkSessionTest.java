@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.SecretValue;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LarkSessionTest {
+
+    private static final String SECRET = "{\"lark_app_id\":\"app\",\"lark_app_secret\":\"secret\"}";
+
+    @Test
+    void testCredentials_readAgainOnlyAfterTheTtl() {
+        AtomicLong now = new AtomicLong(0);
+        AtomicInteger reads = new AtomicInteger();
+        LarkSession session = new LarkSession(mock(HttpClient.class), () -> {
+            reads.incrementAndGet();
+            return SECRET;
+        }, Duration.ofSeconds(300), now::get);
+
+        assertEquals(new SecretValue("app", "secret"), session.credentials());
+        now.set(299_000);
+        session.credentials();
+        assertEquals(1, reads.get());
+
+        now.set(300_000);
+        session.credentials();
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void testCredentials_failedReloadKeepsTheCachedSecret() {
+        AtomicLong now = new AtomicLong(0);
+        AtomicInteger reads = new AtomicInteger();
+        LarkSession session = new LarkSession(mock(HttpClient.class), () -> {
+            if (reads.incrementAndGet() > 1) {
+                throw new IllegalStateException("Secrets Manager unavailable");
+            }
+            return SECRET;
+        }, Duration.ofSeconds(1), now::get);
+
+        session.credentials();
+        now.set(5_000);
+
+        assertEquals(new SecretValue("app", "secret"), session.credentials());
+    }
+
+    @Test
+    void testCredentials_failsWhenTheSecretWasNeverRead() {
+        LarkSession session = new LarkSession(mock(HttpClient.class), () -> "not json", Duration.ofSeconds(1), () -> 0);
+
+        assertThrows(IllegalStateException.class, session::credentials);
+    }
+
+    @Test
+    void testServicesOfOneSession_shareTheHttpClientAndOneToken() throws Exception {
+        HttpClient httpClient = mock(HttpClient.class);
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new StringEntity("{\"code\":0,\"msg\":\"ok\",\"tenant_access_token\":\"t-shared\",\"expire\":7200}"));
+        when(httpClient.execute(any(HttpUriRequest.class))).thenReturn(response);
+        LarkSession session = new LarkSession(httpClient, () -> SECRET, Duration.ofSeconds(300), System::currentTimeMillis);
+
+        LarkBaseService larkBaseService = new LarkBaseService(session);
+        LarkDriveService larkDriveService = new LarkDriveService(session);
+        larkBaseService.refreshTenantAccessToken();
+        larkDriveService.refreshTenantAccessToken();
+
+        assertSame(httpClient, larkDriveService.httpClient);
+        assertEquals("t-shared", larkBaseService.tenantAccessToken);
+        assertEquals("t-shared", larkDriveService.tenantAccessToken);
+        verify(httpClient, times(1)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    void testFromEnvironment_requiresTheSecretEnvVar() {
+        assertThrows(IllegalStateException.class, () -> LarkSession.fromEnvironment(Map.<String, String>of()::get));
+    }
+}
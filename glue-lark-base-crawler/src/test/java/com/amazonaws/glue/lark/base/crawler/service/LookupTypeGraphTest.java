@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.service;
+
+import com.amazonaws.glue.lark.base.crawler.model.response.ListFieldResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupTypeGraphTest {
+
+    private final Map<String, List<ListFieldResponse.FieldItem>> tables = new HashMap<>();
+    private final List<String> loadedTables = new ArrayList<>();
+    private LookupTypeGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new LookupTypeGraph((baseId, tableId) -> {
+            loadedTables.add(tableId);
+            if (!tables.containsKey(tableId)) {
+                throw new RuntimeException("Failed to get fields for table: " + tableId);
+            }
+            return tables.get(tableId);
+        });
+    }
+
+    private static ListFieldResponse.FieldItem field(String fieldId, String uiType) {
+        return ListFieldResponse.FieldItem.builder().fieldId(fieldId).fieldName(fieldId).uiType(uiType).build();
+    }
+
+    private static ListFieldResponse.FieldItem lookup(String fieldId, String targetTable, String targetField) {
+        return ListFieldResponse.FieldItem.builder().fieldId(fieldId).fieldName(fieldId).uiType("Lookup")
+                .property(Map.of("target_field", targetField, "filter_info", Map.of("target_table", targetTable)))
+                .build();
+    }
+
+    @Test
+    void testResolve_chainedLookup_countsNestedLookupsAndIsMemoized() {
+        tables.put("table2", List.of(lookup("field2", "table3", "field3")));
+        tables.put("table3", List.of(field("field3", "Number")));
+
+        LookupTypeGraph.Resolution first = graph.resolve("base", lookup("a", "table2", "field2"));
+        LookupTypeGraph.Resolution second = graph.resolve("base", lookup("b", "table2", "field2"));
+        LookupTypeGraph.Resolution direct = graph.resolve("base", lookup("c", "table3", "field3"));
+
+        assertEquals("field3", first.terminal().getFieldId());
+        assertEquals(1, first.nestedLookups());
+        assertEquals(first, second);
+        assertEquals(0, direct.nestedLookups());
+        assertEquals(List.of("table2", "table3"), loadedTables);
+    }
+
+    @Test
+    void testResolve_circularLookup_isUnresolvableInsteadOfOverflowingTheStack() {
+        tables.put("table1", List.of(lookup("field1", "table2", "field2")));
+        tables.put("table2", List.of(lookup("field2", "table1", "field1")));
+
+        LookupTypeGraph.Resolution resolution = graph.resolve("base", lookup("a", "table1", "field1"));
+
+        assertNull(resolution.terminal());
+        assertEquals(0, resolution.nestedLookups());
+        assertNull(graph.resolve("base", lookup("b", "table2", "field2")).terminal());
+        assertEquals(2, loadedTables.size());
+    }
+
+    @Test
+    void testResolve_missingTarget_keepsNestedLookupCount() {
+        tables.put("table2", List.of(lookup("field2", "table3", "gone")));
+        tables.put("table3", List.of(field("other", "Text")));
+
+        LookupTypeGraph.Resolution resolution = graph.resolve("base", lookup("a", "table2", "field2"));
+
+        assertNull(resolution.terminal());
+        assertEquals(1, resolution.nestedLookups());
+    }
+
+    @Test
+    void testResolve_failedFetch_isNotMemoized() {
+        LookupTypeGraph.Resolution resolution = graph.resolve("base", lookup("a", "table2", "field2"));
+        assertNull(resolution.terminal());
+
+        tables.put("table2", List.of(field("field2", "Text")));
+        assertEquals("field2", graph.resolve("base", lookup("a", "table2", "field2")).terminal().getFieldId());
+    }
+
+    @Test
+    void testFindField_usesIndexAndSwallowsFetchErrors() {
+        tables.put("table1", List.of(field("field1", "Text"), field("field2", "Number")));
+
+        assertEquals("field2", graph.findField("base", "table1", "field2").orElseThrow().getFieldId());
+        assertTrue(graph.findField("base", "table1", "missing").isEmpty());
+        assertTrue(graph.findField("base", "nope", "field1").isEmpty());
+        assertEquals(List.of("table1", "nope"), loadedTables);
+    }
+
+    @Test
+    void testFields_keepsLarkOrderAndSharesTheFetchWithLookups() {
+        tables.put("table1", List.of(field("b", "Text"), field("a", "Number")));
+
+        assertEquals("a", graph.resolve("base", lookup("x", "table1", "a")).terminal().getFieldId());
+        assertEquals(List.of("b", "a"), graph.fields("base", "table1").stream().map(ListFieldResponse.FieldItem::getFieldId).toList());
+        assertEquals(List.of("table1"), loadedTables);
+    }
+}
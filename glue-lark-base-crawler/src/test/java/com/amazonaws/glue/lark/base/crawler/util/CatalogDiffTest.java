@@ -0,0 +1,116 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import com.amazonaws.glue.lark.base.crawler.model.LarkDatabaseRecord;
+import com.amazonaws.glue.lark.base.crawler.model.response.ListAllTableResponse;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.glue.model.Database;
+import software.amazon.awssdk.services.glue.model.Table;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogDiffTest {
+
+    @Test
+    void testDatabases_splitsIntoDeleteCreateAndMatched() {
+        List<Database> glue = List.of(database("sales"), database("gone"), database("hr"));
+        List<LarkDatabaseRecord> lark = List.of(new LarkDatabaseRecord("b1", "hr"), new LarkDatabaseRecord("b2", "new_db"),
+                new LarkDatabaseRecord("b3", "sales"));
+
+        CatalogDiff.DatabaseDiff diff = CatalogDiff.databases(glue, lark);
+
+        assertEquals(List.of("gone"), diff.toDelete().stream().map(Database::name).collect(Collectors.toList()));
+        assertEquals(List.of("new_db"), new ArrayList<>(diff.toCreate().keySet()));
+        assertEquals(List.of("sales:b3", "hr:b1"), diff.matched().stream()
+                .map(match -> match.glueDatabase().name() + ":" + match.larkRecord().id())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testTables_matchesNamesCaseInsensitivelyAndKeepsLarkOrder() {
+        List<Table> glue = List.of(table("Orders"), table("stale"), table("customers"));
+        List<ListAllTableResponse.BaseItem> lark = Util.disambiguateDuplicateTableNames(List.of(
+                larkTable("tbl3", "new table"), larkTable("tbl1", "orders"), larkTable("tbl2", "Customers"),
+                larkTable("tbl4", "ORDERS")));
+
+        CatalogDiff.TableDiff diff = CatalogDiff.tables(glue, lark);
+
+        assertEquals(List.of("stale"), diff.toDelete().stream().map(Table::name).collect(Collectors.toList()));
+        assertEquals(List.of("new_table", "orders_tbl4"), diff.toCreate().stream()
+                .map(ListAllTableResponse.BaseItem::getName).collect(Collectors.toList()));
+        assertEquals(List.of("orders->Orders", "customers->customers"), diff.matched().stream()
+                .map(match -> match.larkTable().getName() + "->" + match.glueTable().name())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testTables_thousandsOfTablesInLinearTime() {
+        // 20,000 tables per side: a scan of one list per item of the other would take hundreds of millions of steps.
+        int tableCount = 20_000;
+        List<Table> glue = new ArrayList<>();
+        List<ListAllTableResponse.BaseItem> lark = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            // Every tenth table was deleted in Lark and another one created in its place.
+            glue.add(table(i % 10 == 0 ? "deleted_" + i : "table_" + i));
+            lark.add(larkTable("tbl" + i, i % 10 == 0 ? "created_" + i : "table_" + i));
+        }
+
+        CatalogDiff.TableDiff diff = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> CatalogDiff.tables(glue, lark));
+
+        assertEquals(tableCount / 10, diff.toDelete().size());
+        assertEquals(tableCount / 10, diff.toCreate().size());
+        assertEquals(tableCount - tableCount / 10, diff.matched().size());
+    }
+
+    @Test
+    void testDatabases_thousandsOfDatabasesInLinearTime() {
+        int databaseCount = 20_000;
+        List<Database> glue = new ArrayList<>();
+        List<LarkDatabaseRecord> lark = new ArrayList<>();
+        for (int i = 0; i < databaseCount; i++) {
+            glue.add(database("db_" + i));
+            lark.add(new LarkDatabaseRecord("base" + i, "db_" + (i + databaseCount / 2)));
+        }
+
+        CatalogDiff.DatabaseDiff diff = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> CatalogDiff.databases(glue, lark));
+
+        assertEquals(databaseCount / 2, diff.toDelete().size());
+        assertEquals(databaseCount / 2, diff.toCreate().size());
+        assertEquals(databaseCount / 2, diff.matched().size());
+    }
+
+    private static Database database(String name) {
+        return Database.builder().name(name).build();
+    }
+
+    private static Table table(String name) {
+        return Table.builder().name(name).build();
+    }
+
+    private static ListAllTableResponse.BaseItem larkTable(String tableId, String name) {
+        return ListAllTableResponse.BaseItem.builder().tableId(tableId).name(name).build();
+    }
+}
@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlShardTest {
+
+    @Test
+    void testOwns_everyDatabaseBelongsToExactlyOneShard() {
+        for (int i = 0; i < 500; i++) {
+            String databaseName = "database_" + i;
+            long owners = IntStream.range(0, 7).filter(index -> new CrawlShard(index, 7).owns(databaseName)).count();
+            assertEquals(1, owners, databaseName);
+            assertTrue(CrawlShard.ALL.owns(databaseName));
+        }
+    }
+
+    @Test
+    void testOwns_ignoresCase() {
+        CrawlShard shard = new CrawlShard(1, 2);
+
+        assertEquals(shard.owns("db_b"), shard.owns("DB_B"));
+    }
+
+    @Test
+    void testOf_unsetMeansAllAndInvalidShardsAreRejected() {
+        assertSame(CrawlShard.ALL, CrawlShard.of(null, null));
+        assertEquals(new CrawlShard(2, 3), CrawlShard.of(2, 3));
+        assertThrows(IllegalArgumentException.class, () -> CrawlShard.of(1, null));
+        assertThrows(IllegalArgumentException.class, () -> CrawlShard.of(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> CrawlShard.of(0, 0));
+    }
+}
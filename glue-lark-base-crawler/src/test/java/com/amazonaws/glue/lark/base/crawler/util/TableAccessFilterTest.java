@@ -0,0 +1,59 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import com.amazonaws.glue.lark.base.crawler.model.LarkDatabaseRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableAccessFilterTest {
+
+    @Test
+    void testIsAllowed_noListsAllowEverything() {
+        TableAccessFilter filter = TableAccessFilter.compile(null, Set.of());
+
+        assertTrue(filter.isAllowed("tbl1"));
+        assertTrue(filter.isAllowed(null));
+    }
+
+    @Test
+    void testIsAllowed_blacklistWinsOverWhitelist() {
+        TableAccessFilter filter = TableAccessFilter.of(
+                new LarkDatabaseRecord("base", "db", Set.of("tbl1", "tbl2"), Set.of("tbl2")));
+
+        assertTrue(filter.isAllowed("tbl1"));
+        assertFalse(filter.isAllowed("tbl2"));
+        assertFalse(filter.isAllowed("tbl3"));
+        assertFalse(filter.isAllowed(null));
+    }
+
+    @Test
+    void testIsAllowed_globEntries() {
+        TableAccessFilter filter = TableAccessFilter.compile(Set.of("tblSales*"), Set.of("tblSales?Tmp"));
+
+        assertTrue(filter.isAllowed("tblSales2025"));
+        assertFalse(filter.isAllowed("tblSalesXTmp"));
+        assertFalse(filter.isAllowed("tblsales2025"));
+        assertFalse(filter.isAllowed("tblOther"));
+    }
+}
@@ -0,0 +1,88 @@
+/*-
+ * #%L
+ * glue-lark-base-crawler
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.glue.lark.base.crawler.util;
+
+import com.amazonaws.glue.lark.base.crawler.model.response.ListAllTableResponse;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.glue.model.Column;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableFingerprintsTest {
+
+    private static final Column TEXT = Column.builder().name("name").type("string")
+            .comment("LarkBaseId=b/LarkBaseTableId=t1/LarkBaseFieldId=f1/LarkBaseFieldName=name/LarkBaseFieldType=Text").build();
+    private static final Column LOOKUP = Column.builder().name("owner").type("array<string>")
+            .comment("LarkBaseId=b/LarkBaseTableId=t1/LarkBaseFieldId=f2/LarkBaseFieldName=owner/LarkBaseFieldType=Lookup<Text>").build();
+
+    @Test
+    void testSchemaFingerprint_changesWithNameColumnsAndOrder() {
+        String fingerprint = TableFingerprints.schemaFingerprint("orders", List.of(TEXT, LOOKUP));
+
+        assertEquals(32, fingerprint.length());
+        assertEquals(fingerprint, TableFingerprints.schemaFingerprint("orders", List.of(TEXT, LOOKUP)));
+        assertNotEquals(fingerprint, TableFingerprints.schemaFingerprint("orders_v2", List.of(TEXT, LOOKUP)));
+        assertNotEquals(fingerprint, TableFingerprints.schemaFingerprint("orders", List.of(LOOKUP, TEXT)));
+        assertNotEquals(fingerprint, TableFingerprints.schemaFingerprint("orders",
+                List.of(TEXT, LOOKUP.toBuilder().comment(LOOKUP.comment().replace("Lookup<Text>", "Lookup<Number>")).build())));
+    }
+
+    @Test
+    void testDependsOnOtherTables_onlyForLookupColumns() {
+        assertFalse(TableFingerprints.dependsOnOtherTables(List.of(TEXT)));
+        assertTrue(TableFingerprints.dependsOnOtherTables(List.of(TEXT, LOOKUP)));
+    }
+
+    @Test
+    void testKeyFor_lookupTablesDependOnEveryTableOfTheBase() {
+        TableFingerprints.Revisions before = TableFingerprints.revisions(List.of(table("t1", "3"), table("t2", "5")));
+        TableFingerprints.Revisions otherTableMoved = TableFingerprints.revisions(List.of(table("t1", "3"), table("t2", "6")));
+
+        assertEquals(before.keyFor("t1", false), otherTableMoved.keyFor("t1", false));
+        assertNotEquals(before.keyFor("t1", true), otherTableMoved.keyFor("t1", true));
+        assertNotEquals(before.keyFor("t1", false), before.keyFor("t2", false));
+    }
+
+    @Test
+    void testKeyFor_changesWithTheCrawlerSchemaVersion() {
+        TableFingerprints.Revisions revisions = TableFingerprints.revisions(List.of(table("t1", "3"), table("t2", "5")));
+        int current = TableFingerprints.CRAWLER_SCHEMA_VERSION;
+
+        assertEquals(revisions.keyFor("t1", false), revisions.keyFor("t1", false, current));
+        assertNotEquals(revisions.keyFor("t1", false, current), revisions.keyFor("t1", false, current + 1));
+        assertNotEquals(revisions.keyFor("t1", true, current), revisions.keyFor("t1", true, current + 1));
+    }
+
+    @Test
+    void testKeyFor_missingRevisionsGiveNoKey() {
+        TableFingerprints.Revisions revisions = TableFingerprints.revisions(List.of(table("t1", "3"), table("t2", null)));
+
+        assertNotNull(revisions.keyFor("t1", false));
+        assertNull(revisions.keyFor("t1", true));
+        assertNull(revisions.keyFor("t2", false));
+        assertNull(revisions.keyFor("unknown", false));
+    }
+
+    private static ListAllTableResponse.BaseItem table(String tableId, String revision) {
+        return ListAllTableResponse.BaseItem.builder().tableId(tableId).revision(revision).name(tableId).build();
+    }
+}
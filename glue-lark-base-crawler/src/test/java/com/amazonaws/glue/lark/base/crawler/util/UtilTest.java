@@ -165,6 +165,24 @@ class UtilTest {
         assertTrue(Util.doesGlueDatabasesNameValid(List.of("same_name", "same_name")));
     }
 
+    @Test
+    void parsePositiveInt() {
+        assertEquals(4, Util.parsePositiveInt(" 4 ", 8));
+        assertEquals(8, Util.parsePositiveInt(null, 8));
+        assertEquals(8, Util.parsePositiveInt("", 8));
+        assertEquals(8, Util.parsePositiveInt("0", 8));
+        assertEquals(8, Util.parsePositiveInt("-3", 8));
+        assertEquals(8, Util.parsePositiveInt("2.5", 8));
+    }
+
+    @Test
+    void parsePositiveLong() {
+        assertEquals(5_000_000_000L, Util.parsePositiveLong("5000000000", 60L));
+        assertEquals(60L, Util.parsePositiveLong(null, 60L));
+        assertEquals(60L, Util.parsePositiveLong("0", 60L));
+        assertEquals(60L, Util.parsePositiveLong("soon", 60L));
+    }
+
     @Test
     void sanitizeGlueRelatedName() {
         assertEquals("test_name_123", Util.sanitizeGlueRelatedName("test-name-123"));